@@ -0,0 +1,8 @@
+#!/bin/sh
+# Compile le projet et les benchmarks JMH, puis les exécute.
+# Les arguments sont transmis à JMH, par exemple : ./benchmarks/executer.sh CatalogueBenchmark -p tailleCatalogue=10
+set -e
+cd "$(dirname "$0")/.."
+mvn -B -q install -DskipTests
+mvn -B -q -f benchmarks/pom.xml package
+java -jar benchmarks/target/benchmarks.jar -rf json -rff benchmarks/target/resultats.json "$@"
@@ -0,0 +1,149 @@
+package com.distributeur.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.distributeur.Boisson;
+import com.distributeur.Coupure;
+import com.distributeur.DemandeAchat;
+import com.distributeur.Distributeur;
+import com.distributeur.Montant;
+import com.distributeur.ResultatAchat;
+import com.distributeur.StockMonnaie;
+import com.distributeur.Transaction;
+import com.distributeur.Utilisateur;
+
+/**
+ * Coût de {@link Distributeur#acheterBoisson(int, Montant)} pour la vente réussie et
+ * pour chaque cause d'échec, et d'un lot de {@value #TAILLE_LOT} ventes par
+ * {@link Distributeur#acheterBoissons(List)} comparé à autant d'appels unitaires
+ * (temps rapporté par vente), et du règlement d'une vente depuis un portefeuille par
+ * {@link Distributeur#reglerAchat(Utilisateur, int)}, et d'une vente avec rendu de la
+ * monnaie depuis un {@link StockMonnaie}, par le glouton ou par la programmation
+ * dynamique. Le distributeur est recréé à chaque itération, pour
+ * que le journal des ventes ne grossisse pas indéfiniment.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AchatBenchmark {
+    private static final int COCA = 1;
+    private static final int EPUISEE = 2;
+    private static final int JUS = 3;
+    private static final int INCONNUE = 99;
+    private static final int TAILLE_LOT = 100;
+
+    private final Montant billet = Montant.deFcfa(1000);
+    private final Montant piece = Montant.deFcfa(100);
+
+    private final List<DemandeAchat> lot = new ArrayList<>();
+
+    private Distributeur distributeur;
+    private Distributeur distributeurMonnaie;
+    private final Montant billet10000 = Montant.deFcfa(10000);
+    private Utilisateur utilisateur;
+
+    @Setup(Level.Iteration)
+    public void preparer() {
+        distributeur = new Distributeur();
+        distributeur.ajouterBoisson(new Boisson(COCA, "Coca-Cola", 650, Integer.MAX_VALUE));
+        distributeur.ajouterBoisson(new Boisson(EPUISEE, "Eau minérale", 500, 0));
+        utilisateur = new Utilisateur(1, "Client", Montant.deCentimes(Long.MAX_VALUE / 2));
+
+        // Une seule pièce de 250 et pas de 100 ni de 50 : le glouton rend 500 ou 9500, mais échoue
+        // à rendre 9400 (5000 + 2000 + 2000 + 250, reste 150) que la programmation dynamique rend
+        distributeurMonnaie = new Distributeur();
+        distributeurMonnaie.ajouterBoisson(new Boisson(COCA, "Coca-Cola", 500, Integer.MAX_VALUE));
+        distributeurMonnaie.ajouterBoisson(new Boisson(JUS, "Jus d'orange", 600, Integer.MAX_VALUE));
+        StockMonnaie monnaie = new StockMonnaie();
+        monnaie.ajouter(Coupure.PIECE_250, 1);
+        monnaie.ajouter(Coupure.PIECE_200, Integer.MAX_VALUE / 2);
+        monnaie.ajouter(Coupure.PIECE_500, Integer.MAX_VALUE / 2);
+        monnaie.ajouter(Coupure.BILLET_1000, Integer.MAX_VALUE / 2);
+        monnaie.ajouter(Coupure.BILLET_2000, Integer.MAX_VALUE / 2);
+        monnaie.ajouter(Coupure.BILLET_5000, Integer.MAX_VALUE / 2);
+        distributeurMonnaie.activerRenduMonnaie(monnaie);
+        lot.clear();
+        for (int i = 0; i < TAILLE_LOT; i++) {
+            lot.add(new DemandeAchat(COCA, billet));
+        }
+    }
+
+    @Benchmark
+    public Transaction venteReussie() {
+        return distributeur.acheterBoisson(COCA, billet);
+    }
+
+    @Benchmark
+    public Transaction boissonInconnue() {
+        return distributeur.acheterBoisson(INCONNUE, billet);
+    }
+
+    @Benchmark
+    public Transaction ruptureDeStock() {
+        return distributeur.acheterBoisson(EPUISEE, billet);
+    }
+
+    @Benchmark
+    public Transaction montantInsuffisant() {
+        return distributeur.acheterBoisson(COCA, piece);
+    }
+
+    @Benchmark
+    public ResultatAchat refusBoissonInconnue() {
+        return distributeur.tenterAchat(INCONNUE, billet);
+    }
+
+    @Benchmark
+    public ResultatAchat refusMontantInsuffisant() {
+        return distributeur.tenterAchat(COCA, piece);
+    }
+
+    @Benchmark
+    public ResultatAchat venteRenduGlouton() {
+        return distributeurMonnaie.tenterAchat(COCA, billet);
+    }
+
+    @Benchmark
+    public ResultatAchat venteRenduProgrammationDynamique() {
+        return distributeurMonnaie.tenterAchat(JUS, billet10000);
+    }
+
+    @Benchmark
+    public ResultatAchat reglementPortefeuille() {
+        return distributeur.reglerAchat(utilisateur, COCA);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TAILLE_LOT)
+    public Transaction ventesEnBoucle() {
+        Transaction derniere = null;
+        for (int i = 0; i < TAILLE_LOT; i++) {
+            derniere = distributeur.acheterBoisson(COCA, billet);
+        }
+        return derniere;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TAILLE_LOT)
+    public List<Transaction> ventesParLot() {
+        return distributeur.acheterBoissons(lot);
+    }
+}
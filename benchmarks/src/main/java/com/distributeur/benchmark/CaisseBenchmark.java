@@ -0,0 +1,45 @@
+package com.distributeur.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.distributeur.Caisse;
+import com.distributeur.Montant;
+import com.distributeur.Portefeuille;
+
+/**
+ * Encaissements concurrents sur une même caisse, depuis 4 threads : caisse répartie
+ * en cellules ({@link Caisse}) comparée à un portefeuille synchronisé.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class CaisseBenchmark {
+    private final Montant prix = Montant.deFcfa(650);
+    private final Caisse caisse = new Caisse();
+    private final Portefeuille portefeuille = new Portefeuille();
+
+    @Benchmark
+    public void caisseRepartie() {
+        caisse.ajouterFonds(prix);
+    }
+
+    @Benchmark
+    public void portefeuilleSynchronise() {
+        portefeuille.ajouterFonds(prix);
+    }
+}
@@ -0,0 +1,82 @@
+package com.distributeur.benchmark;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.distributeur.Boisson;
+import com.distributeur.Distributeur;
+
+/**
+ * Recherche par ID et liste des boissons disponibles, pour des catalogues de 10 à
+ * 100 000 boissons dont une sur deux est en rupture de stock.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CatalogueBenchmark {
+    private static final int NOMBRE_RECHERCHES = 1024;
+
+    @Param({"10", "100", "1000", "10000", "100000"})
+    int tailleCatalogue;
+
+    private Distributeur distributeur;
+    private int[] ids;
+    private int prochain;
+
+    @Setup
+    public void preparer() {
+        distributeur = new Distributeur();
+        for (int i = 0; i < tailleCatalogue; i++) {
+            // IDs épars, comme un catalogue réel
+            distributeur.ajouterBoisson(new Boisson(i * 7 + 3, "Boisson " + i, 500, i % 2));
+        }
+        SplittableRandom aleatoire = new SplittableRandom(42);
+        ids = new int[NOMBRE_RECHERCHES];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = aleatoire.nextInt(tailleCatalogue) * 7 + 3;
+        }
+    }
+
+    @Benchmark
+    public Boisson rechercherBoisson() {
+        int id = ids[prochain++ & (NOMBRE_RECHERCHES - 1)];
+        return distributeur.rechercherBoisson(id);
+    }
+
+    @Benchmark
+    public Boisson rechercherBoissonAbsente() {
+        return distributeur.rechercherBoisson(-1);
+    }
+
+    @Benchmark
+    public List<Boisson> afficherBoissonsDisponibles() {
+        return distributeur.afficherBoissonsDisponibles();
+    }
+
+    @Benchmark
+    public void pourChaqueBoissonDisponible(Blackhole trou) {
+        distributeur.pourChaqueBoissonDisponible(trou::consume);
+    }
+
+    @Benchmark
+    public boolean aDesBoissonsDisponibles() {
+        return distributeur.aDesBoissonsDisponibles();
+    }
+}
@@ -0,0 +1,87 @@
+package com.distributeur.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.distributeur.Boisson;
+import com.distributeur.Distributeur;
+import com.distributeur.JournalDisque;
+
+/**
+ * Temps de démarrage d'un distributeur persistant en fonction de la taille du journal,
+ * avec ou sans instantané. Avec instantané, seules les {@link #VENTES_APRES_INSTANTANE}
+ * dernières ventes sont relues : le temps doit rester à peu près constant.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DemarrageBenchmark {
+    /** Nombre de ventes écrites après l'instantané. */
+    static final int VENTES_APRES_INSTANTANE = 1000;
+
+    @Param({"10000", "100000", "1000000"})
+    int nombreVentes;
+
+    @Param({"false", "true"})
+    boolean avecInstantane;
+
+    private Path repertoire;
+
+    @Setup(Level.Trial)
+    public void preparer() throws IOException {
+        repertoire = Files.createTempDirectory("demarrage-benchmark");
+        Distributeur distributeur = creerDistributeur();
+        distributeur.activerPersistance(new JournalDisque(repertoire, JournalDisque.TAILLE_SEGMENT_DEFAUT, 0));
+        for (int i = 0; i < nombreVentes; i++) {
+            if (avecInstantane && i == nombreVentes - VENTES_APRES_INSTANTANE) {
+                distributeur.creerInstantane();
+            }
+            distributeur.acheterBoisson(1 + i % 10, 1000);
+        }
+        distributeur.fermerPersistance();
+    }
+
+    @TearDown(Level.Trial)
+    public void nettoyer() throws IOException {
+        try (Stream<Path> fichiers = Files.walk(repertoire)) {
+            fichiers.sorted(Comparator.reverseOrder()).forEach(f -> f.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public Distributeur demarrer() throws IOException {
+        Distributeur distributeur = creerDistributeur();
+        distributeur.activerPersistance(new JournalDisque(repertoire, JournalDisque.TAILLE_SEGMENT_DEFAUT, 0));
+        distributeur.fermerPersistance();
+        return distributeur;
+    }
+
+    private static Distributeur creerDistributeur() {
+        Distributeur distributeur = new Distributeur();
+        for (int id = 1; id <= 10; id++) {
+            distributeur.ajouterBoisson(new Boisson(id, "Boisson " + id, 500, Integer.MAX_VALUE / 2));
+        }
+        return distributeur;
+    }
+}
@@ -0,0 +1,75 @@
+package com.distributeur.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.distributeur.Boisson;
+import com.distributeur.ExportVentes;
+import com.distributeur.FiltreVentes;
+import com.distributeur.JournalVentes;
+import com.distributeur.Montant;
+import com.distributeur.Transaction;
+
+/**
+ * Export complet d'un historique d'un million de ventes vers un fichier, en CSV et
+ * au format binaire. Le débit en lignes par seconde est le nombre de ventes divisé
+ * par le temps d'un export.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ExportBenchmark {
+    private static final int NOMBRE_TRANSACTIONS = 1_000_000;
+
+    private JournalVentes journal;
+    private Path fichier;
+
+    @Setup
+    public void preparer() throws IOException {
+        journal = new JournalVentes();
+        Boisson boisson = new Boisson(1, "Coca-Cola", 650, 0);
+        Montant billet = Montant.deFcfa(1000);
+        Montant monnaie = Montant.deFcfa(350);
+        LocalDateTime origine = LocalDate.of(2024, 1, 1).atStartOfDay();
+        for (int i = 0; i < NOMBRE_TRANSACTIONS; i++) {
+            boolean reussie = i % 10 != 0;
+            journal.ajouterTransaction(new Transaction(i, boisson, billet, reussie ? monnaie : billet,
+                    origine.plusSeconds(i * 30L), reussie));
+        }
+        fichier = Files.createTempFile("export-ventes", ".dat");
+    }
+
+    @TearDown
+    public void nettoyer() throws IOException {
+        Files.deleteIfExists(fichier);
+    }
+
+    @Benchmark
+    public long exporterCsv() throws IOException {
+        return ExportVentes.exporterCsv(journal, FiltreVentes.tout(), ExportVentes.DEBUT, fichier);
+    }
+
+    @Benchmark
+    public long exporterBinaire() throws IOException {
+        return ExportVentes.exporterBinaire(journal, FiltreVentes.tout(), ExportVentes.DEBUT, fichier);
+    }
+}
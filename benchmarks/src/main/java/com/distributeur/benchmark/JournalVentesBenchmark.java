@@ -0,0 +1,94 @@
+package com.distributeur.benchmark;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.distributeur.Boisson;
+import com.distributeur.JournalVentes;
+import com.distributeur.Montant;
+import com.distributeur.Transaction;
+import com.distributeur.VentesBoisson;
+
+/**
+ * Agrégations et requêtes du journal des ventes sur un historique d'au moins un
+ * million de transactions réparties sur une année.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class JournalVentesBenchmark {
+    private static final int NOMBRE_JOURS = 365;
+
+    @Param({"1000000", "4000000"})
+    int nombreTransactions;
+
+    private JournalVentes journal;
+    private LocalDate jourCible;
+    private LocalDateTime debutSemaine;
+    private LocalDateTime finSemaine;
+
+    @Setup
+    public void preparer() {
+        journal = new JournalVentes();
+        Boisson boisson = new Boisson(1, "Coca-Cola", 650, 0);
+        Montant billet = Montant.deFcfa(1000);
+        Montant monnaie = Montant.deFcfa(350);
+        LocalDateTime origine = LocalDate.of(2024, 1, 1).atStartOfDay();
+        long pasSecondes = NOMBRE_JOURS * 86_400L / nombreTransactions;
+        for (int i = 0; i < nombreTransactions; i++) {
+            boolean reussie = i % 10 != 0;
+            journal.ajouterTransaction(new Transaction(i, boisson, billet, reussie ? monnaie : billet,
+                    origine.plusSeconds(i * pasSecondes), reussie));
+        }
+        jourCible = origine.toLocalDate().plusDays(NOMBRE_JOURS / 2);
+        debutSemaine = jourCible.atTime(12, 0);
+        finSemaine = debutSemaine.plusDays(7);
+    }
+
+    @Benchmark
+    public Montant chiffreAffaires() {
+        return journal.getChiffreAffaires();
+    }
+
+    @Benchmark
+    public Montant chiffreAffairesParDate() {
+        return journal.getChiffreAffairesParDate(jourCible);
+    }
+
+    @Benchmark
+    public List<VentesBoisson> meilleuresVentes() {
+        return journal.getMeilleuresVentes(10);
+    }
+
+    @Benchmark
+    public int nombreTransactionsReussies() {
+        return journal.getNombreTransactionsReussies();
+    }
+
+    @Benchmark
+    public List<Transaction> transactionsParDate() {
+        return journal.getTransactionsParDate(jourCible);
+    }
+
+    @Benchmark
+    public List<Transaction> transactionsSurUneSemaine() {
+        return journal.getTransactionsEntre(debutSemaine, finSemaine);
+    }
+}
@@ -0,0 +1,97 @@
+package com.distributeur.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.distributeur.Montant;
+import com.distributeur.Portefeuille;
+import com.distributeur.RegistreUtilisateurs;
+
+/**
+ * Registre d'un million d'utilisateurs : lecture et débit d'un solde pris au hasard,
+ * comparés à une table de portefeuilles, et import d'un CSV d'un million de recharges.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class RegistreBenchmark {
+    private static final int NOMBRE_UTILISATEURS = 1_000_000;
+
+    private final Montant prix = Montant.deCentimes(1);
+    private RegistreUtilisateurs registre;
+    private Map<Integer, Portefeuille> portefeuilles;
+    private Path recharges;
+    private int suivant;
+
+    @Setup
+    public void preparer() throws IOException {
+        registre = new RegistreUtilisateurs(NOMBRE_UTILISATEURS);
+        portefeuilles = new HashMap<>();
+        StringBuilder csv = new StringBuilder(RegistreUtilisateurs.EN_TETE_CSV).append('\n');
+        for (int i = 0; i < NOMBRE_UTILISATEURS; i++) {
+            int id = 100_000 + i * 7;
+            registre.inscrire(id, Montant.deFcfa(1_000_000));
+            portefeuilles.put(id, new Portefeuille(Montant.deFcfa(1_000_000)));
+            csv.append(id).append(",500\n");
+        }
+        recharges = Files.createTempFile("recharges", ".csv");
+        Files.write(recharges, csv.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @TearDown
+    public void nettoyer() throws IOException {
+        Files.deleteIfExists(recharges);
+    }
+
+    private int identifiant() {
+        // Parcours pseudo-aléatoire des utilisateurs : pas à pas premier avec le nombre d'utilisateurs
+        suivant = (suivant + 382_927) % NOMBRE_UTILISATEURS;
+        return 100_000 + suivant * 7;
+    }
+
+    @Benchmark
+    public Montant soldeRegistre() {
+        return registre.getSolde(identifiant());
+    }
+
+    @Benchmark
+    public Montant soldePortefeuilles() {
+        return portefeuilles.get(identifiant()).getSolde();
+    }
+
+    @Benchmark
+    public boolean debitRegistre() {
+        return registre.retirerFonds(identifiant(), prix);
+    }
+
+    @Benchmark
+    public boolean debitPortefeuilles() {
+        return portefeuilles.get(identifiant()).retirerFonds(prix);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int importRecharges() throws IOException {
+        return registre.importerRecharges(recharges);
+    }
+}
@@ -0,0 +1,70 @@
+package com.distributeur.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.distributeur.Boisson;
+import com.distributeur.Horloge;
+import com.distributeur.HorlogeCachee;
+import com.distributeur.Montant;
+import com.distributeur.Transaction;
+
+/**
+ * Coût de construction d'une {@link Transaction} et de la lecture de l'heure.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionBenchmark {
+    private final Boisson boisson = new Boisson(1, "Coca-Cola", 650, 10);
+    private final Montant billet = Montant.deFcfa(1000);
+    private final Montant monnaie = Montant.deFcfa(350);
+
+    private final Horloge horlogeSysteme = Horloge.systeme();
+    private HorlogeCachee horlogeCachee;
+
+    @Setup
+    public void preparer() {
+        horlogeCachee = new HorlogeCachee(10);
+    }
+
+    @TearDown
+    public void terminer() {
+        horlogeCachee.close();
+    }
+
+    @Benchmark
+    public Transaction construireTransaction() {
+        return new Transaction(boisson, billet, monnaie, true);
+    }
+
+    @Benchmark
+    public LocalDateTime localDateTimeNow() {
+        return LocalDateTime.now();
+    }
+
+    @Benchmark
+    public long horlogeSysteme() {
+        return horlogeSysteme.millisecondes();
+    }
+
+    @Benchmark
+    public long horlogeCachee() {
+        return horlogeCachee.millisecondes();
+    }
+}
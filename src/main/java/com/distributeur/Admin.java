@@ -1,6 +1,7 @@
 package com.distributeur;
 
 import java.util.List;
+import java.util.TreeMap;
 
 /**
  * Classe représentant un administrateur du distributeur automatique.
@@ -25,6 +26,17 @@ public class Admin extends Utilisateur {
      * @param nom           Nom de l'administrateur
      * @param soldeInitial  Solde initial du portefeuille
      */
+    public Admin(int id, String nom, Montant soldeInitial) {
+        super(id, nom, soldeInitial);
+    }
+
+    /**
+     * Constructeur de la classe Admin avec un solde initial saisi en FCFA.
+     * 
+     * @param id            Identifiant unique de l'administrateur
+     * @param nom           Nom de l'administrateur
+     * @param soldeInitial  Solde initial du portefeuille en FCFA
+     */
     public Admin(int id, String nom, double soldeInitial) {
         super(id, nom, soldeInitial);
     }
@@ -46,20 +58,38 @@ public class Admin extends Utilisateur {
 
     /**
      * Collecte les fonds du distributeur et les ajoute au portefeuille de l'administrateur.
+     * La caisse est vidée en une seule opération : le montant collecté est exactement
+     * celui retiré, y compris les ventes conclues pendant la collecte.
      * 
      * @param distributeur  Le distributeur dont on collecte les fonds
      * @return Le montant collecté
      */
-    public double collecterFonds(Distributeur distributeur) {
+    public Montant collecterFonds(Distributeur distributeur) {
         if (distributeur == null) {
-            return 0.0;
+            return Montant.ZERO;
         }
-        double montant = distributeur.getMontantCaisse();
+        Montant montant = distributeur.viderCaisse();
         this.ajouterFonds(montant);
-        distributeur.viderCaisse();
         return montant;
     }
 
+    /**
+     * Collecte les fonds de toutes les machines d'une flotte et ajoute leur total au
+     * portefeuille de l'administrateur. Les caisses sont vidées en parallèle, sans
+     * interrompre les ventes (voir {@link Flotte#collecterFonds()}).
+     * 
+     * @param flotte  La flotte dont on collecte les fonds
+     * @return Le montant collecté sur chaque machine et leur total
+     */
+    public CollecteFonds collecterFonds(Flotte flotte) {
+        if (flotte == null) {
+            return new CollecteFonds(new TreeMap<>());
+        }
+        CollecteFonds collecte = flotte.collecterFonds();
+        this.ajouterFonds(collecte.getTotal());
+        return collecte;
+    }
+
     /**
      * Consulte l'historique des ventes du distributeur.
      * 
@@ -73,6 +103,36 @@ public class Admin extends Utilisateur {
         return distributeur.getHistoriqueVentes();
     }
 
+    /**
+     * Consulte une page de l'historique des ventes du distributeur.
+     * 
+     * @param distributeur  Le distributeur dont on consulte les ventes
+     * @param filtre        Le filtre des ventes
+     * @param curseur       {@link PageVentes#DEBUT}, ou le curseur suivant de la page précédente
+     * @param taille        Le nombre maximal de ventes de la page
+     * @return La page de ventes, vide si le distributeur est null
+     */
+    public PageVentes consulterVentes(Distributeur distributeur, FiltreVentes filtre, long curseur, int taille) {
+        if (distributeur == null) {
+            return new PageVentes(List.of(), PageVentes.FIN);
+        }
+        return distributeur.getJournal().getPage(filtre, curseur, taille);
+    }
+
+    /**
+     * Consulte les métriques du distributeur : latences, échecs d'achat par motif,
+     * stocks et solde de la caisse.
+     * 
+     * @param distributeur  Le distributeur dont on consulte les métriques
+     * @return Le rapport texte des métriques, vide si le distributeur est null
+     */
+    public String consulterMetriques(Distributeur distributeur) {
+        if (distributeur == null) {
+            return "";
+        }
+        return distributeur.getMetriques().exporterTexte();
+    }
+
     @Override
     public String toString() {
         return "Admin " + super.toString();
@@ -1,13 +1,22 @@
 package com.distributeur;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Classe représentant une boisson disponible dans le distributeur automatique.
+ * Le stock est un compteur atomique : plusieurs terminaux peuvent le décrémenter
+ * en parallèle sans jamais vendre une unité qui n'existe pas.
+ * Quand le stock passe par zéro, le distributeur qui contient la boisson en est
+ * prévenu (voir {@link DisponibiliteBoissons}). Une boisson n'appartient qu'à un seul
+ * distributeur : elle ne peut pas être ajoutée à un second.
  */
 public class Boisson {
-    private int id;
-    private String nom;
-    private double prix;
-    private int quantiteStock;
+    private final int id;
+    private final String nom;
+    private final Montant prix;
+    private final AtomicInteger quantiteStock;
+    private volatile SuiviStock suivi;
+    private int position;
 
     /**
      * Constructeur de la classe Boisson.
@@ -17,11 +26,23 @@ public class Boisson {
      * @param prix          Prix de la boisson
      * @param quantiteStock Quantité initiale en stock
      */
-    public Boisson(int id, String nom, double prix, int quantiteStock) {
+    public Boisson(int id, String nom, Montant prix, int quantiteStock) {
         this.id = id;
         this.nom = nom;
         this.prix = prix;
-        this.quantiteStock = quantiteStock;
+        this.quantiteStock = new AtomicInteger(quantiteStock);
+    }
+
+    /**
+     * Constructeur de la classe Boisson avec un prix saisi en FCFA.
+     * 
+     * @param id            Identifiant unique de la boisson
+     * @param nom           Nom de la boisson
+     * @param prix          Prix de la boisson en FCFA, arrondi au centime
+     * @param quantiteStock Quantité initiale en stock
+     */
+    public Boisson(int id, String nom, double prix, int quantiteStock) {
+        this(id, nom, Montant.deFcfa(prix), quantiteStock);
     }
 
     /**
@@ -47,7 +68,7 @@ public class Boisson {
      * 
      * @return Le prix de la boisson
      */
-    public double getPrix() {
+    public Montant getPrix() {
         return prix;
     }
 
@@ -57,7 +78,7 @@ public class Boisson {
      * @return La quantité en stock
      */
     public int getQuantiteStock() {
-        return quantiteStock;
+        return quantiteStock.get();
     }
 
     /**
@@ -67,8 +88,25 @@ public class Boisson {
      */
     public void setQuantiteStock(int quantite) {
         if (quantite >= 0) {
-            this.quantiteStock = quantite;
+            int ancienne = this.quantiteStock.getAndSet(quantite);
+            if (ancienne != quantite) {
+                signalerModification((ancienne > 0) != (quantite > 0));
+            }
+        }
+    }
+
+    /**
+     * Augmente atomiquement la quantité en stock de la boisson.
+     * 
+     * @param quantite La quantité à ajouter
+     * @return true si le stock a été augmenté, false si la quantité n'est pas positive
+     */
+    public boolean augmenterStock(int quantite) {
+        if (quantite <= 0) {
+            return false;
         }
+        signalerModification(quantiteStock.getAndAdd(quantite) <= 0);
+        return true;
     }
 
     /**
@@ -77,26 +115,59 @@ public class Boisson {
      * @return true si la boisson est disponible, false sinon
      */
     public boolean estDisponible() {
-        return quantiteStock > 0;
+        return quantiteStock.get() > 0;
     }
 
     /**
      * Diminue le stock de la boisson de 1 unité si elle est disponible.
+     * La vérification et la décrémentation forment une seule opération atomique (CAS) :
+     * deux achats concurrents ne peuvent pas se partager la dernière unité.
      * 
      * @return true si le stock a été diminué, false si la boisson n'est pas disponible
      */
     public boolean diminuerStock() {
-        if (estDisponible()) {
-            quantiteStock--;
-            return true;
+        int stock = quantiteStock.get();
+        while (stock > 0) {
+            if (quantiteStock.compareAndSet(stock, stock - 1)) {
+                signalerModification(stock == 1);
+                return true;
+            }
+            stock = quantiteStock.get();
         }
         return false;
     }
 
+    /**
+     * Fait suivre les variations de stock de la boisson par son distributeur.
+     * 
+     * @param suivi    Le suivi à prévenir après chaque modification du stock
+     * @param position La position de la boisson dans son distributeur
+     * @throws IllegalStateException si la boisson est déjà suivie
+     */
+    synchronized void surveiller(SuiviStock suivi, int position) {
+        if (this.suivi != null) {
+            throw new IllegalStateException("La boisson " + id + " appartient déjà à un distributeur");
+        }
+        this.position = position;
+        this.suivi = suivi;
+    }
+
+    /**
+     * Retourne la position de la boisson dans son distributeur, une fois suivie.
+     */
+    int getPosition() {
+        return position;
+    }
+
+    private void signalerModification(boolean passageParZero) {
+        SuiviStock courant = suivi;
+        if (courant != null) {
+            courant.stockModifie(position, this, passageParZero);
+        }
+    }
+
     @Override
     public String toString() {
-        // Formater le prix sans décimales si c'est un nombre entier
-        String prixFormate = (prix == (int) prix) ? String.valueOf((int) prix) : String.valueOf(prix);
-        return id + " - " + nom + " - " + prixFormate + " FCFA (Stock: " + quantiteStock + ")";
+        return id + " - " + nom + " - " + prix + " FCFA (Stock: " + quantiteStock.get() + ")";
     }
 }
\ No newline at end of file
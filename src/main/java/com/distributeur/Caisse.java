@@ -0,0 +1,122 @@
+package com.distributeur;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Caisse d'un distributeur, répartie en cellules pour que les encaissements
+ * concurrents ne se disputent pas un même compteur.
+ * <p>
+ * Le solde est tenu en centimes (voir {@link Montant}), réparti sur une cellule par
+ * cœur de processeur, à la manière d'un {@link java.util.concurrent.atomic.LongAdder}.
+ * Chaque encaissement est une seule addition atomique, sans verrou ni boucle de
+ * nouvelle tentative, sur la cellule du thread appelant ; les cellules sont espacées
+ * d'une ligne de cache pour éviter le faux partage.
+ * <p>
+ * {@link #vider()} remet chaque cellule à zéro par un échange atomique : un
+ * encaissement concurrent est compté soit dans le montant retourné, soit dans le solde
+ * restant, jamais dans les deux ni dans aucun. {@link #getSolde()} additionne les
+ * cellules sans les figer : pendant des encaissements concurrents, le solde retourné
+ * est compris entre le solde au début et le solde à la fin de la lecture.
+ */
+public final class Caisse {
+    // 16 longs, soit 128 octets : deux cellules ne partagent jamais une ligne de cache
+    private static final int ECART = 16;
+
+    private final AtomicLongArray cellules;
+    private final int masque;
+
+    /**
+     * Constructeur initialisant une caisse vide, avec une cellule par cœur de processeur.
+     */
+    public Caisse() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructeur initialisant une caisse vide.
+     *
+     * @param nombreCellules Le nombre minimal de cellules, arrondi à la puissance de 2 supérieure
+     * @throws IllegalArgumentException si le nombre de cellules n'est pas positif
+     */
+    public Caisse(int nombreCellules) {
+        if (nombreCellules <= 0 || nombreCellules > 1 << 16) {
+            throw new IllegalArgumentException("Nombre de cellules invalide : " + nombreCellules);
+        }
+        int taille = Integer.highestOneBit(nombreCellules - 1) << 1;
+        this.masque = Math.max(taille, 1) - 1;
+        this.cellules = new AtomicLongArray((masque + 1) * ECART);
+    }
+
+    /**
+     * Retourne le nombre de cellules de la caisse.
+     *
+     * @return Le nombre de cellules
+     */
+    public int getNombreCellules() {
+        return masque + 1;
+    }
+
+    /**
+     * Retourne le solde de la caisse, somme de ses cellules.
+     *
+     * @return Le solde
+     */
+    public Montant getSolde() {
+        long total = 0;
+        for (int i = 0; i <= masque; i++) {
+            total += cellules.get(i * ECART);
+        }
+        return Montant.deCentimes(total);
+    }
+
+    /**
+     * Encaisse un montant, sur la cellule du thread appelant.
+     *
+     * @param montant Le montant à ajouter
+     * @throws IllegalArgumentException si le montant est négatif
+     */
+    public void ajouterFonds(Montant montant) {
+        if (montant.estNegatif()) {
+            throw new IllegalArgumentException("Le montant à ajouter ne peut pas être négatif");
+        }
+        cellules.getAndAdd(cellule(), montant.getCentimes());
+    }
+
+    /**
+     * Retire un montant sans vérifier le solde, pour rejouer un retrait déjà effectué.
+     * Une cellule peut devenir négative ; seul le solde total a un sens.
+     *
+     * @param montant Le montant à retirer
+     */
+    void retirer(Montant montant) {
+        cellules.getAndAdd(cellule(), -montant.getCentimes());
+    }
+
+    /**
+     * Vide la caisse : chaque cellule est lue et remise à zéro en une seule opération atomique.
+     *
+     * @return Le montant retiré de la caisse
+     */
+    public Montant vider() {
+        long total = 0;
+        for (int i = 0; i <= masque; i++) {
+            total += cellules.getAndSet(i * ECART, 0);
+        }
+        return Montant.deCentimes(total);
+    }
+
+    /**
+     * Remet toutes les cellules à zéro, sans retourner leur somme.
+     */
+    public void reinitialiser() {
+        for (int i = 0; i <= masque; i++) {
+            cellules.set(i * ECART, 0);
+        }
+    }
+
+    private int cellule() {
+        // Mélange de l'identifiant du thread : des threads créés à la suite tombent sur des cellules éloignées
+        long h = Thread.currentThread().getId() * 0x9E3779B97F4A7C15L;
+        return ((int) (h >>> 32) & masque) * ECART;
+    }
+}
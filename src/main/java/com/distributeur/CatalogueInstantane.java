@@ -0,0 +1,111 @@
+package com.distributeur;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Version immuable du catalogue d'un distributeur : l'état de chaque boisson, stock
+ * compris, tel que lu à la construction de la version.
+ * <p>
+ * Le stock de chaque boisson reste tenu par la boisson elle-même : une vente ne fait
+ * que compter une modification, sans rien copier. Une version n'est construite qu'à la
+ * lecture, et seulement si une boisson a été ajoutée ou un stock modifié depuis la
+ * précédente ; sinon la même version est retournée. Les états dont le stock n'a pas
+ * changé sont repris de la version précédente. Chaque état est un stock qu'a eu sa
+ * boisson ; des ventes concurrentes à la construction peuvent être vues pour une
+ * boisson et pas encore pour une autre.
+ * <p>
+ * La recherche d'un état par identifiant passe par l'index du distributeur
+ * ({@link IndexBoissons}) et est en O(1).
+ */
+public final class CatalogueInstantane {
+    private final long version;
+    private final long marque;
+    private final IndexBoissons index;
+    private final Boisson[] boissons;
+    private final EtatBoisson[] etats;
+
+    private CatalogueInstantane(long version, long marque, IndexBoissons index, Boisson[] boissons,
+                                EtatBoisson[] etats) {
+        this.version = version;
+        this.marque = marque;
+        this.index = index;
+        this.boissons = boissons;
+        this.etats = etats;
+    }
+
+    /**
+     * Retourne la version vide d'un catalogue.
+     */
+    static CatalogueInstantane vide(IndexBoissons index) {
+        return new CatalogueInstantane(0, 0, index, new Boisson[0], new EtatBoisson[0]);
+    }
+
+    /**
+     * Retourne le numéro de version, incrémenté à chaque version construite.
+     *
+     * @return Le numéro de version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Retourne le nombre de boissons du catalogue.
+     *
+     * @return Le nombre de boissons
+     */
+    public int getNombreBoissons() {
+        return etats.length;
+    }
+
+    /**
+     * Retourne l'état de chaque boisson, dans l'ordre d'ajout.
+     *
+     * @return Une vue non modifiable des états
+     */
+    public List<EtatBoisson> getBoissons() {
+        return Collections.unmodifiableList(Arrays.asList(etats));
+    }
+
+    /**
+     * Recherche l'état d'une boisson par son ID.
+     *
+     * @param idBoisson L'ID de la boisson
+     * @return L'état de la boisson, null si elle n'est pas au catalogue
+     */
+    public EtatBoisson getEtat(int idBoisson) {
+        Boisson boisson = index.get(idBoisson);
+        if (boisson == null) {
+            return null;
+        }
+        // Une boisson ajoutée après cette version n'y a pas sa place
+        int position = boisson.getPosition();
+        return position < boissons.length && boissons[position] == boisson ? etats[position] : null;
+    }
+
+    /**
+     * Retourne le nombre de modifications comptées par le distributeur à la lecture des stocks.
+     */
+    long getMarque() {
+        return marque;
+    }
+
+    /**
+     * Construit la version suivante à partir des stocks courants. Les états inchangés
+     * sont repris de cette version.
+     *
+     * @param marque   Le nombre de modifications comptées, lu avant les stocks
+     * @param courantes Les boissons du distributeur, dans l'ordre d'ajout
+     */
+    CatalogueInstantane actualiser(long marque, Boisson[] courantes) {
+        EtatBoisson[] nouveauxEtats = new EtatBoisson[courantes.length];
+        for (int i = 0; i < courantes.length; i++) {
+            int stock = courantes[i].getQuantiteStock();
+            nouveauxEtats[i] = i < etats.length && etats[i].getQuantiteStock() == stock
+                    ? etats[i] : new EtatBoisson(courantes[i], stock);
+        }
+        return new CatalogueInstantane(version + 1, marque, index, courantes, nouveauxEtats);
+    }
+}
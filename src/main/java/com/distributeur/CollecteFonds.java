@@ -0,0 +1,75 @@
+package com.distributeur;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.NavigableMap;
+
+/**
+ * Bilan d'une collecte des fonds sur une flotte, retourné par
+ * {@link Flotte#collecterFonds()} : le montant retiré de la caisse de chaque machine,
+ * et leur total.
+ * <p>
+ * Chaque montant est celui qu'a retiré le vidage atomique de la caisse (voir
+ * {@link Distributeur#viderCaisse()}), et le total est leur somme exacte : une vente est
+ * comptée par une seule collecte, celle-ci ou une suivante, jamais par deux ni par aucune.
+ */
+public final class CollecteFonds {
+    private final NavigableMap<Integer, Montant> parMachine;
+    private final Montant total;
+
+    CollecteFonds(NavigableMap<Integer, Montant> parMachine) {
+        this.parMachine = Collections.unmodifiableNavigableMap(parMachine);
+        long centimes = 0;
+        for (Montant montant : parMachine.values()) {
+            centimes = Math.addExact(centimes, montant.getCentimes());
+        }
+        this.total = Montant.deCentimes(centimes);
+    }
+
+    /**
+     * Retourne le montant collecté sur chaque machine.
+     *
+     * @return Le montant collecté par numéro de machine, dans l'ordre croissant des numéros
+     */
+    public NavigableMap<Integer, Montant> getMontantsParMachine() {
+        return parMachine;
+    }
+
+    /**
+     * Retourne le montant collecté sur une machine.
+     *
+     * @param idMachine Le numéro de la machine
+     * @return Le montant collecté, null si la machine n'a pas été collectée
+     */
+    public Montant getMontant(int idMachine) {
+        return parMachine.get(idMachine);
+    }
+
+    /**
+     * Retourne le nombre de machines collectées.
+     *
+     * @return Le nombre de machines
+     */
+    public int getNombreMachines() {
+        return parMachine.size();
+    }
+
+    /**
+     * Retourne le montant total collecté.
+     *
+     * @return La somme des montants collectés sur chaque machine
+     */
+    public Montant getTotal() {
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("Collecte de ").append(parMachine.size())
+                .append(" machine(s) - Total: ").append(total).append(" FCFA");
+        for (Map.Entry<Integer, Montant> entree : parMachine.entrySet()) {
+            sb.append("\n  Machine ").append(entree.getKey()).append(" : ").append(entree.getValue()).append(" FCFA");
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,223 @@
+package com.distributeur;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Stockage en colonnes des ventes d'un {@link JournalVentes} : un tableau primitif par
+ * champ (identifiant, horodatage, boisson, montant inséré, monnaie rendue, statut)
+ * au lieu d'un objet {@link Transaction} par vente.
+ * <p>
+ * Une vente occupe 37 octets, contre plus d'une centaine pour une transaction et sa
+ * date. Les boissons sont remplacées par leur position dans un dictionnaire propre au
+ * journal, et les parcours d'agrégation lisent des tableaux contigus. Les transactions
+ * ne sont recréées qu'à la lecture ({@link Vue#get(int)}) : deux lectures d'une même
+ * vente donnent des transactions égales mais distinctes.
+ * <p>
+ * Les colonnes sont rangées par blocs de {@value #TAILLE_BLOC} ventes, jamais recopiés
+ * ni modifiés après écriture. Les ajouts doivent être sérialisés par l'appelant ; une
+ * {@link Vue} peut être prise et lue sans verrou.
+ */
+final class ColonnesVentes {
+    static final int TAILLE_BLOC = 1024;
+    private static final int DECALAGE_BLOC = 10;
+
+    /** Statut d'une vente réussie. */
+    static final byte REUSSIE = 0;
+    /** Statut d'un échec sans motif connu ; un échec motivé vaut 2 + l'ordinal du motif. */
+    static final byte ECHEC_SANS_MOTIF = 1;
+    private static final MotifEchec[] MOTIFS = MotifEchec.values();
+
+    private volatile Bloc[] blocs = new Bloc[0];
+    private volatile Boisson[] boissons = new Boisson[8];
+    private final Map<Boisson, Integer> indexBoissons = new IdentityHashMap<>();
+    private volatile int taille;
+
+    /**
+     * Ajoute une vente à la fin des colonnes.
+     *
+     * @return La position de la vente
+     */
+    int ajouter(Transaction transaction) {
+        int position = taille;
+        int numeroBloc = position >>> DECALAGE_BLOC;
+        Bloc[] courants = blocs;
+        if (numeroBloc == courants.length) {
+            courants = Arrays.copyOf(courants, Math.max(1, courants.length * 2));
+            blocs = courants;
+        }
+        Bloc bloc = courants[numeroBloc];
+        if (bloc == null) {
+            bloc = new Bloc();
+            courants[numeroBloc] = bloc;
+        }
+        int i = position & (TAILLE_BLOC - 1);
+        bloc.ids[i] = transaction.getId();
+        bloc.horodatages[i] = transaction.getHorodatage();
+        bloc.boissons[i] = positionBoisson(transaction.getBoisson());
+        bloc.montantsInseres[i] = transaction.getMontantInsere().getCentimes();
+        bloc.monnaiesRendues[i] = transaction.getMonnaieRendue().getCentimes();
+        bloc.statuts[i] = statut(transaction);
+        // Publication : une vue qui lit cette taille voit aussi la vente
+        taille = position + 1;
+        return position;
+    }
+
+    /**
+     * Retourne le nombre de ventes enregistrées.
+     */
+    int getTaille() {
+        return taille;
+    }
+
+    /**
+     * Retourne l'horodatage (millisecondes epoch UTC) d'une vente enregistrée.
+     */
+    long getHorodatage(int position) {
+        return blocs[position >>> DECALAGE_BLOC].horodatages[position & (TAILLE_BLOC - 1)];
+    }
+
+    /**
+     * Recrée la transaction d'une vente enregistrée.
+     */
+    Transaction getTransaction(int position) {
+        return materialiser(blocs, boissons, position);
+    }
+
+    /**
+     * Fige les ventes enregistrées à cet instant, en O(1).
+     */
+    Vue figer() {
+        int n = taille;
+        return new Vue(blocs, boissons, n);
+    }
+
+    private int positionBoisson(Boisson boisson) {
+        if (boisson == null) {
+            return -1;
+        }
+        Integer position = indexBoissons.get(boisson);
+        if (position == null) {
+            position = indexBoissons.size();
+            Boisson[] courantes = boissons;
+            if (position == courantes.length) {
+                courantes = Arrays.copyOf(courantes, position * 2);
+            }
+            courantes[position] = boisson;
+            boissons = courantes;
+            indexBoissons.put(boisson, position);
+        }
+        return position;
+    }
+
+    private static byte statut(Transaction transaction) {
+        if (transaction.estReussie()) {
+            return REUSSIE;
+        }
+        MotifEchec motif = transaction.getMotifEchec();
+        return (byte) (motif == null ? ECHEC_SANS_MOTIF : ECHEC_SANS_MOTIF + 1 + motif.ordinal());
+    }
+
+    private static Transaction materialiser(Bloc[] blocs, Boisson[] boissons, int position) {
+        Bloc bloc = blocs[position >>> DECALAGE_BLOC];
+        int i = position & (TAILLE_BLOC - 1);
+        int positionBoisson = bloc.boissons[i];
+        byte statut = bloc.statuts[i];
+        return new Transaction(bloc.ids[i], positionBoisson < 0 ? null : boissons[positionBoisson],
+                Montant.deCentimes(bloc.montantsInseres[i]), Montant.deCentimes(bloc.monnaiesRendues[i]),
+                bloc.horodatages[i], statut == REUSSIE, motif(statut));
+    }
+
+    /**
+     * Retourne le motif d'échec codé dans un statut, null s'il n'y en a pas.
+     */
+    static MotifEchec motif(byte statut) {
+        return statut > ECHEC_SANS_MOTIF ? MOTIFS[statut - ECHEC_SANS_MOTIF - 1] : null;
+    }
+
+    /**
+     * Bloc de colonnes de {@value #TAILLE_BLOC} ventes.
+     */
+    private static final class Bloc {
+        final long[] ids = new long[TAILLE_BLOC];
+        final long[] horodatages = new long[TAILLE_BLOC];
+        final int[] boissons = new int[TAILLE_BLOC];
+        final long[] montantsInseres = new long[TAILLE_BLOC];
+        final long[] monnaiesRendues = new long[TAILLE_BLOC];
+        final byte[] statuts = new byte[TAILLE_BLOC];
+    }
+
+    /**
+     * Vue figée et non modifiable sur les ventes enregistrées lors de sa création.
+     */
+    static final class Vue extends AbstractList<Transaction> implements RandomAccess {
+        private final Bloc[] blocs;
+        private final Boisson[] boissons;
+        private final int taille;
+
+        private Vue(Bloc[] blocs, Boisson[] boissons, int taille) {
+            this.blocs = blocs;
+            this.boissons = boissons;
+            this.taille = taille;
+        }
+
+        @Override
+        public Transaction get(int index) {
+            Objects.checkIndex(index, taille);
+            return materialiser(blocs, boissons, index);
+        }
+
+        @Override
+        public int size() {
+            return taille;
+        }
+
+        long getId(int position) {
+            return blocs[position >>> DECALAGE_BLOC].ids[position & (TAILLE_BLOC - 1)];
+        }
+
+        long getHorodatage(int position) {
+            return blocs[position >>> DECALAGE_BLOC].horodatages[position & (TAILLE_BLOC - 1)];
+        }
+
+        Boisson getBoisson(int position) {
+            int positionBoisson = blocs[position >>> DECALAGE_BLOC].boissons[position & (TAILLE_BLOC - 1)];
+            return positionBoisson < 0 ? null : boissons[positionBoisson];
+        }
+
+        long getMontantInsere(int position) {
+            return blocs[position >>> DECALAGE_BLOC].montantsInseres[position & (TAILLE_BLOC - 1)];
+        }
+
+        long getMonnaieRendue(int position) {
+            return blocs[position >>> DECALAGE_BLOC].monnaiesRendues[position & (TAILLE_BLOC - 1)];
+        }
+
+        byte getStatut(int position) {
+            return blocs[position >>> DECALAGE_BLOC].statuts[position & (TAILLE_BLOC - 1)];
+        }
+
+        /**
+         * Cherche la prochaine vente retenue par un filtre, en lisant les colonnes
+         * sans recréer de transaction.
+         *
+         * @return Sa position, ou -1 s'il n'y en a plus
+         */
+        int chercher(int depuis, FiltreVentes filtre) {
+            for (int position = depuis; position < taille; position++) {
+                Bloc bloc = blocs[position >>> DECALAGE_BLOC];
+                int i = position & (TAILLE_BLOC - 1);
+                int positionBoisson = bloc.boissons[i];
+                if (filtre.accepte(bloc.horodatages[i], positionBoisson < 0 ? null : boissons[positionBoisson],
+                        bloc.statuts[i] == REUSSIE)) {
+                    return position;
+                }
+            }
+            return -1;
+        }
+    }
+}
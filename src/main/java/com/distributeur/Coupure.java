@@ -0,0 +1,63 @@
+package com.distributeur;
+
+/**
+ * Pièces et billets en FCFA que le distributeur peut rendre, du plus petit au plus grand.
+ * <p>
+ * Le système n'est pas canonique : à cause de la pièce de 250, l'algorithme glouton
+ * ne donne pas toujours le moins de pièces (400 = 250 + 100 + 50, au lieu de
+ * 200 + 200). Voir {@link StockMonnaie}.
+ */
+public enum Coupure {
+    /** Pièce de 1 FCFA. */
+    PIECE_1(1, false),
+    /** Pièce de 5 FCFA. */
+    PIECE_5(5, false),
+    /** Pièce de 10 FCFA. */
+    PIECE_10(10, false),
+    /** Pièce de 25 FCFA. */
+    PIECE_25(25, false),
+    /** Pièce de 50 FCFA. */
+    PIECE_50(50, false),
+    /** Pièce de 100 FCFA. */
+    PIECE_100(100, false),
+    /** Pièce de 200 FCFA. */
+    PIECE_200(200, false),
+    /** Pièce de 250 FCFA. */
+    PIECE_250(250, false),
+    /** Pièce de 500 FCFA. */
+    PIECE_500(500, false),
+    /** Billet de 1000 FCFA. */
+    BILLET_1000(1000, true),
+    /** Billet de 2000 FCFA. */
+    BILLET_2000(2000, true),
+    /** Billet de 5000 FCFA. */
+    BILLET_5000(5000, true),
+    /** Billet de 10000 FCFA. */
+    BILLET_10000(10000, true);
+
+    private final Montant valeur;
+    private final boolean billet;
+
+    Coupure(long fcfa, boolean billet) {
+        this.valeur = Montant.deCentimes(fcfa * Montant.CENTIMES_PAR_FCFA);
+        this.billet = billet;
+    }
+
+    /**
+     * Retourne la valeur faciale de la coupure.
+     *
+     * @return La valeur de la coupure
+     */
+    public Montant getValeur() {
+        return valeur;
+    }
+
+    /**
+     * Indique si la coupure est un billet.
+     *
+     * @return true pour un billet, false pour une pièce
+     */
+    public boolean estBillet() {
+        return billet;
+    }
+}
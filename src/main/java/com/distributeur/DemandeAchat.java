@@ -0,0 +1,43 @@
+package com.distributeur;
+
+/**
+ * Demande d'achat d'une boisson, élément d'un lot passé à
+ * {@link Distributeur#acheterBoissons(java.util.List)}.
+ */
+public class DemandeAchat {
+    private final int idBoisson;
+    private final Montant montantInsere;
+
+    /**
+     * Constructeur de la classe DemandeAchat.
+     *
+     * @param idBoisson     L'ID de la boisson à acheter
+     * @param montantInsere Le montant inséré
+     * @throws IllegalArgumentException si le montant est négatif
+     */
+    public DemandeAchat(int idBoisson, Montant montantInsere) {
+        if (montantInsere.estNegatif()) {
+            throw new IllegalArgumentException("Le montant inséré ne peut pas être négatif");
+        }
+        this.idBoisson = idBoisson;
+        this.montantInsere = montantInsere;
+    }
+
+    /**
+     * Retourne l'ID de la boisson demandée.
+     *
+     * @return L'ID de la boisson
+     */
+    public int getIdBoisson() {
+        return idBoisson;
+    }
+
+    /**
+     * Retourne le montant inséré.
+     *
+     * @return Le montant inséré
+     */
+    public Montant getMontantInsere() {
+        return montantInsere;
+    }
+}
@@ -0,0 +1,142 @@
+package com.distributeur;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Ensemble de bits tenant à jour la disponibilité des boissons d'un distributeur.
+ * <p>
+ * Chaque boisson occupe une position, dans l'ordre d'ajout ; son bit est levé tant que
+ * son stock est positif. Une boisson prévient l'ensemble de chaque variation de stock
+ * (voir {@link Boisson#diminuerStock()}, {@link Boisson#augmenterStock(int)} et
+ * {@link Boisson#setQuantiteStock(int)}) ; seuls les passages par zéro touchent les bits.
+ * Le parcours des boissons disponibles ne fait aucune allocation, et le test
+ * « au moins une boisson disponible » est en O(1).
+ * <p>
+ * Les bits sont rangés par blocs de {@value #BITS_PAR_BLOC} : un agrandissement ajoute
+ * des blocs sans recopier les existants, si bien qu'aucune mise à jour concurrente
+ * n'est perdue. Les ajouts doivent être sérialisés par l'appelant ; les mises à jour
+ * et les lectures peuvent être concurrentes.
+ */
+public class DisponibiliteBoissons implements SuiviStock {
+    private static final int MOTS_PAR_BLOC = 64;
+    private static final int BITS_PAR_BLOC = MOTS_PAR_BLOC * Long.SIZE;
+
+    private volatile Boisson[] boissons = new Boisson[16];
+    private volatile AtomicLongArray[] blocs = new AtomicLongArray[0];
+    private volatile int taille;
+    private final AtomicInteger nombreDisponibles = new AtomicInteger();
+
+    /**
+     * Ajoute une boisson à la position suivante et la fait surveiller par cet ensemble.
+     * Les ajouts doivent être sérialisés par l'appelant.
+     *
+     * @param boisson La boisson à ajouter
+     * @return La position de la boisson
+     * @throws IllegalStateException si la boisson appartient déjà à un autre ensemble ou distributeur
+     */
+    public int ajouter(Boisson boisson) {
+        return ajouter(boisson, this);
+    }
+
+    /**
+     * Ajoute une boisson à la position suivante et la fait surveiller par un suivi qui
+     * transmet ses variations à cet ensemble. Rien n'est modifié si la boisson est déjà
+     * surveillée.
+     */
+    int ajouter(Boisson boisson, SuiviStock suivi) {
+        int position = taille;
+        if (position == blocs.length * BITS_PAR_BLOC) {
+            AtomicLongArray[] agrandis = Arrays.copyOf(blocs, blocs.length + 1);
+            agrandis[blocs.length] = new AtomicLongArray(MOTS_PAR_BLOC);
+            blocs = agrandis;
+        }
+        // Le bloc existe déjà : une variation signalée dès l'enregistrement peut s'appliquer
+        boisson.surveiller(suivi, position);
+        if (position == boissons.length) {
+            boissons = Arrays.copyOf(boissons, position * 2);
+        }
+        boissons[position] = boisson;
+        taille = position + 1;
+        mettreAJour(position, boisson);
+        return position;
+    }
+
+    /**
+     * Aligne le bit de la boisson sur son stock quand celui-ci passe par zéro ; les autres
+     * variations n'affectent pas sa disponibilité.
+     */
+    @Override
+    public void stockModifie(int position, Boisson boisson, boolean passageParZero) {
+        if (passageParZero) {
+            mettreAJour(position, boisson);
+        }
+    }
+
+    /**
+     * Aligne le bit d'une boisson sur son stock courant. Le stock est relu après
+     * l'écriture du bit, jusqu'à ce que les deux concordent : une mise à jour concurrente
+     * en sens inverse ne peut donc pas laisser un bit périmé.
+     *
+     * @param position La position de la boisson
+     * @param boisson  La boisson
+     */
+    void mettreAJour(int position, Boisson boisson) {
+        AtomicLongArray bloc = blocs[position / BITS_PAR_BLOC];
+        int mot = (position % BITS_PAR_BLOC) / Long.SIZE;
+        long masque = 1L << position;
+        boolean disponible;
+        do {
+            disponible = boisson.estDisponible();
+            long valeur;
+            long nouvelle;
+            do {
+                valeur = bloc.get(mot);
+                nouvelle = disponible ? valeur | masque : valeur & ~masque;
+            } while (valeur != nouvelle && !bloc.compareAndSet(mot, valeur, nouvelle));
+            if (valeur != nouvelle) {
+                nombreDisponibles.addAndGet(disponible ? 1 : -1);
+            }
+        } while (disponible != boisson.estDisponible());
+    }
+
+    /**
+     * Indique si au moins une boisson est disponible, en temps constant.
+     *
+     * @return true si au moins une boisson est en stock
+     */
+    public boolean auMoinsUneDisponible() {
+        return nombreDisponibles.get() > 0;
+    }
+
+    /**
+     * Retourne le nombre de boissons disponibles.
+     *
+     * @return Le nombre de boissons en stock
+     */
+    public int getNombreDisponibles() {
+        return nombreDisponibles.get();
+    }
+
+    /**
+     * Applique un traitement à chaque boisson disponible, dans l'ordre d'ajout,
+     * sans allocation.
+     *
+     * @param traitement Le traitement à appliquer
+     */
+    public void pourChaqueDisponible(Consumer<Boisson> traitement) {
+        int n = taille;
+        Boisson[] parPosition = boissons;
+        AtomicLongArray[] lus = blocs;
+        for (int debut = 0; debut < n; debut += Long.SIZE) {
+            long bits = lus[debut / BITS_PAR_BLOC].get((debut % BITS_PAR_BLOC) / Long.SIZE);
+            while (bits != 0) {
+                int position = debut + Long.numberOfTrailingZeros(bits);
+                traitement.accept(parPosition[position]);
+                bits &= bits - 1;
+            }
+        }
+    }
+}
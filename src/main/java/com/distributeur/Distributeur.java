@@ -1,25 +1,107 @@
 package com.distributeur;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
 
 /**
  * Classe principale représentant le distributeur automatique de boissons.
+ * <p>
+ * Plusieurs terminaux de paiement peuvent acheter en parallèle : le stock de chaque
+ * boisson est réservé par une opération atomique, la caisse est répartie en cellules
+ * ({@link Caisse}) et le journal est protégé par son propre verrou. Aucun verrou
+ * global ne sérialise les achats ; seules les modifications du catalogue sont
+ * synchronisées sur le distributeur.
+ * <p>
+ * La persistance est facultative : une fois activée, les ventes, les rechargements
+ * et les vidages de la caisse sont écrits dans un {@link JournalDisque}. Un
+ * {@link InstantaneDistributeur} peut être pris régulièrement : au démarrage suivant,
+ * il est chargé et seule la fin du journal est relue.
+ * <p>
+ * Les opérations qui modifient l'état (vente réussie, rechargement, vidage de la caisse)
+ * partagent un verrou en lecture, sans s'exclure entre elles ; seule la prise d'un
+ * instantané prend le verrou en écriture, le temps de copier l'état.
+ * <p>
+ * Le catalogue est aussi lu sous forme de versions immuables ({@link CatalogueInstantane}).
+ * Une variation de stock ne fait que compter une modification, sur un compteur réparti
+ * entre les terminaux ; la version suivante n'est construite qu'à la lecture. Une vente
+ * ne copie donc rien, quelle que soit la taille du catalogue.
+ * <p>
+ * Le rendu de la monnaie est facultatif : une fois un {@link StockMonnaie} activé, un
+ * achat dont la monnaie ne peut pas être rendue exactement avec les pièces et billets
+ * en stock est refusé d'emblée ({@link MotifEchec#MONNAIE_INSUFFISANTE}).
+ * <p>
+ * Les latences des achats, rechargements et collectes, les échecs d'achat par motif,
+ * le stock de chaque boisson et le solde de la caisse sont exposés par {@link Metriques}.
  */
 public class Distributeur {
-    private List<Boisson> boissons;
-    private Portefeuille caisse;
-    private JournalVentes journal;
+    private final LongAdder modificationsCatalogue = new LongAdder();
+    private final Object verrouCatalogue = new Object();
+    private volatile CatalogueInstantane catalogue;
+    private volatile Boisson[] boissons = new Boisson[16];
+    private volatile int nombreBoissons;
+    private final IndexBoissons index;
+    private final DisponibiliteBoissons disponibilite;
+    private final Caisse caisse;
+    private final JournalVentes journal;
+    private final Metriques metriques;
+    private final GenerateurIdentifiants identifiants;
+    private final Horloge horloge;
+    private final ReentrantReadWriteLock verrouEtat = new ReentrantReadWriteLock();
+    private volatile JournalDisque disque;
+    private volatile StockMonnaie monnaie;
 
     /**
      * Constructeur initialisant le distributeur avec une liste vide de boissons,
-     * une caisse vide et un journal des ventes vide.
+     * une caisse vide et un journal des ventes vide. Les identifiants de transaction
+     * sont alloués pour la machine 0 : deux distributeurs d'une même flotte ou d'un même
+     * journal doivent recevoir des numéros distincts ({@link #Distributeur(int)}).
      */
     public Distributeur() {
-        this.boissons = new ArrayList<>();
-        this.caisse = new Portefeuille();
-        this.journal = new JournalVentes();
+        this(0);
+    }
+
+    /**
+     * Constructeur d'un distributeur dont les identifiants de transaction sont propres
+     * à une machine : deux distributeurs de numéros différents ne produisent jamais
+     * le même identifiant.
+     * 
+     * @param idMachine Le numéro de la machine, entre 0 et {@link GenerateurIdentifiants#MACHINE_MAX}
+     * @throws IllegalArgumentException si le numéro est hors limites
+     */
+    public Distributeur(int idMachine) {
+        this(idMachine, Horloge.systeme());
+    }
+
+    /**
+     * Constructeur d'un distributeur dont les transactions sont datées par une horloge
+     * donnée : une {@link HorlogeCachee} pour réduire le coût de chaque achat, ou une
+     * {@link HorlogeSimulee} pour les tests et les rejeux.
+     * 
+     * @param idMachine Le numéro de la machine, entre 0 et {@link GenerateurIdentifiants#MACHINE_MAX}
+     * @param horloge   L'horloge des transactions
+     * @throws IllegalArgumentException si le numéro est hors limites ou si l'horloge est null
+     */
+    public Distributeur(int idMachine, Horloge horloge) {
+        if (horloge == null) {
+            throw new IllegalArgumentException("L'horloge ne peut pas être null");
+        }
+        this.identifiants = new GenerateurIdentifiants(idMachine);
+        this.horloge = horloge;
+        this.index = new IndexBoissons();
+        this.catalogue = CatalogueInstantane.vide(index);
+        this.disponibilite = new DisponibiliteBoissons();
+        this.caisse = new Caisse();
+        this.journal = new JournalVentes(horloge);
+        this.metriques = new Metriques();
+        metriques.enregistrerJauge("caisse.centimes", () -> caisse.getSolde().getCentimes());
     }
 
     /**
@@ -27,38 +109,108 @@ public class Distributeur {
      * 
      * @param boisson La boisson à ajouter
      * @return true si la boisson a été ajoutée, false si une boisson avec le même ID existe déjà
+     * @throws IllegalStateException si la boisson appartient déjà à un autre distributeur
      */
-    public boolean ajouterBoisson(Boisson boisson) {
+    public synchronized boolean ajouterBoisson(Boisson boisson) {
         if (boisson == null) {
             return false;
         }
         
         // Vérifier si une boisson avec le même ID existe déjà
-        if (boissons.stream().anyMatch(b -> b.getId() == boisson.getId())) {
+        if (index.contient(boisson.getId())) {
             return false;
         }
         
-        return boissons.add(boisson);
+        // Échoue sans rien modifier si la boisson est suivie par un autre distributeur
+        int position = disponibilite.ajouter(boisson, this::stockModifie);
+        index.ajouter(boisson);
+        metriques.enregistrerJauge("stock." + boisson.getId(), boisson::getQuantiteStock);
+        Boisson[] tableau = boissons;
+        if (position == tableau.length) {
+            tableau = Arrays.copyOf(tableau, position * 2);
+        }
+        tableau[position] = boisson;
+        boissons = tableau;
+        nombreBoissons = position + 1;
+        modificationsCatalogue.increment();
+        return true;
+    }
+
+    /**
+     * Répercute une variation de stock sur l'ensemble de disponibilité et la compte
+     * pour la prochaine version du catalogue.
+     */
+    private void stockModifie(int position, Boisson boisson, boolean passageParZero) {
+        disponibilite.stockModifie(position, boisson, passageParZero);
+        modificationsCatalogue.increment();
     }
 
     /**
      * Retourne la liste des boissons disponibles (quantité en stock > 0).
+     * La liste est construite à partir de l'ensemble de disponibilité, sans parcourir
+     * les boissons en rupture.
      * 
      * @return La liste des boissons disponibles
      */
     public List<Boisson> afficherBoissonsDisponibles() {
-        return boissons.stream()
-                .filter(Boisson::estDisponible)
-                .collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+        List<Boisson> disponibles = new ArrayList<>(disponibilite.getNombreDisponibles());
+        disponibilite.pourChaqueDisponible(disponibles::add);
+        return disponibles;
     }
 
     /**
-     * Retourne la liste complète des boissons (disponibles ou non).
+     * Applique un traitement à chaque boisson disponible, dans l'ordre d'ajout,
+     * sans construire de liste.
      * 
-     * @return La liste complète des boissons
+     * @param traitement Le traitement à appliquer
+     */
+    public void pourChaqueBoissonDisponible(Consumer<Boisson> traitement) {
+        disponibilite.pourChaqueDisponible(traitement);
+    }
+
+    /**
+     * Indique si au moins une boisson est disponible, en temps constant.
+     * 
+     * @return true si au moins une boisson est en stock
+     */
+    public boolean aDesBoissonsDisponibles() {
+        return disponibilite.auMoinsUneDisponible();
+    }
+
+    /**
+     * Retourne la liste complète des boissons (disponibles ou non), en O(1) et sans copie.
+     * 
+     * @return Une vue non modifiable des boissons, dans l'ordre d'ajout
      */
     public List<Boisson> getToutesBoissons() {
-        return new ArrayList<>(boissons);
+        int n = nombreBoissons;
+        return Collections.unmodifiableList(Arrays.asList(boissons).subList(0, n));
+    }
+
+    /**
+     * Retourne la version courante du catalogue. Sans ajout ni variation de stock depuis
+     * la dernière lecture, la même version est retournée, en O(1) et sans verrou ; sinon
+     * une nouvelle version est construite à partir des stocks courants. Les stocks
+     * qu'elle contient ne changent plus.
+     * 
+     * @return La version courante du catalogue
+     */
+    public CatalogueInstantane getCatalogue() {
+        CatalogueInstantane courant = catalogue;
+        if (courant.getMarque() == modificationsCatalogue.sum()) {
+            return courant;
+        }
+        synchronized (verrouCatalogue) {
+            // Les modifications sont comptées avant la lecture des stocks : aucune n'est perdue
+            long marque = modificationsCatalogue.sum();
+            courant = catalogue;
+            if (courant.getMarque() != marque) {
+                int n = nombreBoissons;
+                courant = courant.actualiser(marque, Arrays.copyOf(boissons, n));
+                catalogue = courant;
+            }
+            return courant;
+        }
     }
 
     /**
@@ -68,58 +220,295 @@ public class Distributeur {
      * @return La boisson si elle existe, null sinon
      */
     public Boisson rechercherBoisson(int idBoisson) {
-        Optional<Boisson> optionalBoisson = boissons.stream()
-                .filter(b -> b.getId() == idBoisson)
-                .findFirst();
-        
-        return optionalBoisson.orElse(null);
+        return index.get(idBoisson);
     }
 
     /**
-     * Effectue l'achat d'une boisson.
+     * Effectue l'achat d'une boisson. Un refus produit une transaction échouée, non
+     * journalisée et sans identifiant ; {@link #tenterAchat(int, Montant)} évite de la construire.
      * 
      * @param idBoisson    L'ID de la boisson à acheter
      * @param montantInsere Le montant inséré par l'utilisateur
      * @return La transaction effectuée
      */
-    public Transaction acheterBoisson(int idBoisson, double montantInsere) {
-        if (montantInsere < 0) {
+    public Transaction acheterBoisson(int idBoisson, Montant montantInsere) {
+        ResultatAchat resultat = tenterAchat(idBoisson, montantInsere);
+        if (resultat.estReussie()) {
+            return resultat.getTransaction();
+        }
+        return transactionEchouee(rechercherBoisson(idBoisson), montantInsere, resultat.getMotifEchec());
+    }
+
+    /**
+     * Tente l'achat d'une boisson. Un refus retourne directement son {@link MotifEchec} :
+     * il n'alloue aucun objet, ne consomme pas d'identifiant de transaction et n'est
+     * compté que dans les métriques. Le montant inséré est alors à rendre en entier.
+     * 
+     * @param idBoisson     L'ID de la boisson à acheter
+     * @param montantInsere Le montant inséré par l'utilisateur
+     * @return La transaction si la vente a eu lieu, le motif du refus sinon
+     * @throws IllegalArgumentException si le montant est négatif
+     */
+    public ResultatAchat tenterAchat(int idBoisson, Montant montantInsere) {
+        if (montantInsere.estNegatif()) {
             throw new IllegalArgumentException("Le montant inséré ne peut pas être négatif");
         }
-        
+        long debut = metriques.demarrer();
+        try {
+            return effectuerAchat(idBoisson, montantInsere);
+        } finally {
+            metriques.terminer(Metriques.Operation.ACHAT, debut);
+        }
+    }
+
+    private ResultatAchat effectuerAchat(int idBoisson, Montant montantInsere) {
         Boisson boisson = rechercherBoisson(idBoisson);
+        MotifEchec motif = verifier(boisson, montantInsere);
+        if (motif != null) {
+            return echec(motif);
+        }
         
+        // Calcul de la monnaie à rendre, et réservation des pièces si le rendu est activé
+        Montant monnaieARendre = montantInsere.moins(boisson.getPrix());
+        StockMonnaie stockMonnaie = monnaie;
+        RenduMonnaie rendu = stockMonnaie != null ? stockMonnaie.reserver(monnaieARendre) : null;
+        if (stockMonnaie != null && rendu == null) {
+            return echec(MotifEchec.MONNAIE_INSUFFISANTE);
+        }
+        
+        verrouEtat.readLock().lock();
+        try {
+            // Réservation atomique d'une unité : échoue si un achat concurrent a pris la dernière
+            if (!boisson.diminuerStock()) {
+                if (rendu != null) {
+                    stockMonnaie.restituer(rendu);
+                }
+                return echec(MotifEchec.RUPTURE_STOCK);
+            }
+            
+            // Ajout du prix de la boisson à la caisse
+            caisse.ajouterFonds(boisson.getPrix());
+            
+            // Création de la transaction réussie
+            Transaction transaction = new Transaction(identifiants.suivant(), boisson, montantInsere,
+                    monnaieARendre, horloge.millisecondes(), true, null, rendu);
+            
+            // Enregistrement de la transaction dans le journal
+            journal.ajouterTransaction(transaction);
+            
+            return transaction;
+        } finally {
+            verrouEtat.readLock().unlock();
+        }
+    }
+
+    /**
+     * Règle l'achat d'une boisson depuis le portefeuille d'un utilisateur, en une seule
+     * opération : le portefeuille n'est débité du prix que si une unité a été réservée,
+     * et une unité n'est réservée qu'avec un solde suffisant. Aucun remboursement n'est
+     * donc jamais nécessaire. Le prix est ensuite crédité à la caisse et la vente
+     * journalisée, sous le même verrou en lecture qu'un achat : un instantané voit la
+     * vente en entier ou pas du tout.
+     * <p>
+     * Seul le verrou du portefeuille débité est pris, jamais deux portefeuilles à la fois :
+     * les règlements de portefeuilles différents ne s'attendent pas, et ne peuvent pas
+     * s'interbloquer. Un refus est traité comme par {@link #tenterAchat(int, Montant)}.
+     * 
+     * @param utilisateur L'utilisateur qui paie
+     * @param idBoisson   L'ID de la boisson à acheter
+     * @return La transaction si la vente a eu lieu, le motif du refus sinon
+     *         ({@link MotifEchec#MONTANT_INSUFFISANT} si le solde ne couvre pas le prix)
+     * @throws IllegalArgumentException si l'utilisateur est null
+     */
+    public ResultatAchat reglerAchat(Utilisateur utilisateur, int idBoisson) {
+        if (utilisateur == null) {
+            throw new IllegalArgumentException("L'utilisateur ne peut pas être null");
+        }
+        long debut = metriques.demarrer();
+        try {
+            return effectuerReglement(utilisateur.getPortefeuille(), idBoisson);
+        } finally {
+            metriques.terminer(Metriques.Operation.ACHAT, debut);
+        }
+    }
+
+    /**
+     * Règle l'achat d'une boisson depuis le solde d'un utilisateur inscrit dans un
+     * registre, comme depuis un portefeuille : le solde n'est débité du prix que si une
+     * unité a été réservée, et une unité n'est réservée qu'avec un solde suffisant, sous
+     * le verrou de la bande de l'utilisateur dans le registre. Aucun remboursement n'est
+     * donc jamais nécessaire, et aucun règlement concurrent ne voit de débit provisoire.
+     * La vente est ensuite traitée comme par {@link #reglerAchat(Utilisateur, int)}.
+     *
+     * @param registre      Le registre qui tient le solde de l'utilisateur
+     * @param idUtilisateur L'identifiant de l'utilisateur qui paie
+     * @param idBoisson     L'ID de la boisson à acheter
+     * @return La transaction si la vente a eu lieu, le motif du refus sinon
+     *         ({@link MotifEchec#MONTANT_INSUFFISANT} si le solde ne couvre pas le prix)
+     * @throws IllegalArgumentException si le registre est null ou si l'utilisateur n'y est pas inscrit
+     */
+    public ResultatAchat reglerAchat(RegistreUtilisateurs registre, int idUtilisateur, int idBoisson) {
+        if (registre == null) {
+            throw new IllegalArgumentException("Le registre ne peut pas être null");
+        }
+        long debut = metriques.demarrer();
+        try {
+            Boisson boisson = rechercherBoisson(idBoisson);
+            MotifEchec motif = verifier(boisson, registre.getSolde(idUtilisateur));
+            if (motif != null) {
+                return echec(motif);
+            }
+            Montant prix = boisson.getPrix();
+
+            verrouEtat.readLock().lock();
+            try {
+                // Solde vérifié, unité réservée et débit, sous le seul verrou de la bande
+                if (!registre.retirerFondsSi(idUtilisateur, prix, boisson::diminuerStock)) {
+                    return echec(registre.getSolde(idUtilisateur).estInferieurA(prix)
+                            ? MotifEchec.MONTANT_INSUFFISANT : MotifEchec.RUPTURE_STOCK);
+                }
+                return enregistrerReglement(boisson, prix);
+            } finally {
+                verrouEtat.readLock().unlock();
+            }
+        } finally {
+            metriques.terminer(Metriques.Operation.ACHAT, debut);
+        }
+    }
+
+    private ResultatAchat effectuerReglement(Portefeuille portefeuille, int idBoisson) {
+        Boisson boisson = rechercherBoisson(idBoisson);
+        MotifEchec motif = verifier(boisson, portefeuille.getSolde());
+        if (motif != null) {
+            return echec(motif);
+        }
+        Montant prix = boisson.getPrix();
+
+        verrouEtat.readLock().lock();
+        try {
+            // Solde vérifié, unité réservée et débit, sous le seul verrou du portefeuille
+            if (!portefeuille.retirerFondsSi(prix, boisson::diminuerStock)) {
+                return echec(portefeuille.getSolde().estInferieurA(prix)
+                        ? MotifEchec.MONTANT_INSUFFISANT : MotifEchec.RUPTURE_STOCK);
+            }
+            return enregistrerReglement(boisson, prix);
+        } finally {
+            verrouEtat.readLock().unlock();
+        }
+    }
+
+    private Transaction enregistrerReglement(Boisson boisson, Montant prix) {
+        caisse.ajouterFonds(prix);
+        Transaction transaction = new Transaction(identifiants.suivant(), boisson, prix, Montant.ZERO,
+                horloge.millisecondes(), true, null);
+        journal.ajouterTransaction(transaction);
+        return transaction;
+    }
+
+    /**
+     * Effectue un lot d'achats en une seule passe. Chaque demande est vérifiée et
+     * appliquée dans l'ordre, comme par {@link #acheterBoisson(int, Montant)} ; la caisse
+     * est ensuite créditée une seule fois du total des ventes réussies, et celles-ci sont
+     * ajoutées au journal en un seul ajout.
+     * 
+     * @param lot Les demandes d'achat, dans l'ordre
+     * @return Une transaction par demande, dans le même ordre
+     * @throws IllegalArgumentException si le lot ou l'une de ses demandes est null
+     */
+    public List<Transaction> acheterBoissons(List<DemandeAchat> lot) {
+        if (lot == null) {
+            throw new IllegalArgumentException("Le lot d'achats ne peut pas être null");
+        }
+        for (DemandeAchat demande : lot) {
+            if (demande == null) {
+                throw new IllegalArgumentException("Le lot d'achats ne peut pas contenir de demande nulle");
+            }
+        }
+        long debut = metriques.demarrer();
+        List<Transaction> resultats = new ArrayList<>(lot.size());
+        List<Transaction> ventes = new ArrayList<>(lot.size());
+        long recetteCentimes = 0;
+        long horodatage = horloge.millisecondes();
+        StockMonnaie stockMonnaie = monnaie;
+        verrouEtat.readLock().lock();
+        try {
+            for (DemandeAchat demande : lot) {
+                Montant montantInsere = demande.getMontantInsere();
+                Boisson boisson = rechercherBoisson(demande.getIdBoisson());
+                MotifEchec motif = verifier(boisson, montantInsere);
+                RenduMonnaie rendu = null;
+                if (motif == null && stockMonnaie != null) {
+                    rendu = stockMonnaie.reserver(montantInsere.moins(boisson.getPrix()));
+                    if (rendu == null) {
+                        motif = MotifEchec.MONNAIE_INSUFFISANTE;
+                    }
+                }
+                if (motif == null && !boisson.diminuerStock()) {
+                    motif = MotifEchec.RUPTURE_STOCK;
+                    if (rendu != null) {
+                        stockMonnaie.restituer(rendu);
+                    }
+                }
+                if (motif != null) {
+                    resultats.add(transactionEchouee(boisson, montantInsere, echec(motif)));
+                    continue;
+                }
+                Transaction transaction = new Transaction(identifiants.suivant(), boisson, montantInsere,
+                        montantInsere.moins(boisson.getPrix()), horodatage, true, null, rendu);
+                recetteCentimes = Math.addExact(recetteCentimes, boisson.getPrix().getCentimes());
+                resultats.add(transaction);
+                ventes.add(transaction);
+            }
+            if (!ventes.isEmpty()) {
+                caisse.ajouterFonds(Montant.deCentimes(recetteCentimes));
+                journal.ajouterTransactions(ventes);
+            }
+            return resultats;
+        } finally {
+            verrouEtat.readLock().unlock();
+            metriques.terminer(Metriques.Operation.ACHAT_LOT, debut);
+        }
+    }
+
+    private MotifEchec verifier(Boisson boisson, Montant montantInsere) {
         // Si la boisson n'existe pas
         if (boisson == null) {
-            return new Transaction(null, montantInsere, montantInsere, false);
+            return MotifEchec.BOISSON_INCONNUE;
         }
-        
         // Si la boisson n'est pas disponible
         if (!boisson.estDisponible()) {
-            return new Transaction(boisson, montantInsere, montantInsere, false);
+            return MotifEchec.RUPTURE_STOCK;
         }
-        
         // Si le montant inséré est insuffisant
-        if (montantInsere < boisson.getPrix()) {
-            return new Transaction(boisson, montantInsere, montantInsere, false);
+        if (montantInsere.estInferieurA(boisson.getPrix())) {
+            return MotifEchec.MONTANT_INSUFFISANT;
         }
-        
-        // Calcul de la monnaie à rendre
-        double monnaieARendre = montantInsere - boisson.getPrix();
-        
-        // Diminution du stock
-        boisson.diminuerStock();
-        
-        // Ajout du prix de la boisson à la caisse
-        caisse.ajouterFonds(boisson.getPrix());
-        
-        // Création de la transaction réussie
-        Transaction transaction = new Transaction(boisson, montantInsere, monnaieARendre, true);
-        
-        // Enregistrement de la transaction dans le journal
-        journal.ajouterTransaction(transaction);
-        
-        return transaction;
+        return null;
+    }
+
+    private MotifEchec echec(MotifEchec motif) {
+        metriques.compterEchec(motif);
+        return motif;
+    }
+
+    /**
+     * Construit la transaction d'un achat refusé, pour les appelants qui en attendent une.
+     * Elle n'est pas journalisée et ne consomme pas d'identifiant.
+     */
+    private Transaction transactionEchouee(Boisson boisson, Montant montantInsere, MotifEchec motif) {
+        return new Transaction(Transaction.ID_NON_ATTRIBUE, boisson, montantInsere, montantInsere,
+                horloge.millisecondes(), false, motif);
+    }
+
+    /**
+     * Effectue l'achat d'une boisson avec un montant saisi en FCFA.
+     * 
+     * @param idBoisson    L'ID de la boisson à acheter
+     * @param montantInsere Le montant inséré par l'utilisateur en FCFA
+     * @return La transaction effectuée
+     */
+    public Transaction acheterBoisson(int idBoisson, double montantInsere) {
+        return acheterBoisson(idBoisson, Montant.deFcfa(montantInsere));
     }
 
     /**
@@ -130,6 +519,15 @@ public class Distributeur {
      * @return true si le rechargement a réussi, false sinon
      */
     public boolean rechargerStock(int idBoisson, int quantite) {
+        long debut = metriques.demarrer();
+        try {
+            return effectuerRecharge(idBoisson, quantite);
+        } finally {
+            metriques.terminer(Metriques.Operation.RECHARGE, debut);
+        }
+    }
+
+    private boolean effectuerRecharge(int idBoisson, int quantite) {
         if (quantite <= 0) {
             return false;
         }
@@ -140,8 +538,37 @@ public class Distributeur {
             return false;
         }
         
-        boisson.setQuantiteStock(boisson.getQuantiteStock() + quantite);
-        return true;
+        verrouEtat.readLock().lock();
+        try {
+            boolean recharge = boisson.augmenterStock(quantite);
+            JournalDisque journalDisque = disque;
+            if (recharge && journalDisque != null) {
+                journalDisque.ajouterRechargeStock(idBoisson, quantite, horloge.maintenant());
+            }
+            return recharge;
+        } finally {
+            verrouEtat.readLock().unlock();
+        }
+    }
+
+    /**
+     * Active le rendu de la monnaie : la monnaie de chaque achat sera prise dans ce stock,
+     * et un achat dont la monnaie ne peut pas être rendue exactement sera refusé. Sans
+     * stock, la monnaie est supposée toujours disponible.
+     * 
+     * @param stockMonnaie Le stock des pièces et billets à rendre, ou null pour désactiver le rendu
+     */
+    public void activerRenduMonnaie(StockMonnaie stockMonnaie) {
+        this.monnaie = stockMonnaie;
+    }
+
+    /**
+     * Retourne le stock des pièces et billets à rendre.
+     * 
+     * @return Le stock, ou null si le rendu de la monnaie n'est pas activé
+     */
+    public StockMonnaie getStockMonnaie() {
+        return monnaie;
     }
 
     /**
@@ -149,7 +576,7 @@ public class Distributeur {
      * 
      * @return Le montant dans la caisse
      */
-    public double getMontantCaisse() {
+    public Montant getMontantCaisse() {
         return caisse.getSolde();
     }
 
@@ -158,21 +585,147 @@ public class Distributeur {
      * 
      * @return Le montant qui était dans la caisse
      */
-    public double viderCaisse() {
-        double montant = caisse.getSolde();
-        caisse.reinitialiser();
-        return montant;
+    public Montant viderCaisse() {
+        long debut = metriques.demarrer();
+        verrouEtat.readLock().lock();
+        try {
+            Montant montant = caisse.vider();
+            JournalDisque journalDisque = disque;
+            if (journalDisque != null && montant.estPositif()) {
+                journalDisque.ajouterRetraitCaisse(montant, horloge.maintenant());
+            }
+            return montant;
+        } finally {
+            verrouEtat.readLock().unlock();
+            metriques.terminer(Metriques.Operation.COLLECTE, debut);
+        }
+    }
+
+    /**
+     * Active la persistance dans le répertoire indiqué, avec les réglages par défaut
+     * du {@link JournalDisque}.
+     * 
+     * @param repertoire Le répertoire du journal sur disque
+     * @throws IOException si le journal ne peut pas être ouvert ou relu
+     */
+    public void activerPersistance(Path repertoire) throws IOException {
+        activerPersistance(new JournalDisque(repertoire));
+    }
+
+    /**
+     * Active la persistance des ventes, des rechargements et des vidages de la caisse.
+     * Si le répertoire du journal contient un instantané, il est chargé et seuls les
+     * enregistrements postérieurs sont relus ; sinon tout le journal est relu, à partir
+     * du catalogue courant. Les boissons doivent donc être ajoutées avant l'appel.
+     * 
+     * @param journalDisque Le journal sur disque
+     * @throws IOException si le journal ne peut pas être relu
+     * @throws IllegalStateException si la persistance est déjà activée
+     */
+    public synchronized void activerPersistance(JournalDisque journalDisque) throws IOException {
+        if (disque != null) {
+            throw new IllegalStateException("La persistance est déjà activée");
+        }
+        Path instantane = journalDisque.getRepertoire().resolve(InstantaneDistributeur.FICHIER);
+        long depuis = 0;
+        if (Files.exists(instantane)) {
+            depuis = InstantaneDistributeur.restaurer(instantane, this, caisse, journal, identifiants);
+        }
+        journalDisque.relire(depuis, this::restaurer);
+        journal.attacherDisque(journalDisque);
+        disque = journalDisque;
+    }
+
+    /**
+     * Prend un instantané de l'état du distributeur dans le répertoire du journal.
+     * L'état est copié sous le verrou en écriture, puis le fichier est écrit sans
+     * bloquer les ventes.
+     * 
+     * @throws IOException si l'instantané ne peut pas être écrit
+     * @throws IllegalStateException si la persistance n'est pas activée
+     */
+    public void creerInstantane() throws IOException {
+        JournalDisque journalDisque = disque;
+        if (journalDisque == null) {
+            throw new IllegalStateException("La persistance n'est pas activée");
+        }
+        byte[] contenu;
+        verrouEtat.writeLock().lock();
+        try {
+            contenu = InstantaneDistributeur.encoder(journalDisque.getProchaineSequence(),
+                    caisse.getSolde(), getToutesBoissons(), journal, identifiants.getProchaineSequence());
+        } finally {
+            verrouEtat.writeLock().unlock();
+        }
+        InstantaneDistributeur.ecrire(journalDisque.getRepertoire().resolve(InstantaneDistributeur.FICHIER), contenu);
+    }
+
+    /**
+     * Désactive la persistance et ferme le journal sur disque, après l'avoir synchronisé.
+     */
+    public synchronized void fermerPersistance() {
+        JournalDisque journalDisque = disque;
+        if (journalDisque != null) {
+            journal.attacherDisque(null);
+            disque = null;
+            journalDisque.close();
+        }
+    }
+
+    private void restaurer(JournalDisque.Enregistrement enregistrement) {
+        if (enregistrement.getType() == JournalDisque.TYPE_VENTE) {
+            identifiants.avancerApres(enregistrement.getIdTransaction());
+            Transaction transaction = new Transaction(enregistrement.getIdTransaction(),
+                    rechercherBoisson(enregistrement.getIdBoisson()),
+                    Montant.deCentimes(enregistrement.getMontantInsere()),
+                    Montant.deCentimes(enregistrement.getMonnaieRendue()),
+                    enregistrement.getHorodatage(), enregistrement.estReussie(), null);
+            journal.restaurerTransaction(transaction);
+            if (transaction.estReussie()) {
+                caisse.ajouterFonds(transaction.getMontantInsere().moins(transaction.getMonnaieRendue()));
+                if (transaction.getBoisson() != null) {
+                    transaction.getBoisson().diminuerStock();
+                }
+            }
+        } else if (enregistrement.getType() == JournalDisque.TYPE_RETRAIT_CAISSE) {
+            caisse.retirer(Montant.deCentimes(enregistrement.getMontantInsere()));
+        } else if (enregistrement.getType() == JournalDisque.TYPE_RECHARGE_STOCK) {
+            Boisson boisson = rechercherBoisson(enregistrement.getIdBoisson());
+            if (boisson != null) {
+                boisson.augmenterStock((int) enregistrement.getMontantInsere());
+            }
+        }
     }
 
     /**
-     * Retourne l'historique complet des ventes.
+     * Retourne le numéro de machine du distributeur, porté par les identifiants de ses transactions.
      * 
-     * @return La liste des transactions
+     * @return Le numéro de machine
+     */
+    public int getIdMachine() {
+        return identifiants.getIdMachine();
+    }
+
+    /**
+     * Retourne l'historique des ventes conservées en mémoire, en O(1) et sans copie.
+     * Après un démarrage depuis un instantané, les ventes qu'il couvre n'y figurent pas
+     * (voir {@link JournalVentes#getNombreTransactionsArchivees()}).
+     * 
+     * @return Une vue non modifiable des transactions à cet instant
      */
     public List<Transaction> getHistoriqueVentes() {
         return journal.getTransactions();
     }
 
+    /**
+     * Retourne le registre des métriques du distributeur.
+     * 
+     * @return Les métriques
+     */
+    public Metriques getMetriques() {
+        return metriques;
+    }
+
     /**
      * Retourne le journal des ventes.
      * 
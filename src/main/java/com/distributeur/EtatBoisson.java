@@ -0,0 +1,69 @@
+package com.distributeur;
+
+/**
+ * État immuable d'une boisson à une version donnée du catalogue
+ * (voir {@link CatalogueInstantane}).
+ */
+public final class EtatBoisson {
+    private final int id;
+    private final String nom;
+    private final Montant prix;
+    private final int quantiteStock;
+
+    EtatBoisson(Boisson boisson, int quantiteStock) {
+        this.id = boisson.getId();
+        this.nom = boisson.getNom();
+        this.prix = boisson.getPrix();
+        this.quantiteStock = quantiteStock;
+    }
+
+    /**
+     * Retourne l'identifiant de la boisson.
+     *
+     * @return L'identifiant de la boisson
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Retourne le nom de la boisson.
+     *
+     * @return Le nom de la boisson
+     */
+    public String getNom() {
+        return nom;
+    }
+
+    /**
+     * Retourne le prix de la boisson.
+     *
+     * @return Le prix de la boisson
+     */
+    public Montant getPrix() {
+        return prix;
+    }
+
+    /**
+     * Retourne la quantité en stock à cette version du catalogue.
+     *
+     * @return La quantité en stock
+     */
+    public int getQuantiteStock() {
+        return quantiteStock;
+    }
+
+    /**
+     * Indique si la boisson était disponible à cette version du catalogue.
+     *
+     * @return true si la quantité en stock est positive
+     */
+    public boolean estDisponible() {
+        return quantiteStock > 0;
+    }
+
+    @Override
+    public String toString() {
+        return id + " - " + nom + " - " + prix + " FCFA (Stock: " + quantiteStock + ")";
+    }
+}
@@ -0,0 +1,343 @@
+package com.distributeur;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Export en flux de l'historique des ventes d'un {@link JournalVentes}, en CSV ou dans
+ * un format binaire compact, vers un canal NIO.
+ * <p>
+ * Les ventes sont lues directement dans les colonnes du journal, sur une vue figée et
+ * sans verrou : aucune {@link Transaction} n'est recréée et la mémoire utilisée se
+ * limite à un tampon de {@value #TAILLE_TAMPON} octets, quelle que soit la taille de
+ * l'historique. Les ventes peuvent continuer d'être enregistrées pendant l'export.
+ * <p>
+ * Chaque export retourne un curseur à passer à l'export suivant, qui n'écrit alors que
+ * les ventes enregistrées depuis. Comme pour {@link PageVentes}, le curseur est un rang
+ * dans tout l'historique du journal, ventes archivées comprises : il reste valable après
+ * un redémarrage depuis un instantané et la fin du journal. Les ventes archivées ne sont
+ * plus en mémoire et ne peuvent pas être exportées : un curseur qui en désigne une est
+ * refusé, plutôt que de sauter ou de réécrire des ventes.
+ * <p>
+ * Le CSV commence par la ligne {@value #EN_TETE_CSV}, sans la fin de ligne. Les dates
+ * sont au format ISO à la milliseconde, les montants en FCFA avec deux décimales ;
+ * l'identifiant de boisson est vide si la boisson n'est pas connue, et le statut vaut
+ * {@code REUSSIE}, {@code ECHEC} ou le nom du {@link MotifEchec}.
+ * <p>
+ * Le format binaire, gros-boutiste, commence par la signature {@link #SIGNATURE_BINAIRE}
+ * et la version {@link #VERSION_BINAIRE} (deux int), suivies d'un enregistrement de
+ * {@value #TAILLE_ENREGISTREMENT_BINAIRE} octets par vente :
+ * <pre>
+ *  0  long  identifiant de la transaction
+ *  8  long  horodatage (millisecondes epoch, heure locale)
+ * 16  int   identifiant de la boisson (0 si elle n'est pas connue)
+ * 20  long  montant inséré (centimes)
+ * 28  long  monnaie rendue (centimes)
+ * 36  byte  statut (0 si réussie, 1 si échouée sans motif, 2 + ordinal du motif sinon)
+ * </pre>
+ */
+public final class ExportVentes {
+    /** Curseur du premier export : tout l'historique en mémoire, précédé de l'en-tête. */
+    public static final long DEBUT = 0;
+
+    /** Première ligne du CSV. */
+    public static final String EN_TETE_CSV = "id,date,id_boisson,montant_insere,monnaie_rendue,statut";
+
+    /** Signature du format binaire ("VENT"). */
+    public static final int SIGNATURE_BINAIRE = 0x56454E54;
+
+    /** Version du format binaire. */
+    public static final int VERSION_BINAIRE = 1;
+
+    /** Taille d'un enregistrement binaire en octets. */
+    public static final int TAILLE_ENREGISTREMENT_BINAIRE = 37;
+
+    /** Taille du tampon d'écriture en octets. */
+    public static final int TAILLE_TAMPON = 64 * 1024;
+
+    // Plus grande ligne CSV possible : 20 + 23 + 11 + 2 * 21 + 40 octets et les séparateurs
+    private static final int TAILLE_LIGNE_MAX = 256;
+
+    private static final byte[] EN_TETE = (EN_TETE_CSV + "\n").getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] REUSSIE = "REUSSIE".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] ECHEC = "ECHEC".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[][] MOTIFS = new byte[MotifEchec.values().length][];
+
+    static {
+        for (MotifEchec motif : MotifEchec.values()) {
+            MOTIFS[motif.ordinal()] = motif.name().getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private ExportVentes() {
+    }
+
+    /**
+     * Exporte en CSV les ventes retenues par un filtre, enregistrées depuis un curseur.
+     * L'en-tête n'est écrit que pour le curseur {@link #DEBUT}.
+     *
+     * @param journal Le journal à exporter
+     * @param filtre  Le filtre des ventes
+     * @param depuis  {@link #DEBUT}, ou le curseur retourné par l'export précédent
+     * @param canal   Le canal de destination, laissé ouvert
+     * @return Le curseur de l'export suivant
+     * @throws IOException si l'écriture échoue
+     * @throws IllegalArgumentException si le curseur est invalide
+     */
+    public static long exporterCsv(JournalVentes journal, FiltreVentes filtre, long depuis,
+                                   WritableByteChannel canal) throws IOException {
+        return exporter(journal, filtre, depuis, canal, true);
+    }
+
+    /**
+     * Exporte en CSV dans un fichier : le fichier est réécrit pour le curseur
+     * {@link #DEBUT}, complété sinon.
+     *
+     * @param journal Le journal à exporter
+     * @param filtre  Le filtre des ventes
+     * @param depuis  {@link #DEBUT}, ou le curseur retourné par l'export précédent
+     * @param fichier Le fichier de destination, créé s'il n'existe pas
+     * @return Le curseur de l'export suivant
+     * @throws IOException si le fichier ne peut pas être écrit
+     * @throws IllegalArgumentException si le curseur est invalide
+     */
+    public static long exporterCsv(JournalVentes journal, FiltreVentes filtre, long depuis, Path fichier)
+            throws IOException {
+        try (FileChannel canal = ouvrir(fichier, depuis)) {
+            return exporter(journal, filtre, depuis, canal, true);
+        }
+    }
+
+    /**
+     * Exporte au format binaire les ventes retenues par un filtre, enregistrées depuis
+     * un curseur. La signature et la version ne sont écrites que pour le curseur
+     * {@link #DEBUT}.
+     *
+     * @param journal Le journal à exporter
+     * @param filtre  Le filtre des ventes
+     * @param depuis  {@link #DEBUT}, ou le curseur retourné par l'export précédent
+     * @param canal   Le canal de destination, laissé ouvert
+     * @return Le curseur de l'export suivant
+     * @throws IOException si l'écriture échoue
+     * @throws IllegalArgumentException si le curseur est invalide
+     */
+    public static long exporterBinaire(JournalVentes journal, FiltreVentes filtre, long depuis,
+                                       WritableByteChannel canal) throws IOException {
+        return exporter(journal, filtre, depuis, canal, false);
+    }
+
+    /**
+     * Exporte au format binaire dans un fichier : le fichier est réécrit pour le curseur
+     * {@link #DEBUT}, complété sinon.
+     *
+     * @param journal Le journal à exporter
+     * @param filtre  Le filtre des ventes
+     * @param depuis  {@link #DEBUT}, ou le curseur retourné par l'export précédent
+     * @param fichier Le fichier de destination, créé s'il n'existe pas
+     * @return Le curseur de l'export suivant
+     * @throws IOException si le fichier ne peut pas être écrit
+     * @throws IllegalArgumentException si le curseur est invalide
+     */
+    public static long exporterBinaire(JournalVentes journal, FiltreVentes filtre, long depuis, Path fichier)
+            throws IOException {
+        try (FileChannel canal = ouvrir(fichier, depuis)) {
+            return exporter(journal, filtre, depuis, canal, false);
+        }
+    }
+
+    private static FileChannel ouvrir(Path fichier, long depuis) throws IOException {
+        return FileChannel.open(fichier, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                depuis == DEBUT ? StandardOpenOption.TRUNCATE_EXISTING : StandardOpenOption.APPEND);
+    }
+
+    private static long exporter(JournalVentes journal, FiltreVentes filtre, long depuis,
+                                 WritableByteChannel canal, boolean csv) throws IOException {
+        int archivees = journal.getNombreTransactionsArchivees();
+        int debut = JournalVentes.position(depuis, archivees);
+        ColonnesVentes.Vue vue = journal.figer();
+        Tampon tampon = new Tampon(canal);
+        if (depuis == DEBUT) {
+            if (csv) {
+                tampon.ecrire(EN_TETE);
+            } else {
+                tampon.ecrireInt(SIGNATURE_BINAIRE);
+                tampon.ecrireInt(VERSION_BINAIRE);
+            }
+        }
+        int position = vue.chercher(debut, filtre);
+        while (position >= 0) {
+            tampon.reserver(TAILLE_LIGNE_MAX);
+            if (csv) {
+                ecrireLigneCsv(tampon, vue, position);
+            } else {
+                ecrireEnregistrement(tampon, vue, position);
+            }
+            position = vue.chercher(position + 1, filtre);
+        }
+        tampon.vider();
+        return Math.max(depuis, (long) archivees + vue.size());
+    }
+
+    private static void ecrireLigneCsv(Tampon tampon, ColonnesVentes.Vue vue, int position) {
+        tampon.ecrireDecimal(vue.getId(position));
+        tampon.ecrire((byte) ',');
+        tampon.ecrireDate(vue.getHorodatage(position));
+        tampon.ecrire((byte) ',');
+        Boisson boisson = vue.getBoisson(position);
+        if (boisson != null) {
+            tampon.ecrireDecimal(boisson.getId());
+        }
+        tampon.ecrire((byte) ',');
+        tampon.ecrireMontant(vue.getMontantInsere(position));
+        tampon.ecrire((byte) ',');
+        tampon.ecrireMontant(vue.getMonnaieRendue(position));
+        tampon.ecrire((byte) ',');
+        byte statut = vue.getStatut(position);
+        MotifEchec motif = ColonnesVentes.motif(statut);
+        tampon.ecrire(statut == ColonnesVentes.REUSSIE ? REUSSIE : motif == null ? ECHEC : MOTIFS[motif.ordinal()]);
+        tampon.ecrire((byte) '\n');
+    }
+
+    private static void ecrireEnregistrement(Tampon tampon, ColonnesVentes.Vue vue, int position) {
+        Boisson boisson = vue.getBoisson(position);
+        tampon.ecrireLong(vue.getId(position));
+        tampon.ecrireLong(vue.getHorodatage(position));
+        tampon.ecrireInt(boisson != null ? boisson.getId() : 0);
+        tampon.ecrireLong(vue.getMontantInsere(position));
+        tampon.ecrireLong(vue.getMonnaieRendue(position));
+        tampon.ecrire(vue.getStatut(position));
+    }
+
+    /**
+     * Tampon d'écriture vers un canal. Les valeurs sont formatées directement en octets,
+     * sans chaîne intermédiaire ; l'appelant réserve la place d'une ligne avant de l'écrire.
+     */
+    private static final class Tampon {
+        private final WritableByteChannel canal;
+        private final byte[] octets = new byte[TAILLE_TAMPON];
+        private final ByteBuffer enveloppe = ByteBuffer.wrap(octets);
+        private final byte[] chiffres = new byte[20];
+        private int position;
+
+        Tampon(WritableByteChannel canal) {
+            this.canal = canal;
+        }
+
+        void reserver(int taille) throws IOException {
+            if (position + taille > octets.length) {
+                vider();
+            }
+        }
+
+        void vider() throws IOException {
+            enveloppe.clear().limit(position);
+            while (enveloppe.hasRemaining()) {
+                canal.write(enveloppe);
+            }
+            position = 0;
+        }
+
+        void ecrire(byte octet) {
+            octets[position++] = octet;
+        }
+
+        void ecrire(byte[] source) {
+            System.arraycopy(source, 0, octets, position, source.length);
+            position += source.length;
+        }
+
+        void ecrireInt(int valeur) {
+            octets[position++] = (byte) (valeur >>> 24);
+            octets[position++] = (byte) (valeur >>> 16);
+            octets[position++] = (byte) (valeur >>> 8);
+            octets[position++] = (byte) valeur;
+        }
+
+        void ecrireLong(long valeur) {
+            ecrireInt((int) (valeur >>> 32));
+            ecrireInt((int) valeur);
+        }
+
+        void ecrireDecimal(long valeur) {
+            if (valeur < 0) {
+                ecrire((byte) '-');
+                if (valeur == Long.MIN_VALUE) {
+                    // -Long.MIN_VALUE déborde : le dernier chiffre est écrit à part
+                    ecrireDecimal(-(valeur / 10));
+                    ecrire((byte) ('0' + -(valeur % 10)));
+                    return;
+                }
+                valeur = -valeur;
+            }
+            int n = 0;
+            do {
+                chiffres[n++] = (byte) ('0' + valeur % 10);
+                valeur /= 10;
+            } while (valeur != 0);
+            while (n > 0) {
+                octets[position++] = chiffres[--n];
+            }
+        }
+
+        void ecrireMontant(long centimes) {
+            if (centimes < 0) {
+                ecrire((byte) '-');
+            }
+            long unites = Math.abs(centimes / 100);
+            int reste = (int) Math.abs(centimes % 100);
+            ecrireDecimal(unites);
+            ecrire((byte) '.');
+            ecrireChiffres(reste, 2);
+        }
+
+        /**
+         * Écrit un horodatage au format ISO (aaaa-mm-jjThh:mm:ss.mmm). La date civile est
+         * calculée depuis le jour epoch sans passer par {@link java.time}, selon
+         * l'algorithme « civil_from_days » de Howard Hinnant.
+         */
+        void ecrireDate(long horodatage) {
+            long jour = Math.floorDiv(horodatage, 86_400_000L);
+            int milliDuJour = (int) Math.floorMod(horodatage, 86_400_000L);
+            long z = jour + 719_468;
+            long ere = Math.floorDiv(z, 146_097);
+            int jourEre = (int) (z - ere * 146_097);
+            int anneeEre = (jourEre - jourEre / 1460 + jourEre / 36_524 - jourEre / 146_096) / 365;
+            int jourAnnee = jourEre - (365 * anneeEre + anneeEre / 4 - anneeEre / 100);
+            int mp = (5 * jourAnnee + 2) / 153;
+            int jourMois = jourAnnee - (153 * mp + 2) / 5 + 1;
+            int mois = mp < 10 ? mp + 3 : mp - 9;
+            long annee = anneeEre + ere * 400 + (mois <= 2 ? 1 : 0);
+
+            if (annee >= 0 && annee <= 9999) {
+                ecrireChiffres((int) annee, 4);
+            } else {
+                ecrireDecimal(annee);
+            }
+            ecrire((byte) '-');
+            ecrireChiffres(mois, 2);
+            ecrire((byte) '-');
+            ecrireChiffres(jourMois, 2);
+            ecrire((byte) 'T');
+            ecrireChiffres(milliDuJour / 3_600_000, 2);
+            ecrire((byte) ':');
+            ecrireChiffres(milliDuJour / 60_000 % 60, 2);
+            ecrire((byte) ':');
+            ecrireChiffres(milliDuJour / 1000 % 60, 2);
+            ecrire((byte) '.');
+            ecrireChiffres(milliDuJour % 1000, 3);
+        }
+
+        private void ecrireChiffres(int valeur, int nombre) {
+            for (int i = position + nombre - 1; i >= position; i--) {
+                octets[i] = (byte) ('0' + valeur % 10);
+                valeur /= 10;
+            }
+            position += nombre;
+        }
+    }
+}
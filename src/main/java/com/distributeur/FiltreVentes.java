@@ -0,0 +1,99 @@
+package com.distributeur;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filtre des ventes parcourues par {@link JournalVentes#getPage(FiltreVentes, long, int)}
+ * et {@link JournalVentes#iterer(FiltreVentes)} : intervalle de dates, boisson et statut.
+ * <p>
+ * Le filtre est immuable ; chaque critère ajouté retourne un nouveau filtre. Il est
+ * évalué directement sur les colonnes du journal ({@link ColonnesVentes}) : seules les
+ * ventes retenues sont recréées en {@link Transaction}.
+ */
+public final class FiltreVentes {
+    private static final FiltreVentes TOUT = new FiltreVentes(Long.MIN_VALUE, Long.MAX_VALUE, null, null);
+
+    private final long debut;
+    private final long fin;
+    private final Integer idBoisson;
+    private final Boolean reussie;
+
+    private FiltreVentes(long debut, long fin, Integer idBoisson, Boolean reussie) {
+        this.debut = debut;
+        this.fin = fin;
+        this.idBoisson = idBoisson;
+        this.reussie = reussie;
+    }
+
+    /**
+     * Retourne le filtre qui retient toutes les ventes.
+     *
+     * @return Le filtre sans critère
+     */
+    public static FiltreVentes tout() {
+        return TOUT;
+    }
+
+    /**
+     * Restreint le filtre à un intervalle de dates.
+     *
+     * @param debut Le début de l'intervalle (inclus)
+     * @param fin   La fin de l'intervalle (exclue)
+     * @return Le nouveau filtre
+     * @throws IllegalArgumentException si une borne est null
+     */
+    public FiltreVentes entre(LocalDateTime debut, LocalDateTime fin) {
+        if (debut == null || fin == null) {
+            throw new IllegalArgumentException("Les bornes de l'intervalle ne peuvent pas être null");
+        }
+        return new FiltreVentes(horodatageArrondiSuperieur(debut), horodatageArrondiSuperieur(fin),
+                idBoisson, reussie);
+    }
+
+    /**
+     * Restreint le filtre aux ventes d'une boisson.
+     *
+     * @param idBoisson L'ID de la boisson
+     * @return Le nouveau filtre
+     */
+    public FiltreVentes boisson(int idBoisson) {
+        return new FiltreVentes(debut, fin, idBoisson, reussie);
+    }
+
+    /**
+     * Restreint le filtre aux ventes réussies.
+     *
+     * @return Le nouveau filtre
+     */
+    public FiltreVentes reussies() {
+        return new FiltreVentes(debut, fin, idBoisson, Boolean.TRUE);
+    }
+
+    /**
+     * Restreint le filtre aux transactions échouées.
+     *
+     * @return Le nouveau filtre
+     */
+    public FiltreVentes echouees() {
+        return new FiltreVentes(debut, fin, idBoisson, Boolean.FALSE);
+    }
+
+    /**
+     * Indique si une vente, lue dans les colonnes du journal, est retenue.
+     */
+    boolean accepte(long horodatage, Boisson boisson, boolean venteReussie) {
+        return horodatage >= debut && horodatage < fin
+                && (reussie == null || reussie == venteReussie)
+                && (idBoisson == null || (boisson != null && boisson.getId() == idBoisson));
+    }
+
+    /**
+     * Horodatage à la milliseconde supérieure : les dates des transactions étant entières
+     * en millisecondes, une transaction est dans [debut, fin[ si et seulement si son
+     * horodatage est dans [plafond(debut), plafond(fin)[.
+     */
+    static long horodatageArrondiSuperieur(LocalDateTime dateHeure) {
+        long horodatage = JournalDisque.horodatage(dateHeure);
+        return dateHeure.getNano() % 1_000_000 == 0 ? horodatage : horodatage + 1;
+    }
+}
@@ -0,0 +1,292 @@
+package com.distributeur;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Flotte de distributeurs, identifiés par un numéro de machine.
+ * <p>
+ * Les machines sont réparties sur un nombre fixe de fils d'exécution (shards) : une
+ * machine appartient toujours au même shard, qui exécute seul ses achats et ses
+ * rechargements, dans l'ordre de soumission. Chaque machine n'a ainsi qu'un seul
+ * écrivain, et les shards travaillent en parallèle sans se coordonner. La flotte ne
+ * donne donc pas accès à ses distributeurs : elle n'expose d'une machine que la
+ * version immuable de son catalogue ({@link #getCatalogue(int)}).
+ * <p>
+ * Les agrégations sur toute la flotte (caisse totale, chiffre d'affaires par jour,
+ * machines en stock bas) lisent les machines en parallèle, hors des shards : elles
+ * n'interrompent pas les ventes. La collecte des fonds vide de même les caisses en
+ * parallèle, chacune par une seule opération atomique.
+ */
+public class Flotte implements AutoCloseable {
+    /** Nombre maximal de jours d'une période de {@link #getChiffreAffairesParJour(LocalDate, LocalDate)}. */
+    public static final int PERIODE_MAX_JOURS = 3660;
+
+    private final ExecutorService[] shards;
+    private final Map<Integer, Distributeur> machines;
+
+    /**
+     * Constructeur créant une flotte vide avec un shard par processeur disponible.
+     */
+    public Flotte() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructeur créant une flotte vide.
+     *
+     * @param nombreShards Le nombre de fils d'exécution entre lesquels répartir les machines
+     * @throws IllegalArgumentException si le nombre de shards n'est pas positif
+     */
+    public Flotte(int nombreShards) {
+        if (nombreShards <= 0) {
+            throw new IllegalArgumentException("Le nombre de shards doit être positif");
+        }
+        this.shards = new ExecutorService[nombreShards];
+        for (int i = 0; i < nombreShards; i++) {
+            String nom = "flotte-shard-" + i;
+            shards[i] = Executors.newSingleThreadExecutor(r -> {
+                Thread fil = new Thread(r, nom);
+                fil.setDaemon(true);
+                return fil;
+            });
+        }
+        this.machines = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Enregistre une machine dans la flotte. Pour que les identifiants de transaction
+     * restent uniques sur toute la flotte, le distributeur doit avoir été créé avec le
+     * même numéro ({@link Distributeur#Distributeur(int)}). La flotte devient
+     * propriétaire du distributeur : il ne doit plus être modifié qu'à travers elle.
+     *
+     * @param idMachine    Le numéro de la machine
+     * @param distributeur Le distributeur de la machine
+     * @return true si la machine a été enregistrée, false si le numéro est déjà pris
+     * @throws IllegalArgumentException si le numéro du distributeur n'est pas {@code idMachine}
+     */
+    public boolean enregistrer(int idMachine, Distributeur distributeur) {
+        if (distributeur == null) {
+            return false;
+        }
+        if (distributeur.getIdMachine() != idMachine) {
+            throw new IllegalArgumentException("Le distributeur de la machine " + distributeur.getIdMachine()
+                    + " ne peut pas être enregistré sous le numéro " + idMachine);
+        }
+        return machines.putIfAbsent(idMachine, distributeur) == null;
+    }
+
+    /**
+     * Retourne la version courante du catalogue d'une machine, en lecture seule (voir
+     * {@link Distributeur#getCatalogue()}).
+     *
+     * @param idMachine Le numéro de la machine
+     * @return Le catalogue, null si la machine n'est pas enregistrée
+     */
+    public CatalogueInstantane getCatalogue(int idMachine) {
+        Distributeur distributeur = machines.get(idMachine);
+        return distributeur != null ? distributeur.getCatalogue() : null;
+    }
+
+    /**
+     * Retourne le nombre de machines enregistrées.
+     *
+     * @return Le nombre de machines
+     */
+    public int getNombreMachines() {
+        return machines.size();
+    }
+
+    /**
+     * Retourne le nombre de shards.
+     *
+     * @return Le nombre de shards
+     */
+    public int getNombreShards() {
+        return shards.length;
+    }
+
+    /**
+     * Retourne le shard propriétaire d'une machine.
+     *
+     * @param idMachine Le numéro de la machine
+     * @return L'indice du shard, entre 0 et {@link #getNombreShards()} exclu
+     */
+    public int getShard(int idMachine) {
+        return Math.floorMod(idMachine, shards.length);
+    }
+
+    /**
+     * Soumet un achat au shard propriétaire de la machine.
+     *
+     * @param idMachine     Le numéro de la machine
+     * @param idBoisson     L'ID de la boisson à acheter
+     * @param montantInsere Le montant inséré
+     * @return La transaction, disponible une fois l'achat exécuté
+     * @throws IllegalArgumentException si la machine n'est pas enregistrée
+     */
+    public CompletableFuture<Transaction> acheterBoisson(int idMachine, int idBoisson, Montant montantInsere) {
+        Distributeur distributeur = machine(idMachine);
+        return CompletableFuture.supplyAsync(() -> distributeur.acheterBoisson(idBoisson, montantInsere),
+                shards[getShard(idMachine)]);
+    }
+
+    /**
+     * Soumet un rechargement de stock au shard propriétaire de la machine.
+     *
+     * @param idMachine Le numéro de la machine
+     * @param idBoisson L'ID de la boisson à recharger
+     * @param quantite  La quantité à ajouter au stock
+     * @return true si le rechargement a réussi, disponible une fois le rechargement exécuté
+     * @throws IllegalArgumentException si la machine n'est pas enregistrée
+     */
+    public CompletableFuture<Boolean> rechargerStock(int idMachine, int idBoisson, int quantite) {
+        Distributeur distributeur = machine(idMachine);
+        return CompletableFuture.supplyAsync(() -> distributeur.rechargerStock(idBoisson, quantite),
+                shards[getShard(idMachine)]);
+    }
+
+    /**
+     * Calcule le montant total des caisses de la flotte.
+     *
+     * @return La somme des caisses de toutes les machines
+     */
+    public Montant getTotalCaisse() {
+        long total = machines.values().parallelStream()
+                .mapToLong(d -> d.getMontantCaisse().getCentimes())
+                .reduce(0L, Math::addExact);
+        return Montant.deCentimes(total);
+    }
+
+    /**
+     * Collecte les fonds de toutes les machines de la flotte. Les caisses sont vidées en
+     * parallèle, hors des shards, chacune en une seule opération atomique (voir
+     * {@link Distributeur#viderCaisse()}) : les ventes continuent sur toutes les machines
+     * pendant la collecte, et une vente conclue pendant celle-ci est comptée soit dans
+     * le bilan, soit dans la caisse restante.
+     *
+     * @return Le montant collecté sur chaque machine et leur total
+     */
+    public CollecteFonds collecterFonds() {
+        return vider(machines.entrySet());
+    }
+
+    /**
+     * Collecte les fonds de certaines machines de la flotte, comme
+     * {@link #collecterFonds()}. Les numéros sont tous vérifiés avant qu'aucune caisse
+     * soit vidée.
+     *
+     * @param idMachines Les numéros des machines à collecter
+     * @return Le montant collecté sur chaque machine et leur total
+     * @throws IllegalArgumentException si l'une des machines n'est pas enregistrée
+     */
+    public CollecteFonds collecterFonds(Collection<Integer> idMachines) {
+        Map<Integer, Distributeur> selection = new HashMap<>();
+        for (Integer idMachine : idMachines) {
+            selection.put(idMachine, machine(idMachine));
+        }
+        return vider(selection.entrySet());
+    }
+
+    private static CollecteFonds vider(Collection<Map.Entry<Integer, Distributeur>> selection) {
+        NavigableMap<Integer, Montant> parMachine = selection.parallelStream()
+                .collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().viderCaisse(),
+                        (a, b) -> a, TreeMap::new));
+        return new CollecteFonds(parMachine);
+    }
+
+    /**
+     * Calcule le chiffre d'affaires de la flotte pour chaque jour d'une période.
+     *
+     * @param debut Le premier jour (inclus)
+     * @param fin   Le dernier jour (inclus)
+     * @return Le chiffre d'affaires de chaque jour, dans l'ordre chronologique
+     * @throws IllegalArgumentException si l'une des dates est null, si le dernier jour précède
+     *                                  le premier ou si la période dépasse {@link #PERIODE_MAX_JOURS} jours
+     */
+    public NavigableMap<LocalDate, Montant> getChiffreAffairesParJour(LocalDate debut, LocalDate fin) {
+        if (debut == null || fin == null) {
+            throw new IllegalArgumentException("Les dates de la période ne peuvent pas être null");
+        }
+        if (fin.isBefore(debut)) {
+            throw new IllegalArgumentException("Le dernier jour ne peut pas précéder le premier");
+        }
+        long jours = fin.toEpochDay() - debut.toEpochDay() + 1;
+        if (jours > PERIODE_MAX_JOURS) {
+            throw new IllegalArgumentException("La période ne peut pas dépasser " + PERIODE_MAX_JOURS + " jours");
+        }
+        int nombreJours = (int) jours;
+        long[] totaux = machines.values().parallelStream()
+                .map(d -> {
+                    long[] parJour = new long[nombreJours];
+                    for (int j = 0; j < nombreJours; j++) {
+                        parJour[j] = d.getJournal().getChiffreAffairesParDate(debut.plusDays(j)).getCentimes();
+                    }
+                    return parJour;
+                })
+                .reduce(new long[nombreJours], (a, b) -> {
+                    long[] somme = new long[nombreJours];
+                    for (int j = 0; j < nombreJours; j++) {
+                        somme[j] = Math.addExact(a[j], b[j]);
+                    }
+                    return somme;
+                });
+        NavigableMap<LocalDate, Montant> resultat = new TreeMap<>();
+        for (int j = 0; j < nombreJours; j++) {
+            resultat.put(debut.plusDays(j), Montant.deCentimes(totaux[j]));
+        }
+        return resultat;
+    }
+
+    /**
+     * Retourne les machines dont au moins une boisson a un stock inférieur ou égal au seuil.
+     *
+     * @param seuil Le seuil de stock
+     * @return Les numéros des machines concernées, dans l'ordre croissant
+     */
+    public List<Integer> getMachinesStockBas(int seuil) {
+        return machines.entrySet().parallelStream()
+                .filter(e -> e.getValue().getToutesBoissons().stream()
+                        .anyMatch(b -> b.getQuantiteStock() <= seuil))
+                .map(Map.Entry::getKey)
+                .sorted()
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    /**
+     * Arrête les shards après l'exécution des opérations déjà soumises.
+     */
+    @Override
+    public void close() {
+        for (ExecutorService shard : shards) {
+            shard.shutdown();
+        }
+        try {
+            for (ExecutorService shard : shards) {
+                shard.awaitTermination(1, TimeUnit.MINUTES);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Distributeur machine(int idMachine) {
+        Distributeur distributeur = machines.get(idMachine);
+        if (distributeur == null) {
+            throw new IllegalArgumentException("Machine inconnue : " + idMachine);
+        }
+        return distributeur;
+    }
+}
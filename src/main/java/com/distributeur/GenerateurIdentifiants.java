@@ -0,0 +1,128 @@
+package com.distributeur;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Générateur des identifiants de transaction d'un distributeur.
+ * <p>
+ * Un identifiant est un entier long composé du numéro de la machine (bits de poids
+ * fort) et d'une séquence propre à la machine ({@value #BITS_SEQUENCE} bits de poids
+ * faible, à partir de 1). Deux machines d'une même JVM ne peuvent donc pas produire
+ * le même identifiant, et chaque machine n'incrémente que son propre compteur : aucun
+ * compteur global n'est partagé par les achats. L'allocation est une seule opération
+ * atomique, sans verrou, et les identifiants d'une machine sont strictement croissants
+ * dans l'ordre d'allocation.
+ * <p>
+ * Le numéro {@link #MACHINE_HORS_DISTRIBUTEUR} est réservé aux transactions créées hors
+ * de tout distributeur : il ne peut être attribué à aucune machine.
+ * <p>
+ * Au redémarrage, le distributeur fait avancer le générateur au-delà des identifiants
+ * relus depuis son journal sur disque et son instantané (voir {@link #avancerApres(long)}).
+ */
+public final class GenerateurIdentifiants {
+    /** Nombre de bits réservés à la séquence d'une machine. */
+    public static final int BITS_SEQUENCE = 40;
+    /** Numéro réservé aux transactions créées hors de tout distributeur. */
+    public static final int MACHINE_HORS_DISTRIBUTEUR = (1 << (Long.SIZE - 1 - BITS_SEQUENCE)) - 1;
+    /** Plus grand numéro attribuable à une machine. */
+    public static final int MACHINE_MAX = MACHINE_HORS_DISTRIBUTEUR - 1;
+
+    private static final long SEQUENCE_MAX = (1L << BITS_SEQUENCE) - 1;
+
+    /** Générateur des transactions créées hors de tout distributeur. */
+    static final GenerateurIdentifiants HORS_MACHINE = new GenerateurIdentifiants(MACHINE_HORS_DISTRIBUTEUR,
+            MACHINE_HORS_DISTRIBUTEUR);
+
+    private final int idMachine;
+    private final long base;
+    private final AtomicLong prochaineSequence = new AtomicLong(1);
+
+    /**
+     * Crée un générateur dont la séquence commence à 1.
+     *
+     * @param idMachine Le numéro de la machine, entre 0 et {@link #MACHINE_MAX}
+     * @throws IllegalArgumentException si le numéro est hors limites
+     */
+    public GenerateurIdentifiants(int idMachine) {
+        this(idMachine, MACHINE_MAX);
+    }
+
+    private GenerateurIdentifiants(int idMachine, int machineMax) {
+        if (idMachine < 0 || idMachine > machineMax) {
+            throw new IllegalArgumentException("Le numéro de machine doit être compris entre 0 et " + MACHINE_MAX);
+        }
+        this.idMachine = idMachine;
+        this.base = (long) idMachine << BITS_SEQUENCE;
+    }
+
+    /**
+     * Alloue l'identifiant suivant.
+     *
+     * @return Un identifiant jamais alloué par ce générateur
+     * @throws IllegalStateException si la séquence de la machine est épuisée
+     */
+    public long suivant() {
+        long sequence = prochaineSequence.getAndIncrement();
+        if (sequence > SEQUENCE_MAX) {
+            throw new IllegalStateException("Séquence des transactions épuisée pour la machine " + idMachine);
+        }
+        return base | sequence;
+    }
+
+    /**
+     * Garantit que les identifiants alloués ensuite seront supérieurs à un identifiant
+     * déjà utilisé par cette machine. Sans effet pour un identifiant d'une autre machine.
+     *
+     * @param id Un identifiant déjà utilisé
+     */
+    public void avancerApres(long id) {
+        if (machine(id) == idMachine) {
+            avancerA(sequence(id) + 1);
+        }
+    }
+
+    /**
+     * Retourne le numéro de la machine.
+     *
+     * @return Le numéro de la machine
+     */
+    public int getIdMachine() {
+        return idMachine;
+    }
+
+    /**
+     * Retourne la séquence du prochain identifiant alloué.
+     *
+     * @return La prochaine séquence
+     */
+    public long getProchaineSequence() {
+        return prochaineSequence.get();
+    }
+
+    /**
+     * Retourne le numéro de machine d'un identifiant.
+     *
+     * @param id L'identifiant
+     * @return Le numéro de la machine qui l'a alloué
+     */
+    public static int machine(long id) {
+        return (int) (id >>> BITS_SEQUENCE);
+    }
+
+    /**
+     * Retourne la séquence d'un identifiant au sein de sa machine.
+     *
+     * @param id L'identifiant
+     * @return La séquence
+     */
+    public static long sequence(long id) {
+        return id & SEQUENCE_MAX;
+    }
+
+    /**
+     * Fait avancer la séquence jusqu'à au moins la valeur donnée.
+     */
+    void avancerA(long sequence) {
+        prochaineSequence.accumulateAndGet(sequence, Math::max);
+    }
+}
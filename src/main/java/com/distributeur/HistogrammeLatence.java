@@ -0,0 +1,133 @@
+package com.distributeur;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogramme de latences en nanosecondes, à faible surcoût et sûr en accès concurrent.
+ * <p>
+ * Les valeurs sont rangées dans des classes log-linéaires : chaque puissance de deux
+ * est divisée en {@value #SOUS_CLASSES} sous-classes, soit une erreur relative d'au
+ * plus 12,5 % sur les quantiles. L'enregistrement d'une valeur se limite à quelques
+ * opérations sur les bits et à des incréments atomiques, sans allocation ; le nombre
+ * et la somme sont répartis sur des compteurs {@link LongAdder} pour limiter la
+ * contention entre terminaux.
+ */
+public class HistogrammeLatence {
+    private static final int BITS_SOUS_CLASSE = 3;
+    private static final int SOUS_CLASSES = 1 << BITS_SOUS_CLASSE;
+    private static final int NOMBRE_CLASSES = (64 - BITS_SOUS_CLASSE) * SOUS_CLASSES;
+
+    private final AtomicLongArray classes = new AtomicLongArray(NOMBRE_CLASSES);
+    private final LongAdder nombre = new LongAdder();
+    private final LongAdder somme = new LongAdder();
+    private final AtomicLong maximum = new AtomicLong();
+
+    /**
+     * Enregistre une latence.
+     *
+     * @param nanos La latence en nanosecondes (une valeur négative est comptée comme 0)
+     */
+    public void enregistrer(long nanos) {
+        long valeur = Math.max(nanos, 0);
+        classes.incrementAndGet(classeDe(valeur));
+        nombre.increment();
+        somme.add(valeur);
+        long max = maximum.get();
+        while (valeur > max && !maximum.compareAndSet(max, valeur)) {
+            max = maximum.get();
+        }
+    }
+
+    /**
+     * Retourne le nombre de latences enregistrées.
+     *
+     * @return Le nombre de latences
+     */
+    public long getNombre() {
+        return nombre.sum();
+    }
+
+    /**
+     * Retourne la latence moyenne.
+     *
+     * @return La moyenne en nanosecondes, 0 si aucune latence n'a été enregistrée
+     */
+    public long getMoyenne() {
+        long n = nombre.sum();
+        return n == 0 ? 0 : somme.sum() / n;
+    }
+
+    /**
+     * Retourne la latence maximale enregistrée.
+     *
+     * @return Le maximum en nanosecondes
+     */
+    public long getMaximum() {
+        return maximum.get();
+    }
+
+    /**
+     * Retourne une borne supérieure du quantile demandé.
+     *
+     * @param quantile Le quantile, entre 0 et 1 (0.99 pour le 99e centile)
+     * @return La borne supérieure de la classe contenant le quantile, en nanosecondes,
+     *         0 si aucune latence n'a été enregistrée
+     * @throws IllegalArgumentException si le quantile n'est pas entre 0 et 1
+     */
+    public long getQuantile(double quantile) {
+        if (!(quantile >= 0 && quantile <= 1)) {
+            throw new IllegalArgumentException("Le quantile doit être compris entre 0 et 1");
+        }
+        long total = 0;
+        long[] copie = new long[NOMBRE_CLASSES];
+        for (int i = 0; i < NOMBRE_CLASSES; i++) {
+            copie[i] = classes.get(i);
+            total += copie[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rang = Math.max(1, (long) Math.ceil(quantile * total));
+        long cumul = 0;
+        for (int i = 0; i < NOMBRE_CLASSES; i++) {
+            cumul += copie[i];
+            if (cumul >= rang) {
+                return Math.min(borneSuperieure(i), maximum.get());
+            }
+        }
+        return maximum.get();
+    }
+
+    /**
+     * Remet l'histogramme à zéro.
+     */
+    public void reinitialiser() {
+        for (int i = 0; i < NOMBRE_CLASSES; i++) {
+            classes.set(i, 0);
+        }
+        nombre.reset();
+        somme.reset();
+        maximum.set(0);
+    }
+
+    static int classeDe(long valeur) {
+        if (valeur < SOUS_CLASSES) {
+            return (int) valeur;
+        }
+        int exposant = 63 - Long.numberOfLeadingZeros(valeur);
+        int sousClasse = (int) (valeur >>> (exposant - BITS_SOUS_CLASSE)) & (SOUS_CLASSES - 1);
+        return (exposant - BITS_SOUS_CLASSE + 1) * SOUS_CLASSES + sousClasse;
+    }
+
+    static long borneSuperieure(int classe) {
+        if (classe < SOUS_CLASSES) {
+            return classe;
+        }
+        int exposant = classe / SOUS_CLASSES + BITS_SOUS_CLASSE - 1;
+        long sousClasse = classe % SOUS_CLASSES;
+        long debut = (1L << exposant) + (sousClasse << (exposant - BITS_SOUS_CLASSE));
+        return debut + (1L << (exposant - BITS_SOUS_CLASSE)) - 1;
+    }
+}
@@ -0,0 +1,46 @@
+package com.distributeur;
+
+import java.time.LocalDateTime;
+
+/**
+ * Source de l'heure des transactions et des requêtes par période.
+ * <p>
+ * L'heure est un horodatage primitif : le nombre de millisecondes de l'heure locale
+ * depuis l'epoch, comptée comme si elle était en UTC, soit la convention de
+ * {@link JournalDisque#horodatage(LocalDateTime)}. Le jour epoch s'en déduit par une
+ * simple division. L'horloge est injectée dans le {@link Distributeur} :
+ * <ul>
+ *   <li>{@link HorlogeSysteme} lit l'heure système à chaque appel, sans allocation ;</li>
+ *   <li>{@link HorlogeCachee} retourne une valeur rafraîchie périodiquement par un fil
+ *       dédié, au prix d'une résolution plus grossière ;</li>
+ *   <li>{@link HorlogeSimulee} avance à la demande ou plus vite que le temps réel, pour
+ *       les tests et les rejeux.</li>
+ * </ul>
+ */
+public interface Horloge {
+
+    /**
+     * Retourne l'heure courante.
+     *
+     * @return L'horodatage courant, en millisecondes
+     */
+    long millisecondes();
+
+    /**
+     * Retourne l'heure courante sous forme de date.
+     *
+     * @return La date et l'heure courantes, à la milliseconde
+     */
+    default LocalDateTime maintenant() {
+        return JournalDisque.dateHeure(millisecondes());
+    }
+
+    /**
+     * Retourne l'horloge système du fuseau par défaut.
+     *
+     * @return L'horloge système
+     */
+    static Horloge systeme() {
+        return HorlogeSysteme.DEFAUT;
+    }
+}
@@ -0,0 +1,69 @@
+package com.distributeur;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Horloge grossière : un fil dédié recopie périodiquement l'heure d'une horloge source,
+ * et chaque appel se réduit à la lecture d'un champ volatile.
+ * <p>
+ * L'heure retournée peut retarder d'au plus une résolution sur la source ; elle ne
+ * recule jamais. L'horloge doit être fermée pour arrêter son fil.
+ */
+public final class HorlogeCachee implements Horloge, AutoCloseable {
+    private final Horloge source;
+    private final ScheduledExecutorService rafraichissement;
+    private volatile long courante;
+
+    /**
+     * Crée une horloge cachée sur l'horloge système.
+     *
+     * @param resolution La période de rafraîchissement, en millisecondes
+     * @throws IllegalArgumentException si la résolution n'est pas positive
+     */
+    public HorlogeCachee(long resolution) {
+        this(Horloge.systeme(), resolution);
+    }
+
+    /**
+     * Crée une horloge cachée sur une horloge source.
+     *
+     * @param source     L'horloge à recopier
+     * @param resolution La période de rafraîchissement, en millisecondes
+     * @throws IllegalArgumentException si la résolution n'est pas positive
+     */
+    public HorlogeCachee(Horloge source, long resolution) {
+        if (resolution <= 0) {
+            throw new IllegalArgumentException("La résolution doit être positive");
+        }
+        this.source = source;
+        this.courante = source.millisecondes();
+        this.rafraichissement = Executors.newSingleThreadScheduledExecutor(tache -> {
+            Thread fil = new Thread(tache, "horloge-cachee");
+            fil.setDaemon(true);
+            return fil;
+        });
+        rafraichissement.scheduleAtFixedRate(this::rafraichir, resolution, resolution, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public long millisecondes() {
+        return courante;
+    }
+
+    private void rafraichir() {
+        long lue = source.millisecondes();
+        if (lue > courante) {
+            courante = lue;
+        }
+    }
+
+    /**
+     * Arrête le rafraîchissement ; l'horloge reste ensuite figée.
+     */
+    @Override
+    public void close() {
+        rafraichissement.shutdownNow();
+    }
+}
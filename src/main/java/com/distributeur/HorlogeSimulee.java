@@ -0,0 +1,60 @@
+package com.distributeur;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Horloge simulée pour les tests et les rejeux. Elle part d'une date donnée et
+ * n'avance que sur appel de {@link #avancer(Duration)}, ou bien s'écoule à un multiple
+ * de la vitesse réelle (une journée d'activité rejouée en quelques secondes, par exemple).
+ */
+public final class HorlogeSimulee implements Horloge {
+    private final AtomicLong base;
+    private final double acceleration;
+    private final long origine;
+
+    /**
+     * Crée une horloge figée, qui n'avance que sur appel de {@link #avancer(Duration)}.
+     *
+     * @param debut La date de départ
+     */
+    public HorlogeSimulee(LocalDateTime debut) {
+        this(debut, 0);
+    }
+
+    /**
+     * Crée une horloge qui s'écoule à un multiple de la vitesse réelle.
+     *
+     * @param debut        La date de départ
+     * @param acceleration Le facteur de vitesse (0 pour une horloge figée, 60 pour une minute par seconde)
+     * @throws IllegalArgumentException si le facteur est négatif
+     */
+    public HorlogeSimulee(LocalDateTime debut, double acceleration) {
+        if (acceleration < 0 || Double.isNaN(acceleration)) {
+            throw new IllegalArgumentException("Le facteur d'accélération ne peut pas être négatif");
+        }
+        this.base = new AtomicLong(JournalDisque.horodatage(debut));
+        this.acceleration = acceleration;
+        this.origine = System.nanoTime();
+    }
+
+    @Override
+    public long millisecondes() {
+        long ecoule = acceleration == 0 ? 0 : (long) ((System.nanoTime() - origine) / 1_000_000.0 * acceleration);
+        return base.get() + ecoule;
+    }
+
+    /**
+     * Fait avancer l'horloge.
+     *
+     * @param duree La durée à ajouter
+     * @throws IllegalArgumentException si la durée est négative
+     */
+    public void avancer(Duration duree) {
+        if (duree.isNegative()) {
+            throw new IllegalArgumentException("L'horloge ne peut pas reculer");
+        }
+        base.addAndGet(duree.toMillis());
+    }
+}
@@ -0,0 +1,65 @@
+package com.distributeur;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+
+/**
+ * Horloge lisant l'heure système à chaque appel.
+ * <p>
+ * Le décalage du fuseau est mis en cache jusqu'à son prochain changement (heure d'été) :
+ * un appel coûte une lecture de {@link System#currentTimeMillis()} et une addition,
+ * sans recherche de fuseau ni allocation.
+ */
+public final class HorlogeSysteme implements Horloge {
+    static final HorlogeSysteme DEFAUT = new HorlogeSysteme(ZoneId.systemDefault());
+
+    private final ZoneRules regles;
+    private volatile Decalage decalage;
+
+    /**
+     * Crée une horloge système pour un fuseau.
+     *
+     * @param zone Le fuseau de l'heure locale
+     */
+    public HorlogeSysteme(ZoneId zone) {
+        this.regles = zone.getRules();
+        this.decalage = calculer(System.currentTimeMillis());
+    }
+
+    @Override
+    public long millisecondes() {
+        long maintenant = System.currentTimeMillis();
+        Decalage courant = decalage;
+        if (maintenant < courant.debut || maintenant >= courant.fin) {
+            courant = calculer(maintenant);
+            decalage = courant;
+        }
+        return maintenant + courant.millisecondes;
+    }
+
+    private Decalage calculer(long maintenant) {
+        Instant instant = Instant.ofEpochMilli(maintenant);
+        ZoneOffsetTransition precedente = regles.previousTransition(instant);
+        ZoneOffsetTransition suivante = regles.nextTransition(instant);
+        return new Decalage(regles.getOffset(instant).getTotalSeconds() * 1000L,
+                precedente == null ? Long.MIN_VALUE : precedente.toEpochSecond() * 1000L,
+                suivante == null ? Long.MAX_VALUE : suivante.toEpochSecond() * 1000L);
+    }
+
+    /**
+     * Décalage du fuseau, valable sur [debut, fin[ en millisecondes UTC.
+     */
+    private static final class Decalage {
+        final long millisecondes;
+        final long debut;
+        final long fin;
+
+        Decalage(long millisecondes, long debut, long fin) {
+            this.millisecondes = millisecondes;
+            this.debut = debut;
+            this.fin = fin;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.distributeur;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Index des boissons par identifiant, à adressage ouvert (sondage linéaire).
+ * Les clés sont rangées dans un tableau d'entiers primitifs : une recherche
+ * ne boxe aucun Integer et n'alloue aucun objet.
+ * <p>
+ * Les ajouts doivent être faits par un seul thread à la fois ; les recherches
+ * peuvent se faire sans verrou, en parallèle des ajouts. Une case n'est publiée
+ * (écriture « release ») qu'après l'écriture de sa clé, et une table agrandie
+ * n'est publiée qu'une fois entièrement remplie.
+ */
+public class IndexBoissons {
+    private static final int CAPACITE_MINIMALE = 16;
+    private static final VarHandle VALEURS = MethodHandles.arrayElementVarHandle(Boisson[].class);
+
+    private volatile Table table;
+    private int taille;
+
+    /**
+     * Constructeur initialisant un index vide.
+     */
+    public IndexBoissons() {
+        this(CAPACITE_MINIMALE / 2);
+    }
+
+    /**
+     * Constructeur initialisant un index dimensionné pour un nombre attendu de boissons.
+     *
+     * @param nombreAttendu Le nombre de boissons que l'index devrait contenir sans s'agrandir
+     */
+    public IndexBoissons(int nombreAttendu) {
+        this.table = new Table(capacitePour(nombreAttendu));
+    }
+
+    /**
+     * Recherche une boisson par son identifiant.
+     *
+     * @param id L'identifiant de la boisson
+     * @return La boisson si elle est indexée, null sinon
+     */
+    public Boisson get(int id) {
+        Table t = table;
+        int i = hacher(id) & t.masque;
+        Boisson boisson;
+        while ((boisson = (Boisson) VALEURS.getAcquire(t.valeurs, i)) != null) {
+            if (t.cles[i] == id) {
+                return boisson;
+            }
+            i = (i + 1) & t.masque;
+        }
+        return null;
+    }
+
+    /**
+     * Vérifie si une boisson avec cet identifiant est indexée.
+     *
+     * @param id L'identifiant de la boisson
+     * @return true si l'identifiant est présent, false sinon
+     */
+    public boolean contient(int id) {
+        return get(id) != null;
+    }
+
+    /**
+     * Ajoute une boisson à l'index.
+     *
+     * @param boisson La boisson à indexer
+     * @return true si la boisson a été ajoutée, false si son identifiant est déjà présent
+     */
+    public boolean ajouter(Boisson boisson) {
+        if (boisson == null) {
+            return false;
+        }
+        int id = boisson.getId();
+        if (contient(id)) {
+            return false;
+        }
+        Table t = table;
+        if ((taille + 1) * 2 > t.valeurs.length) {
+            t = t.agrandie();
+            table = t;
+        }
+        t.placer(id, boisson);
+        taille++;
+        return true;
+    }
+
+    /**
+     * Retourne le nombre de boissons indexées.
+     *
+     * @return Le nombre de boissons
+     */
+    public int taille() {
+        return taille;
+    }
+
+    private static int capacitePour(int nombreAttendu) {
+        int capacite = CAPACITE_MINIMALE;
+        while (capacite < nombreAttendu * 2L) {
+            capacite <<= 1;
+        }
+        return capacite;
+    }
+
+    // Mélange de Fibonacci : des identifiants consécutifs se répartissent sur toute la table
+    private static int hacher(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static final class Table {
+        final int[] cles;
+        final Boisson[] valeurs;
+        final int masque;
+
+        Table(int capacite) {
+            this.cles = new int[capacite];
+            this.valeurs = new Boisson[capacite];
+            this.masque = capacite - 1;
+        }
+
+        void placer(int id, Boisson boisson) {
+            int i = hacher(id) & masque;
+            while (valeurs[i] != null) {
+                i = (i + 1) & masque;
+            }
+            cles[i] = id;
+            VALEURS.setRelease(valeurs, i, boisson);
+        }
+
+        Table agrandie() {
+            Table nouvelle = new Table(valeurs.length * 2);
+            for (int j = 0; j < valeurs.length; j++) {
+                if (valeurs[j] != null) {
+                    nouvelle.placer(cles[j], valeurs[j]);
+                }
+            }
+            return nouvelle;
+        }
+    }
+}
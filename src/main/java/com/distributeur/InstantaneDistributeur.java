@@ -0,0 +1,176 @@
+package com.distributeur;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+
+/**
+ * Instantané binaire compact de l'état d'un distributeur : catalogue et stocks,
+ * solde de la caisse, agrégats du journal des ventes, et séquence du
+ * {@link JournalDisque} à partir de laquelle relire les enregistrements postérieurs.
+ * <p>
+ * Au démarrage, l'instantané est chargé puis seule la fin du journal est relue :
+ * le temps de démarrage dépend de l'activité récente, et non de tout l'historique.
+ * <p>
+ * Format (gros-boutiste) :
+ * <pre>
+ * int   signature, int version
+ * long  séquence du journal couverte par l'instantané
+ * long  solde de la caisse (centimes)
+ * long  prochaine séquence des identifiants de transaction
+ * int   nombre de boissons, puis pour chacune : int id, UTF nom, long prix (centimes), int stock
+ * ...   agrégats du journal des ventes, statistiques par boisson comprises
+ * long  CRC32 de tout ce qui précède
+ * </pre>
+ * Le fichier est écrit à côté, synchronisé, puis renommé atomiquement : un arrêt
+ * brutal pendant l'écriture laisse l'instantané précédent intact.
+ */
+public final class InstantaneDistributeur {
+    /** Nom du fichier d'instantané dans le répertoire du journal. */
+    public static final String FICHIER = "instantane.bin";
+
+    private static final int SIGNATURE = 0x494E5354;
+    private static final int VERSION = 1;
+
+    private InstantaneDistributeur() {
+    }
+
+    /**
+     * Encode l'état d'un distributeur. Doit être appelé pendant que l'état est figé.
+     *
+     * @param sequence La prochaine séquence du journal sur disque
+     * @param caisse   Le solde de la caisse
+     * @param boissons Le catalogue
+     * @param journal  Le journal des ventes
+     * @param prochaineSequenceTransaction La prochaine séquence des identifiants de transaction
+     * @return Le contenu de l'instantané
+     */
+    static byte[] encoder(long sequence, Montant caisse, List<Boisson> boissons, JournalVentes journal,
+                          long prochaineSequenceTransaction) {
+        ByteArrayOutputStream octets = new ByteArrayOutputStream(256 + boissons.size() * 32);
+        try (DataOutputStream sortie = new DataOutputStream(octets)) {
+            sortie.writeInt(SIGNATURE);
+            sortie.writeInt(VERSION);
+            sortie.writeLong(sequence);
+            sortie.writeLong(caisse.getCentimes());
+            sortie.writeLong(prochaineSequenceTransaction);
+            sortie.writeInt(boissons.size());
+            for (Boisson boisson : boissons) {
+                sortie.writeInt(boisson.getId());
+                sortie.writeUTF(boisson.getNom());
+                sortie.writeLong(boisson.getPrix().getCentimes());
+                sortie.writeInt(boisson.getQuantiteStock());
+            }
+            journal.ecrireAgregats(sortie);
+            CRC32 crc = new CRC32();
+            crc.update(octets.toByteArray());
+            sortie.writeLong(crc.getValue());
+        } catch (IOException e) {
+            // Impossible en mémoire
+            throw new IllegalStateException(e);
+        }
+        return octets.toByteArray();
+    }
+
+    /**
+     * Écrit un instantané sur disque en remplaçant atomiquement le précédent.
+     *
+     * @param fichier Le fichier de l'instantané
+     * @param contenu Le contenu produit par {@link #encoder}
+     * @throws IOException si l'écriture échoue
+     */
+    static void ecrire(Path fichier, byte[] contenu) throws IOException {
+        Path temporaire = fichier.resolveSibling(fichier.getFileName() + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporaire, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer tampon = ByteBuffer.wrap(contenu);
+            while (tampon.hasRemaining()) {
+                canal.write(tampon);
+            }
+            canal.force(true);
+        }
+        Files.move(temporaire, fichier, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Restaure un instantané dans un distributeur dont le journal est vide.
+     * Les boissons de l'instantané déjà présentes dans le catalogue reprennent le stock
+     * enregistré ; les autres sont ajoutées. Les ventes couvertes par l'instantané ne
+     * sont comptées que dans les agrégats du journal (voir
+     * {@link JournalVentes#getNombreTransactionsArchivees()}).
+     *
+     * @param fichier      Le fichier de l'instantané
+     * @param distributeur Le distributeur à restaurer
+     * @param caisse       La caisse du distributeur
+     * @param journal      Le journal des ventes du distributeur
+     * @param identifiants Le générateur des identifiants de transaction du distributeur
+     * @return La séquence du journal sur disque à partir de laquelle relire
+     * @throws IOException si le fichier est illisible, corrompu ou d'une version inconnue
+     */
+    static long restaurer(Path fichier, Distributeur distributeur, Caisse caisse, JournalVentes journal,
+                          GenerateurIdentifiants identifiants) throws IOException {
+        verifier(fichier);
+        try (DataInputStream entree = new DataInputStream(new BufferedInputStream(Files.newInputStream(fichier)))) {
+            if (entree.readInt() != SIGNATURE || entree.readInt() != VERSION) {
+                throw new IOException("Instantané de format inconnu : " + fichier.getFileName());
+            }
+            long sequence = entree.readLong();
+            Montant solde = Montant.deCentimes(entree.readLong());
+            identifiants.avancerA(entree.readLong());
+            int nombreBoissons = entree.readInt();
+            for (int i = 0; i < nombreBoissons; i++) {
+                int id = entree.readInt();
+                String nom = entree.readUTF();
+                Montant prix = Montant.deCentimes(entree.readLong());
+                int stock = entree.readInt();
+                Boisson boisson = distributeur.rechercherBoisson(id);
+                if (boisson == null) {
+                    distributeur.ajouterBoisson(new Boisson(id, nom, prix, stock));
+                } else {
+                    boisson.setQuantiteStock(stock);
+                }
+            }
+            journal.lireAgregats(entree);
+            caisse.reinitialiser();
+            caisse.ajouterFonds(solde);
+            return sequence;
+        }
+    }
+
+    private static void verifier(Path fichier) throws IOException {
+        long taille = Files.size(fichier);
+        if (taille < Long.BYTES) {
+            throw new IOException("Instantané tronqué : " + fichier.getFileName());
+        }
+        CRC32 crc = new CRC32();
+        long attendu;
+        try (InputStream flux = new BufferedInputStream(Files.newInputStream(fichier))) {
+            CheckedInputStream controle = new CheckedInputStream(flux, crc);
+            byte[] tampon = new byte[8192];
+            long restant = taille - Long.BYTES;
+            while (restant > 0) {
+                int lus = controle.read(tampon, 0, (int) Math.min(tampon.length, restant));
+                if (lus < 0) {
+                    throw new IOException("Instantané tronqué : " + fichier.getFileName());
+                }
+                restant -= lus;
+            }
+            attendu = new DataInputStream(flux).readLong();
+        }
+        if (attendu != crc.getValue()) {
+            throw new IOException("Instantané corrompu : " + fichier.getFileName());
+        }
+    }
+}
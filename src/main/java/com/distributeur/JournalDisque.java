@@ -0,0 +1,534 @@
+package com.distributeur;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Journal des ventes persistant, en ajout seul, sur des segments de fichiers
+ * projetés en mémoire.
+ * <p>
+ * Chaque enregistrement a une taille fixe de {@link #TAILLE_ENREGISTREMENT} octets,
+ * écrits directement dans le segment projeté, sans objet intermédiaire :
+ * <pre>
+ *  0  int   marqueur (signature + type d'enregistrement, jamais 0)
+ *  4  int   identifiant de la boisson
+ *  8  long  identifiant de la transaction
+ * 16  long  horodatage (millisecondes epoch, heure locale)
+ * 24  long  montant inséré (centimes)
+ * 32  long  monnaie rendue (centimes)
+ * 40  int   statut (1 si réussie)
+ * 44  int   CRC32 des octets 0 à 43
+ * </pre>
+ * Un segment est un fichier de taille fixe, nommé d'après la séquence de son premier
+ * enregistrement ; un nouveau segment est ouvert quand le courant est plein. Les
+ * écritures sont forcées sur disque (fsync) par groupes de
+ * {@code enregistrementsParSynchronisation} enregistrements, à chaque changement
+ * de segment, et à la fermeture. Pour borner aussi dans le temps les ventes perdues
+ * lors d'un arrêt brutal, elles le sont dès que le plus ancien enregistrement non
+ * synchronisé a dépassé {@code delaiSynchronisation} millisecondes : au prochain
+ * ajout, ou par un fil dédié qui vérifie ce délai à la même période quand aucune
+ * vente n'arrive. Un enregistrement reste ainsi moins de deux délais non synchronisé.
+ * Le journal doit être fermé pour arrêter ce fil.
+ * <p>
+ * À l'ouverture, le dernier segment est parcouru jusqu'au dernier enregistrement
+ * dont la somme de contrôle est valide : un enregistrement à moitié écrit lors d'un
+ * arrêt brutal est ignoré, puis écrasé par l'ajout suivant. Les segments
+ * précédents, pleins et synchronisés avant d'être quittés, doivent être intacts :
+ * un enregistrement invalide y est signalé comme une corruption.
+ */
+public class JournalDisque implements AutoCloseable {
+    /** Taille d'un enregistrement en octets. */
+    public static final int TAILLE_ENREGISTREMENT = 48;
+
+    /** Taille de segment par défaut : 64 Mo. */
+    public static final int TAILLE_SEGMENT_DEFAUT = 64 * 1024 * 1024;
+
+    /** Délai de synchronisation par défaut, en millisecondes. */
+    public static final long DELAI_SYNCHRONISATION_DEFAUT = 1000;
+
+    /** Type d'enregistrement : une transaction de vente. */
+    public static final int TYPE_VENTE = 1;
+
+    /** Type d'enregistrement : un retrait des fonds de la caisse (montant dans le champ montant inséré). */
+    public static final int TYPE_RETRAIT_CAISSE = 2;
+
+    /** Type d'enregistrement : un rechargement de stock (quantité dans le champ montant inséré). */
+    public static final int TYPE_RECHARGE_STOCK = 3;
+
+    private static final int SIGNATURE = 0x4A560000;
+    private static final int MASQUE_SIGNATURE = 0xFFFF0000;
+    private static final int TAILLE_CONTROLEE = 44;
+    private static final String PREFIXE = "ventes-";
+    private static final String SUFFIXE = ".journal";
+
+    private final Path repertoire;
+    private final int enregistrementsParSegment;
+    private final int enregistrementsParSynchronisation;
+    private final long delaiSynchronisation;
+    private final Horloge horloge;
+    private final ScheduledExecutorService synchronisation;
+    private final CRC32 crc = new CRC32();
+
+    private MappedByteBuffer segment;
+    private long debutSegment;
+    private int positionSegment;
+    private int nonSynchronises;
+    private long premierNonSynchronise;
+
+    /**
+     * Ouvre (ou crée) un journal avec la taille de segment par défaut et un fsync
+     * tous les 64 enregistrements, ou après {@link #DELAI_SYNCHRONISATION_DEFAUT} millisecondes.
+     *
+     * @param repertoire Le répertoire des segments
+     * @throws IOException si le répertoire ou un segment ne peut pas être lu ou créé
+     */
+    public JournalDisque(Path repertoire) throws IOException {
+        this(repertoire, TAILLE_SEGMENT_DEFAUT, 64);
+    }
+
+    /**
+     * Ouvre (ou crée) un journal, synchronisé au plus tard après
+     * {@link #DELAI_SYNCHRONISATION_DEFAUT} millisecondes.
+     *
+     * @param repertoire                        Le répertoire des segments
+     * @param tailleSegment                     La taille d'un segment en octets
+     * @param enregistrementsParSynchronisation Le nombre d'enregistrements entre deux fsync
+     *                                          (1 pour forcer chaque enregistrement, 0 pour ne forcer
+     *                                          qu'au délai, aux changements de segment et à la fermeture)
+     * @throws IOException si le répertoire ou un segment ne peut pas être lu ou créé
+     * @throws IllegalArgumentException si un segment ne peut pas contenir un enregistrement
+     */
+    public JournalDisque(Path repertoire, int tailleSegment, int enregistrementsParSynchronisation)
+            throws IOException {
+        this(repertoire, tailleSegment, enregistrementsParSynchronisation, DELAI_SYNCHRONISATION_DEFAUT,
+                Horloge.systeme());
+    }
+
+    /**
+     * Ouvre (ou crée) un journal.
+     *
+     * @param repertoire                        Le répertoire des segments
+     * @param tailleSegment                     La taille d'un segment en octets
+     * @param enregistrementsParSynchronisation Le nombre d'enregistrements entre deux fsync
+     *                                          (1 pour forcer chaque enregistrement, 0 pour ne pas
+     *                                          compter les enregistrements)
+     * @param delaiSynchronisation              L'âge maximal, en millisecondes, du plus ancien
+     *                                          enregistrement non synchronisé (0 pour ne pas
+     *                                          borner l'attente)
+     * @param horloge                           L'horloge qui mesure ce délai
+     * @throws IOException si le répertoire ou un segment ne peut pas être lu ou créé
+     * @throws IllegalArgumentException si un segment ne peut pas contenir un enregistrement,
+     *                                  ou si un paramètre de synchronisation est négatif
+     */
+    public JournalDisque(Path repertoire, int tailleSegment, int enregistrementsParSynchronisation,
+                         long delaiSynchronisation, Horloge horloge) throws IOException {
+        if (tailleSegment < TAILLE_ENREGISTREMENT) {
+            throw new IllegalArgumentException("Un segment doit pouvoir contenir au moins un enregistrement");
+        }
+        if (enregistrementsParSynchronisation < 0) {
+            throw new IllegalArgumentException("Le nombre d'enregistrements par synchronisation ne peut pas être négatif");
+        }
+        if (delaiSynchronisation < 0) {
+            throw new IllegalArgumentException("Le délai de synchronisation ne peut pas être négatif");
+        }
+        this.repertoire = Files.createDirectories(repertoire);
+        this.enregistrementsParSegment = tailleSegment / TAILLE_ENREGISTREMENT;
+        this.enregistrementsParSynchronisation = enregistrementsParSynchronisation;
+        this.delaiSynchronisation = delaiSynchronisation;
+        this.horloge = horloge;
+        recuperer();
+        if (delaiSynchronisation > 0) {
+            synchronisation = Executors.newSingleThreadScheduledExecutor(tache -> {
+                Thread fil = new Thread(tache, "journal-synchronisation");
+                fil.setDaemon(true);
+                return fil;
+            });
+            synchronisation.scheduleAtFixedRate(this::synchroniserSiEchu, delaiSynchronisation,
+                    delaiSynchronisation, TimeUnit.MILLISECONDS);
+        } else {
+            synchronisation = null;
+        }
+    }
+
+    /**
+     * Ajoute une transaction au journal.
+     *
+     * @param transaction La transaction à enregistrer
+     * @return La séquence de l'enregistrement
+     */
+    public synchronized long ajouterVente(Transaction transaction) {
+        long sequence = ecrireVente(transaction);
+        synchroniserSiNecessaire();
+        return sequence;
+    }
+
+    /**
+     * Ajoute un lot de transactions au journal, à la suite. Le lot compte comme un seul
+     * ajout pour la synchronisation sur disque : un fsync au plus, après le lot.
+     *
+     * @param transactions Les transactions à enregistrer
+     * @return La séquence du premier enregistrement du lot
+     */
+    public synchronized long ajouterVentes(List<Transaction> transactions) {
+        long premiere = getProchaineSequence();
+        for (Transaction transaction : transactions) {
+            ecrireVente(transaction);
+        }
+        synchroniserSiNecessaire();
+        return premiere;
+    }
+
+    /**
+     * Ajoute au journal un retrait des fonds de la caisse.
+     *
+     * @param montant   Le montant retiré
+     * @param dateHeure La date et l'heure du retrait
+     * @return La séquence de l'enregistrement
+     */
+    public synchronized long ajouterRetraitCaisse(Montant montant, LocalDateTime dateHeure) {
+        long sequence = ecrire(TYPE_RETRAIT_CAISSE, 0, 0, horodatage(dateHeure), montant.getCentimes(), 0, true);
+        synchroniserSiNecessaire();
+        return sequence;
+    }
+
+    /**
+     * Ajoute au journal un rechargement du stock d'une boisson.
+     *
+     * @param idBoisson L'ID de la boisson rechargée
+     * @param quantite  La quantité ajoutée au stock
+     * @param dateHeure La date et l'heure du rechargement
+     * @return La séquence de l'enregistrement
+     */
+    public synchronized long ajouterRechargeStock(int idBoisson, int quantite, LocalDateTime dateHeure) {
+        long sequence = ecrire(TYPE_RECHARGE_STOCK, idBoisson, 0, horodatage(dateHeure), quantite, 0, true);
+        synchroniserSiNecessaire();
+        return sequence;
+    }
+
+    /**
+     * Relit les enregistrements valides à partir d'une séquence donnée, dans l'ordre.
+     * Le même objet {@link Enregistrement} est réutilisé d'un appel à l'autre.
+     *
+     * @param depuisSequence La première séquence à relire
+     * @param lecteur        Le traitement appliqué à chaque enregistrement
+     * @throws IOException si un segment ne peut pas être lu ou contient un enregistrement corrompu
+     */
+    public synchronized void relire(long depuisSequence, Consumer<Enregistrement> lecteur) throws IOException {
+        Enregistrement enregistrement = new Enregistrement();
+        for (Path fichier : segments()) {
+            long debut = debutDe(fichier);
+            long fin = debut == debutSegment ? debutSegment + positionSegment : debut + enregistrementsParSegment;
+            if (fin <= depuisSequence) {
+                continue;
+            }
+            MappedByteBuffer tampon = debut == debutSegment ? segment : projeter(fichier, FileChannel.MapMode.READ_ONLY);
+            for (long sequence = Math.max(debut, depuisSequence); sequence < fin; sequence++) {
+                int decalage = (int) (sequence - debut) * TAILLE_ENREGISTREMENT;
+                if (!estValide(tampon, decalage)) {
+                    throw new IOException("Enregistrement corrompu dans le segment " + fichier.getFileName()
+                            + " (séquence " + sequence + ")");
+                }
+                enregistrement.charger(tampon, decalage, sequence);
+                lecteur.accept(enregistrement);
+            }
+        }
+    }
+
+    /**
+     * Retourne la séquence qui sera attribuée au prochain enregistrement.
+     *
+     * @return La prochaine séquence
+     */
+    public synchronized long getProchaineSequence() {
+        return debutSegment + positionSegment;
+    }
+
+    /**
+     * Retourne le répertoire des segments du journal.
+     *
+     * @return Le répertoire du journal
+     */
+    public Path getRepertoire() {
+        return repertoire;
+    }
+
+    /**
+     * Retourne le nombre d'enregistrements écrits mais pas encore forcés sur disque.
+     *
+     * @return Le nombre d'enregistrements non synchronisés
+     */
+    public synchronized int getNonSynchronises() {
+        return nonSynchronises;
+    }
+
+    /**
+     * Force immédiatement sur disque les enregistrements non encore synchronisés.
+     */
+    public synchronized void synchroniser() {
+        if (nonSynchronises > 0) {
+            segment.force();
+            nonSynchronises = 0;
+        }
+    }
+
+    /**
+     * Force sur disque les enregistrements non synchronisés si le plus ancien a dépassé
+     * le délai de synchronisation. Appelé périodiquement par le fil du journal.
+     */
+    public synchronized void synchroniserSiEchu() {
+        if (segment != null && delaiEchu()) {
+            synchroniser();
+        }
+    }
+
+    /**
+     * Arrête le fil de synchronisation, synchronise le journal et libère le segment courant.
+     */
+    @Override
+    public synchronized void close() {
+        if (synchronisation != null) {
+            synchronisation.shutdownNow();
+        }
+        if (segment != null) {
+            synchroniser();
+            segment = null;
+        }
+    }
+
+    private long ecrire(int type, int idBoisson, long id, long horodatage,
+                        long montantInsere, long monnaieRendue, boolean reussie) {
+        if (segment == null) {
+            throw new IllegalStateException("Le journal est fermé");
+        }
+        if (positionSegment == enregistrementsParSegment) {
+            changerDeSegment();
+        }
+        int decalage = positionSegment * TAILLE_ENREGISTREMENT;
+        MappedByteBuffer tampon = segment;
+        tampon.putInt(decalage + 4, idBoisson);
+        tampon.putLong(decalage + 8, id);
+        tampon.putLong(decalage + 16, horodatage);
+        tampon.putLong(decalage + 24, montantInsere);
+        tampon.putLong(decalage + 32, monnaieRendue);
+        tampon.putInt(decalage + 40, reussie ? 1 : 0);
+        tampon.putInt(decalage, SIGNATURE | type);
+        tampon.putInt(decalage + TAILLE_CONTROLEE, controler(tampon, decalage));
+        long sequence = debutSegment + positionSegment;
+        positionSegment++;
+        if (nonSynchronises++ == 0 && delaiSynchronisation > 0) {
+            premierNonSynchronise = horloge.millisecondes();
+        }
+        return sequence;
+    }
+
+    private long ecrireVente(Transaction transaction) {
+        Boisson boisson = transaction.getBoisson();
+        return ecrire(TYPE_VENTE, boisson != null ? boisson.getId() : 0, transaction.getId(),
+                transaction.getHorodatage(), transaction.getMontantInsere().getCentimes(),
+                transaction.getMonnaieRendue().getCentimes(), transaction.estReussie());
+    }
+
+    private void synchroniserSiNecessaire() {
+        if (enregistrementsParSynchronisation > 0 && nonSynchronises >= enregistrementsParSynchronisation
+                || delaiEchu()) {
+            segment.force();
+            nonSynchronises = 0;
+        }
+    }
+
+    private boolean delaiEchu() {
+        return delaiSynchronisation > 0 && nonSynchronises > 0
+                && horloge.millisecondes() - premierNonSynchronise >= delaiSynchronisation;
+    }
+
+    private void changerDeSegment() {
+        segment.force();
+        nonSynchronises = 0;
+        debutSegment += enregistrementsParSegment;
+        positionSegment = 0;
+        try {
+            segment = projeter(fichierDe(debutSegment), FileChannel.MapMode.READ_WRITE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Impossible de créer un nouveau segment du journal", e);
+        }
+    }
+
+    private void recuperer() throws IOException {
+        List<Path> fichiers = segments();
+        if (fichiers.isEmpty()) {
+            debutSegment = 0;
+            segment = projeter(fichierDe(0), FileChannel.MapMode.READ_WRITE);
+            positionSegment = 0;
+            return;
+        }
+        Path dernier = fichiers.get(fichiers.size() - 1);
+        debutSegment = debutDe(dernier);
+        segment = projeter(dernier, FileChannel.MapMode.READ_WRITE);
+        positionSegment = 0;
+        while (positionSegment < enregistrementsParSegment
+                && estValide(segment, positionSegment * TAILLE_ENREGISTREMENT)) {
+            positionSegment++;
+        }
+        // Effacer un éventuel enregistrement incomplet laissé par un arrêt brutal
+        for (int i = positionSegment; i < enregistrementsParSegment
+                && segment.getInt(i * TAILLE_ENREGISTREMENT) != 0; i++) {
+            segment.putInt(i * TAILLE_ENREGISTREMENT, 0);
+        }
+    }
+
+    private boolean estValide(MappedByteBuffer tampon, int decalage) {
+        int marqueur = tampon.getInt(decalage);
+        return (marqueur & MASQUE_SIGNATURE) == SIGNATURE
+                && tampon.getInt(decalage + TAILLE_CONTROLEE) == controler(tampon, decalage);
+    }
+
+    private int controler(MappedByteBuffer tampon, int decalage) {
+        crc.reset();
+        tampon.limit(decalage + TAILLE_CONTROLEE).position(decalage);
+        crc.update(tampon);
+        tampon.limit(tampon.capacity()).position(0);
+        return (int) crc.getValue();
+    }
+
+    private MappedByteBuffer projeter(Path fichier, FileChannel.MapMode mode) throws IOException {
+        long taille = (long) enregistrementsParSegment * TAILLE_ENREGISTREMENT;
+        StandardOpenOption[] options = mode == FileChannel.MapMode.READ_ONLY
+                ? new StandardOpenOption[] {StandardOpenOption.READ}
+                : new StandardOpenOption[] {StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE};
+        try (FileChannel canal = FileChannel.open(fichier, options)) {
+            // En écriture, la projection étend le fichier à la taille complète du segment
+            if (mode == FileChannel.MapMode.READ_ONLY && canal.size() < taille) {
+                throw new IOException("Segment tronqué : " + fichier.getFileName());
+            }
+            MappedByteBuffer tampon = canal.map(mode, 0, taille);
+            tampon.order(ByteOrder.LITTLE_ENDIAN);
+            return tampon;
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> fichiers = Files.list(repertoire)) {
+            return fichiers.filter(f -> {
+                        String nom = f.getFileName().toString();
+                        return nom.startsWith(PREFIXE) && nom.endsWith(SUFFIXE);
+                    })
+                    .sorted()
+                    .collect(Collectors.toCollection(ArrayList::new));
+        }
+    }
+
+    private Path fichierDe(long debut) {
+        return repertoire.resolve(String.format("%s%020d%s", PREFIXE, debut, SUFFIXE));
+    }
+
+    private static long debutDe(Path fichier) {
+        String nom = fichier.getFileName().toString();
+        return Long.parseLong(nom.substring(PREFIXE.length(), nom.length() - SUFFIXE.length()));
+    }
+
+    /**
+     * Convertit une date locale en millisecondes epoch, sans fuseau horaire.
+     *
+     * @param dateHeure La date et l'heure locales
+     * @return L'horodatage en millisecondes
+     */
+    public static long horodatage(LocalDateTime dateHeure) {
+        return dateHeure.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    /**
+     * Convertit un horodatage en millisecondes epoch en date locale.
+     *
+     * @param horodatage L'horodatage en millisecondes
+     * @return La date et l'heure locales
+     */
+    public static LocalDateTime dateHeure(long horodatage) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(horodatage, 1000L),
+                (int) Math.floorMod(horodatage, 1000L) * 1_000_000, ZoneOffset.UTC);
+    }
+
+    /**
+     * Vue réutilisable sur un enregistrement relu du journal.
+     */
+    public static final class Enregistrement {
+        private long sequence;
+        private int type;
+        private int idBoisson;
+        private long idTransaction;
+        private long horodatage;
+        private long montantInsere;
+        private long monnaieRendue;
+        private boolean reussie;
+
+        private Enregistrement() {
+        }
+
+        private void charger(MappedByteBuffer tampon, int decalage, long sequence) {
+            this.sequence = sequence;
+            this.type = tampon.getInt(decalage) & ~MASQUE_SIGNATURE;
+            this.idBoisson = tampon.getInt(decalage + 4);
+            this.idTransaction = tampon.getLong(decalage + 8);
+            this.horodatage = tampon.getLong(decalage + 16);
+            this.montantInsere = tampon.getLong(decalage + 24);
+            this.monnaieRendue = tampon.getLong(decalage + 32);
+            this.reussie = tampon.getInt(decalage + 40) != 0;
+        }
+
+        /** @return La séquence de l'enregistrement dans le journal */
+        public long getSequence() {
+            return sequence;
+        }
+
+        /** @return Le type d'enregistrement ({@link #TYPE_VENTE} ou {@link #TYPE_RETRAIT_CAISSE}) */
+        public int getType() {
+            return type;
+        }
+
+        /** @return L'identifiant de la boisson vendue */
+        public int getIdBoisson() {
+            return idBoisson;
+        }
+
+        /** @return L'identifiant de la transaction */
+        public long getIdTransaction() {
+            return idTransaction;
+        }
+
+        /** @return L'horodatage en millisecondes epoch (heure locale) */
+        public long getHorodatage() {
+            return horodatage;
+        }
+
+        /** @return Le montant inséré (ou retiré de la caisse) en centimes */
+        public long getMontantInsere() {
+            return montantInsere;
+        }
+
+        /** @return La monnaie rendue en centimes */
+        public long getMonnaieRendue() {
+            return monnaieRendue;
+        }
+
+        /** @return true si la transaction a réussi */
+        public boolean estReussie() {
+            return reussie;
+        }
+    }
+}
@@ -1,22 +1,83 @@
 package com.distributeur;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
 
 /**
  * Classe représentant le journal des ventes du distributeur automatique.
  * Elle enregistre toutes les transactions effectuées.
+ * Les méthodes sont synchronisées : plusieurs terminaux peuvent y ajouter des
+ * transactions en parallèle.
+ * <p>
+ * Le chiffre d'affaires total et le nombre de ventes réussies sont tenus à jour à
+ * chaque ajout. Les transactions sont en outre réparties en segments journaliers,
+ * indexés par jour epoch : une requête par date ou par période ne parcourt que les
+ * segments des jours concernés, et le chiffre d'affaires d'un jour est porté par
+ * son segment.
+ * <p>
+ * Lorsqu'un {@link JournalDisque} est attaché, chaque transaction y est écrite avant
+ * d'être ajoutée en mémoire. Après une restauration depuis un instantané
+ * ({@link InstantaneDistributeur}), seules les transactions postérieures à l'instantané
+ * sont conservées en mémoire : les ventes antérieures sont archivées
+ * ({@link #getNombreTransactionsArchivees()}). Les agrégats (nombre de transactions,
+ * chiffre d'affaires total et par jour, statistiques par boisson) couvrent tout
+ * l'historique ; les méthodes qui retournent des transactions ne couvrent que les
+ * ventes conservées en mémoire.
+ * <p>
+ * Les ventes sont stockées en colonnes de types primitifs ({@link ColonnesVentes}) et
+ * les objets {@link Transaction} ne sont recréés qu'à la lecture :
+ * {@link #getTransactions()} retourne en O(1), sans verrou, une vue figée sur les
+ * ventes enregistrées à cet instant. {@link #getPage(FiltreVentes, long, int)} et
+ * {@link #iterer(FiltreVentes)} parcourent l'historique par curseur, en mémoire
+ * constante, avec des filtres évalués sur les colonnes.
+ * <p>
+ * Les ventes réussies sont aussi comptées par boisson et par heure de la journée
+ * ({@link StatistiquesBoissons}) : le bilan d'une boisson, les meilleures ventes et
+ * l'histogramme horaire se lisent sans parcourir l'historique.
  */
 public class JournalVentes {
-    private List<Transaction> transactions;
+    private static final long MILLISECONDES_PAR_JOUR = 86_400_000L;
+
+    private final ColonnesVentes colonnes;
+    private final NavigableMap<Long, SegmentJour> segments;
+    private final StatistiquesBoissons statistiques;
+    private long chiffreAffairesCentimes;
+    private int nombreReussies;
+    private int nombreArchivees;
+    private JournalDisque disque;
+    private final Horloge horloge;
 
     /**
      * Constructeur initialisant une liste vide de transactions.
      */
     public JournalVentes() {
-        this.transactions = new ArrayList<>();
+        this(Horloge.systeme());
+    }
+
+    /**
+     * Constructeur initialisant une liste vide de transactions, les requêtes relatives
+     * à l'heure courante (derniers jours, heure en cours) suivant l'horloge donnée.
+     * 
+     * @param horloge L'horloge de référence
+     */
+    public JournalVentes(Horloge horloge) {
+        this.colonnes = new ColonnesVentes();
+        this.segments = new TreeMap<>();
+        this.statistiques = new StatistiquesBoissons();
+        this.horloge = horloge;
     }
 
     /**
@@ -24,31 +85,232 @@ public class JournalVentes {
      * 
      * @param transaction La transaction à ajouter
      */
-    public void ajouterTransaction(Transaction transaction) {
+    public synchronized void ajouterTransaction(Transaction transaction) {
         if (transaction != null) {
-            transactions.add(transaction);
+            if (disque != null) {
+                disque.ajouterVente(transaction);
+            }
+            indexer(transaction);
         }
     }
 
     /**
-     * Retourne la liste complète des transactions.
+     * Ajoute un lot de transactions au journal des ventes, en une seule opération.
      * 
-     * @return La liste des transactions
+     * @param lot Les transactions à ajouter, dans l'ordre
+     */
+    public synchronized void ajouterTransactions(List<Transaction> lot) {
+        if (lot.isEmpty()) {
+            return;
+        }
+        if (disque != null) {
+            disque.ajouterVentes(lot);
+        }
+        for (Transaction transaction : lot) {
+            indexer(transaction);
+        }
+    }
+
+    /**
+     * Attache un journal sur disque : les transactions ajoutées ensuite y seront écrites.
+     * 
+     * @param disque Le journal sur disque, ou null pour revenir à un journal en mémoire seule
+     */
+    public synchronized void attacherDisque(JournalDisque disque) {
+        this.disque = disque;
+    }
+
+    /**
+     * Ajoute en mémoire une transaction relue depuis le journal sur disque, sans la réécrire.
+     * 
+     * @param transaction La transaction restaurée
+     */
+    synchronized void restaurerTransaction(Transaction transaction) {
+        indexer(transaction);
+    }
+
+    private void indexer(Transaction transaction) {
+        int position = colonnes.ajouter(transaction);
+        long jour = Math.floorDiv(transaction.getHorodatage(), MILLISECONDES_PAR_JOUR);
+        SegmentJour segment = segments.computeIfAbsent(jour, j -> new SegmentJour());
+        segment.ajouter(position);
+        if (transaction.estReussie()) {
+            // Recette encaissée : le montant inséré moins la monnaie rendue, soit le prix de vente
+            long recette = transaction.getMontantInsere().getCentimes() - transaction.getMonnaieRendue().getCentimes();
+            chiffreAffairesCentimes += recette;
+            nombreReussies++;
+            segment.chiffreAffairesCentimes += recette;
+            Boisson boisson = transaction.getBoisson();
+            if (boisson != null) {
+                statistiques.ajouter(boisson.getId(), transaction.getHorodatage(), recette);
+            }
+        }
+    }
+
+    /**
+     * Retourne les transactions conservées en mémoire, en O(1) et sans copie, sans les
+     * ventes archivées par un instantané. La vue est figée : les transactions ajoutées
+     * ensuite n'y apparaissent pas.
+     * 
+     * @return Une vue non modifiable des transactions
      */
     public List<Transaction> getTransactions() {
-        return new ArrayList<>(transactions);
+        return colonnes.figer();
     }
 
     /**
-     * Retourne la liste des transactions effectuées à une date spécifique.
+     * Retourne une page des ventes retenues par un filtre, sans verrou. Seules les ventes
+     * de la page sont recréées : parcourir tout l'historique page par page se fait en
+     * mémoire constante.
+     * 
+     * @param filtre  Le filtre des ventes
+     * @param curseur {@link PageVentes#DEBUT}, ou le curseur suivant de la page précédente
+     * @param taille  Le nombre maximal de ventes de la page
+     * @return La page
+     * @throws IllegalArgumentException si le curseur est négatif ou désigne une vente archivée,
+     *                                  ou si la taille n'est pas positive
+     */
+    public PageVentes getPage(FiltreVentes filtre, long curseur, int taille) {
+        if (taille <= 0) {
+            throw new IllegalArgumentException("La taille d'une page doit être positive");
+        }
+        int archivees = getNombreTransactionsArchivees();
+        ColonnesVentes.Vue vue = colonnes.figer();
+        List<Transaction> page = new ArrayList<>(Math.min(taille, 64));
+        int position = vue.chercher(position(curseur, archivees), filtre);
+        while (position >= 0 && page.size() < taille) {
+            page.add(vue.get(position));
+            position = vue.chercher(position + 1, filtre);
+        }
+        return new PageVentes(Collections.unmodifiableList(page),
+                position < 0 ? PageVentes.FIN : (long) archivees + position);
+    }
+
+    /**
+     * Convertit un curseur, rang d'une vente dans tout l'historique, en position dans les
+     * ventes conservées en mémoire. Le curseur 0 désigne la première vente conservée.
+     *
+     * @throws IllegalArgumentException si le curseur est négatif ou désigne une vente archivée
+     */
+    static int position(long curseur, int archivees) {
+        if (curseur < 0) {
+            throw new IllegalArgumentException("Curseur invalide : " + curseur);
+        }
+        if (curseur == 0) {
+            return 0;
+        }
+        if (curseur < archivees) {
+            throw new IllegalArgumentException("Le curseur " + curseur
+                    + " désigne une vente archivée par l'instantané, qui n'est plus en mémoire");
+        }
+        return (int) Math.min(curseur - archivees, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Fige les ventes conservées en mémoire, pour un parcours direct des colonnes.
+     */
+    ColonnesVentes.Vue figer() {
+        return colonnes.figer();
+    }
+
+    /**
+     * Parcourt les ventes retenues par un filtre, une à une et sans verrou. Le parcours
+     * porte sur les ventes enregistrées lors de l'appel ; chaque transaction n'est
+     * recréée qu'au moment où elle est lue.
+     * 
+     * @param filtre Le filtre des ventes
+     * @return Un itérateur sur les ventes retenues, dans l'ordre d'enregistrement
+     */
+    public Iterator<Transaction> iterer(FiltreVentes filtre) {
+        ColonnesVentes.Vue vue = colonnes.figer();
+        return new Iterator<Transaction>() {
+            private int suivante = vue.chercher(0, filtre);
+
+            @Override
+            public boolean hasNext() {
+                return suivante >= 0;
+            }
+
+            @Override
+            public Transaction next() {
+                if (suivante < 0) {
+                    throw new NoSuchElementException();
+                }
+                Transaction transaction = vue.get(suivante);
+                suivante = vue.chercher(suivante + 1, filtre);
+                return transaction;
+            }
+        };
+    }
+
+    /**
+     * Retourne la liste des transactions effectuées à une date spécifique, parmi celles
+     * conservées en mémoire : après une restauration, elle peut ne pas expliquer tout le
+     * chiffre d'affaires du jour ({@link #getChiffreAffairesParDate(LocalDate)}).
      * 
      * @param date La date pour laquelle on veut les transactions
      * @return La liste des transactions à cette date
      */
-    public List<Transaction> getTransactionsParDate(LocalDate date) {
-        return transactions.stream()
-                .filter(t -> t.getDateHeure().toLocalDate().equals(date))
-                .collect(Collectors.toList());
+    public synchronized List<Transaction> getTransactionsParDate(LocalDate date) {
+        List<Transaction> resultat = new ArrayList<>();
+        SegmentJour segment = segments.get(date.toEpochDay());
+        if (segment != null) {
+            segment.copierDans(colonnes, resultat, Long.MIN_VALUE, Long.MAX_VALUE);
+        }
+        return resultat;
+    }
+
+    /**
+     * Retourne les transactions effectuées dans un intervalle de temps, parmi celles
+     * conservées en mémoire. Seuls les segments des jours couverts par l'intervalle sont
+     * parcourus.
+     * 
+     * @param debut Le début de l'intervalle (inclus)
+     * @param fin   La fin de l'intervalle (exclue)
+     * @return La liste des transactions de l'intervalle, dans l'ordre d'enregistrement
+     */
+    public synchronized List<Transaction> getTransactionsEntre(LocalDateTime debut, LocalDateTime fin) {
+        List<Transaction> resultat = new ArrayList<>();
+        if (!debut.isBefore(fin)) {
+            return resultat;
+        }
+        long horodatageDebut = FiltreVentes.horodatageArrondiSuperieur(debut);
+        long horodatageFin = FiltreVentes.horodatageArrondiSuperieur(fin);
+        long premierJour = debut.toLocalDate().toEpochDay();
+        long dernierJour = fin.toLocalDate().toEpochDay();
+        for (Map.Entry<Long, SegmentJour> entree : segments.subMap(premierJour, true, dernierJour, true).entrySet()) {
+            long jour = entree.getKey();
+            // Les jours intérieurs sont entièrement couverts : inutile de comparer les heures
+            boolean jourComplet = jour > premierJour && jour < dernierJour;
+            entree.getValue().copierDans(colonnes, resultat,
+                    jourComplet ? Long.MIN_VALUE : horodatageDebut, jourComplet ? Long.MAX_VALUE : horodatageFin);
+        }
+        return resultat;
+    }
+
+    /**
+     * Retourne les transactions des derniers jours, aujourd'hui compris.
+     * 
+     * @param nombreJours Le nombre de jours (1 pour aujourd'hui seulement)
+     * @return La liste des transactions de la période
+     */
+    public List<Transaction> getTransactionsDerniersJours(int nombreJours) {
+        if (nombreJours <= 0) {
+            return new ArrayList<>();
+        }
+        LocalDate aujourdhui = horloge.maintenant().toLocalDate();
+        return getTransactionsEntre(aujourdhui.minusDays(nombreJours - 1L).atStartOfDay(),
+                aujourdhui.plusDays(1).atStartOfDay());
+    }
+
+    /**
+     * Retourne les transactions de l'heure en cours.
+     * 
+     * @return La liste des transactions depuis le début de l'heure en cours
+     */
+    public List<Transaction> getTransactionsHeureCourante() {
+        LocalDateTime debut = horloge.maintenant().truncatedTo(ChronoUnit.HOURS);
+        return getTransactionsEntre(debut, debut.plusHours(1));
     }
 
     /**
@@ -56,11 +318,8 @@ public class JournalVentes {
      * 
      * @return Le chiffre d'affaires total
      */
-    public double getChiffreAffaires() {
-        return transactions.stream()
-                .filter(Transaction::estReussie)
-                .mapToDouble(t -> t.getBoisson().getPrix())
-                .sum();
+    public synchronized Montant getChiffreAffaires() {
+        return Montant.deCentimes(chiffreAffairesCentimes);
     }
 
     /**
@@ -69,20 +328,29 @@ public class JournalVentes {
      * @param date La date pour laquelle on veut le chiffre d'affaires
      * @return Le chiffre d'affaires pour cette date
      */
-    public double getChiffreAffairesParDate(LocalDate date) {
-        return transactions.stream()
-                .filter(t -> t.estReussie() && t.getDateHeure().toLocalDate().equals(date))
-                .mapToDouble(t -> t.getBoisson().getPrix())
-                .sum();
+    public synchronized Montant getChiffreAffairesParDate(LocalDate date) {
+        SegmentJour segment = segments.get(date.toEpochDay());
+        return segment == null ? Montant.ZERO : Montant.deCentimes(segment.chiffreAffairesCentimes);
     }
 
     /**
-     * Retourne le nombre total de transactions.
+     * Retourne le nombre total de transactions, archivées comprises.
      * 
      * @return Le nombre de transactions
      */
-    public int getNombreTransactions() {
-        return transactions.size();
+    public synchronized int getNombreTransactions() {
+        return nombreArchivees + colonnes.getTaille();
+    }
+
+    /**
+     * Retourne le nombre de transactions couvertes par l'instantané restauré, comptées
+     * dans les agrégats mais plus conservées en mémoire. Ce sont les premières de
+     * l'historique : {@link #getTransactions()} commence par la suivante.
+     * 
+     * @return Le nombre de transactions archivées, 0 sans restauration
+     */
+    public synchronized int getNombreTransactionsArchivees() {
+        return nombreArchivees;
     }
 
     /**
@@ -90,9 +358,115 @@ public class JournalVentes {
      * 
      * @return Le nombre de transactions réussies
      */
-    public int getNombreTransactionsReussies() {
-        return (int) transactions.stream()
-                .filter(Transaction::estReussie)
-                .count();
+    public synchronized int getNombreTransactionsReussies() {
+        return nombreReussies;
+    }
+
+    /**
+     * Retourne le bilan des ventes réussies d'une boisson, en O(1).
+     * 
+     * @param idBoisson L'identifiant de la boisson
+     * @return Le bilan de la boisson, à zéro si elle n'a jamais été vendue
+     */
+    public synchronized VentesBoisson getVentesBoisson(int idBoisson) {
+        return statistiques.getVentes(idBoisson);
+    }
+
+    /**
+     * Retourne les boissons les plus vendues, en O(k log n) pour k boissons parmi n.
+     * Les boissons sont classées par unités vendues, puis par chiffre d'affaires.
+     * 
+     * @param nombre Le nombre maximal de boissons
+     * @return Les bilans des meilleures ventes, de la meilleure à la moins bonne
+     */
+    public synchronized List<VentesBoisson> getMeilleuresVentes(int nombre) {
+        if (nombre <= 0) {
+            return new ArrayList<>();
+        }
+        return statistiques.getMeilleures(nombre);
+    }
+
+    /**
+     * Retourne le nombre de ventes réussies par heure de la journée, toutes boissons et
+     * tous jours confondus.
+     * 
+     * @return Un tableau de 24 compteurs, indexé par l'heure (0 à 23)
+     */
+    public synchronized long[] getVentesParHeure() {
+        return statistiques.getVentesParHeure();
+    }
+
+    /**
+     * Écrit les agrégats du journal (nombre de transactions, ventes réussies, chiffre
+     * d'affaires total et par jour, statistiques par boisson) pour un instantané.
+     * 
+     * @param sortie La sortie de l'instantané
+     * @throws IOException si l'écriture échoue
+     */
+    synchronized void ecrireAgregats(DataOutput sortie) throws IOException {
+        sortie.writeInt(getNombreTransactions());
+        sortie.writeInt(nombreReussies);
+        sortie.writeLong(chiffreAffairesCentimes);
+        sortie.writeInt(segments.size());
+        for (Map.Entry<Long, SegmentJour> entree : segments.entrySet()) {
+            sortie.writeLong(entree.getKey());
+            sortie.writeLong(entree.getValue().chiffreAffairesCentimes);
+        }
+        statistiques.ecrire(sortie);
+    }
+
+    /**
+     * Restaure les agrégats écrits par {@link #ecrireAgregats(DataOutput)}. Le journal
+     * doit être vide : les transactions correspondantes ne sont pas rechargées en mémoire,
+     * elles sont archivées.
+     * 
+     * @param entree L'entrée de l'instantané
+     * @throws IOException si la lecture échoue
+     * @throws IllegalStateException si le journal contient déjà des transactions
+     */
+    synchronized void lireAgregats(DataInput entree) throws IOException {
+        if (getNombreTransactions() > 0) {
+            throw new IllegalStateException("Le journal doit être vide pour restaurer un instantané");
+        }
+        nombreArchivees = entree.readInt();
+        nombreReussies = entree.readInt();
+        chiffreAffairesCentimes = entree.readLong();
+        int nombreJours = entree.readInt();
+        for (int i = 0; i < nombreJours; i++) {
+            SegmentJour segment = new SegmentJour();
+            segments.put(entree.readLong(), segment);
+            segment.chiffreAffairesCentimes = entree.readLong();
+        }
+        statistiques.lire(entree);
+    }
+
+    /**
+     * Segment d'une journée : positions des transactions du jour dans le journal,
+     * dans l'ordre d'enregistrement, et chiffre d'affaires du jour.
+     */
+    private static final class SegmentJour {
+        private int[] positions = new int[16];
+        private int taille;
+        private long chiffreAffairesCentimes;
+
+        void ajouter(int position) {
+            if (taille == positions.length) {
+                positions = Arrays.copyOf(positions, taille * 2);
+            }
+            positions[taille++] = position;
+        }
+
+        /**
+         * Copie les transactions du jour dont l'horodatage est dans [debut, fin[ ;
+         * seules les ventes retenues sont recréées.
+         */
+        void copierDans(ColonnesVentes colonnes, List<Transaction> resultat, long debut, long fin) {
+            for (int i = 0; i < taille; i++) {
+                long horodatage = colonnes.getHorodatage(positions[i]);
+                if (horodatage >= debut && horodatage < fin) {
+                    resultat.add(colonnes.getTransaction(positions[i]));
+                }
+            }
+        }
     }
-}
\ No newline at end of file
+}
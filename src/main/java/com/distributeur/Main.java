@@ -8,6 +8,9 @@ import java.util.Scanner;
  */
 public class Main {
 
+    private static final int TAILLE_PAGE = 20;
+    private static final int NOMBRE_MEILLEURES_VENTES = 3;
+
     private static Distributeur distributeur;
     private static Scanner scanner;
     private static Utilisateur utilisateur;
@@ -121,7 +124,8 @@ public class Main {
             System.out.println("2. Recharger le stock d'une boisson");
             System.out.println("3. Collecter les fonds");
             System.out.println("4. Consulter les ventes");
-            System.out.println("5. Retour au menu principal");
+            System.out.println("5. Consulter les métriques");
+            System.out.println("6. Retour au menu principal");
 
             int choix = lireEntier("Votre choix: ");
 
@@ -139,6 +143,9 @@ public class Main {
                     consulterVentes();
                     break;
                 case 5:
+                    consulterMetriques();
+                    break;
+                case 6:
                     retour = true;
                     break;
                 default:
@@ -152,14 +159,10 @@ public class Main {
      */
     private static void afficherBoissonsDisponibles() {
         System.out.println("\n=== BOISSONS DISPONIBLES ===");
-        List<Boisson> boissonsDisponibles = distributeur.afficherBoissonsDisponibles();
-
-        if (boissonsDisponibles.isEmpty()) {
+        if (!distributeur.aDesBoissonsDisponibles()) {
             System.out.println("Aucune boisson disponible actuellement.");
         } else {
-            for (Boisson boisson : boissonsDisponibles) {
-                System.out.println(boisson);
-            }
+            distributeur.pourChaqueBoissonDisponible(System.out::println);
         }
     }
 
@@ -204,21 +207,16 @@ public class Main {
         System.out.println("Prix de la boisson: " + boisson.getPrix() + " FCFA");
         System.out.println("Votre solde: " + utilisateur.getSolde() + " FCFA");
 
-        if (utilisateur.getSolde() < boisson.getPrix()) {
-            System.out.println("Solde insuffisant. Veuillez ajouter de l'argent.");
-            return;
-        }
+        // Effectuer l'achat : le portefeuille n'est débité que si la vente a lieu
+        ResultatAchat resultat = distributeur.reglerAchat(utilisateur, idBoisson);
 
-        // Effectuer l'achat
-        utilisateur.retirerFonds(boisson.getPrix());
-        Transaction transaction = distributeur.acheterBoisson(idBoisson, boisson.getPrix());
-
-        if (transaction.estReussie()) {
+        if (resultat.estReussie()) {
             System.out.println("\nAchat réussi ! Vous avez acheté: " + boisson.getNom());
             System.out.println("Nouveau solde: " + utilisateur.getSolde() + " FCFA");
+        } else if (resultat.getMotifEchec() == MotifEchec.MONTANT_INSUFFISANT) {
+            System.out.println("Solde insuffisant. Veuillez ajouter de l'argent.");
         } else {
-            System.out.println("\nErreur lors de l'achat.");
-            utilisateur.ajouterFonds(boisson.getPrix()); // Remboursement
+            System.out.println("\nErreur lors de l'achat : " + resultat.getMotifEchec().getLibelle() + ".");
         }
     }
 
@@ -268,15 +266,13 @@ public class Main {
      * Gère la collecte des fonds du distributeur.
      */
     private static void collecterFonds() {
-        double montantCaisse = distributeur.getMontantCaisse();
-        System.out.println("\nMontant dans la caisse: " + montantCaisse + " FCFA");
+        Montant montantCollecte = admin.collecterFonds(distributeur);
 
-        if (montantCaisse > 0) {
-            double montantCollecte = admin.collecterFonds(distributeur);
-            System.out.println("Fonds collectés: " + montantCollecte + " FCFA");
+        if (montantCollecte.estPositif()) {
+            System.out.println("\nFonds collectés: " + montantCollecte + " FCFA");
             System.out.println("Solde de l'administrateur: " + admin.getSolde() + " FCFA");
         } else {
-            System.out.println("La caisse est vide.");
+            System.out.println("\nLa caisse est vide.");
         }
     }
 
@@ -285,19 +281,41 @@ public class Main {
      */
     private static void consulterVentes() {
         System.out.println("\n=== HISTORIQUE DES VENTES ===");
-        List<Transaction> transactions = admin.consulterVentes(distributeur);
+        PageVentes page = admin.consulterVentes(distributeur, FiltreVentes.tout(), PageVentes.DEBUT, TAILLE_PAGE);
 
-        if (transactions.isEmpty()) {
+        if (page.getTransactions().isEmpty()) {
             System.out.println("Aucune transaction enregistrée.");
-        } else {
-            for (Transaction transaction : transactions) {
+            return;
+        }
+        // Affichage page par page : seule la page courante est en mémoire
+        while (true) {
+            for (Transaction transaction : page.getTransactions()) {
                 System.out.println(transaction);
             }
-            System.out.println("\nNombre total de transactions: " + transactions.size());
-            System.out.println("Chiffre d'affaires: " + distributeur.getJournal().getChiffreAffaires() + " FCFA");
+            if (!page.aUneSuite() || lireEntier("\n1. Page suivante  0. Arrêter : ") != 1) {
+                break;
+            }
+            page = admin.consulterVentes(distributeur, FiltreVentes.tout(), page.getCurseurSuivant(), TAILLE_PAGE);
+        }
+        System.out.println("\nNombre total de transactions: " + distributeur.getJournal().getNombreTransactions());
+        System.out.println("Chiffre d'affaires: " + distributeur.getJournal().getChiffreAffaires() + " FCFA");
+
+        System.out.println("\nMeilleures ventes:");
+        for (VentesBoisson ventes : distributeur.getJournal().getMeilleuresVentes(NOMBRE_MEILLEURES_VENTES)) {
+            Boisson boisson = distributeur.rechercherBoisson(ventes.getIdBoisson());
+            System.out.println((boisson != null ? boisson.getNom() : "Boisson " + ventes.getIdBoisson())
+                    + " - " + ventes.getNombreVentes() + " vendue(s) - " + ventes.getChiffreAffaires() + " FCFA");
         }
     }
 
+    /**
+     * Gère la consultation des métriques.
+     */
+    private static void consulterMetriques() {
+        System.out.println("\n=== MÉTRIQUES ===");
+        System.out.print(admin.consulterMetriques(distributeur));
+    }
+
     /**
      * Lit un entier depuis l'entrée standard.
      * 
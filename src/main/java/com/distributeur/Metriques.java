@@ -0,0 +1,176 @@
+package com.distributeur;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Registre des métriques d'un distributeur : un histogramme de latence par opération,
+ * un compteur par motif d'échec d'achat, et des jauges lues à la demande (stock de
+ * chaque boisson, solde de la caisse).
+ * <p>
+ * La mesure peut être désactivée : les opérations ne lisent alors plus l'horloge et
+ * n'enregistrent plus de latence. Les compteurs d'échecs restent tenus à jour.
+ */
+public class Metriques {
+
+    /**
+     * Opération dont la latence est mesurée.
+     */
+    public enum Operation {
+        /** Achat d'une boisson. */
+        ACHAT,
+        /** Lot d'achats (une mesure par lot). */
+        ACHAT_LOT,
+        /** Rechargement du stock d'une boisson. */
+        RECHARGE,
+        /** Collecte des fonds de la caisse. */
+        COLLECTE
+    }
+
+    private final HistogrammeLatence[] latences;
+    private final LongAdder[] echecs;
+    private final Map<String, LongSupplier> jauges;
+    private volatile boolean active;
+
+    /**
+     * Constructeur initialisant un registre vide et actif.
+     */
+    public Metriques() {
+        this.latences = new HistogrammeLatence[Operation.values().length];
+        for (int i = 0; i < latences.length; i++) {
+            latences[i] = new HistogrammeLatence();
+        }
+        this.echecs = new LongAdder[MotifEchec.values().length];
+        for (int i = 0; i < echecs.length; i++) {
+            echecs[i] = new LongAdder();
+        }
+        this.jauges = new ConcurrentSkipListMap<>();
+        this.active = true;
+    }
+
+    /**
+     * Indique si la mesure des latences est active.
+     *
+     * @return true si les latences sont mesurées
+     */
+    public boolean estActive() {
+        return active;
+    }
+
+    /**
+     * Active ou désactive la mesure des latences.
+     *
+     * @param active true pour mesurer les latences
+     */
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+
+    /**
+     * Marque le début d'une opération mesurée.
+     *
+     * @return L'instant de début, à passer à {@link #terminer(Operation, long)}
+     */
+    public long demarrer() {
+        return active ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Enregistre la latence d'une opération commencée par {@link #demarrer()}.
+     *
+     * @param operation L'opération mesurée
+     * @param debut     L'instant de début retourné par {@link #demarrer()}
+     */
+    public void terminer(Operation operation, long debut) {
+        if (debut != 0L && active) {
+            latences[operation.ordinal()].enregistrer(System.nanoTime() - debut);
+        }
+    }
+
+    /**
+     * Compte un achat échoué. Chaque motif a son propre compteur réparti
+     * ({@link LongAdder}) : un afflux de refus concurrents ne se dispute pas une case.
+     *
+     * @param motif Le motif de l'échec
+     */
+    public void compterEchec(MotifEchec motif) {
+        echecs[motif.ordinal()].increment();
+    }
+
+    /**
+     * Retourne l'histogramme de latence d'une opération.
+     *
+     * @param operation L'opération
+     * @return L'histogramme de latence
+     */
+    public HistogrammeLatence getLatence(Operation operation) {
+        return latences[operation.ordinal()];
+    }
+
+    /**
+     * Retourne le nombre d'achats échoués pour un motif.
+     *
+     * @param motif Le motif d'échec
+     * @return Le nombre d'échecs
+     */
+    public long getNombreEchecs(MotifEchec motif) {
+        return echecs[motif.ordinal()].sum();
+    }
+
+    /**
+     * Enregistre (ou remplace) une jauge, évaluée à chaque lecture.
+     *
+     * @param nom    Le nom de la jauge
+     * @param valeur La fonction retournant la valeur courante
+     */
+    public void enregistrerJauge(String nom, LongSupplier valeur) {
+        jauges.put(nom, valeur);
+    }
+
+    /**
+     * Retourne la valeur courante d'une jauge.
+     *
+     * @param nom Le nom de la jauge
+     * @return La valeur de la jauge
+     * @throws IllegalArgumentException si aucune jauge ne porte ce nom
+     */
+    public long getJauge(String nom) {
+        LongSupplier jauge = jauges.get(nom);
+        if (jauge == null) {
+            throw new IllegalArgumentException("Jauge inconnue : " + nom);
+        }
+        return jauge.getAsLong();
+    }
+
+    /**
+     * Produit un rapport texte de toutes les métriques.
+     *
+     * @return Le rapport, une métrique par ligne
+     */
+    public String exporterTexte() {
+        StringBuilder texte = new StringBuilder();
+        texte.append("# Latences (ns)\n");
+        for (Operation operation : Operation.values()) {
+            HistogrammeLatence latence = getLatence(operation);
+            texte.append(operation.name().toLowerCase())
+                    .append(".latence nombre=").append(latence.getNombre())
+                    .append(" moyenne=").append(latence.getMoyenne())
+                    .append(" p50=").append(latence.getQuantile(0.5))
+                    .append(" p99=").append(latence.getQuantile(0.99))
+                    .append(" max=").append(latence.getMaximum())
+                    .append('\n');
+        }
+        texte.append("# Échecs d'achat\n");
+        for (MotifEchec motif : MotifEchec.values()) {
+            texte.append("achat.echecs.").append(motif.name().toLowerCase())
+                    .append(' ').append(getNombreEchecs(motif)).append('\n');
+        }
+        texte.append("# Jauges\n");
+        for (Map.Entry<String, LongSupplier> jauge : jauges.entrySet()) {
+            texte.append(jauge.getKey()).append(' ').append(jauge.getValue().getAsLong()).append('\n');
+        }
+        return texte.toString();
+    }
+}
@@ -0,0 +1,166 @@
+package com.distributeur;
+
+/**
+ * Classe représentant un montant d'argent en FCFA.
+ * Le montant est stocké en centimes dans un entier long : les additions, les
+ * soustractions et les comparaisons sont exactes, sans erreur d'arrondi.
+ * Les instances sont immuables.
+ */
+public final class Montant implements Comparable<Montant> {
+    /** Nombre de centimes dans un FCFA. */
+    public static final long CENTIMES_PAR_FCFA = 100;
+
+    /** Le montant nul. */
+    public static final Montant ZERO = new Montant(0);
+
+    private final long centimes;
+
+    private Montant(long centimes) {
+        this.centimes = centimes;
+    }
+
+    /**
+     * Crée un montant à partir d'un nombre de centimes.
+     *
+     * @param centimes Le nombre de centimes
+     * @return Le montant correspondant
+     */
+    public static Montant deCentimes(long centimes) {
+        return centimes == 0 ? ZERO : new Montant(centimes);
+    }
+
+    /**
+     * Crée un montant à partir d'un nombre entier de FCFA.
+     *
+     * @param fcfa Le nombre de FCFA
+     * @return Le montant correspondant
+     * @throws ArithmeticException si le montant dépasse la capacité d'un long en centimes
+     */
+    public static Montant deFcfa(long fcfa) {
+        return deCentimes(Math.multiplyExact(fcfa, CENTIMES_PAR_FCFA));
+    }
+
+    /**
+     * Crée un montant à partir d'une saisie décimale en FCFA, arrondie au centime le plus proche.
+     *
+     * @param fcfa Le montant en FCFA
+     * @return Le montant correspondant
+     * @throws IllegalArgumentException si la valeur n'est pas un nombre fini
+     */
+    public static Montant deFcfa(double fcfa) {
+        if (Double.isNaN(fcfa) || Double.isInfinite(fcfa)) {
+            throw new IllegalArgumentException("Le montant doit être un nombre fini");
+        }
+        return deCentimes(Math.round(fcfa * CENTIMES_PAR_FCFA));
+    }
+
+    /**
+     * Retourne le montant en centimes.
+     *
+     * @return Le nombre de centimes
+     */
+    public long getCentimes() {
+        return centimes;
+    }
+
+    /**
+     * Retourne la somme de ce montant et d'un autre.
+     *
+     * @param autre Le montant à ajouter
+     * @return La somme des deux montants
+     */
+    public Montant plus(Montant autre) {
+        return deCentimes(Math.addExact(centimes, autre.centimes));
+    }
+
+    /**
+     * Retourne la différence entre ce montant et un autre.
+     *
+     * @param autre Le montant à soustraire
+     * @return La différence des deux montants
+     */
+    public Montant moins(Montant autre) {
+        return deCentimes(Math.subtractExact(centimes, autre.centimes));
+    }
+
+    /**
+     * Retourne ce montant multiplié par une quantité.
+     *
+     * @param quantite Le multiplicateur
+     * @return Le produit
+     */
+    public Montant fois(long quantite) {
+        return deCentimes(Math.multiplyExact(centimes, quantite));
+    }
+
+    /**
+     * Indique si le montant est strictement négatif.
+     *
+     * @return true si le montant est négatif, false sinon
+     */
+    public boolean estNegatif() {
+        return centimes < 0;
+    }
+
+    /**
+     * Indique si le montant est strictement positif.
+     *
+     * @return true si le montant est positif, false sinon
+     */
+    public boolean estPositif() {
+        return centimes > 0;
+    }
+
+    /**
+     * Indique si ce montant est strictement inférieur à un autre.
+     *
+     * @param autre Le montant de comparaison
+     * @return true si ce montant est inférieur, false sinon
+     */
+    public boolean estInferieurA(Montant autre) {
+        return centimes < autre.centimes;
+    }
+
+    @Override
+    public int compareTo(Montant autre) {
+        return Long.compare(centimes, autre.centimes);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof Montant && ((Montant) obj).centimes == centimes;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(centimes);
+    }
+
+    /**
+     * Formate un montant exprimé en centimes, sans décimales s'il s'agit d'un nombre entier de FCFA.
+     *
+     * @param centimes Le montant en centimes
+     * @return Le montant formaté, par exemple "1000", "1.5" ou "0.05"
+     */
+    public static String formater(long centimes) {
+        long unites = Math.abs(centimes / CENTIMES_PAR_FCFA);
+        int reste = (int) Math.abs(centimes % CENTIMES_PAR_FCFA);
+        StringBuilder sb = new StringBuilder(24);
+        if (centimes < 0) {
+            sb.append('-');
+        }
+        sb.append(unites);
+        if (reste != 0) {
+            sb.append('.').append(reste / 10);
+            if (reste % 10 != 0) {
+                sb.append(reste % 10);
+            }
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return formater(centimes);
+    }
+}
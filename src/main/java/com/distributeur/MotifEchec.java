@@ -0,0 +1,46 @@
+package com.distributeur;
+
+/**
+ * Cause de l'échec d'un achat. Chaque motif est aussi le {@link ResultatAchat} d'un
+ * achat refusé pour cette cause.
+ */
+public enum MotifEchec implements ResultatAchat {
+    /** Aucune boisson ne porte l'ID demandé. */
+    BOISSON_INCONNUE("Boisson inconnue"),
+    /** La boisson est en rupture de stock. */
+    RUPTURE_STOCK("Rupture de stock"),
+    /** Le montant inséré est inférieur au prix de la boisson. */
+    MONTANT_INSUFFISANT("Montant insuffisant"),
+    /** Le distributeur n'a pas les pièces et billets pour rendre la monnaie exacte. */
+    MONNAIE_INSUFFISANTE("Monnaie insuffisante");
+
+    private final String libelle;
+
+    MotifEchec(String libelle) {
+        this.libelle = libelle;
+    }
+
+    /**
+     * Retourne le libellé du motif, affichable à l'utilisateur.
+     *
+     * @return Le libellé du motif
+     */
+    public String getLibelle() {
+        return libelle;
+    }
+
+    @Override
+    public boolean estReussie() {
+        return false;
+    }
+
+    @Override
+    public MotifEchec getMotifEchec() {
+        return this;
+    }
+
+    @Override
+    public Transaction getTransaction() {
+        return null;
+    }
+}
@@ -0,0 +1,56 @@
+package com.distributeur;
+
+import java.util.List;
+
+/**
+ * Page de l'historique des ventes, retournée par
+ * {@link JournalVentes#getPage(FiltreVentes, long, int)}.
+ * <p>
+ * Le curseur suivant est le rang de la prochaine vente retenue dans tout l'historique
+ * du journal, ventes archivées par un instantané comprises
+ * ({@link JournalVentes#getNombreTransactionsArchivees()}). Le journal étant en ajout
+ * seul et relu dans l'ordre au redémarrage, ce rang reste valable quelles que soient
+ * les ventes enregistrées entre deux pages, et après un redémarrage depuis un
+ * instantané : un curseur qui désigne une vente archivée est alors refusé.
+ */
+public final class PageVentes {
+    /** Curseur de la première page : la première vente conservée en mémoire. */
+    public static final long DEBUT = 0;
+    /** Curseur suivant la dernière page. */
+    public static final long FIN = -1;
+
+    private final List<Transaction> transactions;
+    private final long curseurSuivant;
+
+    PageVentes(List<Transaction> transactions, long curseurSuivant) {
+        this.transactions = transactions;
+        this.curseurSuivant = curseurSuivant;
+    }
+
+    /**
+     * Retourne les transactions de la page, dans l'ordre d'enregistrement.
+     *
+     * @return Une liste non modifiable des transactions
+     */
+    public List<Transaction> getTransactions() {
+        return transactions;
+    }
+
+    /**
+     * Retourne le curseur de la page suivante.
+     *
+     * @return Le curseur à passer pour la page suivante, {@link #FIN} s'il n'y en a pas
+     */
+    public long getCurseurSuivant() {
+        return curseurSuivant;
+    }
+
+    /**
+     * Indique s'il reste des ventes après cette page.
+     *
+     * @return true si une page suivante existe
+     */
+    public boolean aUneSuite() {
+        return curseurSuivant != FIN;
+    }
+}
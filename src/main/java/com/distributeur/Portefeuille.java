@@ -1,76 +1,146 @@
 package com.distributeur;
 
+import java.util.function.BooleanSupplier;
+
 /**
- * Classe représentant un portefeuille qui gère les montants d'argent.
- * Utilisée à la fois pour la caisse du distributeur et pour le portefeuille de l'utilisateur.
+ * Classe représentant un portefeuille qui gère les montants d'argent d'un utilisateur.
+ * La caisse du distributeur, plus sollicitée, a sa propre implémentation ({@link Caisse}).
+ * Le solde est tenu en centimes (voir {@link Montant}) : il est toujours exact.
+ * Toutes les opérations sont synchronisées sur le portefeuille lui-même : chaque
+ * portefeuille a son propre verrou, aucun verrou n'est partagé entre portefeuilles.
  */
 public class Portefeuille {
-    private double solde;
+    private long soldeCentimes;
 
     /**
      * Constructeur par défaut initialisant le solde à 0.
      */
     public Portefeuille() {
-        this.solde = 0.0;
+        this.soldeCentimes = 0;
     }
 
     /**
      * Constructeur initialisant le solde avec un montant spécifié.
-     * 
+     *
      * @param soldeInitial Le solde initial du portefeuille
      */
-    public Portefeuille(double soldeInitial) {
-        if (soldeInitial >= 0) {
-            this.solde = soldeInitial;
+    public Portefeuille(Montant soldeInitial) {
+        if (!soldeInitial.estNegatif()) {
+            this.soldeCentimes = soldeInitial.getCentimes();
         } else {
-            this.solde = 0.0;
+            this.soldeCentimes = 0;
         }
     }
 
+    /**
+     * Constructeur initialisant le solde avec un montant saisi en FCFA.
+     *
+     * @param soldeInitial Le solde initial du portefeuille en FCFA
+     */
+    public Portefeuille(double soldeInitial) {
+        this(Montant.deFcfa(soldeInitial));
+    }
+
     /**
      * Retourne le solde actuel du portefeuille.
-     * 
+     *
      * @return Le solde actuel
      */
-    public double getSolde() {
-        return solde;
+    public synchronized Montant getSolde() {
+        return Montant.deCentimes(soldeCentimes);
     }
 
     /**
      * Ajoute des fonds au portefeuille.
-     * 
+     *
      * @param montant Le montant à ajouter
      * @throws IllegalArgumentException si le montant est négatif
      */
-    public void ajouterFonds(double montant) {
-        if (montant < 0) {
+    public synchronized void ajouterFonds(Montant montant) {
+        if (montant.estNegatif()) {
             throw new IllegalArgumentException("Le montant à ajouter ne peut pas être négatif");
         }
-        this.solde += montant;
+        this.soldeCentimes = Math.addExact(this.soldeCentimes, montant.getCentimes());
+    }
+
+    /**
+     * Ajoute des fonds saisis en FCFA au portefeuille.
+     *
+     * @param montant Le montant à ajouter en FCFA
+     * @throws IllegalArgumentException si le montant est négatif
+     */
+    public void ajouterFonds(double montant) {
+        ajouterFonds(Montant.deFcfa(montant));
     }
 
     /**
      * Retire des fonds du portefeuille si le solde est suffisant.
-     * 
+     *
      * @param montant Le montant à retirer
      * @return true si le retrait a été effectué, false si le solde est insuffisant
      * @throws IllegalArgumentException si le montant est négatif
      */
-    public boolean retirerFonds(double montant) {
-        if (montant < 0) {
+    public synchronized boolean retirerFonds(Montant montant) {
+        if (montant.estNegatif()) {
             throw new IllegalArgumentException("Le montant à retirer ne peut pas être négatif");
         }
-        if (this.solde >= montant) {
-            this.solde -= montant;
+        if (this.soldeCentimes >= montant.getCentimes()) {
+            this.soldeCentimes -= montant.getCentimes();
             return true;
         }
         return false;
     }
 
+    /**
+     * Retire des fonds si le solde est suffisant et si une réservation réussit, en une
+     * seule opération : la réservation n'est tentée qu'avec un solde suffisant, et le
+     * retrait n'a lieu que si elle réussit. La réservation s'exécute sous le verrou du
+     * portefeuille : elle ne doit prendre aucun autre verrou de portefeuille.
+     *
+     * @param montant     Le montant à retirer
+     * @param reservation La réservation associée au retrait
+     * @return true si le retrait a été effectué, false si le solde est insuffisant ou si
+     *         la réservation a échoué
+     * @throws IllegalArgumentException si le montant est négatif
+     */
+    synchronized boolean retirerFondsSi(Montant montant, BooleanSupplier reservation) {
+        if (montant.estNegatif()) {
+            throw new IllegalArgumentException("Le montant à retirer ne peut pas être négatif");
+        }
+        if (this.soldeCentimes < montant.getCentimes() || !reservation.getAsBoolean()) {
+            return false;
+        }
+        this.soldeCentimes -= montant.getCentimes();
+        return true;
+    }
+
+    /**
+     * Retire des fonds saisis en FCFA du portefeuille si le solde est suffisant.
+     *
+     * @param montant Le montant à retirer en FCFA
+     * @return true si le retrait a été effectué, false si le solde est insuffisant
+     * @throws IllegalArgumentException si le montant est négatif
+     */
+    public boolean retirerFonds(double montant) {
+        return retirerFonds(Montant.deFcfa(montant));
+    }
+
     /**
      * Réinitialise le solde du portefeuille à 0.
      */
-    public void reinitialiser() {
-        this.solde = 0.0;
+    public synchronized void reinitialiser() {
+        this.soldeCentimes = 0;
+    }
+
+    /**
+     * Vide le portefeuille en une seule opération atomique.
+     * Un ajout concurrent est soit inclus dans le montant retourné, soit conservé dans le solde.
+     *
+     * @return Le solde avant la remise à zéro
+     */
+    public synchronized Montant vider() {
+        long montant = this.soldeCentimes;
+        this.soldeCentimes = 0;
+        return Montant.deCentimes(montant);
     }
-}
\ No newline at end of file
+}
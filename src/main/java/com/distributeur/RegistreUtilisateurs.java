@@ -0,0 +1,488 @@
+package com.distributeur;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Registre des utilisateurs d'un déploiement sans espèces, indexé par identifiant
+ * d'utilisateur (voir {@link Utilisateur#getId()}), qui tient leurs soldes dans des
+ * tableaux de primitifs plutôt que dans un {@link Portefeuille} par utilisateur.
+ * <p>
+ * Chaque utilisateur inscrit reçoit un rang, dans l'ordre d'inscription. Une table de
+ * hachage à adressage ouvert associe l'identifiant au rang, les deux étant rangés dans
+ * un même long par case ; les soldes, en centimes (voir {@link Montant}), sont rangés
+ * par rang dans des pages de {@value #TAILLE_PAGE} : un utilisateur coûte de 24 à 40
+ * octets, sans aucun objet. La recherche, la lecture et le crédit d'un solde sont en
+ * O(1), sans verrou : un crédit est une seule opération atomique sur le solde de
+ * l'utilisateur. Un retrait prend en plus le verrou de la bande du rang, parmi
+ * {@value #NOMBRE_BANDES} : il peut ainsi être lié à une réservation sans jamais
+ * rembourser, et les retraits d'utilisateurs de bandes différentes ne s'attendent pas.
+ * <p>
+ * Les inscriptions sont synchronisées sur le registre. Un agrandissement de la table
+ * publie une nouvelle table complète, et ajoute des pages de soldes sans recopier les
+ * existantes : aucune mise à jour concurrente n'est perdue.
+ * <p>
+ * Les recharges peuvent être importées en masse depuis un CSV, une recharge par ligne
+ * au format {@code id_utilisateur,montant}, le montant en FCFA avec au plus deux
+ * décimales ; la ligne d'en-tête {@value #EN_TETE_CSV} est facultative.
+ */
+public final class RegistreUtilisateurs {
+    /** Ligne d'en-tête facultative du CSV des recharges. */
+    public static final String EN_TETE_CSV = "id_utilisateur,montant";
+
+    /** Nombre maximal d'utilisateurs inscrits. */
+    public static final int CAPACITE_MAXIMALE = 1 << 29;
+
+    private static final int BITS_PAGE = 12;
+    private static final int TAILLE_PAGE = 1 << BITS_PAGE;
+    private static final int MASQUE_PAGE = TAILLE_PAGE - 1;
+    private static final int TAILLE_TAMPON = 64 * 1024;
+    private static final int LONGUEUR_LIGNE_MAX = 64;
+    private static final long LIBRE = 0;
+    private static final int NOMBRE_BANDES = 64;
+
+    private static final byte[] EN_TETE = EN_TETE_CSV.getBytes(StandardCharsets.US_ASCII);
+
+    // Case : identifiant sur les 32 bits de poids fort, rang + 1 sur les 32 bits de poids faible
+    private volatile AtomicLongArray cases;
+    private volatile AtomicLongArray[] pages = new AtomicLongArray[0];
+    private volatile int nombre;
+    private final Object[] bandes = new Object[NOMBRE_BANDES];
+
+    /**
+     * Constructeur initialisant un registre vide.
+     */
+    public RegistreUtilisateurs() {
+        this(1024);
+    }
+
+    /**
+     * Constructeur initialisant un registre vide, dimensionné pour un nombre d'utilisateurs.
+     *
+     * @param capaciteInitiale Le nombre d'utilisateurs attendus, sans agrandissement
+     * @throws IllegalArgumentException si la capacité est négative ou dépasse {@link #CAPACITE_MAXIMALE}
+     */
+    public RegistreUtilisateurs(int capaciteInitiale) {
+        if (capaciteInitiale < 0 || capaciteInitiale > CAPACITE_MAXIMALE) {
+            throw new IllegalArgumentException("Capacité invalide : " + capaciteInitiale);
+        }
+        // Taux de remplissage de la table d'au plus 1/2
+        this.cases = new AtomicLongArray(Integer.highestOneBit(Math.max(capaciteInitiale, 8) - 1) << 2);
+        for (int i = 0; i < NOMBRE_BANDES; i++) {
+            bandes[i] = new Object();
+        }
+    }
+
+    /**
+     * Retourne le nombre d'utilisateurs inscrits.
+     *
+     * @return Le nombre d'utilisateurs
+     */
+    public int getNombreUtilisateurs() {
+        return nombre;
+    }
+
+    /**
+     * Indique si un utilisateur est inscrit.
+     *
+     * @param idUtilisateur L'identifiant de l'utilisateur
+     * @return true si l'utilisateur est inscrit
+     */
+    public boolean contient(int idUtilisateur) {
+        return rang(idUtilisateur) >= 0;
+    }
+
+    /**
+     * Inscrit un utilisateur avec un solde initial.
+     *
+     * @param idUtilisateur L'identifiant de l'utilisateur
+     * @param soldeInitial  Le solde initial
+     * @return true si l'utilisateur a été inscrit, false s'il l'était déjà (son solde est inchangé)
+     * @throws IllegalArgumentException si le solde initial est négatif
+     * @throws IllegalStateException    si le registre est plein
+     */
+    public synchronized boolean inscrire(int idUtilisateur, Montant soldeInitial) {
+        if (soldeInitial.estNegatif()) {
+            throw new IllegalArgumentException("Le solde initial ne peut pas être négatif");
+        }
+        if (rang(idUtilisateur) >= 0) {
+            return false;
+        }
+        ajouter(idUtilisateur, soldeInitial.getCentimes());
+        return true;
+    }
+
+    /**
+     * Inscrit un utilisateur et transfère dans le registre le solde de son portefeuille,
+     * qui est vidé. Le solde est ensuite tenu par le registre seul.
+     *
+     * @param utilisateur L'utilisateur à inscrire
+     * @return true si l'utilisateur a été inscrit, false s'il l'était déjà (son portefeuille
+     *         n'est alors pas touché)
+     * @throws IllegalArgumentException si l'utilisateur est null
+     * @throws IllegalStateException    si le registre est plein
+     */
+    public synchronized boolean inscrire(Utilisateur utilisateur) {
+        if (utilisateur == null) {
+            throw new IllegalArgumentException("L'utilisateur ne peut pas être null");
+        }
+        if (rang(utilisateur.getId()) >= 0) {
+            return false;
+        }
+        ajouter(utilisateur.getId(), utilisateur.getPortefeuille().vider().getCentimes());
+        return true;
+    }
+
+    /**
+     * Retourne le solde d'un utilisateur.
+     *
+     * @param idUtilisateur L'identifiant de l'utilisateur
+     * @return Le solde de l'utilisateur
+     * @throws IllegalArgumentException si l'utilisateur n'est pas inscrit
+     */
+    public Montant getSolde(int idUtilisateur) {
+        int rang = rangInscrit(idUtilisateur);
+        return Montant.deCentimes(pages[rang >>> BITS_PAGE].get(rang & MASQUE_PAGE));
+    }
+
+    /**
+     * Ajoute des fonds au solde d'un utilisateur.
+     *
+     * @param idUtilisateur L'identifiant de l'utilisateur
+     * @param montant       Le montant à ajouter
+     * @throws IllegalArgumentException si le montant est négatif ou si l'utilisateur n'est pas inscrit
+     */
+    public void ajouterFonds(int idUtilisateur, Montant montant) {
+        if (montant.estNegatif()) {
+            throw new IllegalArgumentException("Le montant à ajouter ne peut pas être négatif");
+        }
+        crediter(rangInscrit(idUtilisateur), montant.getCentimes());
+    }
+
+    /**
+     * Retire des fonds du solde d'un utilisateur si celui-ci est suffisant.
+     *
+     * @param idUtilisateur L'identifiant de l'utilisateur
+     * @param montant       Le montant à retirer
+     * @return true si le retrait a été effectué, false si le solde est insuffisant
+     * @throws IllegalArgumentException si le montant est négatif ou si l'utilisateur n'est pas inscrit
+     */
+    public boolean retirerFonds(int idUtilisateur, Montant montant) {
+        return retirerFondsSi(idUtilisateur, montant, () -> true);
+    }
+
+    /**
+     * Retire des fonds du solde d'un utilisateur si celui-ci est suffisant et si une
+     * réservation réussit, en une seule opération : la réservation n'est tentée qu'avec
+     * un solde suffisant, et le retrait n'a lieu que si elle réussit. La réservation
+     * s'exécute sous le verrou de la bande de l'utilisateur : elle ne doit prendre aucun
+     * autre verrou du registre.
+     *
+     * @param idUtilisateur L'identifiant de l'utilisateur
+     * @param montant       Le montant à retirer
+     * @param reservation   La réservation associée au retrait
+     * @return true si le retrait a été effectué, false si le solde est insuffisant ou si
+     *         la réservation a échoué
+     * @throws IllegalArgumentException si le montant est négatif ou si l'utilisateur n'est pas inscrit
+     */
+    boolean retirerFondsSi(int idUtilisateur, Montant montant, BooleanSupplier reservation) {
+        if (montant.estNegatif()) {
+            throw new IllegalArgumentException("Le montant à retirer ne peut pas être négatif");
+        }
+        int rang = rangInscrit(idUtilisateur);
+        AtomicLongArray page = pages[rang >>> BITS_PAGE];
+        int position = rang & MASQUE_PAGE;
+        long centimes = montant.getCentimes();
+        synchronized (bandes[rang & (NOMBRE_BANDES - 1)]) {
+            // Seuls les crédits, sans verrou, peuvent augmenter le solde entre-temps
+            if (page.get(position) < centimes || !reservation.getAsBoolean()) {
+                return false;
+            }
+            page.addAndGet(position, -centimes);
+            return true;
+        }
+    }
+
+    /**
+     * Applique un lot de recharges, dans l'ordre : le montant de rang i est ajouté au
+     * solde de l'utilisateur de rang i. Un utilisateur qui n'est pas inscrit l'est avec
+     * un solde nul avant sa recharge. Le lot est vérifié en entier avant qu'aucune
+     * recharge soit appliquée, y compris le dépassement de capacité des soldes, les
+     * recharges d'un même utilisateur étant cumulées. Seul un crédit concurrent, entre
+     * la vérification et l'application, peut encore faire dépasser un solde.
+     *
+     * @param identifiants Les identifiants des utilisateurs rechargés
+     * @param centimes     Les montants des recharges, en centimes
+     * @throws IllegalArgumentException si les tableaux sont null, de longueurs différentes,
+     *                                  si un montant est négatif ou si un solde dépasserait
+     *                                  la capacité d'un long
+     * @throws IllegalStateException    si le registre est plein
+     */
+    public void recharger(int[] identifiants, long[] centimes) {
+        if (identifiants == null || centimes == null || identifiants.length != centimes.length) {
+            throw new IllegalArgumentException("Les identifiants et les montants doivent être de même longueur");
+        }
+        recharger(identifiants, centimes, identifiants.length);
+    }
+
+    /**
+     * Importe des recharges depuis un canal au format CSV, jusqu'à la fin du canal. Le
+     * CSV est lu et vérifié en entier avant qu'aucune recharge soit appliquée : un CSV
+     * invalide ne recharge personne.
+     *
+     * @param canal Le canal source, laissé ouvert
+     * @return Le nombre de recharges appliquées
+     * @throws IOException si la lecture échoue ou si une ligne est invalide
+     * @throws IllegalArgumentException si un solde dépasserait la capacité d'un long
+     * @throws IllegalStateException si le registre est plein
+     */
+    public int importerRecharges(ReadableByteChannel canal) throws IOException {
+        Recharges recharges = new Recharges();
+        ByteBuffer tampon = ByteBuffer.allocate(TAILLE_TAMPON);
+        byte[] ligne = new byte[LONGUEUR_LIGNE_MAX];
+        int longueur = 0;
+        int numero = 1;
+        while (canal.read(tampon) >= 0) {
+            tampon.flip();
+            while (tampon.hasRemaining()) {
+                byte octet = tampon.get();
+                if (octet == '\n') {
+                    analyserLigne(ligne, longueur, numero++, recharges);
+                    longueur = 0;
+                } else if (longueur == LONGUEUR_LIGNE_MAX) {
+                    throw new IOException("Ligne " + numero + " trop longue");
+                } else {
+                    ligne[longueur++] = octet;
+                }
+            }
+            tampon.clear();
+        }
+        analyserLigne(ligne, longueur, numero, recharges);
+        recharger(recharges.identifiants, recharges.centimes, recharges.nombre);
+        return recharges.nombre;
+    }
+
+    /**
+     * Importe des recharges depuis un fichier CSV (voir {@link #importerRecharges(ReadableByteChannel)}).
+     *
+     * @param fichier Le fichier CSV
+     * @return Le nombre de recharges appliquées
+     * @throws IOException si le fichier ne peut pas être lu ou si une ligne est invalide
+     * @throws IllegalArgumentException si un solde dépasserait la capacité d'un long
+     * @throws IllegalStateException si le registre est plein
+     */
+    public int importerRecharges(Path fichier) throws IOException {
+        try (FileChannel canal = FileChannel.open(fichier, StandardOpenOption.READ)) {
+            return importerRecharges(canal);
+        }
+    }
+
+    private void recharger(int[] identifiants, long[] centimes, int nombreRecharges) {
+        for (int i = 0; i < nombreRecharges; i++) {
+            if (centimes[i] < 0) {
+                throw new IllegalArgumentException("Le montant d'une recharge ne peut pas être négatif");
+            }
+        }
+        verifierCapacite(identifiants, centimes, nombreRecharges);
+        for (int i = 0; i < nombreRecharges; i++) {
+            int rang = rang(identifiants[i]);
+            if (rang < 0) {
+                rang = inscrireSiAbsent(identifiants[i]);
+            }
+            crediter(rang, centimes[i]);
+        }
+    }
+
+    /**
+     * Vérifie qu'aucun solde ne dépasse la capacité d'un long une fois crédité de toutes
+     * ses recharges du lot. Les recharges sont regroupées par utilisateur en triant des
+     * clés identifiant (poids fort) et indice dans le lot (poids faible).
+     */
+    private void verifierCapacite(int[] identifiants, long[] centimes, int nombreRecharges) {
+        long[] cles = new long[nombreRecharges];
+        for (int i = 0; i < nombreRecharges; i++) {
+            cles[i] = (long) identifiants[i] << 32 | i;
+        }
+        Arrays.sort(cles);
+        int debut = 0;
+        while (debut < nombreRecharges) {
+            int idUtilisateur = (int) (cles[debut] >> 32);
+            int rang = rang(idUtilisateur);
+            long solde = rang < 0 ? 0 : pages[rang >>> BITS_PAGE].get(rang & MASQUE_PAGE);
+            int fin = debut;
+            for (; fin < nombreRecharges && (int) (cles[fin] >> 32) == idUtilisateur; fin++) {
+                long montant = centimes[(int) cles[fin]];
+                if (montant > Long.MAX_VALUE - solde) {
+                    throw new IllegalArgumentException("Le solde de l'utilisateur " + idUtilisateur
+                            + " dépasserait la capacité après ses recharges");
+                }
+                solde += montant;
+            }
+            debut = fin;
+        }
+    }
+
+    private synchronized int inscrireSiAbsent(int idUtilisateur) {
+        int rang = rang(idUtilisateur);
+        return rang >= 0 ? rang : ajouter(idUtilisateur, 0);
+    }
+
+    private void crediter(int rang, long centimes) {
+        AtomicLongArray page = pages[rang >>> BITS_PAGE];
+        int position = rang & MASQUE_PAGE;
+        long solde;
+        do {
+            solde = page.get(position);
+        } while (!page.compareAndSet(position, solde, Math.addExact(solde, centimes)));
+    }
+
+    private int rangInscrit(int idUtilisateur) {
+        int rang = rang(idUtilisateur);
+        if (rang < 0) {
+            throw new IllegalArgumentException("Utilisateur inconnu : " + idUtilisateur);
+        }
+        return rang;
+    }
+
+    /**
+     * Cherche le rang d'un utilisateur, sans verrou. Une inscription concurrente peut
+     * ne pas être vue ; celles qui précèdent l'appel le sont toujours.
+     *
+     * @return Le rang, ou -1 si l'utilisateur n'est pas inscrit
+     */
+    private int rang(int idUtilisateur) {
+        AtomicLongArray table = cases;
+        int masque = table.length() - 1;
+        for (int i = melanger(idUtilisateur) & masque; ; i = (i + 1) & masque) {
+            long valeur = table.get(i);
+            if (valeur == LIBRE) {
+                return -1;
+            }
+            if ((int) (valeur >>> 32) == idUtilisateur) {
+                return (int) valeur - 1;
+            }
+        }
+    }
+
+    /**
+     * Ajoute un utilisateur absent au rang suivant. Le solde est écrit avant la case :
+     * un lecteur qui trouve la case voit le solde. Appelée sous le verrou du registre.
+     */
+    private int ajouter(int idUtilisateur, long centimes) {
+        int rang = nombre;
+        if (rang == CAPACITE_MAXIMALE) {
+            throw new IllegalStateException("Le registre est plein");
+        }
+        if (rang == pages.length * TAILLE_PAGE) {
+            AtomicLongArray[] agrandies = Arrays.copyOf(pages, pages.length + 1);
+            agrandies[pages.length] = new AtomicLongArray(TAILLE_PAGE);
+            pages = agrandies;
+        }
+        pages[rang >>> BITS_PAGE].set(rang & MASQUE_PAGE, centimes);
+        if ((rang + 1) * 2L > cases.length()) {
+            cases = agrandir(cases);
+        }
+        placer(cases, ((long) idUtilisateur << 32) | (rang + 1));
+        nombre = rang + 1;
+        return rang;
+    }
+
+    private static AtomicLongArray agrandir(AtomicLongArray table) {
+        AtomicLongArray agrandie = new AtomicLongArray(table.length() * 2);
+        for (int i = 0; i < table.length(); i++) {
+            long valeur = table.get(i);
+            if (valeur != LIBRE) {
+                placer(agrandie, valeur);
+            }
+        }
+        return agrandie;
+    }
+
+    private static void placer(AtomicLongArray table, long valeur) {
+        int masque = table.length() - 1;
+        int i = melanger((int) (valeur >>> 32)) & masque;
+        while (table.get(i) != LIBRE) {
+            i = (i + 1) & masque;
+        }
+        table.set(i, valeur);
+    }
+
+    private static int melanger(int idUtilisateur) {
+        // Des identifiants consécutifs tombent sur des cases éloignées
+        int h = idUtilisateur * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static void analyserLigne(byte[] ligne, int longueur, int numero, Recharges recharges)
+            throws IOException {
+        if (longueur > 0 && ligne[longueur - 1] == '\r') {
+            longueur--;
+        }
+        if (longueur == 0 || (numero == 1 && longueur == EN_TETE.length
+                && Arrays.equals(ligne, 0, longueur, EN_TETE, 0, longueur))) {
+            return;
+        }
+        int i = 0;
+        boolean negatif = ligne[0] == '-';
+        if (negatif) {
+            i++;
+        }
+        int debut = i;
+        long identifiant = 0;
+        while (i < longueur && ligne[i] >= '0' && ligne[i] <= '9' && i - debut < 10) {
+            identifiant = identifiant * 10 + (ligne[i++] - '0');
+        }
+        identifiant = negatif ? -identifiant : identifiant;
+        if (i == debut || i == longueur || ligne[i++] != ','
+                || identifiant < Integer.MIN_VALUE || identifiant > Integer.MAX_VALUE) {
+            throw new IOException("Ligne " + numero + " invalide : identifiant attendu");
+        }
+        debut = i;
+        long fcfa = 0;
+        // 15 chiffres au plus : le montant en centimes tient dans un long
+        while (i < longueur && ligne[i] >= '0' && ligne[i] <= '9' && i - debut < 15) {
+            fcfa = fcfa * 10 + (ligne[i++] - '0');
+        }
+        if (i == debut) {
+            throw new IOException("Ligne " + numero + " invalide : montant attendu");
+        }
+        long centimes = fcfa * Montant.CENTIMES_PAR_FCFA;
+        if (i < longueur && ligne[i] == '.') {
+            i++;
+            for (long unite = Montant.CENTIMES_PAR_FCFA / 10; unite > 0 && i < longueur
+                    && ligne[i] >= '0' && ligne[i] <= '9'; unite /= 10) {
+                centimes += (ligne[i++] - '0') * unite;
+            }
+        }
+        if (i != longueur) {
+            throw new IOException("Ligne " + numero + " invalide : montant attendu");
+        }
+        recharges.ajouter((int) identifiant, centimes);
+    }
+
+    /**
+     * Recharges lues dans un CSV, en tableaux de primitifs agrandis au besoin.
+     */
+    private static final class Recharges {
+        private int[] identifiants = new int[1024];
+        private long[] centimes = new long[1024];
+        private int nombre;
+
+        void ajouter(int identifiant, long montant) {
+            if (nombre == identifiants.length) {
+                identifiants = Arrays.copyOf(identifiants, nombre * 2);
+                centimes = Arrays.copyOf(centimes, nombre * 2);
+            }
+            identifiants[nombre] = identifiant;
+            centimes[nombre++] = montant;
+        }
+    }
+}
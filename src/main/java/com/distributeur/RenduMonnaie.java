@@ -0,0 +1,71 @@
+package com.distributeur;
+
+/**
+ * Pièces et billets à rendre pour un montant, choisis par un {@link StockMonnaie}.
+ */
+public final class RenduMonnaie {
+    /** Rendu vide, pour un montant nul. */
+    public static final RenduMonnaie AUCUN = new RenduMonnaie(new int[Coupure.values().length]);
+
+    private static final Coupure[] COUPURES = Coupure.values();
+
+    private final int[] quantites;
+
+    RenduMonnaie(int[] quantites) {
+        this.quantites = quantites;
+    }
+
+    /**
+     * Retourne le nombre de pièces ou de billets d'une coupure à rendre.
+     *
+     * @param coupure La coupure
+     * @return Le nombre de pièces ou de billets de cette coupure
+     */
+    public int getQuantite(Coupure coupure) {
+        return quantites[coupure.ordinal()];
+    }
+
+    /**
+     * Retourne le nombre total de pièces et de billets à rendre.
+     *
+     * @return Le nombre de pièces et de billets
+     */
+    public int getNombreCoupures() {
+        int nombre = 0;
+        for (int quantite : quantites) {
+            nombre += quantite;
+        }
+        return nombre;
+    }
+
+    /**
+     * Retourne le montant rendu.
+     *
+     * @return La somme des pièces et des billets
+     */
+    public Montant getMontant() {
+        long centimes = 0;
+        for (int i = 0; i < quantites.length; i++) {
+            centimes += quantites[i] * COUPURES[i].getValeur().getCentimes();
+        }
+        return Montant.deCentimes(centimes);
+    }
+
+    int[] quantites() {
+        return quantites;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = quantites.length - 1; i >= 0; i--) {
+            if (quantites[i] > 0) {
+                if (sb.length() > 0) {
+                    sb.append(", ");
+                }
+                sb.append(quantites[i]).append(" x ").append(COUPURES[i].getValeur());
+            }
+        }
+        return sb.length() == 0 ? "Aucune monnaie" : sb.toString();
+    }
+}
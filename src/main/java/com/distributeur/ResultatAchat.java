@@ -0,0 +1,32 @@
+package com.distributeur;
+
+/**
+ * Résultat d'une tentative d'achat ({@link Distributeur#tenterAchat(int, Montant)}).
+ * <p>
+ * Une vente réussie est sa {@link Transaction} ; un refus est directement le
+ * {@link MotifEchec}, une constante : refuser un achat n'alloue aucun objet et ne
+ * consomme ni identifiant ni horodatage.
+ */
+public interface ResultatAchat {
+
+    /**
+     * Indique si l'achat a réussi.
+     *
+     * @return true si une vente a été enregistrée
+     */
+    boolean estReussie();
+
+    /**
+     * Retourne la cause du refus.
+     *
+     * @return Le motif d'échec, null si l'achat a réussi
+     */
+    MotifEchec getMotifEchec();
+
+    /**
+     * Retourne la vente enregistrée.
+     *
+     * @return La transaction, null si l'achat a été refusé
+     */
+    Transaction getTransaction();
+}
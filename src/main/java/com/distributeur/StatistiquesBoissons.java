@@ -0,0 +1,126 @@
+package com.distributeur;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Compteurs de ventes réussies par boisson et par heure de la journée, tenus à jour
+ * à chaque vente par le {@link JournalVentes}.
+ * <p>
+ * Chaque boisson a son compteur (unités vendues, chiffre d'affaires, ventes par heure),
+ * et les compteurs sont en outre rangés dans un arbre ordonné du meilleur au moins bon
+ * vendeur : une vente déplace son compteur en O(log n), et les k meilleures ventes
+ * se lisent en O(k + log n) sans parcourir le journal. Les accès doivent être
+ * sérialisés par l'appelant.
+ */
+final class StatistiquesBoissons {
+    static final int HEURES = 24;
+    private static final long MILLISECONDES_PAR_HEURE = 3_600_000L;
+
+    // Plus d'unités vendues d'abord, puis plus grand chiffre d'affaires, puis identifiant croissant
+    private static final Comparator<Compteur> CLASSEMENT = Comparator
+            .comparingLong((Compteur compteur) -> -compteur.nombreVentes)
+            .thenComparingLong(compteur -> -compteur.chiffreAffairesCentimes)
+            .thenComparingInt(compteur -> compteur.idBoisson);
+
+    private final Map<Integer, Compteur> compteurs = new HashMap<>();
+    private final TreeSet<Compteur> classement = new TreeSet<>(CLASSEMENT);
+    private final long[] ventesParHeure = new long[HEURES];
+
+    /**
+     * Compte une vente réussie.
+     *
+     * @param idBoisson  L'identifiant de la boisson vendue
+     * @param horodatage L'horodatage de la vente (voir {@link Horloge})
+     * @param recette    La recette de la vente en centimes
+     */
+    void ajouter(int idBoisson, long horodatage, long recette) {
+        int heure = (int) (Math.floorMod(horodatage, HEURES * MILLISECONDES_PAR_HEURE) / MILLISECONDES_PAR_HEURE);
+        ventesParHeure[heure]++;
+        Compteur compteur = compteurs.get(idBoisson);
+        if (compteur == null) {
+            compteur = new Compteur(idBoisson);
+            compteurs.put(idBoisson, compteur);
+        } else {
+            // Retiré avant modification : sa place dans l'arbre dépend des valeurs comptées
+            classement.remove(compteur);
+        }
+        compteur.nombreVentes++;
+        compteur.chiffreAffairesCentimes += recette;
+        compteur.ventesParHeure[heure]++;
+        classement.add(compteur);
+    }
+
+    VentesBoisson getVentes(int idBoisson) {
+        Compteur compteur = compteurs.get(idBoisson);
+        return compteur == null ? new VentesBoisson(idBoisson, 0, 0, new long[HEURES]) : compteur.figer();
+    }
+
+    List<VentesBoisson> getMeilleures(int nombre) {
+        List<VentesBoisson> resultat = new ArrayList<>(Math.min(nombre, classement.size()));
+        Iterator<Compteur> iterateur = classement.iterator();
+        while (resultat.size() < nombre && iterateur.hasNext()) {
+            resultat.add(iterateur.next().figer());
+        }
+        return resultat;
+    }
+
+    long[] getVentesParHeure() {
+        return ventesParHeure.clone();
+    }
+
+    void ecrire(DataOutput sortie) throws IOException {
+        for (long ventes : ventesParHeure) {
+            sortie.writeLong(ventes);
+        }
+        sortie.writeInt(compteurs.size());
+        for (Compteur compteur : classement) {
+            sortie.writeInt(compteur.idBoisson);
+            sortie.writeLong(compteur.nombreVentes);
+            sortie.writeLong(compteur.chiffreAffairesCentimes);
+            for (long ventes : compteur.ventesParHeure) {
+                sortie.writeLong(ventes);
+            }
+        }
+    }
+
+    void lire(DataInput entree) throws IOException {
+        for (int heure = 0; heure < HEURES; heure++) {
+            ventesParHeure[heure] = entree.readLong();
+        }
+        int nombre = entree.readInt();
+        for (int i = 0; i < nombre; i++) {
+            Compteur compteur = new Compteur(entree.readInt());
+            compteur.nombreVentes = entree.readLong();
+            compteur.chiffreAffairesCentimes = entree.readLong();
+            for (int heure = 0; heure < HEURES; heure++) {
+                compteur.ventesParHeure[heure] = entree.readLong();
+            }
+            compteurs.put(compteur.idBoisson, compteur);
+            classement.add(compteur);
+        }
+    }
+
+    private static final class Compteur {
+        private final int idBoisson;
+        private final long[] ventesParHeure = new long[HEURES];
+        private long nombreVentes;
+        private long chiffreAffairesCentimes;
+
+        Compteur(int idBoisson) {
+            this.idBoisson = idBoisson;
+        }
+
+        VentesBoisson figer() {
+            return new VentesBoisson(idBoisson, nombreVentes, chiffreAffairesCentimes, ventesParHeure.clone());
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.distributeur;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Stock des pièces et billets qu'un distributeur peut rendre, et moteur de rendu de
+ * la monnaie.
+ * <p>
+ * Pour rendre un montant, l'algorithme glouton est essayé d'abord : il prend autant
+ * que possible de la plus grande coupure disponible, puis de la suivante. Il suffit
+ * presque toujours, en O(nombre de coupures). Il peut échouer alors qu'un rendu existe
+ * (il prend une pièce de 250 pour rendre 400 quand il ne reste que des pièces de 200) :
+ * une programmation dynamique bornée par le stock de chaque coupure prend alors le
+ * relais. Elle trouve le rendu en moins de pièces s'il en existe un, en
+ * O(nombre de coupures × montant), le montant étant compté en unités du PGCD des
+ * coupures disponibles ; au-delà de {@value #UNITES_MAXIMALES} unités, seul le glouton
+ * est essayé.
+ * <p>
+ * Les résultats sont mis en cache par montant, pour les {@value #TAILLE_CACHE} montants
+ * les plus récemment demandés. Un rendu trouvé reste valable tant que le stock contient
+ * ses pièces : il est revérifié à chaque demande, en O(nombre de coupures), et n'est
+ * oublié que s'il ne l'est plus. Retirer des pièces ne peut pas rendre possible un
+ * montant impossible : les montants impossibles ne sont oubliés qu'à chaque ajout.
+ * <p>
+ * L'argent inséré par les clients n'est pas versé dans le stock : le distributeur ne
+ * connaît que son montant, pas les pièces et billets qui le composent, et il est
+ * encaissé dans la {@link Caisse}. Le stock n'est regarni que par {@link #ajouter(Coupure, int)}.
+ * Les méthodes sont synchronisées sur le stock.
+ */
+public class StockMonnaie {
+    private static final Coupure[] COUPURES = Coupure.values();
+    private static final int TAILLE_CACHE = 1024;
+    private static final int INFINI = Integer.MAX_VALUE;
+    // Au-delà, seul le glouton est essayé : la programmation dynamique alloue O(montant) par coupure
+    private static final int UNITES_MAXIMALES = 100_000;
+
+    private final int[] quantites = new int[COUPURES.length];
+    private final Map<Long, RenduMonnaie> possibles = cacheRecent();
+    private final Set<Long> impossibles = Collections.newSetFromMap(cacheRecent());
+
+    /**
+     * Ajoute des pièces ou des billets au stock.
+     *
+     * @param coupure  La coupure ajoutée
+     * @param quantite Le nombre de pièces ou de billets
+     * @throws IllegalArgumentException si la coupure est null ou la quantité négative
+     */
+    public synchronized void ajouter(Coupure coupure, int quantite) {
+        if (coupure == null || quantite < 0) {
+            throw new IllegalArgumentException("Coupure ou quantité invalide");
+        }
+        quantites[coupure.ordinal()] = Math.addExact(quantites[coupure.ordinal()], quantite);
+        impossibles.clear();
+    }
+
+    /**
+     * Retourne le nombre de pièces ou de billets d'une coupure en stock.
+     *
+     * @param coupure La coupure
+     * @return Le nombre en stock
+     */
+    public synchronized int getQuantite(Coupure coupure) {
+        return quantites[coupure.ordinal()];
+    }
+
+    /**
+     * Retourne la valeur totale du stock.
+     *
+     * @return La somme des pièces et des billets en stock
+     */
+    public synchronized Montant getTotal() {
+        return new RenduMonnaie(quantites).getMontant();
+    }
+
+    /**
+     * Calcule les pièces et billets à rendre pour un montant, sans les retirer du stock.
+     *
+     * @param montant Le montant à rendre
+     * @return Le rendu, ou null si le stock ne permet pas de rendre le montant exact
+     * @throws IllegalArgumentException si le montant est négatif
+     */
+    public synchronized RenduMonnaie calculerRendu(Montant montant) {
+        if (montant.estNegatif()) {
+            throw new IllegalArgumentException("Le montant à rendre ne peut pas être négatif");
+        }
+        long centimes = montant.getCentimes();
+        if (centimes == 0) {
+            return RenduMonnaie.AUCUN;
+        }
+        if (centimes % Montant.CENTIMES_PAR_FCFA != 0) {
+            return null;
+        }
+        Long cle = centimes;
+        RenduMonnaie rendu = possibles.get(cle);
+        if (rendu != null) {
+            if (contient(rendu)) {
+                return rendu;
+            }
+            possibles.remove(cle);
+        } else if (impossibles.contains(cle)) {
+            return null;
+        }
+        long fcfa = centimes / Montant.CENTIMES_PAR_FCFA;
+        int[] choix = glouton(fcfa);
+        if (choix == null && fcfa <= Integer.MAX_VALUE) {
+            // null aussi si le montant dépasse le stock ou la borne de la programmation dynamique
+            choix = programmationDynamique((int) fcfa);
+        }
+        if (choix == null) {
+            impossibles.add(cle);
+            return null;
+        }
+        rendu = new RenduMonnaie(choix);
+        possibles.put(cle, rendu);
+        return rendu;
+    }
+
+    /**
+     * Calcule le rendu d'un montant et retire ses pièces et billets du stock.
+     *
+     * @return Le rendu retiré, ou null si le montant ne peut pas être rendu (stock inchangé)
+     */
+    synchronized RenduMonnaie reserver(Montant montant) {
+        RenduMonnaie rendu = calculerRendu(montant);
+        if (rendu != null && rendu != RenduMonnaie.AUCUN) {
+            int[] rendues = rendu.quantites();
+            for (int i = 0; i < quantites.length; i++) {
+                quantites[i] -= rendues[i];
+            }
+        }
+        return rendu;
+    }
+
+    /**
+     * Remet dans le stock les pièces et billets d'un rendu réservé mais pas donné.
+     */
+    synchronized void restituer(RenduMonnaie rendu) {
+        if (rendu != RenduMonnaie.AUCUN) {
+            int[] rendues = rendu.quantites();
+            for (int i = 0; i < quantites.length; i++) {
+                quantites[i] += rendues[i];
+            }
+            impossibles.clear();
+        }
+    }
+
+    private boolean contient(RenduMonnaie rendu) {
+        int[] rendues = rendu.quantites();
+        for (int i = 0; i < quantites.length; i++) {
+            if (rendues[i] > quantites[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Table qui oublie le montant le moins récemment demandé au-delà de {@link #TAILLE_CACHE}.
+     */
+    private static <V> Map<Long, V> cacheRecent() {
+        return new LinkedHashMap<Long, V>(TAILLE_CACHE * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, V> plusAncienne) {
+                return size() > TAILLE_CACHE;
+            }
+        };
+    }
+
+    private int[] glouton(long fcfa) {
+        int[] choix = new int[COUPURES.length];
+        long reste = fcfa;
+        for (int i = COUPURES.length - 1; i >= 0 && reste > 0; i--) {
+            long valeur = valeurFcfa(i);
+            int nombre = (int) Math.min(quantites[i], reste / valeur);
+            choix[i] = nombre;
+            reste -= nombre * valeur;
+        }
+        return reste == 0 ? choix : null;
+    }
+
+    /**
+     * Rendu en moins de pièces, chaque coupure étant limitée à son stock. Pour chaque
+     * coupure de valeur v et de stock q : meilleur[a] = min(precedent[a - k v] + k) pour
+     * k de 0 à q, calculé en O(montant) par un minimum glissant sur chaque classe de
+     * reste modulo v.
+     */
+    private int[] programmationDynamique(int fcfa) {
+        // Coupures utilisables, et PGCD de leurs valeurs : le montant est compté en cette unité
+        int[] utiles = new int[COUPURES.length];
+        int nombreUtiles = 0;
+        int unite = 0;
+        long disponible = 0;
+        for (int i = 0; i < COUPURES.length; i++) {
+            int valeur = (int) valeurFcfa(i);
+            if (quantites[i] > 0 && valeur <= fcfa) {
+                utiles[nombreUtiles++] = i;
+                unite = pgcd(unite, valeur);
+                disponible += (long) quantites[i] * valeur;
+            }
+        }
+        if (disponible < fcfa || fcfa % unite != 0 || fcfa / unite > UNITES_MAXIMALES) {
+            return null;
+        }
+        int montant = fcfa / unite;
+        int[] meilleur = new int[montant + 1];
+        Arrays.fill(meilleur, INFINI);
+        meilleur[0] = 0;
+        int[][] pris = new int[nombreUtiles][];
+        int[] fenetre = new int[montant + 1];
+        for (int u = 0; u < nombreUtiles; u++) {
+            int i = utiles[u];
+            int valeur = (int) valeurFcfa(i) / unite;
+            int stock = quantites[i];
+            int[] precedent = meilleur;
+            int[] nombres = new int[montant + 1];
+            meilleur = new int[montant + 1];
+            for (int reste = 0; reste < valeur && reste <= montant; reste++) {
+                int debut = 0;
+                int fin = 0;
+                for (int j = 0, a = reste; a <= montant; j++, a += valeur) {
+                    // Fenêtre des j' dans [j - stock, j], triée par precedent[j'] - j' croissant
+                    long cout = cout(precedent, reste, valeur, j);
+                    while (fin > debut && cout(precedent, reste, valeur, fenetre[fin - 1]) >= cout) {
+                        fin--;
+                    }
+                    fenetre[fin++] = j;
+                    if (fenetre[debut] < j - stock) {
+                        debut++;
+                    }
+                    int origine = fenetre[debut];
+                    long minimum = cout(precedent, reste, valeur, origine);
+                    meilleur[a] = minimum >= INFINI ? INFINI : (int) (minimum + j);
+                    nombres[a] = j - origine;
+                }
+            }
+            pris[u] = nombres;
+        }
+        if (meilleur[montant] == INFINI) {
+            return null;
+        }
+        int[] choix = new int[COUPURES.length];
+        int a = montant;
+        for (int u = nombreUtiles - 1; u >= 0; u--) {
+            int nombre = pris[u][a];
+            choix[utiles[u]] = nombre;
+            a -= nombre * ((int) valeurFcfa(utiles[u]) / unite);
+        }
+        return choix;
+    }
+
+    private static long cout(int[] precedent, int reste, int valeur, int j) {
+        int valeurPrecedente = precedent[reste + j * valeur];
+        return valeurPrecedente == INFINI ? INFINI : (long) valeurPrecedente - j;
+    }
+
+    private static long valeurFcfa(int i) {
+        return COUPURES[i].getValeur().getCentimes() / Montant.CENTIMES_PAR_FCFA;
+    }
+
+    private static int pgcd(int a, int b) {
+        while (b != 0) {
+            int r = a % b;
+            a = b;
+            b = r;
+        }
+        return a;
+    }
+}
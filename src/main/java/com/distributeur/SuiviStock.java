@@ -0,0 +1,17 @@
+package com.distributeur;
+
+/**
+ * Suivi des variations de stock des boissons d'un distributeur.
+ * Une boisson prévient son suivi après chaque modification de son stock.
+ */
+interface SuiviStock {
+
+    /**
+     * Signale une modification du stock d'une boisson.
+     *
+     * @param position       La position de la boisson dans son distributeur
+     * @param boisson        La boisson modifiée
+     * @param passageParZero true si la boisson est passée de disponible à épuisée, ou l'inverse
+     */
+    void stockModifie(int position, Boisson boisson, boolean passageParZero);
+}
@@ -4,16 +4,34 @@ import java.time.LocalDateTime;
 
 /**
  * Classe représentant une transaction d'achat dans le distributeur automatique.
+ * <p>
+ * L'identifiant est alloué par le {@link GenerateurIdentifiants} du distributeur qui
+ * crée la transaction ; les transactions créées directement reçoivent un identifiant
+ * du numéro réservé {@link GenerateurIdentifiants#MACHINE_HORS_DISTRIBUTEUR}, qu'aucune
+ * machine ne peut produire. La date est conservée sous forme d'horodatage primitif, à la
+ * milliseconde (voir {@link Horloge}) ; {@link #getDateHeure()} la convertit à la demande.
+ * Deux transactions sont égales si tous leurs champs le sont, hors le détail de la
+ * monnaie rendue.
+ * <p>
+ * Une vente réussie d'un distributeur qui rend la monnaie porte les pièces et billets
+ * rendus ({@link #getRenduMonnaie()}). Ce détail n'est pas journalisé : les transactions
+ * relues depuis l'historique ne le portent pas.
+ * <p>
+ * Les transactions échouées produites par un distributeur ne sont pas journalisées et
+ * ne consomment pas d'identifiant : leur identifiant vaut {@link #ID_NON_ATTRIBUE}.
  */
-public class Transaction {
-    private static int compteurId = 0;
-    
-    private int id;
+public class Transaction implements ResultatAchat {
+    /** Identifiant d'une transaction échouée, non journalisée. */
+    public static final long ID_NON_ATTRIBUE = 0;
+
+    private long id;
     private Boisson boisson;
-    private double montantInsere;
-    private double monnaieRendue;
-    private LocalDateTime dateHeure;
+    private Montant montantInsere;
+    private Montant monnaieRendue;
+    private long horodatage;
     private boolean reussie;
+    private MotifEchec motifEchec;
+    private RenduMonnaie renduMonnaie;
 
     /**
      * Constructeur de la classe Transaction.
@@ -23,13 +41,72 @@ public class Transaction {
      * @param monnaieRendue  La monnaie rendue à l'utilisateur
      * @param reussie        Indique si la transaction a réussi
      */
-    public Transaction(Boisson boisson, double montantInsere, double monnaieRendue, boolean reussie) {
-        this.id = ++compteurId;
+    public Transaction(Boisson boisson, Montant montantInsere, Montant monnaieRendue, boolean reussie) {
+        this(GenerateurIdentifiants.HORS_MACHINE.suivant(), boisson, montantInsere, monnaieRendue,
+                Horloge.systeme().millisecondes(), reussie, null);
+    }
+
+    /**
+     * Constructeur d'une transaction échouée : le montant inséré est intégralement rendu.
+     * 
+     * @param boisson        La boisson demandée (null si elle n'existe pas)
+     * @param montantInsere  Le montant inséré par l'utilisateur
+     * @param motifEchec     La cause de l'échec
+     */
+    public Transaction(Boisson boisson, Montant montantInsere, MotifEchec motifEchec) {
+        this(GenerateurIdentifiants.HORS_MACHINE.suivant(), boisson, montantInsere, montantInsere,
+                Horloge.systeme().millisecondes(), false, motifEchec);
+    }
+
+    /**
+     * Constructeur restaurant une transaction déjà enregistrée, avec son identifiant
+     * et sa date d'origine.
+     * 
+     * @param id             L'identifiant d'origine de la transaction
+     * @param boisson        La boisson concernée par la transaction
+     * @param montantInsere  Le montant inséré par l'utilisateur
+     * @param monnaieRendue  La monnaie rendue à l'utilisateur
+     * @param dateHeure      La date et l'heure d'origine de la transaction
+     * @param reussie        Indique si la transaction a réussi
+     */
+    public Transaction(long id, Boisson boisson, Montant montantInsere, Montant monnaieRendue,
+                       LocalDateTime dateHeure, boolean reussie) {
+        this(id, boisson, montantInsere, monnaieRendue, JournalDisque.horodatage(dateHeure), reussie, null);
+    }
+
+    /**
+     * Constructeur complet : horodatage primitif et motif d'échec.
+     */
+    Transaction(long id, Boisson boisson, Montant montantInsere, Montant monnaieRendue,
+                long horodatage, boolean reussie, MotifEchec motifEchec) {
+        this(id, boisson, montantInsere, monnaieRendue, horodatage, reussie, motifEchec, null);
+    }
+
+    /**
+     * Constructeur d'une vente réussie dont la monnaie a été prise dans un {@link StockMonnaie}.
+     */
+    Transaction(long id, Boisson boisson, Montant montantInsere, Montant monnaieRendue,
+                long horodatage, boolean reussie, MotifEchec motifEchec, RenduMonnaie renduMonnaie) {
+        this.id = id;
         this.boisson = boisson;
         this.montantInsere = montantInsere;
         this.monnaieRendue = monnaieRendue;
-        this.dateHeure = LocalDateTime.now();
+        this.horodatage = horodatage;
         this.reussie = reussie;
+        this.motifEchec = motifEchec;
+        this.renduMonnaie = renduMonnaie;
+    }
+
+    /**
+     * Constructeur de la classe Transaction avec des montants saisis en FCFA.
+     * 
+     * @param boisson        La boisson concernée par la transaction
+     * @param montantInsere  Le montant inséré par l'utilisateur en FCFA
+     * @param monnaieRendue  La monnaie rendue à l'utilisateur en FCFA
+     * @param reussie        Indique si la transaction a réussi
+     */
+    public Transaction(Boisson boisson, double montantInsere, double monnaieRendue, boolean reussie) {
+        this(boisson, Montant.deFcfa(montantInsere), Montant.deFcfa(monnaieRendue), reussie);
     }
 
     /**
@@ -37,7 +114,7 @@ public class Transaction {
      * 
      * @return L'identifiant de la transaction
      */
-    public int getId() {
+    public long getId() {
         return id;
     }
 
@@ -55,7 +132,7 @@ public class Transaction {
      * 
      * @return Le montant inséré
      */
-    public double getMontantInsere() {
+    public Montant getMontantInsere() {
         return montantInsere;
     }
 
@@ -64,17 +141,36 @@ public class Transaction {
      * 
      * @return La monnaie rendue
      */
-    public double getMonnaieRendue() {
+    public Montant getMonnaieRendue() {
         return monnaieRendue;
     }
 
+    /**
+     * Retourne les pièces et billets rendus à l'utilisateur.
+     * 
+     * @return Le détail de la monnaie rendue, null si le distributeur ne rend pas la
+     *         monnaie, si la transaction a échoué ou si elle a été relue depuis l'historique
+     */
+    public RenduMonnaie getRenduMonnaie() {
+        return renduMonnaie;
+    }
+
     /**
      * Retourne la date et l'heure de la transaction.
      * 
      * @return La date et l'heure
      */
     public LocalDateTime getDateHeure() {
-        return dateHeure;
+        return JournalDisque.dateHeure(horodatage);
+    }
+
+    /**
+     * Retourne l'horodatage de la transaction, sans allocation.
+     * 
+     * @return L'horodatage en millisecondes (voir {@link Horloge})
+     */
+    public long getHorodatage() {
+        return horodatage;
     }
 
     /**
@@ -82,23 +178,57 @@ public class Transaction {
      * 
      * @return true si la transaction a réussi, false sinon
      */
+    @Override
     public boolean estReussie() {
         return reussie;
     }
 
+    /**
+     * Retourne la cause de l'échec de la transaction.
+     * 
+     * @return Le motif d'échec, null si la transaction a réussi ou si le motif n'est pas connu
+     */
+    @Override
+    public MotifEchec getMotifEchec() {
+        return motifEchec;
+    }
+
+    /**
+     * Retourne cette transaction, vue comme résultat d'achat.
+     * 
+     * @return Cette transaction
+     */
+    @Override
+    public Transaction getTransaction() {
+        return this;
+    }
+
+    @Override
+    public boolean equals(Object autre) {
+        if (this == autre) {
+            return true;
+        }
+        if (!(autre instanceof Transaction)) {
+            return false;
+        }
+        Transaction transaction = (Transaction) autre;
+        return id == transaction.id && reussie == transaction.reussie && boisson == transaction.boisson
+                && montantInsere.equals(transaction.montantInsere) && monnaieRendue.equals(transaction.monnaieRendue)
+                && horodatage == transaction.horodatage && motifEchec == transaction.motifEchec;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(id) * 31 + Long.hashCode(horodatage);
+    }
+
     @Override
     public String toString() {
-        // Formater les montants sans décimales si ce sont des nombres entiers
-        String montantInsereFormate = (montantInsere == (int) montantInsere) ? 
-                String.valueOf((int) montantInsere) : String.valueOf(montantInsere);
-        String monnaieRendueFormatee = (monnaieRendue == (int) monnaieRendue) ? 
-                String.valueOf((int) monnaieRendue) : String.valueOf(monnaieRendue);
-        
         return "Transaction #" + id + " - Boisson: " + 
                 (boisson != null ? boisson.getNom() : "N/A") + 
-                " - Montant: " + montantInsereFormate + 
-                " FCFA - Monnaie: " + monnaieRendueFormatee +
-                " FCFA - Date: " + dateHeure +
+                " - Montant: " + montantInsere + 
+                " FCFA - Monnaie: " + monnaieRendue +
+                " FCFA - Date: " + getDateHeure() +
                 " - Réussie: " + (reussie ? "Oui" : "Non");
     }
 }
\ No newline at end of file
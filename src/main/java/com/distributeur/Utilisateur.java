@@ -27,12 +27,23 @@ public class Utilisateur {
      * @param nom           Nom de l'utilisateur
      * @param soldeInitial  Solde initial du portefeuille
      */
-    public Utilisateur(int id, String nom, double soldeInitial) {
+    public Utilisateur(int id, String nom, Montant soldeInitial) {
         this.id = id;
         this.nom = nom;
         this.portefeuille = new Portefeuille(soldeInitial);
     }
 
+    /**
+     * Constructeur de la classe Utilisateur avec un solde initial saisi en FCFA.
+     * 
+     * @param id            Identifiant unique de l'utilisateur
+     * @param nom           Nom de l'utilisateur
+     * @param soldeInitial  Solde initial du portefeuille en FCFA
+     */
+    public Utilisateur(int id, String nom, double soldeInitial) {
+        this(id, nom, Montant.deFcfa(soldeInitial));
+    }
+
     /**
      * Retourne l'identifiant de l'utilisateur.
      * 
@@ -65,7 +76,7 @@ public class Utilisateur {
      * 
      * @return Le solde du portefeuille
      */
-    public double getSolde() {
+    public Montant getSolde() {
         return portefeuille.getSolde();
     }
 
@@ -75,6 +86,16 @@ public class Utilisateur {
      * @param montant Le montant à ajouter
      * @throws IllegalArgumentException si le montant est négatif
      */
+    public void ajouterFonds(Montant montant) {
+        portefeuille.ajouterFonds(montant);
+    }
+
+    /**
+     * Ajoute des fonds saisis en FCFA au portefeuille de l'utilisateur.
+     * 
+     * @param montant Le montant à ajouter en FCFA
+     * @throws IllegalArgumentException si le montant est négatif
+     */
     public void ajouterFonds(double montant) {
         portefeuille.ajouterFonds(montant);
     }
@@ -86,6 +107,17 @@ public class Utilisateur {
      * @return true si le retrait a été effectué, false si le solde est insuffisant
      * @throws IllegalArgumentException si le montant est négatif
      */
+    public boolean retirerFonds(Montant montant) {
+        return portefeuille.retirerFonds(montant);
+    }
+
+    /**
+     * Retire des fonds saisis en FCFA du portefeuille de l'utilisateur si le solde est suffisant.
+     * 
+     * @param montant Le montant à retirer en FCFA
+     * @return true si le retrait a été effectué, false si le solde est insuffisant
+     * @throws IllegalArgumentException si le montant est négatif
+     */
     public boolean retirerFonds(double montant) {
         return portefeuille.retirerFonds(montant);
     }
@@ -0,0 +1,67 @@
+package com.distributeur;
+
+/**
+ * Bilan des ventes réussies d'une boisson, retourné par
+ * {@link JournalVentes#getVentesBoisson(int)} et {@link JournalVentes#getMeilleuresVentes(int)}.
+ * Le bilan est figé : les ventes enregistrées ensuite n'y apparaissent pas.
+ */
+public final class VentesBoisson {
+    private final int idBoisson;
+    private final long nombreVentes;
+    private final long chiffreAffairesCentimes;
+    private final long[] ventesParHeure;
+
+    VentesBoisson(int idBoisson, long nombreVentes, long chiffreAffairesCentimes, long[] ventesParHeure) {
+        this.idBoisson = idBoisson;
+        this.nombreVentes = nombreVentes;
+        this.chiffreAffairesCentimes = chiffreAffairesCentimes;
+        this.ventesParHeure = ventesParHeure;
+    }
+
+    /**
+     * Retourne l'identifiant de la boisson.
+     *
+     * @return L'identifiant de la boisson
+     */
+    public int getIdBoisson() {
+        return idBoisson;
+    }
+
+    /**
+     * Retourne le nombre d'unités vendues.
+     *
+     * @return Le nombre de ventes réussies de la boisson
+     */
+    public long getNombreVentes() {
+        return nombreVentes;
+    }
+
+    /**
+     * Retourne le chiffre d'affaires de la boisson.
+     *
+     * @return La somme des recettes de ses ventes réussies
+     */
+    public Montant getChiffreAffaires() {
+        return Montant.deCentimes(chiffreAffairesCentimes);
+    }
+
+    /**
+     * Retourne le nombre d'unités vendues à une heure de la journée, tous jours confondus.
+     *
+     * @param heure L'heure, de 0 à 23
+     * @return Le nombre de ventes réussies de la boisson à cette heure
+     * @throws IllegalArgumentException si l'heure n'est pas entre 0 et 23
+     */
+    public long getVentesHeure(int heure) {
+        if (heure < 0 || heure >= ventesParHeure.length) {
+            throw new IllegalArgumentException("Heure invalide : " + heure);
+        }
+        return ventesParHeure[heure];
+    }
+
+    @Override
+    public String toString() {
+        return "Boisson " + idBoisson + " - Ventes: " + nombreVentes + " - Chiffre d'affaires: "
+                + Montant.formater(chiffreAffairesCentimes) + " FCFA";
+    }
+}
@@ -11,6 +11,7 @@ import org.junit.jupiter.api.Test;
 import com.distributeur.Admin;
 import com.distributeur.Boisson;
 import com.distributeur.Distributeur;
+import com.distributeur.Montant;
 import com.distributeur.Transaction;
 import com.distributeur.Utilisateur;
 
@@ -56,7 +57,7 @@ public class DistributeurAcceptanceTest {
     @DisplayName("Scénario 2: Achat d'une boisson avec succès")
     public void testAchatBoissonSucces() {
         // Contexte: Un utilisateur veut acheter une boisson avec un montant suffisant
-        double soldeInitial = utilisateur.getSolde();
+        Montant soldeInitial = utilisateur.getSolde();
         Boisson boisson = distributeur.rechercherBoisson(1); // Coca-Cola à 1000 FCFA
         int stockInitial = boisson.getQuantiteStock();
 
@@ -68,7 +69,7 @@ public class DistributeurAcceptanceTest {
         assertTrue(transaction.estReussie(), "La transaction devrait réussir");
         assertEquals(stockInitial - 1, boisson.getQuantiteStock(), "Le stock devrait diminuer de 1");
         assertEquals(boisson.getPrix(), distributeur.getMontantCaisse(), "La caisse devrait augmenter du prix de la boisson");
-        assertEquals(soldeInitial - boisson.getPrix(), utilisateur.getSolde(), "Le solde de l'utilisateur devrait diminuer");
+        assertEquals(soldeInitial.moins(boisson.getPrix()), utilisateur.getSolde(), "Le solde de l'utilisateur devrait diminuer");
     }
 
     @Test
@@ -84,8 +85,8 @@ public class DistributeurAcceptanceTest {
         // Résultat attendu: La transaction échoue, le stock reste inchangé, la monnaie est rendue
         assertFalse(transaction.estReussie(), "La transaction devrait échouer");
         assertEquals(8, boisson.getQuantiteStock(), "Le stock ne devrait pas changer");
-        assertEquals(0.0, distributeur.getMontantCaisse(), "La caisse ne devrait pas changer");
-        assertEquals(montantInsuffisant, transaction.getMonnaieRendue(), "Toute la monnaie devrait être rendue");
+        assertEquals(Montant.ZERO, distributeur.getMontantCaisse(), "La caisse ne devrait pas changer");
+        assertEquals(Montant.deFcfa(montantInsuffisant), transaction.getMonnaieRendue(), "Toute la monnaie devrait être rendue");
     }
 
     @Test
@@ -101,8 +102,8 @@ public class DistributeurAcceptanceTest {
         // Résultat attendu: La transaction échoue, la monnaie est rendue
         assertFalse(transaction.estReussie(), "La transaction devrait échouer");
         assertEquals(0, boisson.getQuantiteStock(), "Le stock devrait rester à 0");
-        assertEquals(0.0, distributeur.getMontantCaisse(), "La caisse ne devrait pas changer");
-        assertEquals(montant, transaction.getMonnaieRendue(), "Toute la monnaie devrait être rendue");
+        assertEquals(Montant.ZERO, distributeur.getMontantCaisse(), "La caisse ne devrait pas changer");
+        assertEquals(Montant.deFcfa(montant), transaction.getMonnaieRendue(), "Toute la monnaie devrait être rendue");
     }
 
     @Test
@@ -118,8 +119,8 @@ public class DistributeurAcceptanceTest {
         // Résultat attendu: La transaction échoue, la monnaie est rendue
         assertFalse(transaction.estReussie(), "La transaction devrait échouer");
         assertNull(transaction.getBoisson(), "La boisson devrait être null");
-        assertEquals(0.0, distributeur.getMontantCaisse(), "La caisse ne devrait pas changer");
-        assertEquals(montant, transaction.getMonnaieRendue(), "Toute la monnaie devrait être rendue");
+        assertEquals(Montant.ZERO, distributeur.getMontantCaisse(), "La caisse ne devrait pas changer");
+        assertEquals(Montant.deFcfa(montant), transaction.getMonnaieRendue(), "Toute la monnaie devrait être rendue");
     }
 
     @Test
@@ -148,15 +149,15 @@ public class DistributeurAcceptanceTest {
         distributeur.acheterBoisson(3, 1950); // Jus d'orange à 1300 FCFA
         
         // Récupérer le montant dans la caisse avant la collecte
-        double montantCaisse = distributeur.getMontantCaisse(); // 2950 FCFA
+        Montant montantCaisse = distributeur.getMontantCaisse(); // 2950 FCFA
 
         // Action: L'administrateur collecte les fonds
-        double montantCollecte = admin.collecterFonds(distributeur);
+        Montant montantCollecte = admin.collecterFonds(distributeur);
 
         // Résultat attendu: Les fonds sont collectés, la caisse est vidée
         assertEquals(montantCaisse, montantCollecte, "Le montant collecté devrait être égal au montant dans la caisse");
         assertEquals(montantCaisse, admin.getSolde(), "Le solde de l'admin devrait augmenter du montant collecté");
-        assertEquals(0.0, distributeur.getMontantCaisse(), "La caisse devrait être vide");
+        assertEquals(Montant.ZERO, distributeur.getMontantCaisse(), "La caisse devrait être vide");
     }
 
     @Test
@@ -173,7 +174,7 @@ public class DistributeurAcceptanceTest {
 
         // Résultat attendu: L'historique contient toutes les transactions
         assertEquals(3, historique.size(), "L'historique devrait contenir 3 transactions");
-        assertEquals(2950, distributeur.getJournal().getChiffreAffaires(), 0.001, 
+        assertEquals(Montant.deFcfa(2950), distributeur.getJournal().getChiffreAffaires(), 
                 "Le chiffre d'affaires devrait être la somme des prix des boissons vendues");
     }
 
@@ -181,14 +182,14 @@ public class DistributeurAcceptanceTest {
     @DisplayName("Scénario 9: Ajout de fonds au portefeuille de l'utilisateur")
     public void testAjoutFondsUtilisateur() {
         // Contexte: Un utilisateur veut ajouter des fonds à son portefeuille
-        double soldeInitial = utilisateur.getSolde();
+        Montant soldeInitial = utilisateur.getSolde();
         double montantAjout = 3000;
 
         // Action: L'utilisateur ajoute des fonds
         utilisateur.ajouterFonds(montantAjout);
 
         // Résultat attendu: Le solde de l'utilisateur augmente
-        assertEquals(soldeInitial + montantAjout, utilisateur.getSolde(), 0.001, 
+        assertEquals(soldeInitial.plus(Montant.deFcfa(montantAjout)), utilisateur.getSolde(), 
                 "Le solde devrait augmenter du montant ajouté");
     }
 
@@ -196,20 +197,20 @@ public class DistributeurAcceptanceTest {
     @DisplayName("Scénario 10: Tentative d'ajout de fonds négatifs")
     public void testAjoutFondsNegatifsUtilisateur() {
         // Contexte: Un utilisateur tente d'ajouter un montant négatif à son portefeuille
-        double soldeInitial = utilisateur.getSolde();
+        Montant soldeInitial = utilisateur.getSolde();
 
         // Action et résultat attendu: Une exception est levée, le solde reste inchangé
         assertThrows(IllegalArgumentException.class, () -> {
             utilisateur.ajouterFonds(-5.0);
         }, "Devrait lancer une exception pour un montant négatif");
-        assertEquals(soldeInitial, utilisateur.getSolde(), 0.001, "Le solde ne devrait pas changer");
+        assertEquals(soldeInitial, utilisateur.getSolde(), "Le solde ne devrait pas changer");
     }
 
     @Test
     @DisplayName("Scénario 11: Achat de plusieurs boissons successives")
     public void testAchatPlusieursBoissonsSuccessives() {
         // Contexte: Un utilisateur veut acheter plusieurs boissons successivement
-        double soldeInitial = utilisateur.getSolde(); // 10000 FCFA
+        Montant soldeInitial = utilisateur.getSolde(); // 10000 FCFA
         Boisson boisson1 = distributeur.rechercherBoisson(5); // Thé à 400 FCFA
         Boisson boisson2 = distributeur.rechercherBoisson(2); // Eau minérale à 700 FCFA
 
@@ -223,9 +224,9 @@ public class DistributeurAcceptanceTest {
         // Résultat attendu: Les deux transactions réussissent, le solde diminue correctement
         assertTrue(transaction1.estReussie(), "La première transaction devrait réussir");
         assertTrue(transaction2.estReussie(), "La deuxième transaction devrait réussir");
-        assertEquals(soldeInitial - boisson1.getPrix() - boisson2.getPrix(), utilisateur.getSolde(), 0.001, 
+        assertEquals(soldeInitial.moins(boisson1.getPrix()).moins(boisson2.getPrix()), utilisateur.getSolde(), 
                 "Le solde devrait diminuer du prix total des boissons");
-        assertEquals(boisson1.getPrix() + boisson2.getPrix(), distributeur.getMontantCaisse(), 0.001, 
+        assertEquals(boisson1.getPrix().plus(boisson2.getPrix()), distributeur.getMontantCaisse(), 
                 "La caisse devrait contenir la somme des prix des boissons");
     }
 
@@ -237,7 +238,7 @@ public class DistributeurAcceptanceTest {
         // 1. L'administrateur vérifie l'état initial
         List<Boisson> toutesBoissons = distributeur.getToutesBoissons();
         assertEquals(5, toutesBoissons.size(), "Il devrait y avoir 5 boissons au total");
-        assertEquals(0.0, distributeur.getMontantCaisse(), 0.001, "La caisse devrait être vide initialement");
+        assertEquals(Montant.ZERO, distributeur.getMontantCaisse(), "La caisse devrait être vide initialement");
 
         // 2. L'utilisateur consulte les boissons disponibles
         List<Boisson> boissonsDisponibles = distributeur.afficherBoissonsDisponibles();
@@ -245,14 +246,14 @@ public class DistributeurAcceptanceTest {
 
         // 3. L'utilisateur achète une boisson
         Boisson boisson = distributeur.rechercherBoisson(1); // Coca-Cola à 1000 FCFA
-        double soldeInitial = utilisateur.getSolde();
+        Montant soldeInitial = utilisateur.getSolde();
         utilisateur.retirerFonds(boisson.getPrix());
         Transaction transaction = distributeur.acheterBoisson(boisson.getId(), boisson.getPrix());
 
         assertTrue(transaction.estReussie(), "La transaction devrait réussir");
-        assertEquals(soldeInitial - boisson.getPrix(), utilisateur.getSolde(), 0.001, 
+        assertEquals(soldeInitial.moins(boisson.getPrix()), utilisateur.getSolde(), 
                 "Le solde de l'utilisateur devrait diminuer");
-        assertEquals(boisson.getPrix(), distributeur.getMontantCaisse(), 0.001, 
+        assertEquals(boisson.getPrix(), distributeur.getMontantCaisse(), 
                 "La caisse devrait contenir le prix de la boisson");
 
         // 4. L'administrateur recharge une boisson en rupture de stock
@@ -261,9 +262,9 @@ public class DistributeurAcceptanceTest {
         assertEquals(10, boissonRupture.getQuantiteStock(), "Le stock devrait être rechargé");
 
         // 5. L'administrateur collecte les fonds
-        double montantCollecte = admin.collecterFonds(distributeur);
-        assertEquals(boisson.getPrix(), montantCollecte, 0.001, "Le montant collecté devrait être égal au prix de la boisson");
-        assertEquals(0.0, distributeur.getMontantCaisse(), 0.001, "La caisse devrait être vide après la collecte");
+        Montant montantCollecte = admin.collecterFonds(distributeur);
+        assertEquals(boisson.getPrix(), montantCollecte, "Le montant collecté devrait être égal au prix de la boisson");
+        assertEquals(Montant.ZERO, distributeur.getMontantCaisse(), "La caisse devrait être vide après la collecte");
         
         // 6. L'administrateur consulte l'historique des ventes
         List<Transaction> historique = admin.consulterVentes(distributeur);
@@ -290,7 +291,7 @@ public class DistributeurAcceptanceTest {
         // Résultat attendu: Le stock est épuisé, la dernière transaction échoue
         assertEquals(0, boisson.getQuantiteStock(), "Le stock devrait être épuisé");
         assertFalse(transactionEchec.estReussie(), "La transaction supplémentaire devrait échouer");
-        assertEquals(stockInitial * boisson.getPrix(), distributeur.getMontantCaisse(), 0.001, 
+        assertEquals(boisson.getPrix().fois(stockInitial), distributeur.getMontantCaisse(), 
                 "La caisse devrait contenir le prix total des boissons vendues");
     }
 
@@ -9,7 +9,12 @@ import org.junit.jupiter.api.Test;
 
 import com.distributeur.Admin;
 import com.distributeur.Boisson;
+import com.distributeur.CollecteFonds;
 import com.distributeur.Distributeur;
+import com.distributeur.FiltreVentes;
+import com.distributeur.Flotte;
+import com.distributeur.Montant;
+import com.distributeur.PageVentes;
 import com.distributeur.Transaction;
 
 /**
@@ -34,7 +39,7 @@ public class AdminTest {
     public void testConstructeur() {
         assertEquals(1, admin.getId(), "L'ID devrait être 1");
         assertEquals("Admin", admin.getNom(), "Le nom devrait être 'Admin'");
-        assertEquals(0.0, admin.getSolde(), 0.001, "Le solde initial devrait être 0");
+        assertEquals(Montant.ZERO, admin.getSolde(), "Le solde initial devrait être 0");
     }
 
     @Test
@@ -42,7 +47,7 @@ public class AdminTest {
         Admin adminAvecSolde = new Admin(2, "Super Admin", 100.0);
         assertEquals(2, adminAvecSolde.getId(), "L'ID devrait être 2");
         assertEquals("Super Admin", adminAvecSolde.getNom(), "Le nom devrait être 'Super Admin'");
-        assertEquals(100.0, adminAvecSolde.getSolde(), 0.001, "Le solde initial devrait être 100");
+        assertEquals(Montant.deFcfa(100.0), adminAvecSolde.getSolde(), "Le solde initial devrait être 100");
     }
 
     @Test
@@ -72,21 +77,44 @@ public class AdminTest {
         // Simuler des ventes pour avoir des fonds dans la caisse
         distributeur.acheterBoisson(1, 2.0); // Prix = 1.5, donc 1.5 dans la caisse
         
-        assertEquals(1.5, admin.collecterFonds(distributeur), 0.001, "Le montant collecté devrait être 1.5");
-        assertEquals(1.5, admin.getSolde(), 0.001, "Le solde de l'admin devrait être 1.5");
-        assertEquals(0.0, distributeur.getMontantCaisse(), 0.001, "La caisse du distributeur devrait être vide");
+        assertEquals(Montant.deFcfa(1.5), admin.collecterFonds(distributeur), "Le montant collecté devrait être 1.5");
+        assertEquals(Montant.deFcfa(1.5), admin.getSolde(), "Le solde de l'admin devrait être 1.5");
+        assertEquals(Montant.ZERO, distributeur.getMontantCaisse(), "La caisse du distributeur devrait être vide");
     }
 
     @Test
     public void testCollecterFondsCaisseVide() {
-        assertEquals(0.0, admin.collecterFonds(distributeur), 0.001, "Le montant collecté devrait être 0");
-        assertEquals(0.0, admin.getSolde(), 0.001, "Le solde de l'admin ne devrait pas changer");
+        assertEquals(Montant.ZERO, admin.collecterFonds(distributeur), "Le montant collecté devrait être 0");
+        assertEquals(Montant.ZERO, admin.getSolde(), "Le solde de l'admin ne devrait pas changer");
     }
 
     @Test
     public void testCollecterFondsDistributeurNull() {
-        assertEquals(0.0, admin.collecterFonds(null), 0.001, "Le montant collecté devrait être 0");
-        assertEquals(0.0, admin.getSolde(), 0.001, "Le solde de l'admin ne devrait pas changer");
+        assertEquals(Montant.ZERO, admin.collecterFonds((Distributeur) null), "Le montant collecté devrait être 0");
+        assertEquals(Montant.ZERO, admin.getSolde(), "Le solde de l'admin ne devrait pas changer");
+    }
+
+    @Test
+    public void testCollecterFondsFlotte() {
+        try (Flotte flotte = new Flotte(2)) {
+            Distributeur machine1 = new Distributeur(1);
+            machine1.ajouterBoisson(new Boisson(1, "Coca-Cola", 1.5, 10));
+            flotte.enregistrer(1, machine1);
+            Distributeur autre = new Distributeur(2);
+            autre.ajouterBoisson(new Boisson(1, "Coca-Cola", 1.5, 10));
+            flotte.enregistrer(2, autre);
+            machine1.acheterBoisson(1, 2.0);
+            autre.acheterBoisson(1, 2.0);
+            autre.acheterBoisson(1, 2.0);
+
+            CollecteFonds collecte = admin.collecterFonds(flotte);
+            assertEquals(Montant.deFcfa(1.5), collecte.getMontant(1), "La machine 1 devrait rapporter 1.5");
+            assertEquals(Montant.deFcfa(3.0), collecte.getMontant(2), "La machine 2 devrait rapporter 3");
+            assertEquals(Montant.deFcfa(4.5), admin.getSolde(), "Le solde de l'admin devrait être le total collecté");
+            assertEquals(Montant.ZERO, flotte.getTotalCaisse(), "Les caisses de la flotte devraient être vides");
+        }
+        assertEquals(0, admin.collecterFonds((Flotte) null).getNombreMachines(),
+                "Une flotte null ne devrait rien collecter");
     }
 
     @Test
@@ -111,9 +139,38 @@ public class AdminTest {
         assertTrue(ventes.isEmpty(), "Il ne devrait pas y avoir de transactions");
     }
 
+    @Test
+    public void testConsulterVentesParPage() {
+        for (int i = 0; i < 3; i++) {
+            distributeur.acheterBoisson(1, 2.0);
+        }
+        PageVentes page = admin.consulterVentes(distributeur, FiltreVentes.tout(), PageVentes.DEBUT, 2);
+        assertEquals(2, page.getTransactions().size(), "La première page devrait contenir 2 ventes");
+        page = admin.consulterVentes(distributeur, FiltreVentes.tout(), page.getCurseurSuivant(), 2);
+        assertEquals(1, page.getTransactions().size(), "La deuxième page devrait contenir la dernière vente");
+        assertFalse(page.aUneSuite(), "Aucune page ne devrait suivre");
+        assertTrue(admin.consulterVentes(null, FiltreVentes.tout(), PageVentes.DEBUT, 2).getTransactions().isEmpty(),
+                "Un distributeur null devrait donner une page vide");
+    }
+
+    @Test
+    public void testConsulterMetriques() {
+        distributeur.acheterBoisson(1, 2.0);
+        String rapport = admin.consulterMetriques(distributeur);
+        assertTrue(rapport.contains("achat.latence nombre=1"), "Le rapport devrait contenir la latence des achats");
+        assertTrue(rapport.contains("achat.echecs.rupture_stock 0"), "Le rapport devrait contenir les échecs");
+        assertTrue(rapport.contains("stock.1 9"), "Le rapport devrait contenir le stock de chaque boisson");
+        assertTrue(rapport.contains("caisse.centimes 150"), "Le rapport devrait contenir le solde de la caisse");
+    }
+
+    @Test
+    public void testConsulterMetriquesDistributeurNull() {
+        assertEquals("", admin.consulterMetriques(null), "Le rapport devrait être vide");
+    }
+
     @Test
     public void testToString() {
-        String expected = "Admin Utilisateur #1 - Admin (Solde: 0.0 FCFA)";
+        String expected = "Admin Utilisateur #1 - Admin (Solde: 0 FCFA)";
         assertEquals(expected, admin.toString(), "La représentation en chaîne devrait être correcte");
     }
 }
\ No newline at end of file
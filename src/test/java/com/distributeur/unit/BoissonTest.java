@@ -6,6 +6,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import com.distributeur.Boisson;
+import com.distributeur.Montant;
 
 /**
  * Tests unitaires pour la classe Boisson.
@@ -25,7 +26,7 @@ public class BoissonTest {
         // Vérification que le constructeur initialise correctement les attributs
         assertEquals(1, boisson.getId(), "L'ID devrait être 1");
         assertEquals("Coca-Cola", boisson.getNom(), "Le nom devrait être 'Coca-Cola'");
-        assertEquals(1000, boisson.getPrix(), 0.001, "Le prix devrait être 1000");
+        assertEquals(Montant.deFcfa(1000), boisson.getPrix(), "Le prix devrait être 1000");
         assertEquals(10, boisson.getQuantiteStock(), "La quantité en stock devrait être 10");
     }
 
@@ -41,7 +42,7 @@ public class BoissonTest {
 
     @Test
     public void testGetPrix() {
-        assertEquals(1000, boisson.getPrix(), 0.001, "Le prix devrait être 1000");
+        assertEquals(Montant.deFcfa(1000), boisson.getPrix(), "Le prix devrait être 1000");
     }
 
     @Test
@@ -62,6 +63,19 @@ public class BoissonTest {
         assertEquals(10, boisson.getQuantiteStock(), "La quantité en stock ne devrait pas changer");
     }
 
+    @Test
+    public void testAugmenterStock() {
+        assertTrue(boisson.augmenterStock(5), "Le stock devrait être augmenté");
+        assertEquals(15, boisson.getQuantiteStock(), "La quantité en stock devrait être 15");
+    }
+
+    @Test
+    public void testAugmenterStockQuantiteNonPositive() {
+        assertFalse(boisson.augmenterStock(0), "Le stock ne devrait pas être augmenté");
+        assertFalse(boisson.augmenterStock(-3), "Le stock ne devrait pas être augmenté");
+        assertEquals(10, boisson.getQuantiteStock(), "La quantité en stock ne devrait pas changer");
+    }
+
     @Test
     public void testEstDisponible() {
         assertTrue(boisson.estDisponible(), "La boisson devrait être disponible");
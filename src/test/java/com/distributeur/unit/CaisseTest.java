@@ -0,0 +1,98 @@
+package com.distributeur.unit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+import com.distributeur.Caisse;
+import com.distributeur.Montant;
+
+/**
+ * Tests unitaires pour la classe Caisse.
+ */
+public class CaisseTest {
+
+    @Test
+    public void testEncaisserEtVider() {
+        Caisse caisse = new Caisse();
+        assertEquals(Montant.ZERO, caisse.getSolde(), "La caisse devrait être vide initialement");
+        caisse.ajouterFonds(Montant.deFcfa(1000));
+        caisse.ajouterFonds(Montant.deFcfa(650.5));
+        assertEquals(Montant.deFcfa(1650.5), caisse.getSolde(), "Le solde devrait être la somme des encaissements");
+        assertEquals(Montant.deFcfa(1650.5), caisse.vider(), "Le vidage devrait retourner le solde");
+        assertEquals(Montant.ZERO, caisse.getSolde(), "La caisse devrait être vide après le vidage");
+        assertEquals(Montant.ZERO, caisse.vider(), "Un second vidage ne devrait rien retourner");
+    }
+
+    @Test
+    public void testReinitialiser() {
+        Caisse caisse = new Caisse(4);
+        caisse.ajouterFonds(Montant.deFcfa(500));
+        caisse.reinitialiser();
+        assertEquals(Montant.ZERO, caisse.getSolde(), "La caisse devrait être vide après réinitialisation");
+    }
+
+    @Test
+    public void testNombreCellules() {
+        assertEquals(1, new Caisse(1).getNombreCellules(), "Une cellule devrait suffire");
+        assertEquals(4, new Caisse(3).getNombreCellules(), "Le nombre de cellules devrait être arrondi à 4");
+        assertEquals(8, new Caisse(8).getNombreCellules(), "Une puissance de 2 devrait être conservée");
+        assertThrows(IllegalArgumentException.class, () -> new Caisse(0), "Zéro cellule devrait être refusé");
+    }
+
+    @Test
+    public void testMontantNegatif() {
+        Caisse caisse = new Caisse();
+        assertThrows(IllegalArgumentException.class, () -> caisse.ajouterFonds(Montant.deFcfa(-1)),
+                "Un montant négatif devrait être refusé");
+    }
+
+    @Test
+    public void testVidagesPendantLesEncaissements() throws Exception {
+        int nombreThreads = 8;
+        int encaissementsParThread = 20000;
+        Caisse caisse = new Caisse(nombreThreads);
+        ExecutorService threads = Executors.newFixedThreadPool(nombreThreads + 1);
+        try {
+            CountDownLatch depart = new CountDownLatch(1);
+            AtomicBoolean termine = new AtomicBoolean();
+            List<Future<?>> encaisseurs = new ArrayList<>();
+            for (int t = 0; t < nombreThreads; t++) {
+                encaisseurs.add(threads.submit(() -> {
+                    depart.await();
+                    for (int i = 0; i < encaissementsParThread; i++) {
+                        caisse.ajouterFonds(Montant.deCentimes(1));
+                    }
+                    return null;
+                }));
+            }
+            Future<Long> collecteur = threads.submit(() -> {
+                depart.await();
+                long collecte = 0;
+                while (!termine.get()) {
+                    collecte += caisse.vider().getCentimes();
+                }
+                return collecte;
+            });
+            depart.countDown();
+            for (Future<?> encaisseur : encaisseurs) {
+                encaisseur.get(30, TimeUnit.SECONDS);
+            }
+            termine.set(true);
+            long collecte = collecteur.get(30, TimeUnit.SECONDS) + caisse.vider().getCentimes();
+            assertEquals((long) nombreThreads * encaissementsParThread, collecte,
+                    "Chaque encaissement devrait être collecté exactement une fois");
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+}
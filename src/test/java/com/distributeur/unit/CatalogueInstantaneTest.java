@@ -0,0 +1,106 @@
+package com.distributeur.unit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.distributeur.Boisson;
+import com.distributeur.CatalogueInstantane;
+import com.distributeur.Distributeur;
+import com.distributeur.EtatBoisson;
+import com.distributeur.Montant;
+
+/**
+ * Tests unitaires pour la classe CatalogueInstantane.
+ */
+public class CatalogueInstantaneTest {
+
+    @Test
+    public void testCatalogueVide() {
+        CatalogueInstantane catalogue = new Distributeur().getCatalogue();
+        assertEquals(0, catalogue.getNombreBoissons(), "Le catalogue devrait être vide");
+        assertTrue(catalogue.getBoissons().isEmpty(), "La liste des états devrait être vide");
+        assertNull(catalogue.getEtat(1), "Aucune boisson ne devrait être trouvée");
+    }
+
+    @Test
+    public void testEtatsImmuables() {
+        Distributeur distributeur = new Distributeur();
+        Boisson boisson = new Boisson(1, "Coca-Cola", 1000, 2);
+        distributeur.ajouterBoisson(boisson);
+        CatalogueInstantane catalogue = distributeur.getCatalogue();
+        EtatBoisson etat = catalogue.getBoissons().get(0);
+
+        boisson.setQuantiteStock(0);
+        assertEquals(2, etat.getQuantiteStock(), "L'état publié ne devrait pas suivre la boisson");
+        assertTrue(etat.estDisponible(), "L'état publié devrait rester disponible");
+        assertEquals(Montant.deFcfa(1000), etat.getPrix(), "Le prix devrait être celui de la boisson");
+        assertEquals(boisson.getNom(), etat.getNom(), "Le nom devrait être celui de la boisson");
+        assertEquals("1 - Coca-Cola - 1000 FCFA (Stock: 2)", etat.toString(),
+                "L'affichage devrait suivre celui d'une boisson");
+        assertFalse(distributeur.getCatalogue().getEtat(1).estDisponible(),
+                "La version courante devrait refléter la rupture");
+
+        List<EtatBoisson> etats = catalogue.getBoissons();
+        assertThrows(UnsupportedOperationException.class, () -> etats.set(0, null),
+                "La liste des états ne devrait pas être modifiable");
+    }
+
+    @Test
+    public void testVersionFinaleApresVentesConcurrentes() throws Exception {
+        Distributeur distributeur = new Distributeur();
+        distributeur.ajouterBoisson(new Boisson(1, "Coca-Cola", 1000, 4000));
+        distributeur.ajouterBoisson(new Boisson(2, "Fanta", 650, 4000));
+        ExecutorService executeur = Executors.newFixedThreadPool(4);
+        try {
+            Future<?>[] taches = new Future<?>[4];
+            for (int t = 0; t < taches.length; t++) {
+                int idBoisson = 1 + t % 2;
+                taches[t] = executeur.submit(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        distributeur.acheterBoisson(idBoisson, Montant.deFcfa(1000));
+                    }
+                });
+            }
+            for (Future<?> tache : taches) {
+                tache.get();
+            }
+        } finally {
+            executeur.shutdown();
+            assertTrue(executeur.awaitTermination(10, TimeUnit.SECONDS), "Les terminaux devraient s'arrêter");
+        }
+
+        CatalogueInstantane catalogue = distributeur.getCatalogue();
+        assertEquals(2000, catalogue.getEtat(1).getQuantiteStock(), "La dernière version devrait porter le stock final");
+        assertEquals(2000, catalogue.getEtat(2).getQuantiteStock(), "La dernière version devrait porter le stock final");
+    }
+
+    @Test
+    public void testGrandCatalogue() {
+        Distributeur distributeur = new Distributeur();
+        for (int id = 0; id < 100000; id++) {
+            distributeur.ajouterBoisson(new Boisson(id, "Boisson " + id, 500, 3));
+        }
+        CatalogueInstantane avant = distributeur.getCatalogue();
+        for (int i = 0; i < 1000; i++) {
+            distributeur.acheterBoisson(42, Montant.deFcfa(500));
+        }
+        CatalogueInstantane apres = distributeur.getCatalogue();
+        assertEquals(avant.getVersion() + 1, apres.getVersion(), "Une seule version devrait être construite à la lecture");
+        assertEquals(0, apres.getEtat(42).getQuantiteStock(), "La boisson vendue devrait être épuisée");
+        assertEquals(3, avant.getEtat(42).getQuantiteStock(), "L'ancienne version ne devrait pas changer");
+        assertSame(avant.getEtat(99999), apres.getEtat(99999), "Un état inchangé devrait être repris");
+        assertEquals(99999, apres.getEtat(99999).getId(), "La recherche par ID devrait trouver la boisson");
+
+        distributeur.ajouterBoisson(new Boisson(-1, "Nouvelle", 500, 1));
+        assertNull(apres.getEtat(-1), "Une boisson ajoutée après une version ne devrait pas y figurer");
+        assertEquals(1, distributeur.getCatalogue().getEtat(-1).getQuantiteStock(),
+                "La version suivante devrait contenir la nouvelle boisson");
+    }
+}
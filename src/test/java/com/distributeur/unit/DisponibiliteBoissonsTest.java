@@ -0,0 +1,127 @@
+package com.distributeur.unit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.distributeur.Boisson;
+import com.distributeur.DisponibiliteBoissons;
+
+/**
+ * Tests unitaires pour la classe DisponibiliteBoissons.
+ */
+public class DisponibiliteBoissonsTest {
+
+    private DisponibiliteBoissons disponibilite;
+
+    @BeforeEach
+    public void setUp() {
+        disponibilite = new DisponibiliteBoissons();
+    }
+
+    @Test
+    public void testEnsembleVide() {
+        assertFalse(disponibilite.auMoinsUneDisponible(), "Aucune boisson ne devrait être disponible");
+        disponibilite.pourChaqueDisponible(b -> fail("Aucune boisson ne devrait être parcourue"));
+    }
+
+    @Test
+    public void testAjouter() {
+        Boisson coca = new Boisson(1, "Coca-Cola", 1000, 2);
+        Boisson eau = new Boisson(2, "Eau", 500, 0);
+        assertEquals(0, disponibilite.ajouter(coca), "La première position devrait être 0");
+        assertEquals(1, disponibilite.ajouter(eau), "La deuxième position devrait être 1");
+        assertEquals(1, disponibilite.getNombreDisponibles(), "Seul le Coca-Cola devrait être disponible");
+        assertEquals(List.of(coca), disponibles(), "Seul le Coca-Cola devrait être parcouru");
+    }
+
+    @Test
+    public void testPassagesParZero() {
+        Boisson coca = new Boisson(1, "Coca-Cola", 1000, 2);
+        Boisson eau = new Boisson(2, "Eau", 500, 0);
+        disponibilite.ajouter(coca);
+        disponibilite.ajouter(eau);
+
+        coca.diminuerStock();
+        assertTrue(disponibilite.auMoinsUneDisponible(), "Le Coca-Cola devrait rester disponible");
+        coca.diminuerStock();
+        assertFalse(disponibilite.auMoinsUneDisponible(), "Plus aucune boisson ne devrait être disponible");
+
+        eau.augmenterStock(3);
+        assertEquals(List.of(eau), disponibles(), "L'eau rechargée devrait être disponible");
+        coca.setQuantiteStock(5);
+        assertEquals(List.of(coca, eau), disponibles(), "L'ordre d'ajout devrait être conservé");
+        eau.setQuantiteStock(0);
+        assertEquals(List.of(coca), disponibles(), "L'eau vidée ne devrait plus être disponible");
+    }
+
+    @Test
+    public void testGrandCatalogue() {
+        List<Boisson> boissons = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            Boisson boisson = new Boisson(i, "Boisson " + i, 100, i % 3 == 0 ? 1 : 0);
+            boissons.add(boisson);
+            disponibilite.ajouter(boisson);
+        }
+        assertEquals(3334, disponibilite.getNombreDisponibles(), "Une boisson sur trois devrait être disponible");
+        boissons.get(9999).diminuerStock();
+        boissons.get(4097).setQuantiteStock(1);
+        List<Boisson> attendues = new ArrayList<>();
+        for (Boisson boisson : boissons) {
+            if (boisson.estDisponible()) {
+                attendues.add(boisson);
+            }
+        }
+        assertEquals(attendues, disponibles(), "Le parcours devrait suivre le stock de chaque boisson");
+    }
+
+    @Test
+    public void testMisesAJourConcurrentes() throws Exception {
+        List<Boisson> boissons = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Boisson boisson = new Boisson(i, "Boisson " + i, 100, 1);
+            boissons.add(boisson);
+            disponibilite.ajouter(boisson);
+        }
+        ExecutorService executeur = Executors.newFixedThreadPool(8);
+        List<Future<?>> taches = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            taches.add(executeur.submit(() -> {
+                ThreadLocalRandom aleatoire = ThreadLocalRandom.current();
+                for (int i = 0; i < 20000; i++) {
+                    Boisson boisson = boissons.get(aleatoire.nextInt(boissons.size()));
+                    if (aleatoire.nextBoolean()) {
+                        boisson.diminuerStock();
+                    } else {
+                        boisson.augmenterStock(1);
+                    }
+                }
+            }));
+        }
+        for (Future<?> tache : taches) {
+            tache.get();
+        }
+        executeur.shutdown();
+
+        long attendues = boissons.stream().filter(Boisson::estDisponible).count();
+        assertEquals(attendues, disponibilite.getNombreDisponibles(), "Le compteur devrait suivre les stocks");
+        for (Boisson boisson : disponibles()) {
+            assertTrue(boisson.estDisponible(), "Seules les boissons en stock devraient être parcourues");
+        }
+        assertEquals(attendues, disponibles().size(), "Toutes les boissons en stock devraient être parcourues");
+    }
+
+    private List<Boisson> disponibles() {
+        List<Boisson> resultat = new ArrayList<>();
+        disponibilite.pourChaqueDisponible(resultat::add);
+        return resultat;
+    }
+}
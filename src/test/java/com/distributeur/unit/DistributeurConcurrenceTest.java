@@ -0,0 +1,220 @@
+package com.distributeur.unit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.distributeur.Boisson;
+import com.distributeur.Distributeur;
+import com.distributeur.Montant;
+import com.distributeur.MotifEchec;
+import com.distributeur.Portefeuille;
+import com.distributeur.RegistreUtilisateurs;
+import com.distributeur.ResultatAchat;
+import com.distributeur.Utilisateur;
+
+/**
+ * Tests de charge concurrente pour la classe Distributeur.
+ * Plusieurs threads simulent des terminaux de paiement qui achètent en même temps.
+ */
+public class DistributeurConcurrenceTest {
+
+    private static final int NOMBRE_TERMINAUX = 8;
+    private static final int ACHATS_PAR_TERMINAL = 5000;
+
+    private ExecutorService terminaux;
+    private Distributeur distributeur;
+    private Boisson boisson;
+
+    @BeforeEach
+    public void setUp() {
+        // Un stock inférieur à la demande totale, pour provoquer des ruptures concurrentes
+        terminaux = Executors.newFixedThreadPool(NOMBRE_TERMINAUX);
+        distributeur = new Distributeur();
+        boisson = new Boisson(1, "Coca-Cola", 1000, 10000);
+        distributeur.ajouterBoisson(boisson);
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        terminaux.shutdownNow();
+        terminaux.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testAchatsConcurrentsSansSurvente() throws Exception {
+        List<Integer> reussitesParTerminal = lancer(() -> {
+            int reussites = 0;
+            for (int i = 0; i < ACHATS_PAR_TERMINAL; i++) {
+                if (distributeur.acheterBoisson(1, 1500).estReussie()) {
+                    reussites++;
+                }
+            }
+            return reussites;
+        });
+
+        int reussites = reussitesParTerminal.stream().mapToInt(Integer::intValue).sum();
+        assertEquals(10000, reussites, "Exactement le stock initial devrait être vendu");
+        assertEquals(0, boisson.getQuantiteStock(), "Le stock ne devrait jamais devenir négatif");
+        assertEquals(Montant.deFcfa(10000 * 1000), distributeur.getMontantCaisse(), "Aucun encaissement ne devrait être perdu");
+        assertEquals(10000, distributeur.getJournal().getNombreTransactions(), "Chaque vente devrait être journalisée");
+        assertEquals(Montant.deFcfa(10000 * 1000), distributeur.getJournal().getChiffreAffaires(),
+                "Le chiffre d'affaires devrait correspondre à la caisse");
+    }
+
+    @Test
+    public void testAchatsEtRechargementsConcurrents() throws Exception {
+        boisson.setQuantiteStock(0);
+        List<Integer> resultats = lancer(() -> {
+            int reussites = 0;
+            for (int i = 0; i < ACHATS_PAR_TERMINAL; i++) {
+                if (i % 2 == 0) {
+                    distributeur.rechargerStock(1, 1);
+                } else if (distributeur.acheterBoisson(1, 1000).estReussie()) {
+                    reussites++;
+                }
+            }
+            return reussites;
+        });
+
+        int reussites = resultats.stream().mapToInt(Integer::intValue).sum();
+        int recharges = NOMBRE_TERMINAUX * ACHATS_PAR_TERMINAL / 2;
+        assertEquals(recharges - reussites, boisson.getQuantiteStock(),
+                "Le stock devrait refléter exactement les recharges moins les ventes");
+        assertEquals(Montant.deFcfa(reussites * 1000), distributeur.getMontantCaisse(),
+                "La caisse devrait refléter exactement les ventes");
+    }
+
+    @Test
+    public void testViderCaissePendantLesAchats() throws Exception {
+        CountDownLatch depart = new CountDownLatch(1);
+        for (int t = 0; t < NOMBRE_TERMINAUX - 1; t++) {
+            terminaux.submit(() -> {
+                depart.await();
+                for (int i = 0; i < ACHATS_PAR_TERMINAL; i++) {
+                    distributeur.acheterBoisson(1, 1000);
+                }
+                return null;
+            });
+        }
+        Future<Montant> collectes = terminaux.submit(() -> {
+            depart.await();
+            Montant total = Montant.ZERO;
+            for (int i = 0; i < 1000; i++) {
+                total = total.plus(distributeur.viderCaisse());
+            }
+            return total;
+        });
+        depart.countDown();
+        terminaux.shutdown();
+        assertTrue(terminaux.awaitTermination(30, TimeUnit.SECONDS), "Les terminaux devraient terminer");
+
+        Montant collecte = collectes.get().plus(distributeur.viderCaisse());
+        Montant vendu = Montant.deFcfa((10000 - boisson.getQuantiteStock()) * 1000);
+        assertEquals(vendu, collecte, "Chaque vente devrait être collectée exactement une fois");
+    }
+
+    @Test
+    public void testReglementsConcurrentsSansPerteNiDoublon() throws Exception {
+        // Deux terminaux par portefeuille ; les soldes couvrent plus que le stock au total
+        Utilisateur[] utilisateurs = new Utilisateur[NOMBRE_TERMINAUX / 2];
+        for (int u = 0; u < utilisateurs.length; u++) {
+            utilisateurs[u] = new Utilisateur(u, "Client " + u, 3000 * 1000);
+        }
+        Montant soldesInitiaux = Montant.deFcfa(utilisateurs.length * 3000 * 1000);
+        AtomicInteger numero = new AtomicInteger();
+        List<Integer> reussitesParTerminal = lancer(() -> {
+            Utilisateur utilisateur = utilisateurs[numero.getAndIncrement() / 2];
+            int reussites = 0;
+            for (int i = 0; i < ACHATS_PAR_TERMINAL; i++) {
+                if (distributeur.reglerAchat(utilisateur, 1).estReussie()) {
+                    reussites++;
+                }
+            }
+            return reussites;
+        });
+
+        int reussites = reussitesParTerminal.stream().mapToInt(Integer::intValue).sum();
+        assertEquals(10000, reussites, "Exactement le stock initial devrait être vendu");
+        assertEquals(0, boisson.getQuantiteStock(), "Le stock ne devrait jamais devenir négatif");
+        long restant = 0;
+        for (Utilisateur utilisateur : utilisateurs) {
+            restant += utilisateur.getSolde().getCentimes();
+        }
+        assertEquals(Montant.deFcfa(10000 * 1000), distributeur.getMontantCaisse(),
+                "Chaque vente devrait être encaissée une fois");
+        assertEquals(soldesInitiaux, Montant.deCentimes(restant).plus(distributeur.getMontantCaisse()),
+                "L'argent débité des portefeuilles devrait se retrouver exactement en caisse");
+    }
+
+    @Test
+    public void testReglementsRegistreConcurrentsSansDebitProvisoire() throws Exception {
+        // Tous les terminaux règlent pour le même utilisateur, dont le solde couvre une unité
+        // de plus que le stock : un refus pour solde insuffisant ne peut venir que d'un débit
+        // provisoire vu par un autre terminal
+        RegistreUtilisateurs registre = new RegistreUtilisateurs();
+        registre.inscrire(7, Montant.deFcfa(10001 * 1000));
+        AtomicInteger soldesInsuffisants = new AtomicInteger();
+        List<Integer> reussitesParTerminal = lancer(() -> {
+            int reussites = 0;
+            for (int i = 0; i < ACHATS_PAR_TERMINAL; i++) {
+                ResultatAchat resultat = distributeur.reglerAchat(registre, 7, 1);
+                if (resultat.estReussie()) {
+                    reussites++;
+                } else if (resultat.getMotifEchec() == MotifEchec.MONTANT_INSUFFISANT) {
+                    soldesInsuffisants.incrementAndGet();
+                }
+            }
+            return reussites;
+        });
+
+        int reussites = reussitesParTerminal.stream().mapToInt(Integer::intValue).sum();
+        assertEquals(10000, reussites, "Exactement le stock initial devrait être vendu");
+        assertEquals(0, soldesInsuffisants.get(), "Aucun règlement ne devrait voir de débit provisoire");
+        assertEquals(Montant.deFcfa(1000), registre.getSolde(7), "Seules les ventes devraient être débitées");
+        assertEquals(Montant.deFcfa(10000 * 1000), distributeur.getMontantCaisse(),
+                "Chaque vente devrait être encaissée une fois");
+    }
+
+    @Test
+    public void testPortefeuilleAjoutsConcurrents() throws Exception {
+        Portefeuille portefeuille = new Portefeuille();
+        lancer(() -> {
+            for (int i = 0; i < ACHATS_PAR_TERMINAL; i++) {
+                portefeuille.ajouterFonds(5);
+            }
+            return 0;
+        });
+        assertEquals(Montant.deFcfa(NOMBRE_TERMINAUX * ACHATS_PAR_TERMINAL * 5), portefeuille.getSolde(),
+                "Aucun ajout ne devrait être perdu");
+    }
+
+    private List<Integer> lancer(Callable<Integer> tache) throws Exception {
+        CountDownLatch depart = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int t = 0; t < NOMBRE_TERMINAUX; t++) {
+            futures.add(terminaux.submit(() -> {
+                depart.await();
+                return tache.call();
+            }));
+        }
+        depart.countDown();
+        List<Integer> resultats = new ArrayList<>();
+        for (Future<Integer> future : futures) {
+            resultats.add(future.get(30, TimeUnit.SECONDS));
+        }
+        return resultats;
+    }
+}
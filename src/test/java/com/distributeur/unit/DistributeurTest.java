@@ -2,15 +2,31 @@ package com.distributeur.unit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import com.distributeur.Boisson;
+import com.distributeur.CatalogueInstantane;
+import com.distributeur.Coupure;
+import com.distributeur.DemandeAchat;
 import com.distributeur.Distributeur;
+import com.distributeur.GenerateurIdentifiants;
+import com.distributeur.HorlogeSimulee;
 import com.distributeur.JournalVentes;
+import com.distributeur.Metriques;
+import com.distributeur.Montant;
+import com.distributeur.MotifEchec;
+import com.distributeur.RegistreUtilisateurs;
+import com.distributeur.RenduMonnaie;
+import com.distributeur.ResultatAchat;
+import com.distributeur.StockMonnaie;
 import com.distributeur.Transaction;
+import com.distributeur.Utilisateur;
 
 /**
  * Tests unitaires pour la classe Distributeur.
@@ -37,7 +53,7 @@ public class DistributeurTest {
         Distributeur d = new Distributeur();
         assertNotNull(d, "Le distributeur ne devrait pas être null");
         assertTrue(d.getToutesBoissons().isEmpty(), "La liste des boissons devrait être vide");
-        assertEquals(0.0, d.getMontantCaisse(), 0.001, "La caisse devrait être vide");
+        assertEquals(Montant.ZERO, d.getMontantCaisse(), "La caisse devrait être vide");
     }
 
     @Test
@@ -60,6 +76,19 @@ public class DistributeurTest {
         assertEquals(2, distributeur.getToutesBoissons().size(), "Le nombre de boissons ne devrait pas changer");
     }
 
+    @Test
+    public void testAjouterBoissonDunAutreDistributeur() {
+        Distributeur autre = new Distributeur(2);
+        assertThrows(IllegalStateException.class, () -> autre.ajouterBoisson(boisson1),
+                "Une boisson d'un autre distributeur devrait être refusée");
+        assertTrue(autre.getToutesBoissons().isEmpty(), "Le second distributeur ne devrait pas être modifié");
+        assertNull(autre.rechercherBoisson(1), "La boisson ne devrait pas être indexée par le second distributeur");
+
+        boisson1.diminuerStock();
+        assertEquals(boisson1.getQuantiteStock(), distributeur.getCatalogue().getEtat(1).getQuantiteStock(),
+                "Le premier distributeur devrait toujours suivre le stock");
+    }
+
     @Test
     public void testAfficherBoissonsDisponibles() {
         List<Boisson> disponibles = distributeur.afficherBoissonsDisponibles();
@@ -88,10 +117,10 @@ public class DistributeurTest {
         
         assertTrue(transaction.estReussie(), "La transaction devrait réussir");
         assertEquals(boisson1, transaction.getBoisson(), "La boisson achetée devrait être boisson1");
-        assertEquals(2.0, transaction.getMontantInsere(), 0.001, "Le montant inséré devrait être 2.0");
-        assertEquals(0.5, transaction.getMonnaieRendue(), 0.001, "La monnaie rendue devrait être 0.5");
+        assertEquals(Montant.deFcfa(2.0), transaction.getMontantInsere(), "Le montant inséré devrait être 2.0");
+        assertEquals(Montant.deFcfa(0.5), transaction.getMonnaieRendue(), "La monnaie rendue devrait être 0.5");
         assertEquals(9, boisson1.getQuantiteStock(), "Le stock devrait être diminué à 9");
-        assertEquals(1.5, distributeur.getMontantCaisse(), 0.001, "La caisse devrait contenir 1.5");
+        assertEquals(Montant.deFcfa(1.5), distributeur.getMontantCaisse(), "La caisse devrait contenir 1.5");
     }
 
     @Test
@@ -100,10 +129,10 @@ public class DistributeurTest {
         
         assertFalse(transaction.estReussie(), "La transaction devrait échouer");
         assertEquals(boisson1, transaction.getBoisson(), "La boisson concernée devrait être boisson1");
-        assertEquals(1.0, transaction.getMontantInsere(), 0.001, "Le montant inséré devrait être 1.0");
-        assertEquals(1.0, transaction.getMonnaieRendue(), 0.001, "La monnaie rendue devrait être 1.0");
+        assertEquals(Montant.deFcfa(1.0), transaction.getMontantInsere(), "Le montant inséré devrait être 1.0");
+        assertEquals(Montant.deFcfa(1.0), transaction.getMonnaieRendue(), "La monnaie rendue devrait être 1.0");
         assertEquals(10, boisson1.getQuantiteStock(), "Le stock ne devrait pas changer");
-        assertEquals(0.0, distributeur.getMontantCaisse(), 0.001, "La caisse devrait rester vide");
+        assertEquals(Montant.ZERO, distributeur.getMontantCaisse(), "La caisse devrait rester vide");
     }
 
     @Test
@@ -112,10 +141,10 @@ public class DistributeurTest {
         
         assertFalse(transaction.estReussie(), "La transaction devrait échouer");
         assertEquals(boisson2, transaction.getBoisson(), "La boisson concernée devrait être boisson2");
-        assertEquals(2.0, transaction.getMontantInsere(), 0.001, "Le montant inséré devrait être 2.0");
-        assertEquals(2.0, transaction.getMonnaieRendue(), 0.001, "La monnaie rendue devrait être 2.0");
+        assertEquals(Montant.deFcfa(2.0), transaction.getMontantInsere(), "Le montant inséré devrait être 2.0");
+        assertEquals(Montant.deFcfa(2.0), transaction.getMonnaieRendue(), "La monnaie rendue devrait être 2.0");
         assertEquals(0, boisson2.getQuantiteStock(), "Le stock ne devrait pas changer");
-        assertEquals(0.0, distributeur.getMontantCaisse(), 0.001, "La caisse devrait rester vide");
+        assertEquals(Montant.ZERO, distributeur.getMontantCaisse(), "La caisse devrait rester vide");
     }
 
     @Test
@@ -124,9 +153,9 @@ public class DistributeurTest {
         
         assertFalse(transaction.estReussie(), "La transaction devrait échouer");
         assertNull(transaction.getBoisson(), "La boisson devrait être null");
-        assertEquals(2.0, transaction.getMontantInsere(), 0.001, "Le montant inséré devrait être 2.0");
-        assertEquals(2.0, transaction.getMonnaieRendue(), 0.001, "La monnaie rendue devrait être 2.0");
-        assertEquals(0.0, distributeur.getMontantCaisse(), 0.001, "La caisse devrait rester vide");
+        assertEquals(Montant.deFcfa(2.0), transaction.getMontantInsere(), "Le montant inséré devrait être 2.0");
+        assertEquals(Montant.deFcfa(2.0), transaction.getMonnaieRendue(), "La monnaie rendue devrait être 2.0");
+        assertEquals(Montant.ZERO, distributeur.getMontantCaisse(), "La caisse devrait rester vide");
     }
 
     @Test
@@ -155,17 +184,17 @@ public class DistributeurTest {
 
     @Test
     public void testGetMontantCaisse() {
-        assertEquals(0.0, distributeur.getMontantCaisse(), 0.001, "La caisse devrait être vide initialement");
+        assertEquals(Montant.ZERO, distributeur.getMontantCaisse(), "La caisse devrait être vide initialement");
         
         distributeur.acheterBoisson(1, 2.0); // Prix = 1.5, donc 1.5 dans la caisse
-        assertEquals(1.5, distributeur.getMontantCaisse(), 0.001, "La caisse devrait contenir 1.5");
+        assertEquals(Montant.deFcfa(1.5), distributeur.getMontantCaisse(), "La caisse devrait contenir 1.5");
     }
 
     @Test
     public void testViderCaisse() {
         distributeur.acheterBoisson(1, 2.0); // Prix = 1.5, donc 1.5 dans la caisse
-        assertEquals(1.5, distributeur.viderCaisse(), 0.001, "Le montant vidé devrait être 1.5");
-        assertEquals(0.0, distributeur.getMontantCaisse(), 0.001, "La caisse devrait être vide");
+        assertEquals(Montant.deFcfa(1.5), distributeur.viderCaisse(), "Le montant vidé devrait être 1.5");
+        assertEquals(Montant.ZERO, distributeur.getMontantCaisse(), "La caisse devrait être vide");
     }
 
     @Test
@@ -182,4 +211,327 @@ public class DistributeurTest {
         assertNotNull(journal, "Le journal ne devrait pas être null");
         assertTrue(journal.getTransactions().isEmpty(), "Le journal devrait être vide initialement");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testMotifsEchec() {
+        assertEquals(MotifEchec.BOISSON_INCONNUE, distributeur.acheterBoisson(3, 2.0).getMotifEchec(),
+                "Le motif devrait être une boisson inconnue");
+        assertEquals(MotifEchec.RUPTURE_STOCK, distributeur.acheterBoisson(2, 2.0).getMotifEchec(),
+                "Le motif devrait être une rupture de stock");
+        assertEquals(MotifEchec.MONTANT_INSUFFISANT, distributeur.acheterBoisson(1, 1.0).getMotifEchec(),
+                "Le motif devrait être un montant insuffisant");
+        assertNull(distributeur.acheterBoisson(1, 2.0).getMotifEchec(), "Une vente réussie n'a pas de motif d'échec");
+    }
+
+    @Test
+    public void testMetriques() {
+        distributeur.acheterBoisson(1, 2.0);
+        distributeur.acheterBoisson(3, 2.0);
+        distributeur.acheterBoisson(2, 2.0);
+        distributeur.acheterBoisson(2, 2.0);
+        distributeur.rechargerStock(2, 5);
+        distributeur.viderCaisse();
+
+        Metriques metriques = distributeur.getMetriques();
+        assertEquals(4, metriques.getLatence(Metriques.Operation.ACHAT).getNombre(), "4 achats devraient être mesurés");
+        assertEquals(1, metriques.getLatence(Metriques.Operation.RECHARGE).getNombre(), "1 rechargement devrait être mesuré");
+        assertEquals(1, metriques.getLatence(Metriques.Operation.COLLECTE).getNombre(), "1 collecte devrait être mesurée");
+        assertEquals(1, metriques.getNombreEchecs(MotifEchec.BOISSON_INCONNUE), "1 échec pour boisson inconnue");
+        assertEquals(2, metriques.getNombreEchecs(MotifEchec.RUPTURE_STOCK), "2 échecs pour rupture de stock");
+        assertEquals(0, metriques.getNombreEchecs(MotifEchec.MONTANT_INSUFFISANT), "Aucun échec pour montant insuffisant");
+        assertEquals(9, metriques.getJauge("stock.1"), "La jauge de stock devrait suivre le stock de Coca-Cola");
+        assertEquals(5, metriques.getJauge("stock.2"), "La jauge de stock devrait suivre le rechargement");
+        assertEquals(0, metriques.getJauge("caisse.centimes"), "La caisse devrait être vide après la collecte");
+    }
+
+    @Test
+    public void testMetriquesDesactivees() {
+        distributeur.getMetriques().setActive(false);
+        distributeur.acheterBoisson(3, 2.0);
+        assertEquals(0, distributeur.getMetriques().getLatence(Metriques.Operation.ACHAT).getNombre(),
+                "Aucune latence ne devrait être mesurée");
+        assertEquals(1, distributeur.getMetriques().getNombreEchecs(MotifEchec.BOISSON_INCONNUE),
+                "Les échecs devraient rester comptés");
+    }
+
+    @Test
+    public void testAcheterBoissons() {
+        List<Transaction> resultats = distributeur.acheterBoissons(List.of(
+                new DemandeAchat(1, Montant.deFcfa(2.0)),
+                new DemandeAchat(3, Montant.deFcfa(2.0)),
+                new DemandeAchat(2, Montant.deFcfa(2.0)),
+                new DemandeAchat(1, Montant.deFcfa(1.0)),
+                new DemandeAchat(1, Montant.deFcfa(1.5))));
+
+        assertEquals(5, resultats.size(), "Le lot devrait produire une transaction par demande");
+        assertTrue(resultats.get(0).estReussie(), "Le premier achat devrait réussir");
+        assertEquals(Montant.deFcfa(0.5), resultats.get(0).getMonnaieRendue(), "La monnaie devrait être 0.5");
+        assertEquals(MotifEchec.BOISSON_INCONNUE, resultats.get(1).getMotifEchec(), "La boisson 3 n'existe pas");
+        assertEquals(MotifEchec.RUPTURE_STOCK, resultats.get(2).getMotifEchec(), "La boisson 2 est en rupture");
+        assertEquals(MotifEchec.MONTANT_INSUFFISANT, resultats.get(3).getMotifEchec(), "Le montant est insuffisant");
+        assertTrue(resultats.get(4).estReussie(), "Le dernier achat devrait réussir");
+
+        assertEquals(Montant.deFcfa(3.0), distributeur.getMontantCaisse(), "La caisse devrait contenir 3.0");
+        assertEquals(8, boisson1.getQuantiteStock(), "Le stock devrait être de 8");
+        assertEquals(2, distributeur.getHistoriqueVentes().size(), "Seules les ventes réussies devraient être journalisées");
+        assertEquals(resultats.get(0), distributeur.getHistoriqueVentes().get(0), "L'ordre du lot devrait être conservé");
+    }
+
+    @Test
+    public void testAcheterBoissonsStockEpuiseDansLeLot() {
+        boisson1.setQuantiteStock(1);
+        List<Transaction> resultats = distributeur.acheterBoissons(List.of(
+                new DemandeAchat(1, Montant.deFcfa(2.0)),
+                new DemandeAchat(1, Montant.deFcfa(2.0))));
+        assertTrue(resultats.get(0).estReussie(), "Le premier achat devrait prendre la dernière unité");
+        assertEquals(MotifEchec.RUPTURE_STOCK, resultats.get(1).getMotifEchec(), "Le second achat devrait échouer");
+        assertEquals(Montant.deFcfa(1.5), distributeur.getMontantCaisse(), "La caisse devrait contenir 1.5");
+    }
+
+    @Test
+    public void testAcheterBoissonsLotInvalide() {
+        assertThrows(IllegalArgumentException.class, () -> distributeur.acheterBoissons(null),
+                "Un lot null devrait être refusé");
+        assertThrows(IllegalArgumentException.class,
+                () -> distributeur.acheterBoissons(Arrays.asList(new DemandeAchat(1, Montant.deFcfa(2.0)), null)),
+                "Un lot contenant une demande nulle devrait être refusé");
+        assertEquals(10, boisson1.getQuantiteStock(), "Un lot refusé ne devrait rien modifier");
+        assertThrows(IllegalArgumentException.class, () -> new DemandeAchat(1, Montant.deFcfa(-1)),
+                "Une demande avec un montant négatif devrait être refusée");
+        assertTrue(distributeur.acheterBoissons(List.of()).isEmpty(), "Un lot vide ne devrait rien produire");
+    }
+
+    @Test
+    public void testDisponibiliteSuiviePendantLesVentes() {
+        assertTrue(distributeur.aDesBoissonsDisponibles(), "Le Coca-Cola devrait être disponible");
+        boisson1.setQuantiteStock(1);
+        distributeur.acheterBoisson(1, 2.0);
+        assertFalse(distributeur.aDesBoissonsDisponibles(), "Plus aucune boisson ne devrait être disponible");
+        assertTrue(distributeur.afficherBoissonsDisponibles().isEmpty(), "La liste devrait être vide");
+
+        distributeur.rechargerStock(2, 4);
+        List<Boisson> parcourues = new java.util.ArrayList<>();
+        distributeur.pourChaqueBoissonDisponible(parcourues::add);
+        assertEquals(List.of(boisson2), parcourues, "Seule l'eau rechargée devrait être parcourue");
+    }
+
+    @Test
+    public void testCatalogueInstantane() {
+        CatalogueInstantane avant = distributeur.getCatalogue();
+        assertEquals(2, avant.getNombreBoissons(), "Le catalogue devrait contenir 2 boissons");
+        assertEquals(10, avant.getEtat(1).getQuantiteStock(), "Le stock du Coca-Cola devrait être 10");
+
+        distributeur.acheterBoisson(1, 2.0);
+        CatalogueInstantane apres = distributeur.getCatalogue();
+        assertEquals(10, avant.getEtat(1).getQuantiteStock(), "L'ancienne version ne devrait pas changer");
+        assertEquals(9, apres.getEtat(1).getQuantiteStock(), "La nouvelle version devrait refléter la vente");
+        assertTrue(apres.getVersion() > avant.getVersion(), "La version devrait augmenter");
+        assertSame(apres, distributeur.getCatalogue(), "Sans modification, la même version devrait être retournée");
+
+        boisson2.setQuantiteStock(3);
+        assertTrue(distributeur.getCatalogue().getEtat(2).estDisponible(),
+                "Une modification directe du stock devrait être publiée");
+        distributeur.acheterBoisson(1, 0.5);
+        assertSame(distributeur.getCatalogue(), distributeur.getCatalogue(), "Un échec ne devrait rien publier");
+    }
+
+    @Test
+    public void testVuesSansCopie() {
+        List<Boisson> toutes = distributeur.getToutesBoissons();
+        assertThrows(UnsupportedOperationException.class, () -> toutes.add(new Boisson(3, "Thé", 1.0, 1)),
+                "La liste des boissons ne devrait pas être modifiable");
+        distributeur.ajouterBoisson(new Boisson(3, "Thé", 1.0, 1));
+        assertEquals(2, toutes.size(), "Une vue obtenue avant l'ajout ne devrait pas changer");
+        assertEquals(3, distributeur.getToutesBoissons().size(), "La nouvelle vue devrait contenir le thé");
+
+        distributeur.acheterBoisson(1, 2.0);
+        List<Transaction> historique = distributeur.getHistoriqueVentes();
+        distributeur.acheterBoisson(1, 2.0);
+        assertEquals(1, historique.size(), "Une vue de l'historique ne devrait pas voir les ventes ultérieures");
+        assertThrows(UnsupportedOperationException.class, () -> historique.remove(0),
+                "L'historique ne devrait pas être modifiable");
+        assertEquals(2, distributeur.getHistoriqueVentes().size(), "Le nouvel historique devrait contenir 2 ventes");
+    }
+
+    @Test
+    public void testIdentifiantsParMachine() {
+        Distributeur machine7 = new Distributeur(7);
+        machine7.ajouterBoisson(new Boisson(1, "Coca-Cola", 1000, 10));
+        Transaction premiere = machine7.acheterBoisson(1, 1000);
+        Transaction echec = machine7.acheterBoisson(1, 500);
+        Transaction seconde = machine7.acheterBoisson(1, 1000);
+
+        assertEquals(7, machine7.getIdMachine(), "Le numéro de machine devrait être 7");
+        assertEquals(7, GenerateurIdentifiants.machine(premiere.getId()), "L'identifiant devrait porter la machine 7");
+        assertEquals(Transaction.ID_NON_ATTRIBUE, echec.getId(), "Un échec ne devrait pas consommer d'identifiant");
+        assertEquals(premiere.getId() + 1, seconde.getId(), "Les identifiants des ventes devraient se suivre");
+        assertNotEquals(premiere.getId(), distributeur.acheterBoisson(1, 2.0).getId(),
+                "Deux machines ne devraient pas produire le même identifiant");
+        assertThrows(IllegalArgumentException.class, () -> new Distributeur(-1),
+                "Un numéro de machine négatif devrait être refusé");
+    }
+
+    @Test
+    public void testHorlogeSimulee() {
+        LocalDateTime debut = LocalDateTime.of(2024, 3, 15, 10, 30);
+        HorlogeSimulee horloge = new HorlogeSimulee(debut);
+        Distributeur simule = new Distributeur(1, horloge);
+        simule.ajouterBoisson(new Boisson(1, "Coca-Cola", 1000, 10));
+
+        assertEquals(debut, simule.acheterBoisson(1, 1000).getDateHeure(), "La vente devrait être datée par l'horloge");
+        horloge.avancer(Duration.ofDays(1));
+        Transaction lendemain = simule.acheterBoisson(1, 1000);
+        assertEquals(debut.plusDays(1), lendemain.getDateHeure(), "La vente devrait suivre l'horloge simulée");
+        assertEquals(debut.plusDays(1), simule.acheterBoisson(1, 500).getDateHeure(),
+                "Un échec devrait aussi être daté par l'horloge");
+        assertEquals(List.of(lendemain), simule.getJournal().getTransactionsHeureCourante(),
+                "L'heure courante devrait être celle de l'horloge simulée");
+        assertEquals(2, simule.getJournal().getTransactionsDerniersJours(2).size(),
+                "Les deux jours simulés devraient être couverts");
+        assertThrows(IllegalArgumentException.class, () -> new Distributeur(1, null),
+                "Une horloge null devrait être refusée");
+    }
+
+    @Test
+    public void testTenterAchat() {
+        ResultatAchat inconnue = distributeur.tenterAchat(9, Montant.deFcfa(2.0));
+        assertSame(MotifEchec.BOISSON_INCONNUE, inconnue, "Un refus devrait être le motif lui-même");
+        assertFalse(inconnue.estReussie(), "L'achat ne devrait pas réussir");
+        assertNull(inconnue.getTransaction(), "Un refus ne devrait pas produire de transaction");
+        assertSame(MotifEchec.RUPTURE_STOCK, distributeur.tenterAchat(2, Montant.deFcfa(2.0)),
+                "L'eau est en rupture de stock");
+        assertSame(MotifEchec.MONTANT_INSUFFISANT, distributeur.tenterAchat(1, Montant.deFcfa(1.0)),
+                "Le montant est insuffisant");
+
+        ResultatAchat vente = distributeur.tenterAchat(1, Montant.deFcfa(2.0));
+        assertTrue(vente.estReussie(), "L'achat devrait réussir");
+        assertNull(vente.getMotifEchec(), "Une vente ne devrait pas avoir de motif d'échec");
+        assertEquals(Montant.deFcfa(0.5), vente.getTransaction().getMonnaieRendue(), "La monnaie devrait être 0.5");
+        assertEquals(1, GenerateurIdentifiants.sequence(vente.getTransaction().getId()),
+                "Les refus ne devraient pas consommer d'identifiant");
+        assertEquals(1, distributeur.getHistoriqueVentes().size(), "Seule la vente devrait être journalisée");
+        distributeur.activerRenduMonnaie(new StockMonnaie());
+        assertSame(MotifEchec.MONNAIE_INSUFFISANTE, distributeur.tenterAchat(1, Montant.deFcfa(2.0)),
+                "La monnaie ne peut pas être rendue");
+        for (MotifEchec motif : MotifEchec.values()) {
+            assertEquals(1, distributeur.getMetriques().getNombreEchecs(motif), "Chaque refus devrait être compté");
+        }
+    }
+
+    @Test
+    public void testReglerAchat() {
+        Utilisateur utilisateur = new Utilisateur(1, "Client", 2.0);
+
+        ResultatAchat vente = distributeur.reglerAchat(utilisateur, 1);
+        assertTrue(vente.estReussie(), "L'achat devrait réussir");
+        assertEquals(Montant.deFcfa(0.5), utilisateur.getSolde(), "Le portefeuille devrait être débité du prix");
+        assertEquals(Montant.deFcfa(1.5), distributeur.getMontantCaisse(), "La caisse devrait être créditée du prix");
+        assertEquals(Montant.ZERO, vente.getTransaction().getMonnaieRendue(), "Aucune monnaie ne devrait être rendue");
+        assertEquals(9, boisson1.getQuantiteStock(), "Le stock devrait diminuer de 1");
+        assertEquals(1, distributeur.getHistoriqueVentes().size(), "La vente devrait être journalisée");
+
+        assertSame(MotifEchec.MONTANT_INSUFFISANT, distributeur.reglerAchat(utilisateur, 1),
+                "Le solde restant ne couvre pas le prix");
+        assertSame(MotifEchec.RUPTURE_STOCK, distributeur.reglerAchat(utilisateur, 2), "L'eau est en rupture de stock");
+        assertSame(MotifEchec.BOISSON_INCONNUE, distributeur.reglerAchat(utilisateur, 9), "La boisson n'existe pas");
+        assertEquals(Montant.deFcfa(0.5), utilisateur.getSolde(), "Un refus ne devrait pas débiter le portefeuille");
+        assertEquals(9, boisson1.getQuantiteStock(), "Un refus ne devrait pas toucher au stock");
+        assertEquals(Montant.deFcfa(1.5), distributeur.getMontantCaisse(), "Un refus ne devrait pas créditer la caisse");
+        assertThrows(IllegalArgumentException.class, () -> distributeur.reglerAchat(null, 1),
+                "Un utilisateur null devrait être refusé");
+    }
+
+    @Test
+    public void testReglerAchatRegistre() {
+        RegistreUtilisateurs registre = new RegistreUtilisateurs();
+        registre.inscrire(7, Montant.deFcfa(2.0));
+
+        ResultatAchat vente = distributeur.reglerAchat(registre, 7, 1);
+        assertTrue(vente.estReussie(), "L'achat devrait réussir");
+        assertEquals(Montant.deFcfa(0.5), registre.getSolde(7), "Le solde devrait être débité du prix");
+        assertEquals(Montant.deFcfa(1.5), distributeur.getMontantCaisse(), "La caisse devrait être créditée du prix");
+        assertEquals(9, boisson1.getQuantiteStock(), "Le stock devrait diminuer de 1");
+
+        assertSame(MotifEchec.MONTANT_INSUFFISANT, distributeur.reglerAchat(registre, 7, 1),
+                "Le solde restant ne couvre pas le prix");
+        registre.ajouterFonds(7, Montant.deFcfa(10));
+        assertSame(MotifEchec.RUPTURE_STOCK, distributeur.reglerAchat(registre, 7, 2), "L'eau est en rupture de stock");
+        assertEquals(Montant.deFcfa(10.5), registre.getSolde(7), "Un refus ne devrait pas débiter le solde");
+        assertEquals(Montant.deFcfa(1.5), distributeur.getMontantCaisse(), "Un refus ne devrait pas créditer la caisse");
+        assertThrows(IllegalArgumentException.class, () -> distributeur.reglerAchat(registre, 8, 1),
+                "Un utilisateur non inscrit devrait être refusé");
+        assertThrows(IllegalArgumentException.class, () -> distributeur.reglerAchat(null, 7, 1),
+                "Un registre null devrait être refusé");
+    }
+
+    @Test
+    public void testRenduMonnaie() {
+        Boisson cafe = new Boisson(3, "Café", 500, 10);
+        distributeur.ajouterBoisson(cafe);
+        StockMonnaie monnaie = new StockMonnaie();
+        monnaie.ajouter(Coupure.PIECE_200, 2);
+        monnaie.ajouter(Coupure.PIECE_250, 1);
+        distributeur.activerRenduMonnaie(monnaie);
+        assertSame(monnaie, distributeur.getStockMonnaie(), "Le stock de monnaie devrait être celui activé");
+
+        assertSame(MotifEchec.MONNAIE_INSUFFISANTE, distributeur.tenterAchat(3, Montant.deFcfa(1000)),
+                "500 FCFA ne peuvent pas être rendus");
+        assertEquals(10, cafe.getQuantiteStock(), "Un refus ne devrait pas toucher au stock");
+        assertEquals(Montant.ZERO, distributeur.getMontantCaisse(), "Un refus ne devrait pas créditer la caisse");
+
+        ResultatAchat vente = distributeur.tenterAchat(3, Montant.deFcfa(900));
+        assertTrue(vente.estReussie(), "400 FCFA devraient être rendus en deux pièces de 200");
+        assertEquals(0, monnaie.getQuantite(Coupure.PIECE_200), "Les pièces rendues devraient quitter le stock");
+        assertEquals(1, monnaie.getQuantite(Coupure.PIECE_250), "La pièce de 250 devrait rester en stock");
+        assertTrue(distributeur.tenterAchat(3, Montant.deFcfa(500)).estReussie(),
+                "Un achat sans monnaie à rendre devrait réussir");
+
+        List<Transaction> lot = distributeur.acheterBoissons(Arrays.asList(
+                new DemandeAchat(3, Montant.deFcfa(750)), new DemandeAchat(3, Montant.deFcfa(750))));
+        assertTrue(lot.get(0).estReussie(), "La pièce de 250 devrait être rendue");
+        assertEquals(MotifEchec.MONNAIE_INSUFFISANTE, lot.get(1).getMotifEchec(),
+                "La seconde demande du lot ne devrait plus pouvoir être rendue");
+        assertEquals(7, cafe.getQuantiteStock(), "Seules les ventes réussies devraient toucher au stock");
+
+        distributeur.activerRenduMonnaie(null);
+        assertTrue(distributeur.tenterAchat(3, Montant.deFcfa(1000)).estReussie(),
+                "Sans stock de monnaie, la monnaie devrait être supposée disponible");
+    }
+
+    @Test
+    public void testRenduMonnaieDetailleSurLaTransaction() {
+        Boisson cafe = new Boisson(3, "Café", 500, 10);
+        distributeur.ajouterBoisson(cafe);
+        StockMonnaie monnaie = new StockMonnaie();
+        monnaie.ajouter(Coupure.BILLET_1000, 1);
+        monnaie.ajouter(Coupure.PIECE_500, 1);
+        monnaie.ajouter(Coupure.PIECE_200, 3);
+        monnaie.ajouter(Coupure.PIECE_50, 2);
+        distributeur.activerRenduMonnaie(monnaie);
+        int[] avant = new int[Coupure.values().length];
+        for (Coupure coupure : Coupure.values()) {
+            avant[coupure.ordinal()] = monnaie.getQuantite(coupure);
+        }
+
+        Transaction vente = distributeur.tenterAchat(3, Montant.deFcfa(2250)).getTransaction();
+        RenduMonnaie rendu = vente.getRenduMonnaie();
+        assertNotNull(rendu, "Une vente avec rendu devrait porter le détail de la monnaie");
+        assertEquals(vente.getMonnaieRendue(), rendu.getMontant(), "Le détail devrait totaliser la monnaie rendue");
+        for (Coupure coupure : Coupure.values()) {
+            assertEquals(avant[coupure.ordinal()] - monnaie.getQuantite(coupure), rendu.getQuantite(coupure),
+                    "Le détail devrait correspondre aux " + coupure + " sortis du stock");
+        }
+
+        monnaie.ajouter(Coupure.PIECE_250, 1);
+        List<Transaction> lot = distributeur.acheterBoissons(Arrays.asList(new DemandeAchat(3, Montant.deFcfa(750))));
+        assertEquals(1, lot.get(0).getRenduMonnaie().getQuantite(Coupure.PIECE_250),
+                "Une vente d'un lot devrait porter le détail de sa monnaie");
+        assertEquals(0, monnaie.getQuantite(Coupure.PIECE_250), "La pièce rendue devrait quitter le stock");
+
+        assertNull(distributeur.tenterAchat(9, Montant.deFcfa(750)).getTransaction(),
+                "Un refus ne devrait pas construire de transaction");
+        distributeur.activerRenduMonnaie(null);
+        assertNull(distributeur.acheterBoisson(3, Montant.deFcfa(1000)).getRenduMonnaie(),
+                "Sans stock de monnaie, aucun détail ne devrait être porté");
+    }
+}
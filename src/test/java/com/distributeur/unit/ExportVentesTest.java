@@ -0,0 +1,229 @@
+package com.distributeur.unit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.distributeur.Boisson;
+import com.distributeur.Distributeur;
+import com.distributeur.ExportVentes;
+import com.distributeur.FiltreVentes;
+import com.distributeur.JournalDisque;
+import com.distributeur.JournalVentes;
+import com.distributeur.Montant;
+import com.distributeur.MotifEchec;
+import com.distributeur.PageVentes;
+import com.distributeur.Transaction;
+
+/**
+ * Tests unitaires pour la classe ExportVentes.
+ */
+public class ExportVentesTest {
+
+    @TempDir
+    Path repertoire;
+
+    private final Boisson coca = new Boisson(1, "Coca-Cola", 1000, 10);
+    private final LocalDateTime dateHeure = LocalDateTime.of(2024, 3, 15, 10, 30, 5, 42_000_000);
+
+    @Test
+    public void testExportCsv() throws IOException {
+        JournalVentes journal = new JournalVentes();
+        journal.ajouterTransaction(new Transaction(7, coca, Montant.deFcfa(1500), Montant.deFcfa(500.5), dateHeure, true));
+        journal.ajouterTransaction(new Transaction(8, null, Montant.deFcfa(650), Montant.deFcfa(650), dateHeure, false));
+        journal.ajouterTransaction(new Transaction(null, Montant.deFcfa(200), MotifEchec.BOISSON_INCONNUE));
+
+        ByteArrayOutputStream sortie = new ByteArrayOutputStream();
+        long curseur = ExportVentes.exporterCsv(journal, FiltreVentes.tout(), ExportVentes.DEBUT,
+                Channels.newChannel(sortie));
+
+        String[] lignes = sortie.toString(StandardCharsets.US_ASCII).split("\n");
+        assertEquals(3, curseur, "Le curseur devrait suivre la dernière vente exportée");
+        assertEquals(4, lignes.length, "Devrait écrire l'en-tête et une ligne par vente");
+        assertEquals(ExportVentes.EN_TETE_CSV, lignes[0], "La première ligne devrait être l'en-tête");
+        assertEquals("7,2024-03-15T10:30:05.042,1,1500.00,500.50,REUSSIE", lignes[1],
+                "La vente réussie devrait être exportée");
+        assertEquals("8,2024-03-15T10:30:05.042,,650.00,650.00,ECHEC", lignes[2],
+                "La boisson inconnue devrait laisser l'identifiant vide");
+        assertTrue(lignes[3].endsWith(",,200.00,200.00,BOISSON_INCONNUE"), "Le motif d'échec devrait être exporté");
+    }
+
+    @Test
+    public void testExportCsvDatesAvantEpoch() throws IOException {
+        JournalVentes journal = new JournalVentes();
+        journal.ajouterTransaction(new Transaction(1, coca, Montant.deFcfa(1000), Montant.ZERO,
+                LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999_000_000), true));
+        journal.ajouterTransaction(new Transaction(2, coca, Montant.deFcfa(1000), Montant.ZERO,
+                LocalDateTime.of(2000, 2, 29, 0, 0), true));
+
+        ByteArrayOutputStream sortie = new ByteArrayOutputStream();
+        ExportVentes.exporterCsv(journal, FiltreVentes.tout(), ExportVentes.DEBUT, Channels.newChannel(sortie));
+
+        String[] lignes = sortie.toString(StandardCharsets.US_ASCII).split("\n");
+        assertTrue(lignes[1].startsWith("1,1969-12-31T23:59:59.999,"), "Une date avant 1970 devrait être exportée");
+        assertTrue(lignes[2].startsWith("2,2000-02-29T00:00:00.000,"), "Un 29 février devrait être exporté");
+    }
+
+    @Test
+    public void testExportIncrementalDansUnFichier() throws IOException {
+        JournalVentes journal = new JournalVentes();
+        Path fichier = repertoire.resolve("ventes.csv");
+        for (int i = 1; i <= 3; i++) {
+            journal.ajouterTransaction(new Transaction(i, coca, Montant.deFcfa(1000), Montant.ZERO, dateHeure, true));
+        }
+        long curseur = ExportVentes.exporterCsv(journal, FiltreVentes.tout(), ExportVentes.DEBUT, fichier);
+        assertEquals(curseur, ExportVentes.exporterCsv(journal, FiltreVentes.tout(), curseur, fichier),
+                "Un export sans nouvelle vente ne devrait pas avancer le curseur");
+
+        for (int i = 4; i <= 5; i++) {
+            journal.ajouterTransaction(new Transaction(i, coca, Montant.deFcfa(1000), Montant.ZERO, dateHeure, true));
+        }
+        assertEquals(5, ExportVentes.exporterCsv(journal, FiltreVentes.tout(), curseur, fichier),
+                "Le curseur devrait avancer avec les nouvelles ventes");
+
+        List<String> lignes = Files.readAllLines(fichier, StandardCharsets.US_ASCII);
+        assertEquals(6, lignes.size(), "L'en-tête devrait être écrit une fois et chaque vente une fois");
+        for (int i = 1; i <= 5; i++) {
+            assertTrue(lignes.get(i).startsWith(i + ","), "Les ventes devraient être exportées dans l'ordre");
+        }
+
+        ExportVentes.exporterCsv(journal, FiltreVentes.tout(), ExportVentes.DEBUT, fichier);
+        assertEquals(6, Files.readAllLines(fichier).size(), "Un export depuis le début devrait réécrire le fichier");
+    }
+
+    @Test
+    public void testExportIncrementalApresRedemarrage() throws IOException {
+        Path donnees = repertoire.resolve("donnees");
+        Path fichier = repertoire.resolve("ventes.csv");
+        Distributeur distributeur = creerDistributeur();
+        distributeur.activerPersistance(donnees);
+        for (int i = 0; i < 3; i++) {
+            distributeur.acheterBoisson(1, 1000);
+        }
+        long avantInstantane = ExportVentes.exporterCsv(distributeur.getJournal(), FiltreVentes.tout(),
+                ExportVentes.DEBUT, fichier);
+        distributeur.acheterBoisson(1, 1000);
+        distributeur.acheterBoisson(1, 1000);
+        long curseur = ExportVentes.exporterCsv(distributeur.getJournal(), FiltreVentes.tout(), avantInstantane, fichier);
+        distributeur.creerInstantane();
+        distributeur.acheterBoisson(1, 1000);
+        distributeur.fermerPersistance();
+
+        // Redémarrage : les 5 premières ventes sont archivées, seule la dernière est relue
+        Distributeur redemarre = creerDistributeur();
+        redemarre.activerPersistance(donnees);
+        JournalVentes journal = redemarre.getJournal();
+        assertEquals(5, journal.getNombreTransactionsArchivees(), "Les ventes de l'instantané devraient être archivées");
+        assertEquals(6, ExportVentes.exporterCsv(journal, FiltreVentes.tout(), curseur, fichier),
+                "Le curseur devrait reprendre après la dernière vente du journal");
+        redemarre.acheterBoisson(1, 1000);
+        assertEquals(7, ExportVentes.exporterCsv(journal, FiltreVentes.tout(), 6, fichier),
+                "Le curseur devrait avancer avec les nouvelles ventes");
+
+        List<String> lignes = Files.readAllLines(fichier, StandardCharsets.US_ASCII);
+        assertEquals(8, lignes.size(), "Chaque vente devrait être exportée une fois, sans saut ni doublon");
+        for (int i = 2; i < lignes.size(); i++) {
+            assertTrue(Long.parseLong(lignes.get(i).split(",")[0]) > Long.parseLong(lignes.get(i - 1).split(",")[0]),
+                    "Les ventes devraient être exportées dans l'ordre");
+        }
+        assertEquals(distributeur.getHistoriqueVentes().get(5).getId(), Long.parseLong(lignes.get(6).split(",")[0]),
+                "La vente relue du journal devrait suivre celles exportées avant le redémarrage");
+
+        PageVentes page = journal.getPage(FiltreVentes.tout(), curseur, 10);
+        assertEquals(2, page.getTransactions().size(), "La page devrait reprendre au même rang que l'export");
+        assertThrows(IllegalArgumentException.class,
+                () -> ExportVentes.exporterCsv(journal, FiltreVentes.tout(), avantInstantane, fichier),
+                "Un curseur désignant une vente archivée devrait être refusé");
+        assertThrows(IllegalArgumentException.class, () -> journal.getPage(FiltreVentes.tout(), avantInstantane, 10),
+                "Une page désignant une vente archivée devrait être refusée");
+        redemarre.fermerPersistance();
+    }
+
+    private static Distributeur creerDistributeur() {
+        Distributeur distributeur = new Distributeur();
+        distributeur.ajouterBoisson(new Boisson(1, "Coca-Cola", 1000, 10));
+        return distributeur;
+    }
+
+    @Test
+    public void testExportFiltre() throws IOException {
+        JournalVentes journal = new JournalVentes();
+        journal.ajouterTransaction(new Transaction(1, coca, Montant.deFcfa(1000), Montant.ZERO, dateHeure, true));
+        journal.ajouterTransaction(new Transaction(2, coca, Montant.deFcfa(500), Montant.deFcfa(500), dateHeure, false));
+        journal.ajouterTransaction(new Transaction(3, coca, Montant.deFcfa(1000), Montant.ZERO, dateHeure, true));
+
+        ByteArrayOutputStream sortie = new ByteArrayOutputStream();
+        long curseur = ExportVentes.exporterCsv(journal, FiltreVentes.tout().echouees(), ExportVentes.DEBUT,
+                Channels.newChannel(sortie));
+
+        String[] lignes = sortie.toString(StandardCharsets.US_ASCII).split("\n");
+        assertEquals(2, lignes.length, "Seule la vente échouée devrait être exportée");
+        assertTrue(lignes[1].startsWith("2,"), "La vente échouée devrait être exportée");
+        assertEquals(3, curseur, "Le curseur devrait dépasser les ventes écartées par le filtre");
+    }
+
+    @Test
+    public void testExportBinaire() throws IOException {
+        JournalVentes journal = new JournalVentes();
+        Path fichier = repertoire.resolve("ventes.bin");
+        journal.ajouterTransaction(new Transaction(7, coca, Montant.deFcfa(1500), Montant.deFcfa(500), dateHeure, true));
+        long curseur = ExportVentes.exporterBinaire(journal, FiltreVentes.tout(), ExportVentes.DEBUT, fichier);
+        journal.ajouterTransaction(new Transaction(null, Montant.deFcfa(200), MotifEchec.RUPTURE_STOCK));
+        ExportVentes.exporterBinaire(journal, FiltreVentes.tout(), curseur, fichier);
+
+        assertEquals(8 + 2 * ExportVentes.TAILLE_ENREGISTREMENT_BINAIRE, Files.size(fichier),
+                "Le fichier devrait contenir l'en-tête et deux enregistrements");
+        try (InputStream flux = Files.newInputStream(fichier); DataInputStream entree = new DataInputStream(flux)) {
+            assertEquals(ExportVentes.SIGNATURE_BINAIRE, entree.readInt(), "La signature devrait être écrite");
+            assertEquals(ExportVentes.VERSION_BINAIRE, entree.readInt(), "La version devrait être écrite");
+
+            assertEquals(7, entree.readLong(), "L'identifiant devrait être relu");
+            assertEquals(JournalDisque.horodatage(dateHeure), entree.readLong(), "L'horodatage devrait être relu");
+            assertEquals(1, entree.readInt(), "L'identifiant de boisson devrait être relu");
+            assertEquals(150000, entree.readLong(), "Le montant inséré devrait être relu");
+            assertEquals(50000, entree.readLong(), "La monnaie rendue devrait être relue");
+            assertEquals(0, entree.readByte(), "Le statut de la vente réussie devrait être 0");
+
+            entree.readLong();
+            entree.readLong();
+            assertEquals(0, entree.readInt(), "Une boisson inconnue devrait être exportée comme 0");
+            assertEquals(20000, entree.readLong(), "Le montant inséré devrait être relu");
+            assertEquals(20000, entree.readLong(), "La monnaie rendue devrait être relue");
+            assertEquals(2 + MotifEchec.RUPTURE_STOCK.ordinal(), entree.readByte(), "Le motif devrait être codé");
+        }
+    }
+
+    @Test
+    public void testExportPlusieursTampons() throws IOException {
+        JournalVentes journal = new JournalVentes();
+        int nombre = 5000;
+        for (int i = 1; i <= nombre; i++) {
+            journal.ajouterTransaction(new Transaction(i, coca, Montant.deFcfa(1000), Montant.ZERO, dateHeure, true));
+        }
+
+        ByteArrayOutputStream sortie = new ByteArrayOutputStream();
+        ExportVentes.exporterBinaire(journal, FiltreVentes.tout(), ExportVentes.DEBUT, Channels.newChannel(sortie));
+
+        assertEquals(8 + nombre * ExportVentes.TAILLE_ENREGISTREMENT_BINAIRE, sortie.size(),
+                "Toutes les ventes devraient être écrites, au-delà d'un tampon");
+    }
+
+    @Test
+    public void testCurseurInvalide() {
+        JournalVentes journal = new JournalVentes();
+        assertThrows(IllegalArgumentException.class, () -> ExportVentes.exporterCsv(journal, FiltreVentes.tout(), -1,
+                Channels.newChannel(new ByteArrayOutputStream())), "Un curseur négatif devrait être refusé");
+    }
+}
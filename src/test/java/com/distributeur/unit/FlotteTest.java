@@ -0,0 +1,211 @@
+package com.distributeur.unit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.distributeur.Boisson;
+import com.distributeur.CatalogueInstantane;
+import com.distributeur.CollecteFonds;
+import com.distributeur.Distributeur;
+import com.distributeur.Flotte;
+import com.distributeur.Montant;
+import com.distributeur.Transaction;
+
+/**
+ * Tests unitaires pour la classe Flotte.
+ */
+public class FlotteTest {
+
+    private static final int NOMBRE_MACHINES = 100;
+
+    private Flotte flotte;
+
+    @BeforeEach
+    public void setUp() {
+        // Flotte de 100 machines réparties sur 4 shards
+        flotte = new Flotte(4);
+        for (int id = 1; id <= NOMBRE_MACHINES; id++) {
+            Distributeur distributeur = new Distributeur(id);
+            distributeur.ajouterBoisson(new Boisson(1, "Coca-Cola", 1000, 50));
+            distributeur.ajouterBoisson(new Boisson(2, "Fanta", 650, 50));
+            flotte.enregistrer(id, distributeur);
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        flotte.close();
+    }
+
+    @Test
+    public void testEnregistrer() {
+        assertEquals(NOMBRE_MACHINES, flotte.getNombreMachines(), "La flotte devrait contenir 100 machines");
+        assertFalse(flotte.enregistrer(1, new Distributeur(1)), "Un numéro déjà pris devrait être refusé");
+        assertThrows(IllegalArgumentException.class, () -> flotte.enregistrer(101, new Distributeur()),
+                "Un distributeur d'un autre numéro devrait être refusé");
+        assertFalse(flotte.enregistrer(101, null), "Un distributeur null devrait être refusé");
+        assertNotNull(flotte.getCatalogue(1), "La machine 1 devrait être enregistrée");
+        assertNull(flotte.getCatalogue(101), "La machine 101 ne devrait pas être enregistrée");
+    }
+
+    @Test
+    public void testConstructeurInvalide() {
+        assertThrows(IllegalArgumentException.class, () -> new Flotte(0),
+                "Une flotte sans shard devrait être refusée");
+    }
+
+    @Test
+    public void testShards() {
+        for (int id = 1; id <= NOMBRE_MACHINES; id++) {
+            int shard = flotte.getShard(id);
+            assertTrue(shard >= 0 && shard < 4, "Le shard devrait être compris entre 0 et 3");
+            assertEquals(shard, flotte.getShard(id), "Une machine devrait toujours appartenir au même shard");
+        }
+        assertTrue(flotte.getShard(-7) >= 0, "Un numéro négatif devrait avoir un shard valide");
+    }
+
+    @Test
+    public void testAchatsRoutes() {
+        List<CompletableFuture<Transaction>> achats = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            for (int id = 1; id <= NOMBRE_MACHINES; id++) {
+                achats.add(flotte.acheterBoisson(id, 1, Montant.deFcfa(1000)));
+            }
+        }
+        long reussies = achats.stream().map(CompletableFuture::join).filter(Transaction::estReussie).count();
+
+        assertEquals(50L * NOMBRE_MACHINES, reussies, "Chaque machine devrait vendre exactement son stock");
+        for (int id = 1; id <= NOMBRE_MACHINES; id++) {
+            assertEquals(0, flotte.getCatalogue(id).getEtat(1).getQuantiteStock(),
+                    "Le stock de Coca-Cola devrait être épuisé");
+        }
+        assertEquals(Montant.deFcfa(1000).fois(50L * NOMBRE_MACHINES), flotte.getTotalCaisse(),
+                "La caisse totale devrait correspondre aux ventes");
+    }
+
+    @Test
+    public void testRechargerStock() {
+        assertTrue(flotte.rechargerStock(7, 2, 10).join(), "Le rechargement devrait réussir");
+        assertFalse(flotte.rechargerStock(7, 3, 10).join(), "Le rechargement d'une boisson inconnue devrait échouer");
+        assertEquals(60, flotte.getCatalogue(7).getEtat(2).getQuantiteStock(),
+                "Le stock de Fanta devrait être 60");
+    }
+
+    @Test
+    public void testMachineInconnue() {
+        assertThrows(IllegalArgumentException.class, () -> flotte.acheterBoisson(999, 1, Montant.deFcfa(1000)),
+                "Un achat sur une machine inconnue devrait être refusé");
+        assertThrows(IllegalArgumentException.class, () -> flotte.rechargerStock(999, 1, 5),
+                "Un rechargement sur une machine inconnue devrait être refusé");
+    }
+
+    @Test
+    public void testChiffreAffairesParJour() {
+        flotte.acheterBoisson(1, 1, Montant.deFcfa(1000)).join();
+        flotte.acheterBoisson(2, 2, Montant.deFcfa(1000)).join();
+        LocalDate aujourdhui = LocalDate.now();
+
+        NavigableMap<LocalDate, Montant> parJour = flotte.getChiffreAffairesParJour(aujourdhui.minusDays(2), aujourdhui);
+        assertEquals(3, parJour.size(), "Le résultat devrait couvrir 3 jours");
+        assertEquals(Montant.deFcfa(1650), parJour.get(aujourdhui), "Le chiffre d'affaires du jour devrait être 1650");
+        assertEquals(Montant.ZERO, parJour.firstEntry().getValue(), "Aucune vente n'a eu lieu avant-hier");
+        assertThrows(IllegalArgumentException.class,
+                () -> flotte.getChiffreAffairesParJour(aujourdhui, aujourdhui.minusDays(1)),
+                "Une période inversée devrait être refusée");
+        assertEquals(Flotte.PERIODE_MAX_JOURS, flotte.getChiffreAffairesParJour(
+                aujourdhui.minusDays(Flotte.PERIODE_MAX_JOURS - 1), aujourdhui).size(),
+                "La période la plus longue devrait être acceptée");
+        assertThrows(IllegalArgumentException.class,
+                () -> flotte.getChiffreAffairesParJour(aujourdhui.minusDays(Flotte.PERIODE_MAX_JOURS), aujourdhui),
+                "Une période trop longue devrait être refusée");
+        assertThrows(IllegalArgumentException.class,
+                () -> flotte.getChiffreAffairesParJour(LocalDate.MIN, LocalDate.MAX),
+                "Une période démesurée devrait être refusée sans allocation");
+    }
+
+    @Test
+    public void testCollecterFonds() {
+        flotte.acheterBoisson(1, 1, Montant.deFcfa(1000)).join();
+        flotte.acheterBoisson(2, 2, Montant.deFcfa(1000)).join();
+        flotte.acheterBoisson(2, 2, Montant.deFcfa(1000)).join();
+
+        CollecteFonds collecte = flotte.collecterFonds();
+        assertEquals(NOMBRE_MACHINES, collecte.getNombreMachines(), "Toutes les machines devraient être collectées");
+        assertEquals(Montant.deFcfa(1000), collecte.getMontant(1), "La machine 1 a vendu un Coca-Cola");
+        assertEquals(Montant.deFcfa(1300), collecte.getMontant(2), "La machine 2 a vendu deux Fanta");
+        assertEquals(Montant.ZERO, collecte.getMontant(3), "La machine 3 n'a rien vendu");
+        assertEquals(Montant.deFcfa(2300), collecte.getTotal(), "Le total devrait être la somme des machines");
+        assertEquals(Montant.ZERO, flotte.getTotalCaisse(), "Les caisses devraient être vides");
+        assertEquals(Integer.valueOf(1), collecte.getMontantsParMachine().firstKey(),
+                "Les machines devraient être triées par numéro");
+
+        flotte.acheterBoisson(7, 1, Montant.deFcfa(1000)).join();
+        flotte.acheterBoisson(8, 1, Montant.deFcfa(1000)).join();
+        CollecteFonds partielle = flotte.collecterFonds(List.of(7, 9));
+        assertEquals(2, partielle.getNombreMachines(), "Seules les machines 7 et 9 devraient être collectées");
+        assertEquals(Montant.deFcfa(1000), partielle.getTotal(), "Seule la vente de la machine 7 devrait être collectée");
+        assertNull(partielle.getMontant(8), "La machine 8 ne devrait pas être collectée");
+        assertEquals(Montant.deFcfa(1000), flotte.getTotalCaisse(), "La caisse de la machine 8 devrait être intacte");
+        assertThrows(IllegalArgumentException.class, () -> flotte.collecterFonds(List.of(8, 999)),
+                "Une machine inconnue devrait être refusée");
+        assertEquals(Montant.deFcfa(1000), flotte.getTotalCaisse(), "Un refus ne devrait vider aucune caisse");
+    }
+
+    @Test
+    public void testCollecterFondsPendantLesVentes() {
+        List<CompletableFuture<Transaction>> achats = new ArrayList<>();
+        long collecte = 0;
+        for (int i = 0; i < 30; i++) {
+            for (int id = 1; id <= NOMBRE_MACHINES; id++) {
+                achats.add(flotte.acheterBoisson(id, 2, Montant.deFcfa(1000)));
+            }
+            if (i % 5 == 0) {
+                // Collecte pendant que les shards exécutent les achats soumis
+                collecte += flotte.collecterFonds().getTotal().getCentimes();
+            }
+        }
+        achats.forEach(CompletableFuture::join);
+        collecte += flotte.collecterFonds().getTotal().getCentimes();
+
+        assertEquals(Montant.deFcfa(650).fois(30L * NOMBRE_MACHINES), Montant.deCentimes(collecte),
+                "Chaque vente devrait être collectée exactement une fois");
+        assertEquals(Montant.ZERO, flotte.getTotalCaisse(), "Les caisses devraient être vides");
+    }
+
+    @Test
+    public void testMachinesStockBas() {
+        try (Flotte stocks = new Flotte(2)) {
+            int[][] stocksParMachine = {{3, 50, 50}, {7, 0, 50}, {42, 50, 2}};
+            for (int[] machine : stocksParMachine) {
+                Distributeur distributeur = new Distributeur(machine[0]);
+                distributeur.ajouterBoisson(new Boisson(1, "Coca-Cola", 1000, machine[1]));
+                distributeur.ajouterBoisson(new Boisson(2, "Fanta", 650, machine[2]));
+                stocks.enregistrer(machine[0], distributeur);
+            }
+
+            assertEquals(List.of(7, 42), stocks.getMachinesStockBas(5), "Les machines 7 et 42 devraient être en stock bas");
+            assertEquals(List.of(7), stocks.getMachinesStockBas(0), "Seule la machine 7 devrait être en rupture");
+        }
+    }
+
+    @Test
+    public void testCatalogueEnLectureSeule() {
+        flotte.acheterBoisson(7, 1, Montant.deFcfa(1000)).join();
+        CatalogueInstantane catalogue = flotte.getCatalogue(7);
+        assertEquals(49, catalogue.getEtat(1).getQuantiteStock(), "Le catalogue devrait refléter la vente du shard");
+
+        flotte.acheterBoisson(7, 1, Montant.deFcfa(1000)).join();
+        assertEquals(49, catalogue.getEtat(1).getQuantiteStock(), "Une version lue ne devrait plus changer");
+        assertEquals(48, flotte.getCatalogue(7).getEtat(1).getQuantiteStock(),
+                "Une nouvelle lecture devrait refléter la deuxième vente");
+    }
+}
@@ -0,0 +1,108 @@
+package com.distributeur.unit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.distributeur.GenerateurIdentifiants;
+import com.distributeur.Montant;
+import com.distributeur.MotifEchec;
+import com.distributeur.Transaction;
+
+/**
+ * Tests unitaires pour la classe GenerateurIdentifiants.
+ */
+public class GenerateurIdentifiantsTest {
+
+    @Test
+    public void testSequenceParMachine() {
+        GenerateurIdentifiants generateur = new GenerateurIdentifiants(3);
+        long premier = generateur.suivant();
+        long second = generateur.suivant();
+        assertEquals(3, GenerateurIdentifiants.machine(premier), "L'identifiant devrait porter le numéro de machine");
+        assertEquals(1, GenerateurIdentifiants.sequence(premier), "La séquence devrait commencer à 1");
+        assertTrue(second > premier, "Les identifiants devraient être croissants");
+        assertEquals(3, generateur.getProchaineSequence(), "La prochaine séquence devrait être 3");
+        assertNotEquals(premier, new GenerateurIdentifiants(4).suivant(),
+                "Deux machines ne devraient pas produire le même identifiant");
+    }
+
+    @Test
+    public void testNumeroMachineInvalide() {
+        assertThrows(IllegalArgumentException.class, () -> new GenerateurIdentifiants(-1),
+                "Un numéro négatif devrait être refusé");
+        assertThrows(IllegalArgumentException.class,
+                () -> new GenerateurIdentifiants(GenerateurIdentifiants.MACHINE_MAX + 1),
+                "Un numéro trop grand devrait être refusé");
+        long id = new GenerateurIdentifiants(GenerateurIdentifiants.MACHINE_MAX).suivant();
+        assertTrue(id > 0, "L'identifiant de la dernière machine devrait rester positif");
+        assertEquals(GenerateurIdentifiants.MACHINE_MAX, GenerateurIdentifiants.machine(id),
+                "Le numéro de la dernière machine devrait être retrouvé");
+    }
+
+    @Test
+    public void testTransactionsHorsDistributeur() {
+        long id = new Transaction(null, Montant.deFcfa(500), MotifEchec.BOISSON_INCONNUE).getId();
+        assertEquals(GenerateurIdentifiants.MACHINE_HORS_DISTRIBUTEUR, GenerateurIdentifiants.machine(id),
+                "Une transaction créée directement devrait porter le numéro réservé");
+        assertThrows(IllegalArgumentException.class,
+                () -> new GenerateurIdentifiants(GenerateurIdentifiants.MACHINE_HORS_DISTRIBUTEUR),
+                "Le numéro réservé devrait être refusé à une machine");
+    }
+
+    @Test
+    public void testAvancerApres() {
+        GenerateurIdentifiants generateur = new GenerateurIdentifiants(1);
+        GenerateurIdentifiants autre = new GenerateurIdentifiants(2);
+        long id = 0;
+        for (int i = 0; i < 10; i++) {
+            id = autre.suivant();
+        }
+        generateur.avancerApres(id);
+        assertEquals(1, generateur.getProchaineSequence(), "Un identifiant d'une autre machine devrait être ignoré");
+
+        GenerateurIdentifiants precedent = new GenerateurIdentifiants(1);
+        for (int i = 0; i < 10; i++) {
+            id = precedent.suivant();
+        }
+        generateur.avancerApres(id);
+        assertEquals(id + 1, generateur.suivant(), "La séquence devrait reprendre après l'identifiant relu");
+        generateur.avancerApres(id - 5);
+        assertEquals(id + 2, generateur.suivant(), "La séquence ne devrait jamais reculer");
+    }
+
+    @Test
+    public void testAllocationsConcurrentes() throws Exception {
+        GenerateurIdentifiants generateur = new GenerateurIdentifiants(7);
+        Set<Long> alloues = ConcurrentHashMap.newKeySet();
+        ExecutorService executeur = Executors.newFixedThreadPool(4);
+        try {
+            Future<?>[] taches = new Future<?>[4];
+            for (int t = 0; t < taches.length; t++) {
+                taches[t] = executeur.submit(() -> {
+                    long precedent = 0;
+                    for (int i = 0; i < 10_000; i++) {
+                        long id = generateur.suivant();
+                        assertTrue(id > precedent, "Les identifiants vus par un fil devraient être croissants");
+                        alloues.add(id);
+                        precedent = id;
+                    }
+                });
+            }
+            for (Future<?> tache : taches) {
+                tache.get();
+            }
+        } finally {
+            executeur.shutdown();
+            assertTrue(executeur.awaitTermination(10, TimeUnit.SECONDS), "Les fils devraient s'arrêter");
+        }
+        assertEquals(40_000, alloues.size(), "Aucun identifiant ne devrait être alloué deux fois");
+    }
+}
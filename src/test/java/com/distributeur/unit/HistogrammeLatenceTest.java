@@ -0,0 +1,84 @@
+package com.distributeur.unit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.distributeur.HistogrammeLatence;
+
+/**
+ * Tests unitaires pour la classe HistogrammeLatence.
+ */
+public class HistogrammeLatenceTest {
+
+    private HistogrammeLatence histogramme;
+
+    @BeforeEach
+    public void setUp() {
+        histogramme = new HistogrammeLatence();
+    }
+
+    @Test
+    public void testHistogrammeVide() {
+        assertEquals(0, histogramme.getNombre(), "L'histogramme devrait être vide");
+        assertEquals(0, histogramme.getMoyenne(), "La moyenne d'un histogramme vide devrait être 0");
+        assertEquals(0, histogramme.getQuantile(0.99), "Le quantile d'un histogramme vide devrait être 0");
+    }
+
+    @Test
+    public void testStatistiques() {
+        for (int i = 1; i <= 1000; i++) {
+            histogramme.enregistrer(i * 1000L);
+        }
+        assertEquals(1000, histogramme.getNombre(), "1000 latences devraient être enregistrées");
+        assertEquals(500500, histogramme.getMoyenne(), "La moyenne devrait être exacte");
+        assertEquals(1_000_000, histogramme.getMaximum(), "Le maximum devrait être exact");
+    }
+
+    @Test
+    public void testQuantilesPrecision() {
+        for (int i = 1; i <= 10000; i++) {
+            histogramme.enregistrer(i);
+        }
+        long p50 = histogramme.getQuantile(0.5);
+        long p99 = histogramme.getQuantile(0.99);
+        assertTrue(p50 >= 5000 && p50 <= 5000 * 1.125, "La médiane devrait être à 12,5 % près : " + p50);
+        assertTrue(p99 >= 9900 && p99 <= 10000, "Le 99e centile devrait être à 12,5 % près : " + p99);
+        assertEquals(10000, histogramme.getQuantile(1.0), "Le quantile 1 devrait être le maximum");
+    }
+
+    @Test
+    public void testPetitesValeursExactes() {
+        histogramme.enregistrer(3);
+        histogramme.enregistrer(3);
+        histogramme.enregistrer(7);
+        assertEquals(3, histogramme.getQuantile(0.5), "Les valeurs inférieures à 8 devraient être exactes");
+        assertEquals(7, histogramme.getQuantile(1.0), "Les valeurs inférieures à 8 devraient être exactes");
+    }
+
+    @Test
+    public void testValeursExtremes() {
+        histogramme.enregistrer(-5);
+        histogramme.enregistrer(Long.MAX_VALUE);
+        assertEquals(2, histogramme.getNombre(), "Les valeurs extrêmes devraient être enregistrées");
+        assertEquals(0, histogramme.getQuantile(0.5), "Une valeur négative devrait compter comme 0");
+        assertEquals(Long.MAX_VALUE, histogramme.getQuantile(1.0), "La plus grande valeur devrait être rangée");
+    }
+
+    @Test
+    public void testQuantileInvalide() {
+        assertThrows(IllegalArgumentException.class, () -> histogramme.getQuantile(1.5),
+                "Un quantile supérieur à 1 devrait être refusé");
+        assertThrows(IllegalArgumentException.class, () -> histogramme.getQuantile(Double.NaN),
+                "Un quantile NaN devrait être refusé");
+    }
+
+    @Test
+    public void testReinitialiser() {
+        histogramme.enregistrer(1000);
+        histogramme.reinitialiser();
+        assertEquals(0, histogramme.getNombre(), "L'histogramme devrait être vide");
+        assertEquals(0, histogramme.getMaximum(), "Le maximum devrait être remis à 0");
+    }
+}
@@ -0,0 +1,74 @@
+package com.distributeur.unit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.distributeur.Horloge;
+import com.distributeur.HorlogeCachee;
+import com.distributeur.HorlogeSimulee;
+import com.distributeur.HorlogeSysteme;
+import com.distributeur.JournalDisque;
+
+/**
+ * Tests unitaires pour l'interface Horloge et ses implémentations.
+ */
+public class HorlogeTest {
+
+    @Test
+    public void testHorlogeSysteme() {
+        ZoneId zone = ZoneId.of("Africa/Dakar");
+        LocalDateTime avant = LocalDateTime.now(zone).truncatedTo(ChronoUnit.MILLIS);
+        LocalDateTime lue = new HorlogeSysteme(zone).maintenant();
+        LocalDateTime apres = LocalDateTime.now(zone);
+        assertFalse(lue.isBefore(avant), "L'heure lue ne devrait pas précéder l'heure locale");
+        assertFalse(lue.isAfter(apres), "L'heure lue ne devrait pas dépasser l'heure locale");
+        assertNotNull(Horloge.systeme().maintenant(), "L'horloge par défaut devrait être disponible");
+    }
+
+    @Test
+    public void testHorlogeSimuleeFigee() {
+        LocalDateTime debut = LocalDateTime.of(2024, 3, 15, 10, 30);
+        HorlogeSimulee horloge = new HorlogeSimulee(debut);
+        assertEquals(JournalDisque.horodatage(debut), horloge.millisecondes(), "L'horloge devrait partir de la date donnée");
+        assertEquals(debut, horloge.maintenant(), "L'horloge figée ne devrait pas avancer seule");
+
+        horloge.avancer(Duration.ofHours(2));
+        assertEquals(debut.plusHours(2), horloge.maintenant(), "L'horloge devrait avancer de 2 heures");
+        assertThrows(IllegalArgumentException.class, () -> horloge.avancer(Duration.ofSeconds(-1)),
+                "L'horloge ne devrait pas pouvoir reculer");
+    }
+
+    @Test
+    public void testHorlogeSimuleeAcceleree() throws InterruptedException {
+        LocalDateTime debut = LocalDateTime.of(2024, 3, 15, 10, 30);
+        HorlogeSimulee horloge = new HorlogeSimulee(debut, 3600);
+        Thread.sleep(20);
+        assertTrue(horloge.maintenant().isAfter(debut.plusSeconds(60)),
+                "20 ms réelles devraient représenter plus d'une minute simulée");
+        assertThrows(IllegalArgumentException.class, () -> new HorlogeSimulee(debut, -1),
+                "Un facteur négatif devrait être refusé");
+    }
+
+    @Test
+    public void testHorlogeCachee() throws InterruptedException {
+        HorlogeSimulee source = new HorlogeSimulee(LocalDateTime.of(2024, 3, 15, 10, 30));
+        try (HorlogeCachee horloge = new HorlogeCachee(source, 1)) {
+            long initiale = horloge.millisecondes();
+            assertEquals(source.millisecondes(), initiale, "L'horloge devrait partir de l'heure de la source");
+            source.avancer(Duration.ofMinutes(1));
+            long limite = System.nanoTime() + 5_000_000_000L;
+            while (horloge.millisecondes() == initiale && System.nanoTime() < limite) {
+                Thread.sleep(1);
+            }
+            assertEquals(source.millisecondes(), horloge.millisecondes(), "L'horloge devrait rattraper la source");
+        }
+        assertThrows(IllegalArgumentException.class, () -> new HorlogeCachee(0),
+                "Une résolution nulle devrait être refusée");
+    }
+}
@@ -0,0 +1,69 @@
+package com.distributeur.unit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.distributeur.Boisson;
+import com.distributeur.IndexBoissons;
+
+/**
+ * Tests unitaires pour la classe IndexBoissons.
+ */
+public class IndexBoissonsTest {
+
+    private IndexBoissons index;
+    private Boisson boisson;
+
+    @BeforeEach
+    public void setUp() {
+        // Initialisation d'un index contenant une boisson
+        index = new IndexBoissons();
+        boisson = new Boisson(1, "Coca-Cola", 1000, 10);
+        index.ajouter(boisson);
+    }
+
+    @Test
+    public void testGet() {
+        assertSame(boisson, index.get(1), "Devrait trouver la boisson indexée");
+        assertNull(index.get(2), "Ne devrait pas trouver de boisson");
+    }
+
+    @Test
+    public void testAjouterIdExistant() {
+        assertFalse(index.ajouter(new Boisson(1, "Autre Coca", 900, 5)), "L'ajout devrait échouer");
+        assertSame(boisson, index.get(1), "La boisson d'origine devrait être conservée");
+        assertEquals(1, index.taille(), "L'index devrait contenir 1 boisson");
+    }
+
+    @Test
+    public void testAjouterNull() {
+        assertFalse(index.ajouter(null), "L'ajout devrait échouer");
+        assertEquals(1, index.taille(), "La taille ne devrait pas changer");
+    }
+
+    @Test
+    public void testIdsNulEtNegatif() {
+        Boisson zero = new Boisson(0, "Eau", 500, 1);
+        Boisson negatif = new Boisson(-7, "Thé", 450, 1);
+        assertTrue(index.ajouter(zero), "L'ajout de l'ID 0 devrait réussir");
+        assertTrue(index.ajouter(negatif), "L'ajout d'un ID négatif devrait réussir");
+        assertSame(zero, index.get(0), "Devrait trouver la boisson d'ID 0");
+        assertSame(negatif, index.get(-7), "Devrait trouver la boisson d'ID négatif");
+        assertTrue(index.contient(0), "L'ID 0 devrait être présent");
+    }
+
+    @Test
+    public void testAgrandissement() {
+        for (int id = 2; id <= 10000; id++) {
+            assertTrue(index.ajouter(new Boisson(id * 31, "Boisson " + id, 100, 1)), "L'ajout devrait réussir");
+        }
+        assertEquals(10000, index.taille(), "L'index devrait contenir 10000 boissons");
+        for (int id = 2; id <= 10000; id++) {
+            assertEquals(id * 31, index.get(id * 31).getId(), "Chaque boisson devrait rester accessible");
+        }
+        assertSame(boisson, index.get(1), "La première boisson devrait rester accessible");
+        assertNull(index.get(32), "Un ID absent ne devrait pas être trouvé");
+    }
+}
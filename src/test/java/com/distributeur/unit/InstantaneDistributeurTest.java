@@ -0,0 +1,184 @@
+package com.distributeur.unit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.distributeur.Boisson;
+import com.distributeur.Distributeur;
+import com.distributeur.InstantaneDistributeur;
+import com.distributeur.JournalDisque;
+import com.distributeur.Montant;
+
+/**
+ * Tests unitaires pour la classe InstantaneDistributeur.
+ */
+public class InstantaneDistributeurTest {
+
+    @TempDir
+    Path repertoire;
+
+    @Test
+    public void testInstantanePuisFinDuJournal() throws IOException {
+        Distributeur distributeur = creerDistributeur();
+        distributeur.activerPersistance(repertoire);
+        distributeur.acheterBoisson(1, 1000);
+        distributeur.acheterBoisson(1, 1500);
+        distributeur.acheterBoisson(2, 650);
+        distributeur.rechargerStock(2, 5);
+        distributeur.creerInstantane();
+        distributeur.acheterBoisson(2, 1000);
+        assertEquals(Montant.deFcfa(3300), distributeur.viderCaisse(), "La caisse devrait contenir 3300 FCFA");
+        distributeur.acheterBoisson(1, 1000);
+        distributeur.fermerPersistance();
+
+        Distributeur redemarre = creerDistributeur();
+        redemarre.activerPersistance(repertoire);
+        assertEquals(2, redemarre.getHistoriqueVentes().size(),
+                "Seules les ventes postérieures à l'instantané devraient être relues");
+        assertEquals(5, redemarre.getJournal().getNombreTransactions(),
+                "Le nombre de transactions devrait couvrir tout l'historique");
+        assertEquals(3, redemarre.getJournal().getNombreTransactionsArchivees(),
+                "Les ventes couvertes par l'instantané devraient être signalées comme archivées");
+        assertEquals(redemarre.getJournal().getNombreTransactions(),
+                redemarre.getJournal().getNombreTransactionsArchivees() + redemarre.getHistoriqueVentes().size(),
+                "Les ventes archivées et conservées devraient couvrir tout l'historique");
+        assertEquals(2, redemarre.getJournal().getTransactionsParDate(LocalDate.now()).size(),
+                "Les requêtes par date ne devraient retourner que les ventes conservées");
+        assertEquals(5, redemarre.getJournal().getNombreTransactionsReussies(),
+                "Les 5 ventes devraient être comptées comme réussies");
+        assertEquals(Montant.deFcfa(4300), redemarre.getJournal().getChiffreAffaires(),
+                "Le chiffre d'affaires devrait couvrir tout l'historique");
+        assertEquals(Montant.deFcfa(4300), redemarre.getJournal().getChiffreAffairesParDate(LocalDate.now()),
+                "Le chiffre d'affaires du jour devrait couvrir tout l'historique");
+        assertEquals(Montant.deFcfa(1000), redemarre.getMontantCaisse(),
+                "Seule la vente postérieure au vidage devrait rester en caisse");
+        assertEquals(7, redemarre.rechercherBoisson(1).getQuantiteStock(), "Le stock de Coca-Cola devrait être 7");
+        assertEquals(13, redemarre.rechercherBoisson(2).getQuantiteStock(), "Le stock de Fanta devrait être 13");
+        assertEquals(3, redemarre.getJournal().getVentesBoisson(1).getNombreVentes(),
+                "Les ventes de Coca-Cola devraient couvrir tout l'historique");
+        assertEquals(Montant.deFcfa(1300), redemarre.getJournal().getVentesBoisson(2).getChiffreAffaires(),
+                "Le chiffre d'affaires du Fanta devrait couvrir tout l'historique");
+        assertEquals(1, redemarre.getJournal().getMeilleuresVentes(1).get(0).getIdBoisson(),
+                "Le classement devrait couvrir tout l'historique");
+        redemarre.fermerPersistance();
+    }
+
+    @Test
+    public void testIdentifiantsApresInstantane() throws IOException {
+        Distributeur distributeur = creerDistributeur();
+        distributeur.activerPersistance(repertoire);
+        long dernier = 0;
+        for (int i = 0; i < 3; i++) {
+            dernier = distributeur.acheterBoisson(1, 1000).getId();
+        }
+        distributeur.creerInstantane();
+        distributeur.fermerPersistance();
+
+        Distributeur redemarre = creerDistributeur();
+        redemarre.activerPersistance(repertoire);
+        assertTrue(redemarre.getHistoriqueVentes().isEmpty(), "Aucune vente ne devrait être relue après l'instantané");
+        assertEquals(0, distributeur.getJournal().getNombreTransactionsArchivees(),
+                "Sans restauration, aucune vente ne devrait être archivée");
+        assertTrue(redemarre.acheterBoisson(1, 1000).getId() > dernier,
+                "Les identifiants devraient reprendre après ceux couverts par l'instantané");
+        redemarre.fermerPersistance();
+    }
+
+    @Test
+    public void testSansInstantaneRelitToutLeJournal() throws IOException {
+        Distributeur distributeur = creerDistributeur();
+        distributeur.activerPersistance(repertoire);
+        distributeur.acheterBoisson(1, 1000);
+        distributeur.rechargerStock(1, 3);
+        distributeur.fermerPersistance();
+
+        Distributeur redemarre = creerDistributeur();
+        redemarre.activerPersistance(repertoire);
+        assertEquals(1, redemarre.getHistoriqueVentes().size(), "La vente devrait être relue");
+        assertEquals(12, redemarre.rechercherBoisson(1).getQuantiteStock(),
+                "La vente et le rechargement devraient être rejoués sur le stock");
+        redemarre.fermerPersistance();
+    }
+
+    @Test
+    public void testSegmentsAnterieursNonRelus() throws IOException {
+        int tailleSegment = 4 * JournalDisque.TAILLE_ENREGISTREMENT;
+        Distributeur distributeur = creerDistributeur();
+        distributeur.activerPersistance(new JournalDisque(repertoire, tailleSegment, 1));
+        for (int i = 0; i < 8; i++) {
+            distributeur.acheterBoisson(2, 650);
+        }
+        distributeur.creerInstantane();
+        distributeur.acheterBoisson(1, 1000);
+        distributeur.fermerPersistance();
+
+        // Les segments couverts par l'instantané ne sont plus nécessaires au démarrage
+        Files.delete(repertoire.resolve(String.format("ventes-%020d.journal", 0)));
+        Files.delete(repertoire.resolve(String.format("ventes-%020d.journal", 4)));
+
+        Distributeur redemarre = creerDistributeur();
+        redemarre.activerPersistance(new JournalDisque(repertoire, tailleSegment, 1));
+        assertEquals(9, redemarre.getJournal().getNombreTransactions(), "Les 9 ventes devraient être comptées");
+        assertEquals(1, redemarre.getHistoriqueVentes().size(), "Seule la dernière vente devrait être relue");
+        assertEquals(Montant.deFcfa(6200), redemarre.getMontantCaisse(), "La caisse devrait contenir 6200 FCFA");
+        assertEquals(2, redemarre.rechercherBoisson(2).getQuantiteStock(), "Le stock de Fanta devrait être 2");
+        redemarre.fermerPersistance();
+    }
+
+    @Test
+    public void testBoissonAjouteeApresActivation() throws IOException {
+        Distributeur distributeur = creerDistributeur();
+        distributeur.activerPersistance(repertoire);
+        distributeur.ajouterBoisson(new Boisson(3, "Sprite", 700, 4));
+        distributeur.creerInstantane();
+        distributeur.acheterBoisson(3, 700);
+        distributeur.fermerPersistance();
+
+        Distributeur redemarre = creerDistributeur();
+        redemarre.activerPersistance(repertoire);
+        Boisson sprite = redemarre.rechercherBoisson(3);
+        assertNotNull(sprite, "La boisson de l'instantané devrait être ajoutée au catalogue");
+        assertEquals(Montant.deFcfa(700), sprite.getPrix(), "Le prix devrait être restauré");
+        assertEquals(3, sprite.getQuantiteStock(), "Le stock devrait tenir compte de la vente relue");
+        redemarre.fermerPersistance();
+    }
+
+    @Test
+    public void testInstantaneCorrompu() throws IOException {
+        Distributeur distributeur = creerDistributeur();
+        distributeur.activerPersistance(repertoire);
+        distributeur.acheterBoisson(1, 1000);
+        distributeur.creerInstantane();
+        distributeur.fermerPersistance();
+
+        Path instantane = repertoire.resolve(InstantaneDistributeur.FICHIER);
+        byte[] contenu = Files.readAllBytes(instantane);
+        contenu[20] ^= 0x01;
+        Files.write(instantane, contenu);
+
+        Distributeur redemarre = creerDistributeur();
+        assertThrows(IOException.class, () -> redemarre.activerPersistance(repertoire),
+                "Un instantané corrompu devrait être signalé");
+    }
+
+    @Test
+    public void testInstantaneSansPersistance() {
+        Distributeur distributeur = creerDistributeur();
+        assertThrows(IllegalStateException.class, distributeur::creerInstantane,
+                "Un instantané ne devrait pas pouvoir être pris sans persistance");
+    }
+
+    private Distributeur creerDistributeur() {
+        Distributeur distributeur = new Distributeur();
+        distributeur.ajouterBoisson(new Boisson(1, "Coca-Cola", 1000, 10));
+        distributeur.ajouterBoisson(new Boisson(2, "Fanta", 650, 10));
+        return distributeur;
+    }
+}
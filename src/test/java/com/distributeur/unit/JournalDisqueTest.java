@@ -0,0 +1,294 @@
+package com.distributeur.unit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.distributeur.Boisson;
+import com.distributeur.DemandeAchat;
+import com.distributeur.Distributeur;
+import com.distributeur.HorlogeSimulee;
+import com.distributeur.JournalDisque;
+import com.distributeur.Montant;
+import com.distributeur.Transaction;
+
+/**
+ * Tests unitaires pour la classe JournalDisque et la persistance du distributeur.
+ */
+public class JournalDisqueTest {
+
+    @TempDir
+    Path repertoire;
+
+    private final Boisson boisson = new Boisson(1, "Coca-Cola", 1000, 10);
+
+    @Test
+    public void testRelectureApresReouverture() throws IOException {
+        LocalDateTime dateHeure = LocalDateTime.of(2024, 3, 15, 10, 30, 0);
+        try (JournalDisque journal = new JournalDisque(repertoire)) {
+            assertEquals(0, journal.ajouterVente(new Transaction(7, boisson, Montant.deFcfa(1500),
+                    Montant.deFcfa(500), dateHeure, true)), "La première séquence devrait être 0");
+            assertEquals(1, journal.ajouterVente(new Transaction(8, boisson, Montant.deFcfa(650),
+                    Montant.deFcfa(650), dateHeure, false)), "La deuxième séquence devrait être 1");
+            journal.ajouterRetraitCaisse(Montant.deFcfa(1000), dateHeure);
+        }
+
+        try (JournalDisque journal = new JournalDisque(repertoire)) {
+            assertEquals(3, journal.getProchaineSequence(), "Les 3 enregistrements devraient être retrouvés");
+            List<String> relus = relire(journal, 0);
+            assertEquals(3, relus.size(), "Devrait relire 3 enregistrements");
+            assertEquals("0:1:1:7:150000:50000:true:" + JournalDisque.horodatage(dateHeure), relus.get(0),
+                    "La vente réussie devrait être relue à l'identique");
+            assertEquals("1:1:1:8:65000:65000:false:" + JournalDisque.horodatage(dateHeure), relus.get(1),
+                    "La vente échouée devrait être relue à l'identique");
+            assertTrue(relus.get(2).startsWith("2:2:0:0:100000:"), "Le retrait de caisse devrait être relu");
+            assertEquals(2, relire(journal, 1).size(), "La relecture devrait pouvoir commencer à une séquence");
+        }
+    }
+
+    @Test
+    public void testHorodatage() {
+        LocalDateTime dateHeure = LocalDateTime.of(2024, 3, 15, 10, 30, 0, 123_000_000);
+        assertEquals(dateHeure, JournalDisque.dateHeure(JournalDisque.horodatage(dateHeure)),
+                "La conversion devrait conserver la date à la milliseconde");
+    }
+
+    @Test
+    public void testEnregistrementIncompletIgnore() throws IOException {
+        try (JournalDisque journal = new JournalDisque(repertoire)) {
+            journal.ajouterVente(new Transaction(boisson, 1500, 500, true));
+            journal.ajouterVente(new Transaction(boisson, 2000, 1000, true));
+        }
+        // Simule un arrêt brutal pendant l'écriture du deuxième enregistrement
+        corrompre(premierSegment(), JournalDisque.TAILLE_ENREGISTREMENT + 10);
+
+        try (JournalDisque journal = new JournalDisque(repertoire)) {
+            assertEquals(1, journal.getProchaineSequence(), "L'enregistrement incomplet devrait être ignoré");
+            assertEquals(1, journal.ajouterVente(new Transaction(boisson, 1000, 0, true)),
+                    "L'ajout suivant devrait écraser l'enregistrement incomplet");
+            assertEquals(2, relire(journal, 0).size(), "Devrait relire 2 enregistrements valides");
+        }
+    }
+
+    @Test
+    public void testChangementDeSegment() throws IOException {
+        int tailleSegment = 4 * JournalDisque.TAILLE_ENREGISTREMENT;
+        try (JournalDisque journal = new JournalDisque(repertoire, tailleSegment, 1)) {
+            for (int i = 0; i < 10; i++) {
+                journal.ajouterVente(new Transaction(boisson, 1000 + i, i, true));
+            }
+        }
+        try (Stream<Path> fichiers = Files.list(repertoire)) {
+            assertEquals(3, fichiers.count(), "10 enregistrements devraient occuper 3 segments de 4");
+        }
+
+        try (JournalDisque journal = new JournalDisque(repertoire, tailleSegment, 1)) {
+            assertEquals(10, journal.getProchaineSequence(), "La séquence devrait reprendre après le dernier segment");
+            List<String> relus = relire(journal, 0);
+            assertEquals(10, relus.size(), "Devrait relire les 10 enregistrements");
+            for (int i = 0; i < 10; i++) {
+                assertTrue(relus.get(i).startsWith(i + ":"), "Les enregistrements devraient être relus dans l'ordre");
+            }
+            assertEquals(4, relire(journal, 6).size(), "Devrait relire à partir de la séquence 6");
+        }
+    }
+
+    @Test
+    public void testCorruptionSegmentPlein() throws IOException {
+        int tailleSegment = 2 * JournalDisque.TAILLE_ENREGISTREMENT;
+        try (JournalDisque journal = new JournalDisque(repertoire, tailleSegment, 0)) {
+            for (int i = 0; i < 3; i++) {
+                journal.ajouterVente(new Transaction(boisson, 1000, 0, true));
+            }
+        }
+        corrompre(premierSegment(), 10);
+
+        try (JournalDisque journal = new JournalDisque(repertoire, tailleSegment, 0)) {
+            assertThrows(IOException.class, () -> relire(journal, 0),
+                    "Une corruption dans un segment plein devrait être signalée");
+        }
+    }
+
+    @Test
+    public void testSynchronisationBorneeDansLeTemps() throws IOException {
+        HorlogeSimulee horloge = new HorlogeSimulee(LocalDateTime.of(2024, 3, 15, 10, 0));
+        // Délai long : le fil de synchronisation ne passe pas pendant le test
+        try (JournalDisque journal = new JournalDisque(repertoire, JournalDisque.TAILLE_SEGMENT_DEFAUT, 64,
+                3_600_000, horloge)) {
+            journal.ajouterVente(new Transaction(boisson, 1000, 0, true));
+            horloge.avancer(Duration.ofMinutes(40));
+            journal.ajouterVente(new Transaction(boisson, 1000, 0, true));
+            journal.synchroniserSiEchu();
+            assertEquals(2, journal.getNonSynchronises(), "Aucun enregistrement n'a encore atteint le délai");
+
+            horloge.avancer(Duration.ofMinutes(20));
+            journal.ajouterVente(new Transaction(boisson, 1000, 0, true));
+            assertEquals(0, journal.getNonSynchronises(),
+                    "L'ajout devrait synchroniser dès que le plus ancien enregistrement atteint le délai");
+
+            // Sans nouvel ajout, la vérification périodique borne l'attente
+            journal.ajouterVente(new Transaction(boisson, 1000, 0, true));
+            horloge.avancer(Duration.ofMinutes(59));
+            journal.synchroniserSiEchu();
+            assertEquals(1, journal.getNonSynchronises(), "Le délai part du premier enregistrement non synchronisé");
+            horloge.avancer(Duration.ofMinutes(1));
+            journal.synchroniserSiEchu();
+            assertEquals(0, journal.getNonSynchronises(), "Le délai échu devrait forcer la synchronisation");
+        }
+    }
+
+    @Test
+    public void testFilDeSynchronisation() throws IOException, InterruptedException {
+        HorlogeSimulee horloge = new HorlogeSimulee(LocalDateTime.of(2024, 3, 15, 10, 0));
+        try (JournalDisque journal = new JournalDisque(repertoire, JournalDisque.TAILLE_SEGMENT_DEFAUT, 0, 10,
+                horloge)) {
+            journal.ajouterVente(new Transaction(boisson, 1000, 0, true));
+            horloge.avancer(Duration.ofMillis(10));
+            long limite = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (journal.getNonSynchronises() > 0 && System.nanoTime() < limite) {
+                Thread.sleep(5);
+            }
+            assertEquals(0, journal.getNonSynchronises(),
+                    "Le fil devrait synchroniser un enregistrement échu sans nouvel ajout");
+        }
+    }
+
+    @Test
+    public void testParametresInvalides() {
+        assertThrows(IllegalArgumentException.class, () -> new JournalDisque(repertoire, 10, 1),
+                "Un segment trop petit devrait être refusé");
+        assertThrows(IllegalArgumentException.class,
+                () -> new JournalDisque(repertoire, JournalDisque.TAILLE_SEGMENT_DEFAUT, -1),
+                "Un nombre de synchronisation négatif devrait être refusé");
+        assertThrows(IllegalArgumentException.class, () -> new JournalDisque(repertoire,
+                JournalDisque.TAILLE_SEGMENT_DEFAUT, 1, -1, new HorlogeSimulee(LocalDateTime.of(2024, 1, 1, 0, 0))),
+                "Un délai de synchronisation négatif devrait être refusé");
+    }
+
+    @Test
+    public void testJournalFerme() throws IOException {
+        JournalDisque journal = new JournalDisque(repertoire);
+        journal.close();
+        assertThrows(IllegalStateException.class,
+                () -> journal.ajouterVente(new Transaction(boisson, 1000, 0, true)),
+                "L'écriture dans un journal fermé devrait échouer");
+    }
+
+    @Test
+    public void testRedemarrageDistributeur() throws IOException {
+        Distributeur distributeur = creerDistributeur();
+        distributeur.activerPersistance(repertoire);
+        distributeur.acheterBoisson(1, 1500);
+        distributeur.acheterBoisson(2, 1000);
+        assertEquals(Montant.deFcfa(1650), distributeur.viderCaisse(), "La caisse devrait contenir 1650 FCFA");
+        distributeur.acheterBoisson(2, 650);
+        distributeur.fermerPersistance();
+
+        // Redémarrage : même catalogue, historique et caisse reconstruits depuis le disque
+        Distributeur redemarre = creerDistributeur();
+        redemarre.activerPersistance(repertoire);
+        assertEquals(3, redemarre.getHistoriqueVentes().size(), "Les 3 ventes devraient être restaurées");
+        assertEquals(Montant.deFcfa(650), redemarre.getMontantCaisse(),
+                "Seule la vente postérieure au vidage devrait rester en caisse");
+        assertEquals(Montant.deFcfa(2300), redemarre.getJournal().getChiffreAffaires(),
+                "Le chiffre d'affaires devrait être restauré");
+        assertEquals(distributeur.getHistoriqueVentes().get(0).getId(), redemarre.getHistoriqueVentes().get(0).getId(),
+                "Les identifiants des transactions devraient être conservés");
+        assertSame(redemarre.rechercherBoisson(1), redemarre.getHistoriqueVentes().get(0).getBoisson(),
+                "Les ventes restaurées devraient référencer les boissons du catalogue");
+
+        // Les nouvelles ventes s'ajoutent à la suite du journal existant
+        redemarre.acheterBoisson(1, 1000);
+        redemarre.fermerPersistance();
+        Distributeur relu = creerDistributeur();
+        relu.activerPersistance(repertoire);
+        assertEquals(4, relu.getHistoriqueVentes().size(), "Les 4 ventes devraient être restaurées");
+        assertEquals(Montant.deFcfa(1650), relu.getMontantCaisse(), "La caisse devrait contenir 1650 FCFA");
+        relu.fermerPersistance();
+    }
+
+    @Test
+    public void testLotPersiste() throws IOException {
+        Distributeur distributeur = creerDistributeur();
+        distributeur.activerPersistance(repertoire);
+        distributeur.acheterBoissons(List.of(new DemandeAchat(1, Montant.deFcfa(1000)),
+                new DemandeAchat(9, Montant.deFcfa(1000)), new DemandeAchat(2, Montant.deFcfa(1000))));
+        distributeur.fermerPersistance();
+
+        Distributeur redemarre = creerDistributeur();
+        redemarre.activerPersistance(repertoire);
+        assertEquals(2, redemarre.getHistoriqueVentes().size(), "Les 2 ventes réussies du lot devraient être restaurées");
+        assertEquals(Montant.deFcfa(1650), redemarre.getMontantCaisse(), "La caisse devrait contenir 1650 FCFA");
+        redemarre.fermerPersistance();
+    }
+
+    @Test
+    public void testIdentifiantsApresRedemarrage() throws IOException {
+        Distributeur distributeur = new Distributeur(5);
+        distributeur.ajouterBoisson(new Boisson(1, "Coca-Cola", 1000, 10));
+        distributeur.activerPersistance(repertoire);
+        distributeur.acheterBoisson(1, 1000);
+        long dernier = distributeur.acheterBoisson(1, 1000).getId();
+        distributeur.fermerPersistance();
+
+        Distributeur redemarre = new Distributeur(5);
+        redemarre.ajouterBoisson(new Boisson(1, "Coca-Cola", 1000, 10));
+        redemarre.activerPersistance(repertoire);
+        assertEquals(dernier, redemarre.getHistoriqueVentes().get(1).getId(), "L'identifiant devrait être relu en entier");
+        assertTrue(redemarre.acheterBoisson(1, 1000).getId() > dernier,
+                "Les identifiants devraient reprendre après ceux du journal");
+        redemarre.fermerPersistance();
+    }
+
+    @Test
+    public void testActivationDouble() throws IOException {
+        Distributeur distributeur = creerDistributeur();
+        distributeur.activerPersistance(repertoire);
+        assertThrows(IllegalStateException.class, () -> distributeur.activerPersistance(repertoire),
+                "La persistance ne devrait pas pouvoir être activée deux fois");
+        distributeur.fermerPersistance();
+    }
+
+    private Distributeur creerDistributeur() {
+        Distributeur distributeur = new Distributeur();
+        distributeur.ajouterBoisson(new Boisson(1, "Coca-Cola", 1000, 10));
+        distributeur.ajouterBoisson(new Boisson(2, "Fanta", 650, 10));
+        return distributeur;
+    }
+
+    private static List<String> relire(JournalDisque journal, long depuis) throws IOException {
+        List<String> relus = new ArrayList<>();
+        journal.relire(depuis, e -> relus.add(e.getSequence() + ":" + e.getType() + ":" + e.getIdBoisson() + ":"
+                + e.getIdTransaction() + ":" + e.getMontantInsere() + ":" + e.getMonnaieRendue() + ":"
+                + e.estReussie() + ":" + e.getHorodatage()));
+        return relus;
+    }
+
+    private Path premierSegment() throws IOException {
+        try (Stream<Path> fichiers = Files.list(repertoire)) {
+            return fichiers.sorted().findFirst().orElseThrow();
+        }
+    }
+
+    private static void corrompre(Path fichier, long position) throws IOException {
+        try (FileChannel canal = FileChannel.open(fichier, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer octet = ByteBuffer.allocate(1);
+            canal.read(octet, position);
+            octet.put(0, (byte) ~octet.get(0)).position(0);
+            canal.write(octet, position);
+        }
+    }
+}
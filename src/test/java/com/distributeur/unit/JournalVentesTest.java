@@ -3,14 +3,22 @@ package com.distributeur.unit;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import com.distributeur.Boisson;
+import com.distributeur.FiltreVentes;
 import com.distributeur.JournalVentes;
+import com.distributeur.Montant;
+import com.distributeur.MotifEchec;
+import com.distributeur.PageVentes;
 import com.distributeur.Transaction;
+import com.distributeur.VentesBoisson;
 
 /**
  * Tests unitaires pour la classe JournalVentes.
@@ -80,18 +88,67 @@ public class JournalVentesTest {
         assertNotNull(transactions, "La liste ne devrait pas être null");
     }
 
+    @Test
+    public void testGetTransactionsParDateSegmentee() {
+        journal.ajouterTransaction(transaction1);
+        journal.ajouterTransaction(transaction3);
+
+        LocalDate jour = transaction1.getDateHeure().toLocalDate();
+        List<Transaction> duJour = journal.getTransactionsParDate(transaction3.getDateHeure().toLocalDate());
+        assertTrue(duJour.contains(transaction3), "La transaction devrait être dans le segment de son jour");
+        assertTrue(journal.getTransactionsParDate(jour.minusDays(1)).isEmpty(), "La veille ne devrait contenir aucune transaction");
+        assertTrue(journal.getTransactionsParDate(jour.plusDays(1)).isEmpty(), "Le lendemain ne devrait contenir aucune transaction");
+    }
+
+    @Test
+    public void testGetTransactionsEntre() {
+        journal.ajouterTransaction(transaction1);
+        journal.ajouterTransaction(transaction2);
+        journal.ajouterTransaction(transaction3);
+
+        LocalDateTime instant = transaction2.getDateHeure();
+        List<Transaction> autour = journal.getTransactionsEntre(instant.minusDays(3), instant.plusDays(3));
+        assertEquals(3, autour.size(), "Les trois transactions devraient être dans l'intervalle");
+        assertEquals(transaction1, autour.get(0), "L'ordre d'enregistrement devrait être conservé");
+
+        assertTrue(journal.getTransactionsEntre(instant.plusSeconds(30), instant.plusDays(1)).isEmpty(),
+                "Aucune transaction ne devrait être postérieure à l'intervalle");
+        assertTrue(journal.getTransactionsEntre(instant, instant).isEmpty(),
+                "Un intervalle vide ne devrait contenir aucune transaction");
+        assertFalse(journal.getTransactionsEntre(instant, instant.plusNanos(1)).isEmpty(),
+                "Le début de l'intervalle devrait être inclus");
+    }
+
+    @Test
+    public void testGetTransactionsDerniersJours() {
+        journal.ajouterTransaction(transaction1);
+        journal.ajouterTransaction(transaction2);
+
+        assertEquals(2, journal.getTransactionsDerniersJours(7).size(), "Les transactions du jour devraient être incluses");
+        assertTrue(journal.getTransactionsDerniersJours(0).isEmpty(), "Une période de 0 jour devrait être vide");
+    }
+
+    @Test
+    public void testGetTransactionsHeureCourante() {
+        journal.ajouterTransaction(transaction1);
+
+        List<Transaction> heure = journal.getTransactionsHeureCourante();
+        boolean memeHeure = transaction1.getDateHeure().getHour() == LocalDateTime.now().getHour();
+        assertEquals(memeHeure ? 1 : 0, heure.size(), "La transaction de l'heure en cours devrait être incluse");
+    }
+
     @Test
     public void testGetChiffreAffaires() {
         journal.ajouterTransaction(transaction1); // Réussie, prix = 1.5
         journal.ajouterTransaction(transaction2); // Réussie, prix = 1.0
         journal.ajouterTransaction(transaction3); // Échouée, ne compte pas
         
-        assertEquals(2.5, journal.getChiffreAffaires(), 0.001, "Le chiffre d'affaires devrait être 2.5");
+        assertEquals(Montant.deFcfa(2.5), journal.getChiffreAffaires(), "Le chiffre d'affaires devrait être 2.5");
     }
 
     @Test
     public void testGetChiffreAffairesVide() {
-        assertEquals(0.0, journal.getChiffreAffaires(), 0.001, "Le chiffre d'affaires devrait être 0");
+        assertEquals(Montant.ZERO, journal.getChiffreAffaires(), "Le chiffre d'affaires devrait être 0");
     }
 
     @Test
@@ -100,8 +157,33 @@ public class JournalVentesTest {
         journal.ajouterTransaction(transaction2);
         
         // Comme les dates sont générées automatiquement, on vérifie juste que la méthode ne lance pas d'exception
-        double chiffreAffaires = journal.getChiffreAffairesParDate(LocalDate.now());
-        assertTrue(chiffreAffaires >= 0, "Le chiffre d'affaires devrait être positif ou nul");
+        Montant chiffreAffaires = journal.getChiffreAffairesParDate(LocalDate.now());
+        assertFalse(chiffreAffaires.estNegatif(), "Le chiffre d'affaires devrait être positif ou nul");
+    }
+
+    @Test
+    public void testGetChiffreAffairesParDateExact() {
+        journal.ajouterTransaction(transaction1); // Réussie, prix = 1.5
+        journal.ajouterTransaction(transaction2); // Réussie, prix = 1.0
+        journal.ajouterTransaction(transaction3); // Échouée, ne compte pas
+
+        LocalDate jour1 = transaction1.getDateHeure().toLocalDate();
+        LocalDate jour2 = transaction2.getDateHeure().toLocalDate();
+        Montant attendu = jour1.equals(jour2) ? Montant.deFcfa(2.5) : Montant.deFcfa(1.5);
+        assertEquals(attendu, journal.getChiffreAffairesParDate(jour1), "Le chiffre d'affaires du jour devrait être exact");
+        assertEquals(Montant.ZERO, journal.getChiffreAffairesParDate(jour1.minusDays(1)),
+                "Le chiffre d'affaires d'un jour sans vente devrait être 0");
+    }
+
+    @Test
+    public void testAgregatsIncrementaux() {
+        for (int i = 0; i < 1000; i++) {
+            journal.ajouterTransaction(transaction1);
+            journal.ajouterTransaction(transaction3);
+        }
+        assertEquals(2000, journal.getNombreTransactions(), "Le nombre de transactions devrait être 2000");
+        assertEquals(1000, journal.getNombreTransactionsReussies(), "Le nombre de ventes réussies devrait être 1000");
+        assertEquals(Montant.deFcfa(1500), journal.getChiffreAffaires(), "Le chiffre d'affaires devrait être 1500");
     }
 
     @Test
@@ -125,4 +207,157 @@ public class JournalVentesTest {
         
         assertEquals(2, journal.getNombreTransactionsReussies(), "Le nombre de transactions réussies devrait être 2");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGetTransactionsSurPlusieursBlocs() {
+        for (int i = 0; i < 3000; i++) {
+            journal.ajouterTransaction(i % 2 == 0 ? transaction1 : transaction3);
+        }
+        List<Transaction> transactions = journal.getTransactions();
+        journal.ajouterTransaction(transaction2);
+        assertEquals(3000, transactions.size(), "La vue devrait être figée à 3000 transactions");
+        assertEquals(transaction1, transactions.get(2048), "Les positions paires devraient être des ventes réussies");
+        assertEquals(transaction3, transactions.get(2999), "Les positions impaires devraient être des échecs");
+        assertThrows(IndexOutOfBoundsException.class, () -> transactions.get(3000),
+                "La transaction ajoutée après la vue ne devrait pas y être accessible");
+        assertEquals(transaction2, journal.getTransactions().get(3000), "Une nouvelle vue devrait la contenir");
+    }
+
+    @Test
+    public void testTransactionsRecreeesALaLecture() {
+        Transaction inconnue = new Transaction(null, Montant.deFcfa(500), MotifEchec.BOISSON_INCONNUE);
+        Transaction restauree = new Transaction(42L, boisson2, Montant.deFcfa(1000), Montant.ZERO,
+                LocalDateTime.of(2024, 3, 15, 10, 30, 0, 123_456_789), true);
+        journal.ajouterTransaction(inconnue);
+        journal.ajouterTransaction(restauree);
+
+        Transaction relue = journal.getTransactions().get(1);
+        assertNotSame(restauree, relue, "La transaction devrait être recréée depuis les colonnes");
+        assertEquals(restauree, relue, "La transaction recréée devrait être égale à l'originale");
+        assertEquals(42L, relue.getId(), "L'identifiant devrait être conservé");
+        assertSame(boisson2, relue.getBoisson(), "La boisson devrait être la même instance");
+        assertEquals(LocalDateTime.of(2024, 3, 15, 10, 30, 0, 123_000_000), relue.getDateHeure(),
+                "La date devrait être conservée à la milliseconde");
+
+        Transaction echec = journal.getTransactions().get(0);
+        assertNull(echec.getBoisson(), "Une boisson inconnue devrait rester null");
+        assertEquals(MotifEchec.BOISSON_INCONNUE, echec.getMotifEchec(), "Le motif d'échec devrait être conservé");
+        assertFalse(echec.estReussie(), "La transaction devrait rester échouée");
+        assertEquals(Montant.deFcfa(500), echec.getMonnaieRendue(), "Le montant rendu devrait être conservé");
+        assertEquals(List.of(restauree), journal.getTransactionsParDate(LocalDate.of(2024, 3, 15)),
+                "La recherche par date devrait recréer la transaction du jour");
+    }
+
+    @Test
+    public void testPagination() {
+        for (int i = 0; i < 25; i++) {
+            journal.ajouterTransaction(new Transaction(i + 1L, boisson1, Montant.deFcfa(2.0), Montant.deFcfa(0.5),
+                    LocalDateTime.of(2024, 3, 15, 10, 0).plusMinutes(i), true));
+        }
+        PageVentes premiere = journal.getPage(FiltreVentes.tout(), PageVentes.DEBUT, 10);
+        assertEquals(10, premiere.getTransactions().size(), "La première page devrait contenir 10 ventes");
+        assertTrue(premiere.aUneSuite(), "Une page suivante devrait exister");
+
+        journal.ajouterTransaction(transaction2);
+        PageVentes deuxieme = journal.getPage(FiltreVentes.tout(), premiere.getCurseurSuivant(), 10);
+        assertEquals(11L, deuxieme.getTransactions().get(0).getId(), "La deuxième page devrait reprendre à la 11e vente");
+        PageVentes derniere = journal.getPage(FiltreVentes.tout(), deuxieme.getCurseurSuivant(), 10);
+        assertEquals(6, derniere.getTransactions().size(), "La dernière page devrait contenir les 6 ventes restantes");
+        assertFalse(derniere.aUneSuite(), "Aucune page ne devrait suivre la dernière");
+        assertEquals(PageVentes.FIN, derniere.getCurseurSuivant(), "Le curseur devrait marquer la fin");
+
+        assertThrows(IllegalArgumentException.class, () -> journal.getPage(FiltreVentes.tout(), PageVentes.FIN, 10),
+                "Un curseur négatif devrait être refusé");
+        assertThrows(IllegalArgumentException.class, () -> journal.getPage(FiltreVentes.tout(), PageVentes.DEBUT, 0),
+                "Une page vide devrait être refusée");
+    }
+
+    @Test
+    public void testFiltres() {
+        LocalDateTime matin = LocalDateTime.of(2024, 3, 15, 9, 0);
+        journal.ajouterTransaction(new Transaction(1L, boisson1, Montant.deFcfa(2.0), Montant.deFcfa(0.5), matin, true));
+        journal.ajouterTransaction(new Transaction(2L, boisson2, Montant.deFcfa(1.0), Montant.ZERO, matin, true));
+        journal.ajouterTransaction(new Transaction(3L, boisson1, Montant.deFcfa(1.0), Montant.deFcfa(1.0),
+                matin.plusHours(2), false));
+        journal.ajouterTransaction(new Transaction(4L, boisson1, Montant.deFcfa(2.0), Montant.deFcfa(0.5),
+                matin.plusDays(1), true));
+
+        assertEquals(List.of(1L, 3L, 4L), ids(FiltreVentes.tout().boisson(1)), "Filtre par boisson");
+        assertEquals(List.of(3L), ids(FiltreVentes.tout().echouees()), "Filtre par statut");
+        assertEquals(List.of(1L, 2L, 3L), ids(FiltreVentes.tout().entre(matin, matin.plusDays(1))),
+                "Filtre par intervalle, fin exclue");
+        assertEquals(List.of(1L), ids(FiltreVentes.tout().entre(matin, matin.plusDays(1)).boisson(1).reussies()),
+                "Les critères devraient se combiner");
+        assertTrue(ids(FiltreVentes.tout().boisson(9)).isEmpty(), "Aucune vente ne devrait correspondre");
+        assertThrows(IllegalArgumentException.class, () -> FiltreVentes.tout().entre(null, matin),
+                "Une borne null devrait être refusée");
+
+        PageVentes page = journal.getPage(FiltreVentes.tout().boisson(1), PageVentes.DEBUT, 2);
+        assertEquals(3L, page.getTransactions().get(1).getId(), "La page devrait sauter les autres boissons");
+        assertEquals(4L, journal.getPage(FiltreVentes.tout().boisson(1), page.getCurseurSuivant(), 2)
+                .getTransactions().get(0).getId(), "Le curseur devrait pointer la prochaine vente retenue");
+    }
+
+    @Test
+    public void testIterateur() {
+        journal.ajouterTransaction(transaction1);
+        Iterator<Transaction> iterateur = journal.iterer(FiltreVentes.tout());
+        journal.ajouterTransaction(transaction2);
+        assertTrue(iterateur.hasNext(), "L'itérateur devrait avoir une vente");
+        assertEquals(transaction1, iterateur.next(), "La vente devrait être la première enregistrée");
+        assertFalse(iterateur.hasNext(), "Les ventes ajoutées après l'appel ne devraient pas être parcourues");
+        assertThrows(NoSuchElementException.class, iterateur::next, "L'itérateur épuisé devrait lever une exception");
+    }
+
+    @Test
+    public void testVentesParBoisson() {
+        LocalDateTime matin = LocalDateTime.of(2024, 3, 15, 9, 15);
+        journal.ajouterTransaction(new Transaction(1, boisson1, Montant.deFcfa(2), Montant.deFcfa(0.5), matin, true));
+        journal.ajouterTransaction(new Transaction(2, boisson1, Montant.deFcfa(1.5), Montant.ZERO, matin.plusHours(8), true));
+        journal.ajouterTransaction(new Transaction(3, boisson1, Montant.deFcfa(1), Montant.deFcfa(1), matin, false));
+        journal.ajouterTransaction(new Transaction(4, boisson2, Montant.deFcfa(1), Montant.ZERO, matin.plusDays(1), true));
+
+        VentesBoisson coca = journal.getVentesBoisson(1);
+        assertEquals(2, coca.getNombreVentes(), "Seules les ventes réussies devraient être comptées");
+        assertEquals(Montant.deFcfa(3), coca.getChiffreAffaires(), "Le chiffre d'affaires de la boisson devrait être 3");
+        assertEquals(1, coca.getVentesHeure(9), "Une vente devrait être comptée à 9 h");
+        assertEquals(1, coca.getVentesHeure(17), "Une vente devrait être comptée à 17 h");
+        assertThrows(IllegalArgumentException.class, () -> coca.getVentesHeure(24), "L'heure 24 devrait être refusée");
+
+        assertEquals(0, journal.getVentesBoisson(9).getNombreVentes(), "Une boisson jamais vendue devrait être à zéro");
+        long[] parHeure = journal.getVentesParHeure();
+        assertEquals(24, parHeure.length, "L'histogramme devrait couvrir les 24 heures");
+        assertEquals(2, parHeure[9], "Les ventes de 9 h de tous les jours devraient être cumulées");
+        assertEquals(1, parHeure[17], "Une vente devrait être comptée à 17 h");
+    }
+
+    @Test
+    public void testMeilleuresVentes() {
+        LocalDateTime dateHeure = LocalDateTime.of(2024, 3, 15, 12, 0);
+        Boisson boisson3 = new Boisson(3, "Café", 0.5, 10);
+        int[] ventes = {1, 1, 2, 3, 3, 3, 2};
+        for (int i = 0; i < ventes.length; i++) {
+            Boisson boisson = ventes[i] == 1 ? boisson1 : ventes[i] == 2 ? boisson2 : boisson3;
+            journal.ajouterTransaction(new Transaction(i + 1, boisson, boisson.getPrix(), Montant.ZERO, dateHeure, true));
+        }
+
+        List<VentesBoisson> meilleures = journal.getMeilleuresVentes(2);
+        assertEquals(2, meilleures.size(), "Devrait retourner les 2 meilleures ventes");
+        assertEquals(3, meilleures.get(0).getIdBoisson(), "Le café devrait être la meilleure vente");
+        assertEquals(1, meilleures.get(1).getIdBoisson(),
+                "À unités égales, le plus grand chiffre d'affaires devrait passer devant");
+        assertEquals(3, journal.getMeilleuresVentes(10).size(), "Seules les boissons vendues devraient être classées");
+        assertTrue(journal.getMeilleuresVentes(0).isEmpty(), "Un classement vide devrait être retourné pour 0");
+
+        journal.ajouterTransaction(new Transaction(8, boisson2, boisson2.getPrix(), Montant.ZERO, dateHeure, true));
+        journal.ajouterTransaction(new Transaction(9, boisson2, boisson2.getPrix(), Montant.ZERO, dateHeure, true));
+        assertEquals(2, journal.getMeilleuresVentes(1).get(0).getIdBoisson(),
+                "Le classement devrait suivre les nouvelles ventes");
+    }
+
+    private List<Long> ids(FiltreVentes filtre) {
+        List<Long> ids = new java.util.ArrayList<>();
+        journal.iterer(filtre).forEachRemaining(transaction -> ids.add(transaction.getId()));
+        return ids;
+    }
+}
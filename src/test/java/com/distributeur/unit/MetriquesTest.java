@@ -0,0 +1,74 @@
+package com.distributeur.unit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.distributeur.Metriques;
+import com.distributeur.MotifEchec;
+
+/**
+ * Tests unitaires pour la classe Metriques.
+ */
+public class MetriquesTest {
+
+    private Metriques metriques;
+
+    @BeforeEach
+    public void setUp() {
+        metriques = new Metriques();
+    }
+
+    @Test
+    public void testMesureLatence() {
+        long debut = metriques.demarrer();
+        metriques.terminer(Metriques.Operation.RECHARGE, debut);
+        assertEquals(1, metriques.getLatence(Metriques.Operation.RECHARGE).getNombre(),
+                "Une latence de rechargement devrait être enregistrée");
+        assertEquals(0, metriques.getLatence(Metriques.Operation.ACHAT).getNombre(),
+                "Aucune latence d'achat ne devrait être enregistrée");
+    }
+
+    @Test
+    public void testDesactivation() {
+        metriques.setActive(false);
+        assertFalse(metriques.estActive(), "Les métriques devraient être désactivées");
+        assertEquals(0, metriques.demarrer(), "L'horloge ne devrait pas être lue");
+        metriques.terminer(Metriques.Operation.ACHAT, metriques.demarrer());
+        assertEquals(0, metriques.getLatence(Metriques.Operation.ACHAT).getNombre(),
+                "Aucune latence ne devrait être enregistrée");
+    }
+
+    @Test
+    public void testCompteurs() {
+        metriques.compterEchec(MotifEchec.MONTANT_INSUFFISANT);
+        metriques.compterEchec(MotifEchec.MONTANT_INSUFFISANT);
+        assertEquals(2, metriques.getNombreEchecs(MotifEchec.MONTANT_INSUFFISANT), "2 échecs devraient être comptés");
+        assertEquals(0, metriques.getNombreEchecs(MotifEchec.RUPTURE_STOCK), "Aucun échec ne devrait être compté");
+    }
+
+    @Test
+    public void testJauges() {
+        AtomicLong valeur = new AtomicLong(3);
+        metriques.enregistrerJauge("test", valeur::get);
+        assertEquals(3, metriques.getJauge("test"), "La jauge devrait retourner la valeur courante");
+        valeur.set(8);
+        assertEquals(8, metriques.getJauge("test"), "La jauge devrait être évaluée à chaque lecture");
+        assertThrows(IllegalArgumentException.class, () -> metriques.getJauge("absente"),
+                "Une jauge inconnue devrait être refusée");
+    }
+
+    @Test
+    public void testExporterTexte() {
+        metriques.compterEchec(MotifEchec.BOISSON_INCONNUE);
+        metriques.enregistrerJauge("caisse.centimes", () -> 1500);
+        String texte = metriques.exporterTexte();
+        assertTrue(texte.contains("achat.latence nombre=0"), "Le rapport devrait contenir chaque opération");
+        assertTrue(texte.contains("collecte.latence"), "Le rapport devrait contenir la collecte");
+        assertTrue(texte.contains("achat.echecs.boisson_inconnue 1"), "Le rapport devrait contenir les échecs");
+        assertTrue(texte.contains("caisse.centimes 1500"), "Le rapport devrait contenir les jauges");
+    }
+}
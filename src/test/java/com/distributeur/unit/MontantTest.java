@@ -0,0 +1,82 @@
+package com.distributeur.unit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.distributeur.Montant;
+
+/**
+ * Tests unitaires pour la classe Montant.
+ */
+public class MontantTest {
+
+    @Test
+    public void testDeFcfa() {
+        assertEquals(100000, Montant.deFcfa(1000).getCentimes(), "1000 FCFA devrait valoir 100000 centimes");
+        assertEquals(150, Montant.deFcfa(1.5).getCentimes(), "1.5 FCFA devrait valoir 150 centimes");
+        assertEquals(Montant.ZERO, Montant.deFcfa(0.0), "0 FCFA devrait être le montant nul");
+    }
+
+    @Test
+    public void testDeFcfaArrondiAuCentime() {
+        // 0.1 + 0.2 vaut 0.30000000000000004 en double
+        assertEquals(Montant.deFcfa(0.3), Montant.deFcfa(0.1 + 0.2), "La saisie devrait être arrondie au centime");
+    }
+
+    @Test
+    public void testDeFcfaNonFini() {
+        assertThrows(IllegalArgumentException.class, () -> Montant.deFcfa(Double.NaN),
+                "Devrait lancer une exception pour NaN");
+        assertThrows(IllegalArgumentException.class, () -> Montant.deFcfa(Double.POSITIVE_INFINITY),
+                "Devrait lancer une exception pour l'infini");
+    }
+
+    @Test
+    public void testArithmetiqueExacte() {
+        Montant total = Montant.ZERO;
+        for (int i = 0; i < 1_000_000; i++) {
+            total = total.plus(Montant.deFcfa(0.1));
+        }
+        assertEquals(Montant.deFcfa(100000), total, "Un million d'additions ne devrait accumuler aucune erreur");
+        assertEquals(Montant.deFcfa(0.5), Montant.deFcfa(2.0).moins(Montant.deFcfa(1.5)), "2 - 1.5 devrait valoir 0.5");
+        assertEquals(Montant.deFcfa(3900), Montant.deFcfa(1300).fois(3), "3 x 1300 devrait valoir 3900");
+    }
+
+    @Test
+    public void testDepassement() {
+        Montant maximum = Montant.deCentimes(Long.MAX_VALUE);
+        assertThrows(ArithmeticException.class, () -> maximum.plus(Montant.deCentimes(1)),
+                "Un dépassement de capacité devrait lever une exception");
+    }
+
+    @Test
+    public void testComparaisons() {
+        Montant petit = Montant.deFcfa(650);
+        Montant grand = Montant.deFcfa(1000);
+        assertTrue(petit.estInferieurA(grand), "650 devrait être inférieur à 1000");
+        assertFalse(grand.estInferieurA(petit), "1000 ne devrait pas être inférieur à 650");
+        assertFalse(petit.estInferieurA(petit), "Un montant ne devrait pas être inférieur à lui-même");
+        assertTrue(petit.compareTo(grand) < 0, "La comparaison devrait suivre l'ordre des montants");
+        assertTrue(Montant.deFcfa(-1).estNegatif(), "-1 devrait être négatif");
+        assertTrue(grand.estPositif(), "1000 devrait être positif");
+        assertFalse(Montant.ZERO.estPositif(), "0 ne devrait pas être positif");
+    }
+
+    @Test
+    public void testEgalite() {
+        assertEquals(Montant.deFcfa(1000), Montant.deCentimes(100000), "Les deux montants devraient être égaux");
+        assertEquals(Montant.deFcfa(1000).hashCode(), Montant.deCentimes(100000).hashCode(),
+                "Des montants égaux devraient avoir le même hashCode");
+        assertNotEquals(Montant.deFcfa(1000), Montant.deFcfa(1001), "Les deux montants devraient être différents");
+    }
+
+    @Test
+    public void testToString() {
+        assertEquals("1000", Montant.deFcfa(1000).toString(), "Un montant entier devrait s'afficher sans décimales");
+        assertEquals("1.5", Montant.deFcfa(1.5).toString(), "1.5 devrait s'afficher 1.5");
+        assertEquals("0.05", Montant.deCentimes(5).toString(), "5 centimes devraient s'afficher 0.05");
+        assertEquals("-2.5", Montant.deFcfa(-2.5).toString(), "-2.5 devrait s'afficher -2.5");
+        assertEquals("0", Montant.ZERO.toString(), "Le montant nul devrait s'afficher 0");
+    }
+}
@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import com.distributeur.Montant;
 import com.distributeur.Portefeuille;
 
 /**
@@ -23,29 +24,29 @@ public class PortefeuilleTest {
     @Test
     public void testConstructeurParDefaut() {
         Portefeuille p = new Portefeuille();
-        assertEquals(0.0, p.getSolde(), 0.001, "Le solde initial devrait être 0");
+        assertEquals(Montant.ZERO, p.getSolde(), "Le solde initial devrait être 0");
     }
 
     @Test
     public void testConstructeurAvecSoldeInitial() {
-        assertEquals(100.0, portefeuille.getSolde(), 0.001, "Le solde initial devrait être 100");
+        assertEquals(Montant.deFcfa(100.0), portefeuille.getSolde(), "Le solde initial devrait être 100");
     }
 
     @Test
     public void testConstructeurAvecSoldeInitialNegatif() {
         Portefeuille p = new Portefeuille(-50.0);
-        assertEquals(0.0, p.getSolde(), 0.001, "Le solde initial devrait être 0 si la valeur est négative");
+        assertEquals(Montant.ZERO, p.getSolde(), "Le solde initial devrait être 0 si la valeur est négative");
     }
 
     @Test
     public void testGetSolde() {
-        assertEquals(100.0, portefeuille.getSolde(), 0.001, "Le solde devrait être 100");
+        assertEquals(Montant.deFcfa(100.0), portefeuille.getSolde(), "Le solde devrait être 100");
     }
 
     @Test
     public void testAjouterFonds() {
         portefeuille.ajouterFonds(50.0);
-        assertEquals(150.0, portefeuille.getSolde(), 0.001, "Le solde devrait être 150");
+        assertEquals(Montant.deFcfa(150.0), portefeuille.getSolde(), "Le solde devrait être 150");
     }
 
     @Test
@@ -58,19 +59,19 @@ public class PortefeuilleTest {
     @Test
     public void testRetirerFonds() {
         assertTrue(portefeuille.retirerFonds(50.0), "Le retrait devrait réussir");
-        assertEquals(50.0, portefeuille.getSolde(), 0.001, "Le solde devrait être 50");
+        assertEquals(Montant.deFcfa(50.0), portefeuille.getSolde(), "Le solde devrait être 50");
     }
 
     @Test
     public void testRetirerFondsMontantEgalAuSolde() {
         assertTrue(portefeuille.retirerFonds(100.0), "Le retrait devrait réussir");
-        assertEquals(0.0, portefeuille.getSolde(), 0.001, "Le solde devrait être 0");
+        assertEquals(Montant.ZERO, portefeuille.getSolde(), "Le solde devrait être 0");
     }
 
     @Test
     public void testRetirerFondsMontantSuperieurAuSolde() {
         assertFalse(portefeuille.retirerFonds(150.0), "Le retrait devrait échouer");
-        assertEquals(100.0, portefeuille.getSolde(), 0.001, "Le solde ne devrait pas changer");
+        assertEquals(Montant.deFcfa(100.0), portefeuille.getSolde(), "Le solde ne devrait pas changer");
     }
 
     @Test
@@ -83,6 +84,12 @@ public class PortefeuilleTest {
     @Test
     public void testReinitialiser() {
         portefeuille.reinitialiser();
-        assertEquals(0.0, portefeuille.getSolde(), 0.001, "Le solde devrait être réinitialisé à 0");
+        assertEquals(Montant.ZERO, portefeuille.getSolde(), "Le solde devrait être réinitialisé à 0");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testVider() {
+        assertEquals(Montant.deFcfa(100.0), portefeuille.vider(), "Le montant vidé devrait être 100");
+        assertEquals(Montant.ZERO, portefeuille.getSolde(), "Le solde devrait être 0 après avoir été vidé");
+    }
+}
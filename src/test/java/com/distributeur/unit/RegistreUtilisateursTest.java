@@ -0,0 +1,211 @@
+package com.distributeur.unit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.distributeur.Montant;
+import com.distributeur.RegistreUtilisateurs;
+import com.distributeur.Utilisateur;
+
+/**
+ * Tests unitaires pour la classe RegistreUtilisateurs.
+ */
+public class RegistreUtilisateursTest {
+
+    @TempDir
+    Path dossier;
+
+    @Test
+    public void testInscrireEtSolde() {
+        RegistreUtilisateurs registre = new RegistreUtilisateurs();
+        assertTrue(registre.inscrire(1, Montant.deFcfa(1000)), "L'inscription devrait réussir");
+        assertFalse(registre.inscrire(1, Montant.deFcfa(50)), "Une seconde inscription devrait être ignorée");
+        assertTrue(registre.inscrire(-5, Montant.ZERO), "Un identifiant négatif devrait être accepté");
+        assertEquals(2, registre.getNombreUtilisateurs(), "Deux utilisateurs devraient être inscrits");
+        assertEquals(Montant.deFcfa(1000), registre.getSolde(1), "Le solde initial devrait être conservé");
+        assertTrue(registre.contient(-5), "L'utilisateur -5 devrait être inscrit");
+        assertFalse(registre.contient(2), "L'utilisateur 2 ne devrait pas être inscrit");
+        assertThrows(IllegalArgumentException.class, () -> registre.getSolde(2),
+                "Un utilisateur inconnu devrait être refusé");
+        assertThrows(IllegalArgumentException.class, () -> registre.inscrire(3, Montant.deFcfa(-1)),
+                "Un solde initial négatif devrait être refusé");
+    }
+
+    @Test
+    public void testInscrireUtilisateur() {
+        RegistreUtilisateurs registre = new RegistreUtilisateurs();
+        Utilisateur utilisateur = new Utilisateur(42, "Awa", 750.0);
+        assertTrue(registre.inscrire(utilisateur), "L'inscription devrait réussir");
+        assertEquals(Montant.deFcfa(750), registre.getSolde(42), "Le solde devrait être transféré au registre");
+        assertEquals(Montant.ZERO, utilisateur.getSolde(), "Le portefeuille devrait être vidé");
+
+        utilisateur.ajouterFonds(100.0);
+        assertFalse(registre.inscrire(utilisateur), "Une seconde inscription devrait être ignorée");
+        assertEquals(Montant.deFcfa(100), utilisateur.getSolde(), "Le portefeuille ne devrait pas être touché");
+        assertThrows(IllegalArgumentException.class, () -> registre.inscrire(null),
+                "Un utilisateur null devrait être refusé");
+    }
+
+    @Test
+    public void testAjouterEtRetirerFonds() {
+        RegistreUtilisateurs registre = new RegistreUtilisateurs();
+        registre.inscrire(1, Montant.ZERO);
+        registre.ajouterFonds(1, Montant.deFcfa(500.5));
+        assertTrue(registre.retirerFonds(1, Montant.deFcfa(200)), "Le retrait devrait réussir");
+        assertFalse(registre.retirerFonds(1, Montant.deFcfa(400)), "Le solde ne couvre pas le retrait");
+        assertEquals(Montant.deFcfa(300.5), registre.getSolde(1), "Le solde devrait être 300.5");
+        assertThrows(IllegalArgumentException.class, () -> registre.ajouterFonds(1, Montant.deFcfa(-1)),
+                "Un montant négatif devrait être refusé");
+        assertThrows(IllegalArgumentException.class, () -> registre.retirerFonds(2, Montant.deFcfa(1)),
+                "Un utilisateur inconnu devrait être refusé");
+    }
+
+    @Test
+    public void testAgrandissement() {
+        RegistreUtilisateurs registre = new RegistreUtilisateurs(0);
+        int nombre = 20_000;
+        for (int i = 0; i < nombre; i++) {
+            registre.inscrire(i * 31, Montant.deCentimes(i));
+        }
+        assertEquals(nombre, registre.getNombreUtilisateurs(), "Tous les utilisateurs devraient être inscrits");
+        for (int i = 0; i < nombre; i++) {
+            assertEquals(Montant.deCentimes(i), registre.getSolde(i * 31), "Le solde de " + i * 31 + " est incorrect");
+        }
+        assertFalse(registre.contient(1), "L'utilisateur 1 ne devrait pas être inscrit");
+        assertThrows(IllegalArgumentException.class, () -> new RegistreUtilisateurs(-1),
+                "Une capacité négative devrait être refusée");
+    }
+
+    @Test
+    public void testRecharger() {
+        RegistreUtilisateurs registre = new RegistreUtilisateurs();
+        registre.inscrire(1, Montant.deFcfa(100));
+        registre.recharger(new int[] {1, 2, 1}, new long[] {1000, 2500, 50});
+        assertEquals(Montant.deCentimes(11_050), registre.getSolde(1), "Les deux recharges devraient s'ajouter");
+        assertEquals(Montant.deCentimes(2500), registre.getSolde(2), "L'utilisateur 2 devrait être inscrit et rechargé");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> registre.recharger(new int[] {3, 1}, new long[] {100, -1}),
+                "Un montant négatif devrait être refusé");
+        assertFalse(registre.contient(3), "Un lot refusé ne devrait rien appliquer");
+        assertThrows(IllegalArgumentException.class, () -> registre.recharger(new int[] {1}, new long[0]),
+                "Des tableaux de longueurs différentes devraient être refusés");
+    }
+
+    @Test
+    public void testRechargerDepassementCapacite() throws IOException {
+        RegistreUtilisateurs registre = new RegistreUtilisateurs();
+        Montant presquePlein = Montant.deCentimes(Long.MAX_VALUE - 150);
+        registre.inscrire(1, presquePlein);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> registre.recharger(new int[] {2, 1, 1}, new long[] {500, 100, 60}),
+                "Des recharges cumulées dépassant la capacité devraient être refusées");
+        assertFalse(registre.contient(2), "Un lot refusé ne devrait inscrire personne");
+        assertEquals(presquePlein, registre.getSolde(1), "Un lot refusé ne devrait rien créditer");
+
+        assertThrows(IllegalArgumentException.class, () -> registre.importerRecharges(canal("2,5\n1,1\n1,0.6")),
+                "Un import dépassant la capacité devrait être refusé avant toute recharge");
+        assertFalse(registre.contient(2), "Un import refusé ne devrait inscrire personne");
+        assertEquals(presquePlein, registre.getSolde(1), "Un import refusé ne devrait rien créditer");
+
+        registre.recharger(new int[] {1, 1}, new long[] {100, 50});
+        assertEquals(Montant.deCentimes(Long.MAX_VALUE), registre.getSolde(1),
+                "Des recharges atteignant exactement la capacité devraient être appliquées");
+    }
+
+    @Test
+    public void testImporterRecharges() throws IOException {
+        RegistreUtilisateurs registre = new RegistreUtilisateurs();
+        registre.inscrire(1, Montant.deFcfa(100));
+        Path fichier = dossier.resolve("recharges.csv");
+        String csv = RegistreUtilisateurs.EN_TETE_CSV + "\n1,1500\r\n\n-2,0.05\n1,250.5";
+        Files.write(fichier, csv.getBytes(StandardCharsets.US_ASCII));
+
+        assertEquals(3, registre.importerRecharges(fichier), "Trois recharges devraient être importées");
+        assertEquals(Montant.deFcfa(1850.5), registre.getSolde(1), "Le solde de 1 devrait être rechargé deux fois");
+        assertEquals(Montant.deCentimes(5), registre.getSolde(-2), "L'utilisateur -2 devrait être inscrit et rechargé");
+    }
+
+    @Test
+    public void testImporterRechargesInvalides() throws IOException {
+        String[] invalides = {"1;100", "1,-100", "abc,100", "1,100.505", "1,", "99999999999,1", "1,1000000000000000"};
+        for (String ligne : invalides) {
+            RegistreUtilisateurs registre = new RegistreUtilisateurs();
+            IOException exception = assertThrows(IOException.class,
+                    () -> registre.importerRecharges(canal("5,10\n" + ligne)),
+                    "La ligne \"" + ligne + "\" devrait être refusée");
+            assertTrue(exception.getMessage().contains("Ligne 2"), "Le numéro de ligne devrait être signalé");
+            assertEquals(0, registre.getNombreUtilisateurs(), "Un import refusé ne devrait rien appliquer");
+        }
+    }
+
+    @Test
+    public void testImporterGrandVolume() throws IOException {
+        RegistreUtilisateurs registre = new RegistreUtilisateurs();
+        StringBuilder csv = new StringBuilder();
+        int nombre = 50_000;
+        for (int i = 0; i < nombre; i++) {
+            csv.append(i).append(",1.25\n");
+        }
+        assertEquals(nombre, registre.importerRecharges(canal(csv.toString())),
+                "Toutes les recharges devraient être importées");
+        assertEquals(nombre, registre.getNombreUtilisateurs(), "Chaque ligne devrait inscrire un utilisateur");
+        assertEquals(Montant.deCentimes(125), registre.getSolde(nombre - 1),
+                "Le dernier utilisateur devrait être rechargé");
+    }
+
+    @Test
+    public void testOperationsConcurrentes() throws Exception {
+        RegistreUtilisateurs registre = new RegistreUtilisateurs(0);
+        registre.inscrire(0, Montant.ZERO);
+        int threads = 4;
+        int operations = 10_000;
+        ExecutorService executeur = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> taches = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int premier = 1 + t * operations;
+                taches.add(executeur.submit(() -> {
+                    for (int i = 0; i < operations; i++) {
+                        // Les inscriptions agrandissent la table pendant les crédits du compte 0
+                        registre.inscrire(premier + i, Montant.ZERO);
+                        registre.ajouterFonds(0, Montant.deCentimes(2));
+                        assertTrue(registre.retirerFonds(0, Montant.deCentimes(1)),
+                                "Le solde devrait couvrir le retrait");
+                    }
+                }));
+            }
+            for (Future<?> tache : taches) {
+                tache.get();
+            }
+        } finally {
+            executeur.shutdown();
+            executeur.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        assertEquals(Montant.deCentimes((long) threads * operations), registre.getSolde(0),
+                "Aucune mise à jour ne devrait être perdue");
+        assertEquals(threads * operations + 1, registre.getNombreUtilisateurs(),
+                "Chaque inscription devrait être comptée");
+    }
+
+    private static ReadableByteChannel canal(String contenu) {
+        return Channels.newChannel(new ByteArrayInputStream(contenu.getBytes(StandardCharsets.US_ASCII)));
+    }
+}
@@ -0,0 +1,158 @@
+package com.distributeur.unit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.distributeur.Boisson;
+import com.distributeur.Coupure;
+import com.distributeur.Distributeur;
+import com.distributeur.Montant;
+import com.distributeur.RenduMonnaie;
+import com.distributeur.StockMonnaie;
+
+/**
+ * Tests unitaires pour la classe StockMonnaie.
+ */
+public class StockMonnaieTest {
+
+    private StockMonnaie stock;
+
+    @BeforeEach
+    public void setUp() {
+        stock = new StockMonnaie();
+    }
+
+    @Test
+    public void testStockInitial() {
+        assertEquals(Montant.ZERO, stock.getTotal(), "Le stock devrait être vide initialement");
+        assertSame(RenduMonnaie.AUCUN, stock.calculerRendu(Montant.ZERO), "Un montant nul ne demande aucune pièce");
+        assertNull(stock.calculerRendu(Montant.deFcfa(100)), "Un stock vide ne peut rien rendre");
+    }
+
+    @Test
+    public void testAjouter() {
+        stock.ajouter(Coupure.PIECE_100, 10);
+        stock.ajouter(Coupure.BILLET_1000, 2);
+        assertEquals(10, stock.getQuantite(Coupure.PIECE_100), "Devrait contenir 10 pièces de 100");
+        assertEquals(Montant.deFcfa(3000), stock.getTotal(), "Le stock devrait valoir 3000 FCFA");
+        assertThrows(IllegalArgumentException.class, () -> stock.ajouter(Coupure.PIECE_5, -1),
+                "Une quantité négative devrait être refusée");
+        assertThrows(IllegalArgumentException.class, () -> stock.ajouter(null, 1),
+                "Une coupure null devrait être refusée");
+    }
+
+    @Test
+    public void testRenduGlouton() {
+        stock.ajouter(Coupure.PIECE_500, 5);
+        stock.ajouter(Coupure.PIECE_100, 5);
+        stock.ajouter(Coupure.PIECE_50, 5);
+        RenduMonnaie rendu = stock.calculerRendu(Montant.deFcfa(650));
+        assertEquals(1, rendu.getQuantite(Coupure.PIECE_500), "Devrait rendre une pièce de 500");
+        assertEquals(1, rendu.getQuantite(Coupure.PIECE_100), "Devrait rendre une pièce de 100");
+        assertEquals(1, rendu.getQuantite(Coupure.PIECE_50), "Devrait rendre une pièce de 50");
+        assertEquals(Montant.deFcfa(650), rendu.getMontant(), "Le rendu devrait être exact");
+        assertEquals(5, stock.getQuantite(Coupure.PIECE_500), "Le calcul ne devrait pas toucher au stock");
+    }
+
+    @Test
+    public void testRenduAvecStockLimite() {
+        // Le glouton prend la pièce de 250 et ne peut plus rendre 150 : la programmation dynamique prend le relais
+        stock.ajouter(Coupure.PIECE_250, 1);
+        stock.ajouter(Coupure.PIECE_200, 2);
+        RenduMonnaie rendu = stock.calculerRendu(Montant.deFcfa(400));
+        assertNotNull(rendu, "Le montant devrait pouvoir être rendu");
+        assertEquals(2, rendu.getQuantite(Coupure.PIECE_200), "Devrait rendre deux pièces de 200");
+        assertEquals(0, rendu.getQuantite(Coupure.PIECE_250), "Ne devrait pas rendre la pièce de 250");
+
+        stock.ajouter(Coupure.PIECE_50, 3);
+        stock.ajouter(Coupure.PIECE_10, 10);
+        rendu = stock.calculerRendu(Montant.deFcfa(390));
+        assertEquals(Montant.deFcfa(390), rendu.getMontant(), "Le rendu devrait être exact");
+        assertEquals(7, rendu.getNombreCoupures(), "Devrait rendre 250 + 50 x 2 + 10 x 4");
+    }
+
+    @Test
+    public void testRenduImpossible() {
+        stock.ajouter(Coupure.PIECE_200, 3);
+        assertNull(stock.calculerRendu(Montant.deFcfa(300)), "300 ne peut pas être rendu avec des pièces de 200");
+        assertNull(stock.calculerRendu(Montant.deFcfa(800)), "800 dépasse le stock");
+        assertNull(stock.calculerRendu(Montant.deFcfa(0.5)), "Une fraction de FCFA ne peut pas être rendue");
+        assertThrows(IllegalArgumentException.class, () -> stock.calculerRendu(Montant.deFcfa(-1)),
+                "Un montant négatif devrait être refusé");
+    }
+
+    @Test
+    public void testCacheInvalideParAjout() {
+        stock.ajouter(Coupure.PIECE_200, 1);
+        assertNull(stock.calculerRendu(Montant.deFcfa(300)), "300 ne devrait pas pouvoir être rendu");
+        stock.ajouter(Coupure.PIECE_100, 1);
+        assertNotNull(stock.calculerRendu(Montant.deFcfa(300)), "Un ajout devrait rendre 300 possible");
+    }
+
+    @Test
+    public void testCacheConserveApresVente() {
+        // 400 demande la programmation dynamique : le glouton prend la pièce de 250
+        stock.ajouter(Coupure.PIECE_250, 1);
+        stock.ajouter(Coupure.PIECE_200, 6);
+        Distributeur distributeur = new Distributeur();
+        distributeur.ajouterBoisson(new Boisson(1, "Café", 500, 10));
+        distributeur.activerRenduMonnaie(stock);
+
+        RenduMonnaie premier = distributeur.acheterBoisson(1, Montant.deFcfa(900)).getRenduMonnaie();
+        assertEquals(2, premier.getQuantite(Coupure.PIECE_200), "400 devraient être rendus en deux pièces de 200");
+        assertSame(premier, distributeur.acheterBoisson(1, Montant.deFcfa(900)).getRenduMonnaie(),
+                "Un rendu encore contenu dans le stock devrait être repris du cache après une vente");
+        assertSame(premier, stock.calculerRendu(Montant.deFcfa(400)), "Le rendu devrait rester en cache");
+        assertEquals(2, stock.getQuantite(Coupure.PIECE_200), "Chaque vente devrait retirer ses pièces");
+
+        distributeur.acheterBoisson(1, Montant.deFcfa(900));
+        assertNull(stock.calculerRendu(Montant.deFcfa(400)),
+                "Un rendu que le stock ne contient plus devrait être oublié et recalculé");
+        assertEquals(1, stock.getQuantite(Coupure.PIECE_250), "La pièce de 250 ne devrait jamais être rendue");
+    }
+
+    @Test
+    public void testRenduTrouveDesQuIlExiste() {
+        Coupure[] coupures = {Coupure.PIECE_50, Coupure.PIECE_100, Coupure.PIECE_200, Coupure.PIECE_250, Coupure.PIECE_500};
+        Random aleatoire = new Random(42);
+        for (int essai = 0; essai < 200; essai++) {
+            StockMonnaie stockAleatoire = new StockMonnaie();
+            int[] quantites = new int[coupures.length];
+            for (int i = 0; i < coupures.length; i++) {
+                quantites[i] = aleatoire.nextInt(4);
+                stockAleatoire.ajouter(coupures[i], quantites[i]);
+            }
+            for (int fcfa = 50; fcfa <= 1500; fcfa += 50) {
+                RenduMonnaie rendu = stockAleatoire.calculerRendu(Montant.deFcfa(fcfa));
+                assertEquals(existe(coupures, quantites, 0, fcfa), rendu != null,
+                        "Le rendu de " + fcfa + " devrait être trouvé si et seulement s'il existe");
+                if (rendu != null) {
+                    assertEquals(Montant.deFcfa(fcfa), rendu.getMontant(), "Le rendu devrait être exact");
+                    for (int i = 0; i < coupures.length; i++) {
+                        assertTrue(rendu.getQuantite(coupures[i]) <= quantites[i], "Le rendu devrait respecter le stock");
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean existe(Coupure[] coupures, int[] quantites, int i, long reste) {
+        if (reste == 0) {
+            return true;
+        }
+        if (i == coupures.length) {
+            return false;
+        }
+        long valeur = coupures[i].getValeur().getCentimes() / Montant.CENTIMES_PAR_FCFA;
+        for (int k = 0; k <= quantites[i] && k * valeur <= reste; k++) {
+            if (existe(coupures, quantites, i + 1, reste - k * valeur)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
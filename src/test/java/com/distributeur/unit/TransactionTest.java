@@ -8,6 +8,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import com.distributeur.Boisson;
+import com.distributeur.Montant;
 import com.distributeur.Transaction;
 
 /**
@@ -31,8 +32,8 @@ public class TransactionTest {
     public void testConstructeur() {
         assertNotNull(transactionReussie, "La transaction ne devrait pas être null");
         assertEquals(boisson, transactionReussie.getBoisson(), "La boisson devrait être correcte");
-        assertEquals(1500, transactionReussie.getMontantInsere(), 0.001, "Le montant inséré devrait être 1500");
-        assertEquals(500, transactionReussie.getMonnaieRendue(), 0.001, "La monnaie rendue devrait être 500");
+        assertEquals(Montant.deFcfa(1500), transactionReussie.getMontantInsere(), "Le montant inséré devrait être 1500");
+        assertEquals(Montant.deFcfa(500), transactionReussie.getMonnaieRendue(), "La monnaie rendue devrait être 500");
         assertTrue(transactionReussie.estReussie(), "La transaction devrait être réussie");
     }
 
@@ -49,14 +50,14 @@ public class TransactionTest {
 
     @Test
     public void testGetMontantInsere() {
-        assertEquals(1500, transactionReussie.getMontantInsere(), 0.001, "Le montant inséré devrait être 1500");
-        assertEquals(650, transactionEchouee.getMontantInsere(), 0.001, "Le montant inséré devrait être 650");
+        assertEquals(Montant.deFcfa(1500), transactionReussie.getMontantInsere(), "Le montant inséré devrait être 1500");
+        assertEquals(Montant.deFcfa(650), transactionEchouee.getMontantInsere(), "Le montant inséré devrait être 650");
     }
 
     @Test
     public void testGetMonnaieRendue() {
-        assertEquals(500, transactionReussie.getMonnaieRendue(), 0.001, "La monnaie rendue devrait être 500");
-        assertEquals(650, transactionEchouee.getMonnaieRendue(), 0.001, "La monnaie rendue devrait être 650");
+        assertEquals(Montant.deFcfa(500), transactionReussie.getMonnaieRendue(), "La monnaie rendue devrait être 500");
+        assertEquals(Montant.deFcfa(650), transactionEchouee.getMonnaieRendue(), "La monnaie rendue devrait être 650");
     }
 
     @Test
@@ -94,4 +95,18 @@ public class TransactionTest {
         assertNull(transaction.getBoisson(), "La boisson devrait être null");
         assertFalse(transaction.estReussie(), "La transaction ne devrait pas être réussie");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testEgalite() {
+        LocalDateTime dateHeure = LocalDateTime.of(2024, 3, 15, 10, 30, 0, 123_456_789);
+        Transaction transaction = new Transaction(7L, boisson, Montant.deFcfa(1500), Montant.deFcfa(500), dateHeure, true);
+        Transaction copie = new Transaction(7L, boisson, Montant.deFcfa(1500), Montant.deFcfa(500),
+                dateHeure.withNano(123_000_000), true);
+        assertEquals(dateHeure.withNano(123_000_000), transaction.getDateHeure(),
+                "La date devrait être tronquée à la milliseconde");
+        assertEquals(transaction, copie, "Deux transactions aux champs identiques devraient être égales");
+        assertEquals(transaction.hashCode(), copie.hashCode(), "Les codes de hachage devraient être égaux");
+        assertNotEquals(transaction, new Transaction(8L, boisson, Montant.deFcfa(1500), Montant.deFcfa(500),
+                dateHeure, true), "Deux identifiants différents devraient distinguer les transactions");
+    }
+}
@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import com.distributeur.Montant;
 import com.distributeur.Portefeuille;
 import com.distributeur.Utilisateur;
 
@@ -27,14 +28,14 @@ public class UtilisateurTest {
     public void testConstructeur() {
         assertEquals(1, utilisateur.getId(), "L'ID devrait être 1");
         assertEquals("John Doe", utilisateur.getNom(), "Le nom devrait être 'John Doe'");
-        assertEquals(0.0, utilisateur.getSolde(), 0.001, "Le solde initial devrait être 0");
+        assertEquals(Montant.ZERO, utilisateur.getSolde(), "Le solde initial devrait être 0");
     }
 
     @Test
     public void testConstructeurAvecSolde() {
         assertEquals(2, utilisateurAvecSolde.getId(), "L'ID devrait être 2");
         assertEquals("Jane Doe", utilisateurAvecSolde.getNom(), "Le nom devrait être 'Jane Doe'");
-        assertEquals(30000, utilisateurAvecSolde.getSolde(), 0.001, "Le solde initial devrait être 30000");
+        assertEquals(Montant.deFcfa(30000), utilisateurAvecSolde.getSolde(), "Le solde initial devrait être 30000");
     }
 
     @Test
@@ -51,22 +52,22 @@ public class UtilisateurTest {
     public void testGetPortefeuille() {
         Portefeuille portefeuille = utilisateur.getPortefeuille();
         assertNotNull(portefeuille, "Le portefeuille ne devrait pas être null");
-        assertEquals(0.0, portefeuille.getSolde(), 0.001, "Le solde du portefeuille devrait être 0");
+        assertEquals(Montant.ZERO, portefeuille.getSolde(), "Le solde du portefeuille devrait être 0");
     }
 
     @Test
     public void testGetSolde() {
-        assertEquals(0.0, utilisateur.getSolde(), 0.001, "Le solde devrait être 0");
-        assertEquals(30000, utilisateurAvecSolde.getSolde(), 0.001, "Le solde devrait être 30000");
+        assertEquals(Montant.ZERO, utilisateur.getSolde(), "Le solde devrait être 0");
+        assertEquals(Montant.deFcfa(30000), utilisateurAvecSolde.getSolde(), "Le solde devrait être 30000");
     }
 
     @Test
     public void testAjouterFonds() {
         utilisateur.ajouterFonds(15000);
-        assertEquals(15000, utilisateur.getSolde(), 0.001, "Le solde devrait être 15000");
+        assertEquals(Montant.deFcfa(15000), utilisateur.getSolde(), "Le solde devrait être 15000");
         
         utilisateurAvecSolde.ajouterFonds(20000);
-        assertEquals(50000, utilisateurAvecSolde.getSolde(), 0.001, "Le solde devrait être 50000");
+        assertEquals(Montant.deFcfa(50000), utilisateurAvecSolde.getSolde(), "Le solde devrait être 50000");
     }
 
     @Test
@@ -80,11 +81,11 @@ public class UtilisateurTest {
     public void testRetirerFonds() {
         // L'utilisateur n'a pas assez de fonds
         assertFalse(utilisateur.retirerFonds(15000), "Le retrait devrait échouer");
-        assertEquals(0.0, utilisateur.getSolde(), 0.001, "Le solde ne devrait pas changer");
+        assertEquals(Montant.ZERO, utilisateur.getSolde(), "Le solde ne devrait pas changer");
         
         // L'utilisateur avec solde a assez de fonds
         assertTrue(utilisateurAvecSolde.retirerFonds(15000), "Le retrait devrait réussir");
-        assertEquals(15000, utilisateurAvecSolde.getSolde(), 0.001, "Le solde devrait être 15000");
+        assertEquals(Montant.deFcfa(15000), utilisateurAvecSolde.getSolde(), "Le solde devrait être 15000");
     }
 
     @Test
@@ -96,10 +97,10 @@ public class UtilisateurTest {
 
     @Test
     public void testToString() {
-        String expected = "Utilisateur #1 - John Doe (Solde: 0.0 FCFA)";
+        String expected = "Utilisateur #1 - John Doe (Solde: 0 FCFA)";
         assertEquals(expected, utilisateur.toString(), "La représentation en chaîne devrait être correcte");
         
-        String expectedWithBalance = "Utilisateur #2 - Jane Doe (Solde: 30000.0 FCFA)";
+        String expectedWithBalance = "Utilisateur #2 - Jane Doe (Solde: 30000 FCFA)";
         assertEquals(expectedWithBalance, utilisateurAvecSolde.toString(), "La représentation en chaîne devrait être correcte");
     }
 }
\ No newline at end of file